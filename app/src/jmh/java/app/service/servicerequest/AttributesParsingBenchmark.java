@@ -0,0 +1,102 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.servicedefinition.AttributeValueDTO;
+import app.dto.servicedefinition.ServiceDefinitionAttributeDTO;
+import app.model.service.AttributeDataType;
+import app.model.servicerequest.ServiceRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting a page of service requests with a new ObjectMapper per row (the previous behaviour)
+ * against the shared reader and the per-request attribute cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AttributesParsingBenchmark {
+
+    @Param({"100", "1000"})
+    int pageSize;
+
+    private List<ServiceRequest> page;
+    private ServiceRequestAttributesParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parser = new ServiceRequestAttributesParser(10_000);
+        page = new ArrayList<>(pageSize);
+        Instant now = Instant.now();
+        for (long id = 1; id <= pageSize; id++) {
+            ServiceRequest serviceRequest = new ServiceRequest();
+            serviceRequest.setId(id);
+            serviceRequest.setDateUpdated(now);
+            serviceRequest.setAttributesJson(parser.write(sampleAttributes(id)));
+            page.add(serviceRequest);
+        }
+    }
+
+    @Benchmark
+    public void newObjectMapperPerRow(Blackhole blackhole) throws JsonProcessingException {
+        for (ServiceRequest serviceRequest : page) {
+            ObjectMapper objectMapper = new ObjectMapper();
+            blackhole.consume(List.of(objectMapper.readValue(serviceRequest.getAttributesJson(), ServiceDefinitionAttributeDTO[].class)));
+        }
+    }
+
+    @Benchmark
+    public void sharedReader(Blackhole blackhole) {
+        for (ServiceRequest serviceRequest : page) {
+            blackhole.consume(parser.parse(serviceRequest.getAttributesJson()));
+        }
+    }
+
+    @Benchmark
+    public void sharedReaderWithCache(Blackhole blackhole) {
+        for (ServiceRequest serviceRequest : page) {
+            blackhole.consume(parser.getAttributes(serviceRequest));
+        }
+    }
+
+    private static List<ServiceDefinitionAttributeDTO> sampleAttributes(long seed) {
+        List<ServiceDefinitionAttributeDTO> attributes = new ArrayList<>();
+        for (long code = 1; code <= 4; code++) {
+            ServiceDefinitionAttributeDTO attribute = new ServiceDefinitionAttributeDTO(code, true,
+                    AttributeDataType.MULTIVALUELIST, code == 1, "Attribute " + code, (int) code, "Pick any that apply");
+            attribute.setValues(List.of(
+                    new AttributeValueDTO(String.valueOf(seed * 10 + code), "Value " + code),
+                    new AttributeValueDTO(String.valueOf(seed * 10 + code + 1), "Value " + (code + 1))));
+            attributes.add(attribute);
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,158 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.service.servicerequest;
+
+import app.model.service.AttributeDataType;
+import app.model.servicedefinition.AttributeValue;
+import app.model.servicedefinition.ServiceDefinitionAttribute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares validating one submission against a service definition by scanning the attribute and value lists (the
+ * previous behaviour) with the compiled {@link ServiceDefinitionValidator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceDefinitionValidationBenchmark {
+
+    @Param({"50", "200"})
+    int attributeCount;
+
+    @Param({"20", "500"})
+    int valuesPerAttribute;
+
+    private List<ServiceDefinitionAttribute> definition;
+    private ServiceDefinitionValidator validator;
+    private Map<String, String> submission;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        definition = new ArrayList<>(attributeCount);
+        submission = new LinkedHashMap<>();
+        long valueId = 1;
+        for (long code = 1; code <= attributeCount; code++) {
+            ServiceDefinitionAttribute attribute = new ServiceDefinitionAttribute();
+            attribute.setId(code);
+            attribute.setAttributeOrder((int) code);
+            attribute.setRequired(code % 3 == 0);
+            attribute.setDescription("Attribute " + code);
+
+            switch ((int) (code % 4)) {
+                case 0 -> {
+                    attribute.setDatatype(AttributeDataType.NUMBER);
+                    submission.put("attribute[" + code + "]", String.valueOf(code * 7));
+                }
+                case 1 -> {
+                    attribute.setDatatype(AttributeDataType.DATETIME);
+                    submission.put("attribute[" + code + "]", "2024-06-01T12:00:00Z");
+                }
+                default -> {
+                    attribute.setDatatype(code % 4 == 2 ? AttributeDataType.SINGLEVALUELIST : AttributeDataType.MULTIVALUELIST);
+                    Set<AttributeValue> values = new LinkedHashSet<>();
+                    for (int i = 0; i < valuesPerAttribute; i++) {
+                        AttributeValue value = new AttributeValue(attribute, "Value " + i);
+                        value.setId(valueId++);
+                        values.add(value);
+                    }
+                    attribute.setAttributeValues(values);
+                    // pick keys from the end of the list, the worst case for a linear scan
+                    long lastId = valueId - 1;
+                    submission.put("attribute[" + code + "]", attribute.getDatatype() == AttributeDataType.MULTIVALUELIST
+                            ? (lastId - 1) + "," + lastId
+                            : String.valueOf(lastId));
+                }
+            }
+            definition.add(attribute);
+        }
+        validator = ServiceDefinitionValidator.compile(definition);
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        List<Long> requestCodes = new ArrayList<>();
+        submission.forEach((k, v) -> {
+            Long attributeCode = Long.parseLong(k.substring(k.indexOf("[") + 1, k.indexOf("]")));
+            Optional<ServiceDefinitionAttribute> sda = definition.stream()
+                    .filter(a -> a.getId().equals(attributeCode))
+                    .findFirst();
+            if (sda.isEmpty() || !validValueType(v, sda.get().getDatatype())) return;
+
+            Set<AttributeValue> attributeValues = sda.get().getAttributeValues();
+            if (attributeValues != null) {
+                for (String key : v.split(",")) {
+                    blackhole.consume(attributeValues.stream()
+                            .filter(attributeValue -> attributeValue.getId().toString().equals(key))
+                            .findFirst()
+                            .map(AttributeValue::getValueName));
+                }
+            }
+            requestCodes.add(attributeCode);
+        });
+        List<Long> requiredCodes = definition.stream()
+                .filter(ServiceDefinitionAttribute::isRequired)
+                .map(ServiceDefinitionAttribute::getId)
+                .toList();
+        blackhole.consume(requestCodes.containsAll(requiredCodes));
+    }
+
+    @Benchmark
+    public void compiledValidator(Blackhole blackhole) {
+        blackhole.consume(validator.validate(submission, List.of()));
+    }
+
+    @Benchmark
+    public void compileAndValidate(Blackhole blackhole) {
+        blackhole.consume(ServiceDefinitionValidator.compile(definition).validate(submission, List.of()));
+    }
+
+    private static boolean validValueType(String value, AttributeDataType datatype) {
+        if (datatype == AttributeDataType.NUMBER) {
+            try {
+                Integer.parseInt(value);
+            } catch (NumberFormatException nfe) {
+                return false;
+            }
+        } else if (datatype == AttributeDataType.DATETIME) {
+            try {
+                Instant.parse(value);
+            } catch (DateTimeParseException dtpe) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
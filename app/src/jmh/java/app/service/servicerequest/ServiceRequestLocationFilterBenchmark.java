@@ -0,0 +1,193 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares answering "requests in this map area" by fetching the whole jurisdiction and filtering in the client
+ * (the previous behaviour) with the bbox and radius predicates of {@link ServiceRequestLocationFilter}, with and
+ * without the spatial index on location.
+ * <p>
+ * Needs a scratch MySQL 8 database, e.g.
+ * {@code LIBRE311_BENCHMARK_JDBC_URL=jdbc:mysql://localhost:3306/bench?user=root&password=root
+ * ./gradlew :app:jmh -PjmhIncludes=ServiceRequestLocationFilter}. The first run seeds
+ * {@code benchmark_service_requests} with {@link #rows} requests spread over a 0.5 degree square, which takes a few
+ * minutes; later runs reuse the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ServiceRequestLocationFilterBenchmark {
+
+    private static final double CENTER_LNG = -90.25;
+    private static final double CENTER_LAT = 38.65;
+    private static final int SEED_BATCH = 100_000;
+
+    // same shape as the criteria query of GET /requests, ordered and paged the same way
+    private static final String AREA_QUERY = "SELECT id, location FROM benchmark_service_requests %s"
+            + " WHERE jurisdiction_id = 'bench.gov' AND deleted = false"
+            + " AND MBRContains(ST_SRID(ST_MakeEnvelope(Point(?, ?), Point(?, ?)), 4326), location)"
+            + " %s ORDER BY date_created DESC LIMIT 10";
+    private static final String DISTANCE = "AND ST_Distance_Sphere(location, ST_SRID(Point(?, ?), 4326)) <= ?";
+
+    @Param({"3000000"})
+    int rows;
+
+    // side of the searched square; 0.01 is a few blocks, 0.1 a district
+    @Param({"0.01", "0.1"})
+    double areaDegrees;
+
+    private Connection connection;
+    private PreparedStatement wholeJurisdiction;
+    private PreparedStatement bboxWithoutIndex;
+    private PreparedStatement bbox;
+    private PreparedStatement radius;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv("LIBRE311_BENCHMARK_JDBC_URL");
+        if (url == null) {
+            throw new IllegalStateException("Set LIBRE311_BENCHMARK_JDBC_URL to a scratch MySQL database.");
+        }
+        connection = DriverManager.getConnection(url);
+        seed();
+
+        wholeJurisdiction = connection.prepareStatement("SELECT id, location FROM benchmark_service_requests"
+                + " WHERE jurisdiction_id = 'bench.gov' AND deleted = false ORDER BY date_created DESC");
+        bboxWithoutIndex = connection.prepareStatement(
+                String.format(AREA_QUERY, "IGNORE INDEX (idx_benchmark_service_requests_location)", ""));
+        bbox = connection.prepareStatement(String.format(AREA_QUERY, "", ""));
+        radius = connection.prepareStatement(String.format(AREA_QUERY, "", DISTANCE));
+
+        double half = areaDegrees / 2;
+        for (PreparedStatement statement : new PreparedStatement[]{bboxWithoutIndex, bbox, radius}) {
+            statement.setDouble(1, CENTER_LNG - half);
+            statement.setDouble(2, CENTER_LAT - half);
+            statement.setDouble(3, CENTER_LNG + half);
+            statement.setDouble(4, CENTER_LAT + half);
+        }
+        radius.setDouble(5, CENTER_LNG);
+        radius.setDouble(6, CENTER_LAT);
+        // the circle inscribed in the square
+        radius.setDouble(7, half * 111_000 * Math.cos(Math.toRadians(CENTER_LAT)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void wholeJurisdictionFilteredInClient(Blackhole blackhole) throws SQLException {
+        double half = areaDegrees / 2;
+        try (ResultSet resultSet = wholeJurisdiction.executeQuery()) {
+            int found = 0;
+            while (resultSet.next() && found < 10) {
+                // MySQL's internal format: 4 byte SRID, then WKB with the longitude at offset 9 and the latitude at 17
+                byte[] location = resultSet.getBytes(2);
+                double lng = readDouble(location, 9);
+                double lat = readDouble(location, 17);
+                if (Math.abs(lng - CENTER_LNG) <= half && Math.abs(lat - CENTER_LAT) <= half) {
+                    blackhole.consume(resultSet.getLong(1));
+                    found++;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void bboxWithoutSpatialIndex(Blackhole blackhole) throws SQLException {
+        consume(bboxWithoutIndex, blackhole);
+    }
+
+    @Benchmark
+    public void bboxWithSpatialIndex(Blackhole blackhole) throws SQLException {
+        consume(bbox, blackhole);
+    }
+
+    @Benchmark
+    public void radiusWithSpatialIndex(Blackhole blackhole) throws SQLException {
+        consume(radius, blackhole);
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+    }
+
+    private static double readDouble(byte[] bytes, int offset) {
+        long bits = 0;
+        for (int i = 7; i >= 0; i--) {
+            bits = (bits << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    private void seed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS benchmark_service_requests ("
+                    + " id BIGINT AUTO_INCREMENT PRIMARY KEY,"
+                    + " jurisdiction_id VARCHAR(255) NOT NULL,"
+                    + " deleted BOOLEAN NOT NULL,"
+                    + " status VARCHAR(32) NOT NULL,"
+                    + " date_created DATETIME(6) NOT NULL,"
+                    + " location POINT NOT NULL SRID 4326,"
+                    + " INDEX idx_benchmark_service_requests_jurisdiction (jurisdiction_id, deleted, date_created),"
+                    + " SPATIAL INDEX idx_benchmark_service_requests_location (location))");
+            statement.execute("SET SESSION cte_max_recursion_depth = " + (SEED_BATCH + 1));
+
+            long existing;
+            try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM benchmark_service_requests")) {
+                resultSet.next();
+                existing = resultSet.getLong(1);
+            }
+            for (long seeded = existing; seeded < rows; seeded += SEED_BATCH) {
+                statement.execute("INSERT INTO benchmark_service_requests"
+                        + " (jurisdiction_id, deleted, status, date_created, location)"
+                        + " WITH RECURSIVE seq (n) AS"
+                        + " (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + SEED_BATCH + ")"
+                        + " SELECT 'bench.gov', RAND() < 0.02,"
+                        + " ELT(1 + FLOOR(RAND() * 4), 'OPEN', 'ASSIGNED', 'IN_PROGRESS', 'CLOSED'),"
+                        + " NOW(6) - INTERVAL FLOOR(RAND() * 31536000) SECOND,"
+                        + " ST_SRID(Point(" + (CENTER_LNG - 0.25) + " + RAND() * 0.5, "
+                        + (CENTER_LAT - 0.25) + " + RAND() * 0.5), 4326)"
+                        + " FROM seq");
+            }
+            statement.execute("ANALYZE TABLE benchmark_service_requests");
+        }
+    }
+}
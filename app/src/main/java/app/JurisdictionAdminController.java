@@ -23,13 +23,17 @@ import app.dto.service.UpdateServiceDTO;
 import app.dto.servicedefinition.CreateServiceDefinitionAttributeDTO;
 import app.dto.servicedefinition.PatchAttributeOrderDTO;
 import app.dto.servicedefinition.UpdateServiceDefinitionAttributeDTO;
+import app.dto.servicerequest.BulkPatchServiceRequestDTO;
+import app.dto.servicerequest.BulkPatchServiceRequestResultDTO;
 import app.dto.servicerequest.GetServiceRequestsDTO;
 import app.dto.servicerequest.PatchServiceRequestDTO;
 import app.dto.servicerequest.SensitiveServiceRequestDTO;
+import app.dto.servicerequest.ServiceRequestStatsDTO;
 import app.dto.servicedefinition.ServiceDefinitionDTO;
 import app.security.RequiresPermissions;
 import app.service.service.ServiceService;
 import app.service.servicerequest.ServiceRequestService;
+import app.service.servicerequest.ServiceRequestStatsService;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
 import io.micronaut.http.server.types.files.StreamedFile;
@@ -39,7 +43,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Nullable;
 
 import jakarta.validation.Valid;
-import java.net.MalformedURLException;
+import java.time.LocalDate;
 import java.util.List;
 
 import app.dto.servicerequest.ServiceRequestRemovalSuggestionDTO;
@@ -55,10 +59,13 @@ public class JurisdictionAdminController {
 
     private final ServiceService serviceService;
     private final ServiceRequestService serviceRequestService;
+    private final ServiceRequestStatsService serviceRequestStatsService;
 
-    public JurisdictionAdminController(ServiceService serviceService, ServiceRequestService serviceRequestService) {
+    public JurisdictionAdminController(ServiceService serviceService, ServiceRequestService serviceRequestService,
+                                       ServiceRequestStatsService serviceRequestStatsService) {
         this.serviceService = serviceService;
         this.serviceRequestService = serviceRequestService;
+        this.serviceRequestStatsService = serviceRequestStatsService;
     }
 
     @Get(uris = { "/requests/removal-suggestions{?jurisdiction_id}", "/requests/removal-suggestions.json{?jurisdiction_id}" })
@@ -178,6 +185,14 @@ public class JurisdictionAdminController {
         return serviceRequestService.updateServiceRequest(serviceRequestId, requestDTO, jurisdiction_id);
     }
 
+    @Patch(uris = { "/requests{?jurisdiction_id}", "/requests.json{?jurisdiction_id}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_REQUEST_EDIT_SYSTEM, LIBRE311_REQUEST_EDIT_TENANT, LIBRE311_REQUEST_EDIT_SUBTENANT})
+    public BulkPatchServiceRequestResultDTO updateServiceRequestsJson(@Valid @Body BulkPatchServiceRequestDTO requestDTO,
+                                                                      @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        return serviceRequestService.updateServiceRequests(requestDTO, jurisdiction_id);
+    }
+
     @Delete(uris = { "/services/{serviceCode}{?jurisdiction_id}" })
     @ExecuteOn(TaskExecutors.IO)
     @RequiresPermissions({LIBRE311_ADMIN_EDIT_SYSTEM, LIBRE311_ADMIN_EDIT_TENANT, LIBRE311_ADMIN_EDIT_SUBTENANT})
@@ -186,11 +201,20 @@ public class JurisdictionAdminController {
         return HttpResponse.ok();
     }
 
+    @Get(uris = { "/requests/stats{?jurisdiction_id}", "/requests/stats.json{?jurisdiction_id}" })
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_REQUEST_VIEW_SYSTEM, LIBRE311_REQUEST_VIEW_TENANT, LIBRE311_REQUEST_VIEW_SUBTENANT})
+    public ServiceRequestStatsDTO getServiceRequestStats(@Nullable @QueryValue("start_date") LocalDate startDate,
+                                                         @Nullable @QueryValue("end_date") LocalDate endDate,
+                                                         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+        return serviceRequestStatsService.getStats(jurisdiction_id, startDate, endDate);
+    }
+
     @Get(value = "/requests/download{?jurisdiction_id}")
     @ExecuteOn(TaskExecutors.IO)
     @RequiresPermissions({LIBRE311_REQUEST_VIEW_SYSTEM, LIBRE311_REQUEST_VIEW_TENANT, LIBRE311_REQUEST_VIEW_SUBTENANT})
     public StreamedFile downloadServiceRequests(@Valid @RequestBean GetServiceRequestsDTO requestDTO,
-            @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) throws MalformedURLException {
+            @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
         return serviceRequestService.getAllServiceRequests(requestDTO, jurisdiction_id);
     }
 }
@@ -15,45 +15,48 @@
 package app;
 
 import app.dto.discovery.DiscoveryDTO;
-import app.dto.jurisdiction.JurisdictionDTO;
 import app.dto.project.ProjectDTO;
-import app.dto.service.ServiceDTO;
-import app.dto.service.ServiceList;
 import app.dto.servicerequest.*;
-import app.dto.servicedefinition.ServiceDefinitionDTO;
 import app.recaptcha.CheckRecaptcha;
 import app.security.RequiresPermissions;
 import app.service.discovery.DiscoveryEndpointService;
+import app.service.jurisdiction.JurisdictionConfigCache.JurisdictionConfig;
 import app.service.jurisdiction.JurisdictionService;
 import app.service.project.ProjectService;
+import app.service.service.ServiceCatalogResponseCache.CachedBody;
 import app.service.service.ServiceService;
+import app.service.servicerequest.ServiceRequestMapFeed;
 import app.service.servicerequest.ServiceRequestService;
+import app.service.tile.VectorTileService;
+import app.service.xml.Open311XmlWriter;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.google.common.xml.XmlEscapers;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.io.Writable;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.*;
 import io.micronaut.http.uri.UriBuilder;
 import io.micronaut.scheduling.TaskExecutors;
 import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.micronaut.security.annotation.Secured;
+import io.micronaut.security.authentication.Authentication;
 import io.micronaut.security.rules.SecurityRule;
 import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.annotation.Nullable;
 
-import java.util.stream.Collectors;
 import jakarta.validation.Valid;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static app.security.Permission.*;
 
@@ -68,15 +71,34 @@ public class RootController {
     private final DiscoveryEndpointService discoveryEndpointService;
     private final JurisdictionService jurisdictionService;
     private final ProjectService projectService;
+    private final Open311XmlWriter xmlWriter;
+    private final ServiceRequestMapFeed serviceRequestMapFeed;
+    private final VectorTileService vectorTileService;
+    private final String servicesCacheControl;
+    private final String serviceDefinitionCacheControl;
+    private final String serviceRequestCacheControl;
+    private final String tilesCacheControl;
 
     public RootController(ServiceService serviceService, ServiceRequestService serviceRequestService,
                           DiscoveryEndpointService discoveryEndpointService, JurisdictionService jurisdictionService,
-                          ProjectService projectService) {
+                          ProjectService projectService, Open311XmlWriter xmlWriter,
+                          ServiceRequestMapFeed serviceRequestMapFeed, VectorTileService vectorTileService,
+                          @Value("${app.http.cache-control.services:no-cache}") String servicesCacheControl,
+                          @Value("${app.http.cache-control.service-definition:no-cache}") String serviceDefinitionCacheControl,
+                          @Value("${app.http.cache-control.service-request:no-cache}") String serviceRequestCacheControl,
+                          @Value("${app.http.cache-control.tiles:no-cache}") String tilesCacheControl) {
         this.serviceService = serviceService;
         this.serviceRequestService = serviceRequestService;
         this.jurisdictionService = jurisdictionService;
         this.discoveryEndpointService = discoveryEndpointService;
         this.projectService = projectService;
+        this.xmlWriter = xmlWriter;
+        this.serviceRequestMapFeed = serviceRequestMapFeed;
+        this.vectorTileService = vectorTileService;
+        this.servicesCacheControl = servicesCacheControl;
+        this.serviceDefinitionCacheControl = serviceDefinitionCacheControl;
+        this.serviceRequestCacheControl = serviceRequestCacheControl;
+        this.tilesCacheControl = tilesCacheControl;
     }
 
     @Get(uris = {"/discovery", "/discovery.json"})
@@ -90,59 +112,49 @@ public class RootController {
     @Produces(MediaType.TEXT_XML)
     @ExecuteOn(TaskExecutors.IO)
     public HttpResponse<String> discoveryXml() throws JsonProcessingException {
-        XmlMapper xmlMapper = XmlMapper.xmlBuilder()
-                .configure(ToXmlGenerator.Feature.WRITE_XML_DECLARATION, true)
-                .defaultUseWrapper(true).build();
-        DiscoveryDTO discovery = discoveryEndpointService.getDiscoveryInfo();
-
-        return HttpResponse.ok(xmlMapper.writeValueAsString(discovery));
+        return HttpResponse.ok(xmlWriter.writeDiscovery(discoveryEndpointService.getDiscoveryInfo()));
     }
 
     @Get(uris = {"/services{?jurisdiction_id}", "/services.json{?jurisdiction_id}"})
     @Produces(MediaType.APPLICATION_JSON)
     @ExecuteOn(TaskExecutors.IO)
-    public HttpResponse<List<ServiceDTO>> indexJson(@Valid Pageable pageable,
-                                                    @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+    public HttpResponse<byte[]> indexJson(@Valid Pageable pageable,
+                                          @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                          @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
 
-        return HttpResponse.ok(serviceService.findAll(jurisdiction_id));
+        return conditionalResponse(serviceService.getServiceListJson(jurisdiction_id), ifNoneMatch, servicesCacheControl);
     }
 
     @Get("/services.xml{?jurisdiction_id}")
     @Produces(MediaType.TEXT_XML)
     @ExecuteOn(TaskExecutors.IO)
-    public HttpResponse<String> indexXml(@Valid Pageable pageable,
-                                         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) throws JsonProcessingException {
-
-        XmlMapper xmlMapper = XmlMapper.xmlBuilder().defaultUseWrapper(false).build();
-        List<ServiceDTO> serviceDTOList = serviceService.findAll(jurisdiction_id).stream()
-                .map(serviceDTO -> {
-                    if (serviceDTO.getDescription() != null) {
-                        serviceDTO.setDescription(XmlEscapers.xmlContentEscaper().escape(serviceDTO.getDescription()));
-                    }
-                    return serviceDTO;
-                }).collect(Collectors.toList());
-        ServiceList serviceList = new ServiceList(serviceDTOList);
-
-        return HttpResponse.ok(xmlMapper.writeValueAsString(serviceList));
+    public HttpResponse<byte[]> indexXml(@Valid Pageable pageable,
+                                         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                         @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+
+        return conditionalResponse(serviceService.getServiceListXml(jurisdiction_id), ifNoneMatch, servicesCacheControl);
     }
 
     @Get(uris = {"/services/{serviceCode}{?jurisdiction_id}", "/services/{serviceCode}.json{?jurisdiction_id}"})
     @Produces(MediaType.APPLICATION_JSON)
     @ExecuteOn(TaskExecutors.IO)
-    public ServiceDefinitionDTO getServiceDefinitionJson(Long serviceCode,
-                                                         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+    public HttpResponse<byte[]> getServiceDefinitionJson(Long serviceCode,
+                                                         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                                         @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
 
-        return serviceService.getServiceDefinition(serviceCode, jurisdiction_id);
+        return conditionalResponse(serviceService.getServiceDefinitionJson(serviceCode, jurisdiction_id), ifNoneMatch,
+                serviceDefinitionCacheControl);
     }
 
     @Get("/services/{serviceCode}.xml{?jurisdiction_id}")
     @Produces(MediaType.TEXT_XML)
     @ExecuteOn(TaskExecutors.IO)
-    public String getServiceDefinitionXml(Long serviceCode,
-                                          @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) throws JsonProcessingException {
+    public HttpResponse<byte[]> getServiceDefinitionXml(Long serviceCode,
+                                                        @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                                        @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
 
-        XmlMapper xmlMapper = XmlMapper.xmlBuilder().build();
-        return xmlMapper.writeValueAsString(serviceService.getServiceDefinition(serviceCode, jurisdiction_id));
+        return conditionalResponse(serviceService.getServiceDefinitionXml(serviceCode, jurisdiction_id), ifNoneMatch,
+                serviceDefinitionCacheControl);
     }
 
     @Post(uris = {"/requests{?jurisdiction_id}", "/requests.json{?jurisdiction_id}"})
@@ -157,19 +169,27 @@ public class RootController {
         return List.of(serviceRequestService.createServiceRequest(request, requestDTO, jurisdiction_id));
     }
 
+    @Post(uris = {"/requests/bulk{?jurisdiction_id}", "/requests/bulk.json{?jurisdiction_id}"})
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @ExecuteOn(TaskExecutors.IO)
+    @CheckRecaptcha
+    public List<BulkServiceRequestResultDTO> createServiceRequestsJson(@Valid @Body BulkPostRequestServiceRequestDTO requestDTO,
+                                                                       @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+
+        return serviceRequestService.createServiceRequests(requestDTO, jurisdiction_id);
+    }
+
     @Post("/requests.xml{?jurisdiction_id}")
     @Produces(MediaType.TEXT_XML)
     @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
     @ExecuteOn(TaskExecutors.IO)
     @CheckRecaptcha
-    public String createServiceRequestXml(HttpRequest<?> request,
-                                          @Valid @Body PostRequestServiceRequestDTO requestDTO,
-                                          @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) throws JsonProcessingException {
+    public Writable createServiceRequestXml(HttpRequest<?> request,
+                                            @Valid @Body PostRequestServiceRequestDTO requestDTO,
+                                            @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
 
-        XmlMapper xmlMapper = XmlMapper.xmlBuilder().defaultUseWrapper(false).build();
-        ServiceRequestList serviceRequestList = new ServiceRequestList(List.of(serviceRequestService.createServiceRequest(request, requestDTO, jurisdiction_id)));
-
-        return xmlMapper.writeValueAsString(serviceRequestList);
+        return xmlWriter.writeServiceRequests(List.of(serviceRequestService.createServiceRequest(request, requestDTO, jurisdiction_id)));
     }
 
     @Post(uris = {"/requests/{serviceRequestId}/removal-suggestions{?jurisdiction_id}", "/requests/{serviceRequestId}/removal-suggestions.json{?jurisdiction_id}"})
@@ -192,9 +212,16 @@ public class RootController {
     public HttpResponse<List<ServiceRequestDTO>> getServiceRequestsJson(
         @Valid @RequestBean GetServiceRequestsDTO requestDTO,
         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
-        HttpRequest<?> request) {
+        HttpRequest<?> request,
+        @Nullable Authentication authentication) {
+        if (serviceRequestService.isCursorPagination(requestDTO)) {
+            ServiceRequestCursorPage cursorPage = serviceRequestService.findAllByCursor(requestDTO,
+                    jurisdiction_id, request.getHeaders().getAuthorization().orElse(null), authentication);
+            return HttpResponse.ok(cursorPage.content()).headers(getCursorPageHeaders(cursorPage));
+        }
+
         Page<ServiceRequestDTO> serviceRequestDTOPage = serviceRequestService.findAll(requestDTO,
-            jurisdiction_id, request.getHeaders().getAuthorization().orElse(null));
+            jurisdiction_id, request.getHeaders().getAuthorization().orElse(null), authentication);
         return HttpResponse.ok(serviceRequestDTOPage.getContent())
                 .headers(Map.of(
                         "Access-Control-Expose-Headers", "page-TotalSize, page-TotalPages, page-PageNumber, page-Offset, page-Size ",
@@ -209,23 +236,23 @@ public class RootController {
     @Get("/requests.xml{?jurisdiction_id}")
     @Produces(MediaType.TEXT_XML)
     @ExecuteOn(TaskExecutors.IO)
-    public HttpResponse<String> getServiceRequestsXml(
+    public HttpResponse<Writable> getServiceRequestsXml(
         @Valid @RequestBean GetServiceRequestsDTO requestDTO,
         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
-        HttpRequest<?> request)
-        throws JsonProcessingException {
+        HttpRequest<?> request,
+        @Nullable Authentication authentication) {
+
+        if (serviceRequestService.isCursorPagination(requestDTO)) {
+            ServiceRequestCursorPage cursorPage = serviceRequestService.findAllByCursor(requestDTO,
+                    jurisdiction_id, request.getHeaders().getAuthorization().orElse(null), authentication);
+            return HttpResponse.ok(xmlWriter.writeServiceRequests(cursorPage.content()))
+                    .headers(getCursorPageHeaders(cursorPage));
+        }
 
-        XmlMapper xmlMapper = XmlMapper.xmlBuilder().defaultUseWrapper(false).build();
-        xmlMapper.registerModule(new JavaTimeModule());
         Page<ServiceRequestDTO> serviceRequestDTOPage = serviceRequestService.findAll(requestDTO,
-                jurisdiction_id, request.getHeaders().getAuthorization().orElse(null))
-                .map(serviceRequestDTO -> {
-                    sanitizeXmlContent(serviceRequestDTO);
-                    return serviceRequestDTO;
-                });;
-        ServiceRequestList serviceRequestList = new ServiceRequestList(serviceRequestDTOPage.getContent());
-
-        return HttpResponse.ok(xmlMapper.writeValueAsString(serviceRequestList))
+                jurisdiction_id, request.getHeaders().getAuthorization().orElse(null), authentication);
+
+        return HttpResponse.ok(xmlWriter.writeServiceRequests(serviceRequestDTOPage.getContent()))
                 .headers(Map.of(
                         "Access-Control-Expose-Headers", "page-TotalSize, page-TotalPages, page-PageNumber, page-Offset, page-Size ",
                         "page-TotalSize", String.valueOf(serviceRequestDTOPage.getTotalSize()),
@@ -236,28 +263,85 @@ public class RootController {
                 ));
     }
 
+    @Get(uris = {"/requests/map{?jurisdiction_id,since}", "/requests/map.json{?jurisdiction_id,since}"})
+    @Produces(MediaType.APPLICATION_JSON)
+    @ExecuteOn(TaskExecutors.IO)
+    public ServiceRequestMapFeedDTO getServiceRequestMapFeed(@Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                                             @Nullable @QueryValue("since") String since) {
+        return serviceRequestMapFeed.get(jurisdiction_id, since);
+    }
+
+    @Get(uris = {"/requests/clusters{?jurisdiction_id,bbox,zoom,by_service}", "/requests/clusters.json{?jurisdiction_id,bbox,zoom,by_service}"})
+    @Produces(MediaType.APPLICATION_JSON)
+    @ExecuteOn(TaskExecutors.IO)
+    public List<ServiceRequestClusterDTO> getServiceRequestClusters(@Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                                                    @QueryValue("bbox") String bbox,
+                                                                    @QueryValue("zoom") int zoom,
+                                                                    @QueryValue(value = "by_service", defaultValue = "false") boolean byService) {
+        return serviceRequestMapFeed.getClusters(jurisdiction_id, bbox, zoom, byService);
+    }
+
+    @Get(uris = {"/requests/nearby{?jurisdiction_id,service_code,lat,lng,radius}", "/requests/nearby.json{?jurisdiction_id,service_code,lat,lng,radius}"})
+    @Produces(MediaType.APPLICATION_JSON)
+    @ExecuteOn(TaskExecutors.IO)
+    public List<NearbyServiceRequestDTO> getNearbyServiceRequests(@Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                                                  @QueryValue("service_code") Long serviceCode,
+                                                                  @QueryValue("lat") double lat,
+                                                                  @QueryValue("lng") double lng,
+                                                                  @Nullable @QueryValue("radius") Double radius) {
+        return serviceRequestMapFeed.getNearby(jurisdiction_id, serviceCode, lat, lng, radius);
+    }
+
+    @Get("/tiles/{z}/{x}/{y}.mvt{?jurisdiction_id}")
+    @Produces("application/vnd.mapbox-vector-tile")
+    @ExecuteOn(TaskExecutors.IO)
+    public HttpResponse<byte[]> getVectorTile(int z, long x, long y,
+                                              @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                              @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+
+        return conditionalResponse(vectorTileService.getTile(jurisdiction_id, z, x, y), ifNoneMatch, tilesCacheControl);
+    }
+
     @Get(uris = {"/requests/{serviceRequestId}{?jurisdiction_id}", "/requests/{serviceRequestId}.json{?jurisdiction_id}"})
     @Produces(MediaType.APPLICATION_JSON)
     @ExecuteOn(TaskExecutors.IO)
-    public List<ServiceRequestDTO> getServiceRequestJson(Long serviceRequestId,
-                                                         @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
+    public HttpResponse<List<ServiceRequestDTO>> getServiceRequestJson(Long serviceRequestId,
+                                                                       @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                                                       @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+
+        Optional<String> currentEtag = findCurrentServiceRequestEtag(serviceRequestId, jurisdiction_id, "json", ifNoneMatch);
+        if (currentEtag.isPresent()) {
+            return notModified(currentEtag.get(), serviceRequestCacheControl);
+        }
 
-        return List.of(serviceRequestService.getServiceRequest(serviceRequestId, jurisdiction_id));
+        return serviceRequestService.getVersionedServiceRequest(serviceRequestId, jurisdiction_id, "json")
+                .map(versioned -> HttpResponse.ok(List.of(versioned.serviceRequest()))
+                        .header(HttpHeaders.ETAG, versioned.etag())
+                        .header(HttpHeaders.CACHE_CONTROL, serviceRequestCacheControl))
+                .orElse(HttpResponse.notFound());
     }
 
     @Get("/requests/{serviceRequestId}.xml{?jurisdiction_id}")
     @Produces(MediaType.TEXT_XML)
     @ExecuteOn(TaskExecutors.IO)
-    public String getServiceRequestXml(Long serviceRequestId,
-                                       @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) throws JsonProcessingException {
+    public HttpResponse<Writable> getServiceRequestXml(Long serviceRequestId,
+                                                       @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id,
+                                                       @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+
+        Optional<String> currentEtag = findCurrentServiceRequestEtag(serviceRequestId, jurisdiction_id, "xml", ifNoneMatch);
+        if (currentEtag.isPresent()) {
+            return notModified(currentEtag.get(), serviceRequestCacheControl);
+        }
 
-        XmlMapper xmlMapper = XmlMapper.xmlBuilder().defaultUseWrapper(false).build();
-        xmlMapper.registerModule(new JavaTimeModule());
-        ServiceRequestDTO serviceRequestDTO = serviceRequestService.getServiceRequest(serviceRequestId, jurisdiction_id);
-        sanitizeXmlContent(serviceRequestDTO);
-        ServiceRequestList serviceRequestList = new ServiceRequestList(List.of(serviceRequestDTO));
+        Optional<ServiceRequestService.VersionedServiceRequest> versioned =
+                serviceRequestService.getVersionedServiceRequest(serviceRequestId, jurisdiction_id, "xml");
+        if (versioned.isEmpty()) {
+            return HttpResponse.notFound();
+        }
 
-        return xmlMapper.writeValueAsString(serviceRequestList);
+        return HttpResponse.ok(xmlWriter.writeServiceRequests(List.of(versioned.get().serviceRequest())))
+                .header(HttpHeaders.ETAG, versioned.get().etag())
+                .header(HttpHeaders.CACHE_CONTROL, serviceRequestCacheControl);
     }
 
     @Delete(uris = {"/requests/{service_request_id}{?jurisdiction_id}", "/requests/{service_request_id}.json{?jurisdiction_id}"})
@@ -287,8 +371,16 @@ public class RootController {
 
     @Get(value =  "/config")
     @ExecuteOn(TaskExecutors.IO)
-    public JurisdictionDTO getJurisdictionInfo(@Header("Referer") String referer) throws URISyntaxException {
-        return jurisdictionService.findJurisdictionByHostName(new URI(referer).getHost());
+    public HttpResponse<String> getJurisdictionInfo(@Header("Referer") String referer,
+                                                    @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) throws URISyntaxException {
+        JurisdictionConfig config = jurisdictionService.findJurisdictionConfigByHostName(new URI(referer).getHost());
+        if (ETags.matches(ifNoneMatch, config.etag())) {
+            return notModified(config.etag(), "no-cache");
+        }
+        return HttpResponse.ok(config.json())
+                .contentType(MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.ETAG, config.etag())
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache");
     }
 
     @Get("/swagger-ui")
@@ -297,12 +389,43 @@ public class RootController {
         return HttpResponse.seeOther(SWAGGER_UI);
     }
 
-    private void sanitizeXmlContent(ServiceRequestDTO serviceRequestDTO) {
-        if (serviceRequestDTO.getDescription() != null) {
-            serviceRequestDTO.setDescription(XmlEscapers.xmlContentEscaper().escape(serviceRequestDTO.getDescription()));
+    private static HttpResponse<byte[]> conditionalResponse(CachedBody cached, String ifNoneMatch, String cacheControl) {
+        if (ETags.matches(ifNoneMatch, cached.etag())) {
+            return notModified(cached.etag(), cacheControl);
+        }
+        return HttpResponse.ok(cached.body())
+                .header(HttpHeaders.ETAG, cached.etag())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl);
+    }
+
+    private static <T> MutableHttpResponse<T> notModified(String etag, String cacheControl) {
+        return HttpResponse.<T>notModified()
+                .header(HttpHeaders.ETAG, etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl);
+    }
+
+    /**
+     * @return the request's current ETag if it matches If-None-Match, read without loading the request
+     */
+    private Optional<String> findCurrentServiceRequestEtag(Long serviceRequestId, String jurisdictionId, String variant,
+                                                           String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return Optional.empty();
+        }
+        return serviceRequestService.findServiceRequestEtag(serviceRequestId, jurisdictionId, variant)
+                .filter(etag -> ETags.matches(ifNoneMatch, etag));
+    }
+
+    private static Map<String, String> getCursorPageHeaders(ServiceRequestCursorPage cursorPage) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Access-Control-Expose-Headers", "page-TotalSize, page-Size, page-NextCursor");
+        headers.put("page-Size", String.valueOf(cursorPage.content().size()));
+        if (cursorPage.nextCursor() != null) {
+            headers.put("page-NextCursor", cursorPage.nextCursor());
         }
-        if (serviceRequestDTO.getAddress() != null) {
-            serviceRequestDTO.setAddress(XmlEscapers.xmlContentEscaper().escape(serviceRequestDTO.getAddress()));
+        if (cursorPage.totalSize() != null) {
+            headers.put("page-TotalSize", String.valueOf(cursorPage.totalSize()));
         }
+        return headers;
     }
 }
@@ -18,7 +18,9 @@ import app.dto.jurisdiction.CreateJurisdictionDTO;
 import app.dto.jurisdiction.JurisdictionDTO;
 import app.dto.jurisdiction.PatchJurisdictionDTO;
 import app.security.RequiresPermissions;
+import app.security.UnityAuthService;
 import app.service.jurisdiction.JurisdictionService;
+import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.*;
 import io.micronaut.scheduling.TaskExecutors;
 import io.micronaut.scheduling.annotation.ExecuteOn;
@@ -35,9 +37,11 @@ import static app.security.Permission.*;
 public class TenantAdminController {
 
     private final JurisdictionService jurisdictionService;
+    private final UnityAuthService unityAuthService;
 
-    public TenantAdminController(JurisdictionService jurisdictionService) {
+    public TenantAdminController(JurisdictionService jurisdictionService, UnityAuthService unityAuthService) {
         this.jurisdictionService = jurisdictionService;
+        this.unityAuthService = unityAuthService;
     }
 
     @Post(uris = {"/jurisdictions{?tenant_id}", "/jurisdictions.json{?tenant_id}"})
@@ -64,4 +68,19 @@ public class TenantAdminController {
                                              @Nullable @QueryValue("jurisdiction_id") String jurisdiction_id) {
         return jurisdictionService.updateJurisdiction(jurisdictionId, requestDTO);
     }
+
+    /**
+     * Drops every permission decision this instance has cached, so role changes made in UnityAuth apply on the next
+     * request. Changing roles, including through the auth module's UserController, does not call this. Other
+     * instances keep their decisions until they expire, after at most {@code app.auth.decision-cache.ttl} (60s).
+     * The flush affects every tenant, so only system admins may call it; {@code tenant_id} is only needed for the
+     * permission check.
+     */
+    @Delete("/permission-cache{?tenant_id}")
+    @ExecuteOn(TaskExecutors.IO)
+    @RequiresPermissions({LIBRE311_ADMIN_EDIT_SYSTEM})
+    public HttpResponse<?> invalidatePermissionCache() {
+        unityAuthService.invalidatePermissionDecisions();
+        return HttpResponse.noContent();
+    }
 }
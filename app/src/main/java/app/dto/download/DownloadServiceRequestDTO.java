@@ -50,6 +50,9 @@ public class DownloadServiceRequestDTO {
     private String statusNotes;
     private String serviceNotice;
 
+    public DownloadServiceRequestDTO() {
+    }
+
     public DownloadServiceRequestDTO(ServiceRequest serviceRequest) {
         this.id = serviceRequest.getId();
         this.dateCreated = serviceRequest.getDateCreated();
@@ -273,7 +276,8 @@ public class DownloadServiceRequestDTO {
         this.serviceSubtype = serviceSubtype;
     }
 
-    private String sanitize(String value) {
+    // prefixes values a spreadsheet would evaluate as a formula
+    public static String sanitize(String value) {
         String csvInjectionRegex = "^[=@+\\-\t\r].*";
 
         if (value == null || !value.matches(csvInjectionRegex))
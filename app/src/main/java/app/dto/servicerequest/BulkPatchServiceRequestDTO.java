@@ -0,0 +1,62 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.dto.servicerequest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+/**
+ * One change applied to many service requests of a jurisdiction, e.g. closing every request reported during a storm.
+ */
+@Introspected
+public class BulkPatchServiceRequestDTO {
+
+    public static final int MAX_SERVICE_REQUESTS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_SERVICE_REQUESTS)
+    @JsonProperty("service_request_ids")
+    private Set<@NotNull Long> serviceRequestIds;
+
+    @NotNull
+    @Valid
+    private PatchServiceRequestDTO changes;
+
+    public BulkPatchServiceRequestDTO() {
+    }
+
+    public Set<Long> getServiceRequestIds() {
+        return serviceRequestIds;
+    }
+
+    public void setServiceRequestIds(Set<Long> serviceRequestIds) {
+        this.serviceRequestIds = serviceRequestIds;
+    }
+
+    public PatchServiceRequestDTO getChanges() {
+        return changes;
+    }
+
+    public void setChanges(PatchServiceRequestDTO changes) {
+        this.changes = changes;
+    }
+}
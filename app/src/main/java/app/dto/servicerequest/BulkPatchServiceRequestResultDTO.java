@@ -0,0 +1,56 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.dto.servicerequest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.List;
+
+@Introspected
+public class BulkPatchServiceRequestResultDTO {
+
+    @JsonProperty("updated_ids")
+    private List<Long> updatedIds;
+
+    // ids that do not exist in the jurisdiction or were deleted
+    @JsonProperty("not_found_ids")
+    private List<Long> notFoundIds;
+
+    public BulkPatchServiceRequestResultDTO() {
+    }
+
+    public BulkPatchServiceRequestResultDTO(List<Long> updatedIds, List<Long> notFoundIds) {
+        this.updatedIds = updatedIds;
+        this.notFoundIds = notFoundIds;
+    }
+
+    public List<Long> getUpdatedIds() {
+        return updatedIds;
+    }
+
+    public void setUpdatedIds(List<Long> updatedIds) {
+        this.updatedIds = updatedIds;
+    }
+
+    public List<Long> getNotFoundIds() {
+        return notFoundIds;
+    }
+
+    public void setNotFoundIds(List<Long> notFoundIds) {
+        this.notFoundIds = notFoundIds;
+    }
+}
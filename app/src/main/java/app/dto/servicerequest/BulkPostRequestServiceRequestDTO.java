@@ -0,0 +1,63 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.dto.servicerequest;
+
+import app.recaptcha.RecaptchaRequest;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of service requests queued by a client. Items are validated individually so that one bad report does not
+ * reject the rest; the reCAPTCHA token covers the whole batch.
+ */
+@Introspected
+public class BulkPostRequestServiceRequestDTO implements RecaptchaRequest {
+
+    public static final int MAX_REQUESTS = 100;
+
+    @NotEmpty
+    @Size(max = MAX_REQUESTS)
+    private List<PostRequestServiceRequestDTO> requests = new ArrayList<>();
+
+    @NotBlank
+    @JsonProperty("g_recaptcha_response")
+    private String gRecaptchaResponse;
+
+    public BulkPostRequestServiceRequestDTO() {
+    }
+
+    public List<PostRequestServiceRequestDTO> getRequests() {
+        return requests;
+    }
+
+    public void setRequests(List<PostRequestServiceRequestDTO> requests) {
+        this.requests = requests;
+    }
+
+    public String getgRecaptchaResponse() {
+        return gRecaptchaResponse;
+    }
+
+    public void setgRecaptchaResponse(String gRecaptchaResponse) {
+        this.gRecaptchaResponse = gRecaptchaResponse;
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.dto.servicerequest;
+
+import app.model.servicerequest.ServiceRequest;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+/**
+ * Outcome of one item of a bulk submission, reported at the item's position in the batch.
+ */
+@Introspected
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkServiceRequestResultDTO {
+
+    public enum Status {
+        @JsonProperty("created") CREATED,
+        // the client_request_id was already submitted; service_request_id refers to the original request
+        @JsonProperty("duplicate") DUPLICATE,
+        @JsonProperty("failed") FAILED
+    }
+
+    private int index;
+
+    @JsonProperty("client_request_id")
+    private String clientRequestId;
+
+    private Status status;
+
+    @JsonProperty("service_request_id")
+    private Long serviceRequestId;
+
+    private String error;
+
+    public BulkServiceRequestResultDTO() {
+    }
+
+    private BulkServiceRequestResultDTO(int index, String clientRequestId, Status status, Long serviceRequestId, String error) {
+        this.index = index;
+        this.clientRequestId = clientRequestId;
+        this.status = status;
+        this.serviceRequestId = serviceRequestId;
+        this.error = error;
+    }
+
+    public static BulkServiceRequestResultDTO created(int index, ServiceRequest serviceRequest) {
+        return new BulkServiceRequestResultDTO(index, serviceRequest.getClientRequestId(), Status.CREATED,
+            serviceRequest.getId(), null);
+    }
+
+    public static BulkServiceRequestResultDTO duplicate(int index, ServiceRequest serviceRequest) {
+        return new BulkServiceRequestResultDTO(index, serviceRequest.getClientRequestId(), Status.DUPLICATE,
+            serviceRequest.getId(), null);
+    }
+
+    public static BulkServiceRequestResultDTO failed(int index, String clientRequestId, String error) {
+        return new BulkServiceRequestResultDTO(index, clientRequestId, Status.FAILED, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getClientRequestId() {
+        return clientRequestId;
+    }
+
+    public void setClientRequestId(String clientRequestId) {
+        this.clientRequestId = clientRequestId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getServiceRequestId() {
+        return serviceRequestId;
+    }
+
+    public void setServiceRequestId(Long serviceRequestId) {
+        this.serviceRequestId = serviceRequestId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
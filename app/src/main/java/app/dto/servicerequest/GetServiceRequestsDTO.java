@@ -56,6 +56,44 @@ public class GetServiceRequestsDTO {
     @QueryValue(value = "project_id")
     private Long projectId;
 
+    // minLng,minLat,maxLng,maxLat
+    @Nullable
+    @QueryValue(value = "bbox")
+    private String bbox;
+
+    // lat, lng and radius in meters go together and keep the requests within the radius of the point
+    @Nullable
+    @QueryValue(value = "lat")
+    private Double lat;
+
+    @Nullable
+    @QueryValue(value = "lng")
+    private Double lng;
+
+    @Nullable
+    @QueryValue(value = "radius")
+    private Double radius;
+
+    // "cursor" switches to keyset pagination over (dateCreated, id); offset pagination is the default
+    @Nullable
+    @QueryValue(value = "pagination")
+    private String pagination;
+
+    // opaque continuation token returned in the page-NextCursor header of the previous cursor page
+    @Nullable
+    @QueryValue(value = "cursor")
+    private String cursor;
+
+    // cursor pages skip the COUNT query unless the total is explicitly requested
+    @Nullable
+    @QueryValue(value = "include_total")
+    private Boolean includeTotal;
+
+    // staff only: true keeps requests with pending removal suggestions, false keeps requests without any
+    @Nullable
+    @QueryValue(value = "has_removal_suggestions")
+    private Boolean hasRemovalSuggestions;
+
     @Valid
     private Pageable pageable;
 
@@ -131,4 +169,76 @@ public class GetServiceRequestsDTO {
     public void setProjectId(@Nullable Long projectId) {
         this.projectId = projectId;
     }
+
+    @Nullable
+    public String getBbox() {
+        return bbox;
+    }
+
+    public void setBbox(@Nullable String bbox) {
+        this.bbox = bbox;
+    }
+
+    @Nullable
+    public Double getLat() {
+        return lat;
+    }
+
+    public void setLat(@Nullable Double lat) {
+        this.lat = lat;
+    }
+
+    @Nullable
+    public Double getLng() {
+        return lng;
+    }
+
+    public void setLng(@Nullable Double lng) {
+        this.lng = lng;
+    }
+
+    @Nullable
+    public Double getRadius() {
+        return radius;
+    }
+
+    public void setRadius(@Nullable Double radius) {
+        this.radius = radius;
+    }
+
+    @Nullable
+    public String getPagination() {
+        return pagination;
+    }
+
+    public void setPagination(@Nullable String pagination) {
+        this.pagination = pagination;
+    }
+
+    @Nullable
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(@Nullable String cursor) {
+        this.cursor = cursor;
+    }
+
+    @Nullable
+    public Boolean getIncludeTotal() {
+        return includeTotal;
+    }
+
+    public void setIncludeTotal(@Nullable Boolean includeTotal) {
+        this.includeTotal = includeTotal;
+    }
+
+    @Nullable
+    public Boolean getHasRemovalSuggestions() {
+        return hasRemovalSuggestions;
+    }
+
+    public void setHasRemovalSuggestions(@Nullable Boolean hasRemovalSuggestions) {
+        this.hasRemovalSuggestions = hasRemovalSuggestions;
+    }
 }
@@ -0,0 +1,117 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.servicerequest;
+
+import app.model.servicerequest.ServiceRequestMarker;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+import java.time.Instant;
+
+/**
+ * An open request of the same service near a location, shown to residents before they report a possible duplicate.
+ */
+@Introspected
+public class NearbyServiceRequestDTO {
+
+    @JsonProperty("service_request_id")
+    private Long id;
+
+    @JsonProperty("service_code")
+    private Long serviceCode;
+
+    private String status;
+
+    private double lat;
+
+    private double lng;
+
+    @JsonProperty("requested_datetime")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant dateCreated;
+
+    // meters from the searched location
+    private double distance;
+
+    public NearbyServiceRequestDTO() {
+    }
+
+    public NearbyServiceRequestDTO(ServiceRequestMarker marker, double distance) {
+        this.id = marker.getId();
+        this.serviceCode = marker.getServiceId();
+        this.status = marker.getStatus().toString();
+        this.lat = marker.getLocation().getY();
+        this.lng = marker.getLocation().getX();
+        this.dateCreated = marker.getDateCreated();
+        this.distance = distance;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getServiceCode() {
+        return serviceCode;
+    }
+
+    public void setServiceCode(Long serviceCode) {
+        this.serviceCode = serviceCode;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public void setLat(double lat) {
+        this.lat = lat;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public void setLng(double lng) {
+        this.lng = lng;
+    }
+
+    public Instant getDateCreated() {
+        return dateCreated;
+    }
+
+    public void setDateCreated(Instant dateCreated) {
+        this.dateCreated = dateCreated;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+}
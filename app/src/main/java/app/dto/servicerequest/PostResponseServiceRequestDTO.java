@@ -15,8 +15,11 @@
 package app.dto.servicerequest;
 
 import app.model.servicerequest.ServiceRequest;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
+
 public class PostResponseServiceRequestDTO implements ServiceRequestResponseDTO {
 
     @JsonProperty("service_request_id")
@@ -31,6 +34,11 @@ public class PostResponseServiceRequestDTO implements ServiceRequestResponseDTO
     @JsonProperty("account_id")
     private String accountId;
 
+    // open requests of the same service close to the new one, nearest first
+    @JsonProperty("nearby_service_request_ids")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<Long> nearbyServiceRequestIds;
+
     public PostResponseServiceRequestDTO() {
     }
 
@@ -69,4 +77,12 @@ public class PostResponseServiceRequestDTO implements ServiceRequestResponseDTO
     public void setAccountId(String accountId) {
         this.accountId = accountId;
     }
+
+    public List<Long> getNearbyServiceRequestIds() {
+        return nearbyServiceRequestIds;
+    }
+
+    public void setNearbyServiceRequestIds(List<Long> nearbyServiceRequestIds) {
+        this.nearbyServiceRequestIds = nearbyServiceRequestIds;
+    }
 }
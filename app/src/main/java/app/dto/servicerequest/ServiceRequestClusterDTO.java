@@ -0,0 +1,83 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.servicerequest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.Map;
+
+/**
+ * The public service requests inside one grid cell of a zoomed-out map view, positioned at their centroid.
+ */
+@Introspected
+public class ServiceRequestClusterDTO {
+
+    private double lat;
+
+    private double lng;
+
+    private int count;
+
+    @JsonProperty("status_counts")
+    private Map<String, Integer> statusCounts;
+
+    // keyed by service_code; only when requested with by_service=true
+    @JsonProperty("service_counts")
+    private Map<Long, Integer> serviceCounts;
+
+    public ServiceRequestClusterDTO() {
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public void setLat(double lat) {
+        this.lat = lat;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public void setLng(double lng) {
+        this.lng = lng;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public Map<String, Integer> getStatusCounts() {
+        return statusCounts;
+    }
+
+    public void setStatusCounts(Map<String, Integer> statusCounts) {
+        this.statusCounts = statusCounts;
+    }
+
+    public Map<Long, Integer> getServiceCounts() {
+        return serviceCounts;
+    }
+
+    public void setServiceCounts(Map<Long, Integer> serviceCounts) {
+        this.serviceCounts = serviceCounts;
+    }
+}
@@ -0,0 +1,31 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.servicerequest;
+
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * A page of service requests read with keyset pagination.
+ *
+ * @param content    the requests on this page
+ * @param nextCursor token for the following page, or null when this is the last page
+ * @param totalSize  number of matching requests, or null when the total was not requested
+ */
+public record ServiceRequestCursorPage(List<ServiceRequestDTO> content,
+                                       @Nullable String nextCursor,
+                                       @Nullable Long totalSize) {
+}
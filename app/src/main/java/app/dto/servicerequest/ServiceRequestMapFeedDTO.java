@@ -0,0 +1,124 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.servicerequest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+
+/**
+ * Map markers of a jurisdiction's public service requests as parallel arrays: the marker at index i is
+ * {@code ids[i]}, {@code lat[i]}, {@code lng[i]} and so on. A full feed lists every marker; a delta (full = false)
+ * lists the markers that were added or changed since the requested cursor, and the ids of the ones to remove.
+ */
+@Introspected
+public class ServiceRequestMapFeedDTO {
+
+    // pass back as since= to receive only the changes after this feed
+    private String cursor;
+
+    private boolean full;
+
+    private long[] ids;
+
+    private double[] lat;
+
+    private double[] lng;
+
+    private String[] status;
+
+    @JsonProperty("service_code")
+    private long[] serviceCode;
+
+    // epoch seconds
+    private long[] created;
+
+    @JsonProperty("removed_ids")
+    private long[] removedIds;
+
+    public ServiceRequestMapFeedDTO() {
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public long[] getIds() {
+        return ids;
+    }
+
+    public void setIds(long[] ids) {
+        this.ids = ids;
+    }
+
+    public double[] getLat() {
+        return lat;
+    }
+
+    public void setLat(double[] lat) {
+        this.lat = lat;
+    }
+
+    public double[] getLng() {
+        return lng;
+    }
+
+    public void setLng(double[] lng) {
+        this.lng = lng;
+    }
+
+    public String[] getStatus() {
+        return status;
+    }
+
+    public void setStatus(String[] status) {
+        this.status = status;
+    }
+
+    public long[] getServiceCode() {
+        return serviceCode;
+    }
+
+    public void setServiceCode(long[] serviceCode) {
+        this.serviceCode = serviceCode;
+    }
+
+    public long[] getCreated() {
+        return created;
+    }
+
+    public void setCreated(long[] created) {
+        this.created = created;
+    }
+
+    public long[] getRemovedIds() {
+        return removedIds;
+    }
+
+    public void setRemovedIds(long[] removedIds) {
+        this.removedIds = removedIds;
+    }
+}
@@ -0,0 +1,205 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.dto.servicerequest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.core.annotation.Nullable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts of the service requests created in a date range. Time to close only covers requests with a closed date.
+ */
+@Introspected
+public class ServiceRequestStatsDTO {
+
+    @JsonProperty("start_date")
+    private LocalDate startDate;
+
+    @JsonProperty("end_date")
+    private LocalDate endDate;
+
+    @JsonProperty("total_requests")
+    private long totalRequests;
+
+    @JsonProperty("closed_requests")
+    private long closedRequests;
+
+    @Nullable
+    @JsonProperty("average_seconds_to_close")
+    private Double averageSecondsToClose;
+
+    @JsonProperty("by_status")
+    private Map<String, Long> byStatus;
+
+    // "none" counts requests without a priority
+    @JsonProperty("by_priority")
+    private Map<String, Long> byPriority;
+
+    @JsonProperty("by_service")
+    private Map<Long, Long> byService;
+
+    // "none" counts requests outside any project
+    @JsonProperty("by_project")
+    private Map<String, Long> byProject;
+
+    private List<Day> daily;
+
+    public ServiceRequestStatsDTO() {
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public long getTotalRequests() {
+        return totalRequests;
+    }
+
+    public void setTotalRequests(long totalRequests) {
+        this.totalRequests = totalRequests;
+    }
+
+    public long getClosedRequests() {
+        return closedRequests;
+    }
+
+    public void setClosedRequests(long closedRequests) {
+        this.closedRequests = closedRequests;
+    }
+
+    @Nullable
+    public Double getAverageSecondsToClose() {
+        return averageSecondsToClose;
+    }
+
+    public void setAverageSecondsToClose(@Nullable Double averageSecondsToClose) {
+        this.averageSecondsToClose = averageSecondsToClose;
+    }
+
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<String, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<String, Long> getByPriority() {
+        return byPriority;
+    }
+
+    public void setByPriority(Map<String, Long> byPriority) {
+        this.byPriority = byPriority;
+    }
+
+    public Map<Long, Long> getByService() {
+        return byService;
+    }
+
+    public void setByService(Map<Long, Long> byService) {
+        this.byService = byService;
+    }
+
+    public Map<String, Long> getByProject() {
+        return byProject;
+    }
+
+    public void setByProject(Map<String, Long> byProject) {
+        this.byProject = byProject;
+    }
+
+    public List<Day> getDaily() {
+        return daily;
+    }
+
+    public void setDaily(List<Day> daily) {
+        this.daily = daily;
+    }
+
+    @Introspected
+    public static class Day {
+
+        private LocalDate date;
+
+        @JsonProperty("total_requests")
+        private long totalRequests;
+
+        @JsonProperty("closed_requests")
+        private long closedRequests;
+
+        @Nullable
+        @JsonProperty("average_seconds_to_close")
+        private Double averageSecondsToClose;
+
+        public Day() {
+        }
+
+        public Day(LocalDate date, long totalRequests, long closedRequests, @Nullable Double averageSecondsToClose) {
+            this.date = date;
+            this.totalRequests = totalRequests;
+            this.closedRequests = closedRequests;
+            this.averageSecondsToClose = averageSecondsToClose;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public long getTotalRequests() {
+            return totalRequests;
+        }
+
+        public void setTotalRequests(long totalRequests) {
+            this.totalRequests = totalRequests;
+        }
+
+        public long getClosedRequests() {
+            return closedRequests;
+        }
+
+        public void setClosedRequests(long closedRequests) {
+            this.closedRequests = closedRequests;
+        }
+
+        @Nullable
+        public Double getAverageSecondsToClose() {
+            return averageSecondsToClose;
+        }
+
+        public void setAverageSecondsToClose(@Nullable Double averageSecondsToClose) {
+            this.averageSecondsToClose = averageSecondsToClose;
+        }
+    }
+}
@@ -58,7 +58,9 @@ public class Project {
     @JoinColumn(name = "jurisdiction_id", nullable = false)
     private Jurisdiction jurisdiction;
 
-    @org.hibernate.annotations.Formula("(select count(*) from service_requests sr where sr.project_id = id)")
+    // only changed by ProjectRepository.updateRequestCount and reconcileRequestCounts, so saving a project loaded
+    // earlier cannot overwrite requests created in the meantime
+    @Column(name = "request_count", insertable = false, updatable = false)
     private int requestCount;
 
     @DateCreated
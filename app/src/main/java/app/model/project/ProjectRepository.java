@@ -37,6 +37,18 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
 
     Optional<Project> findBySlugAndJurisdictionId(String slug, String jurisdictionId);
 
+    // date_updated is ON UPDATE CURRENT_TIMESTAMP; keeping it means a counted request does not look like a project edit
+    @Query(value = "UPDATE projects SET request_count = request_count + :delta, date_updated = date_updated WHERE id = :id", nativeQuery = true)
+    Integer updateRequestCount(Long id, int delta);
+
+    /**
+     * Recounts the non-deleted requests of every project and corrects the maintained counts that drifted.
+     *
+     * @return the number of projects whose count was corrected
+     */
+    @Query(value = "UPDATE projects p LEFT JOIN (SELECT project_id, COUNT(*) AS requests FROM service_requests WHERE project_id IS NOT NULL AND deleted = false GROUP BY project_id) sr ON sr.project_id = p.id SET p.request_count = COALESCE(sr.requests, 0), p.date_updated = p.date_updated WHERE p.request_count <> COALESCE(sr.requests, 0)", nativeQuery = true)
+    Integer reconcileRequestCounts();
+
     @Query("FROM Project p WHERE p.jurisdiction.id = :jurisdictionId AND p.startDate <= :time AND p.endDate >= :time AND intersects(p.boundary, :location) = true")
     Optional<Project> findProjectForLocationAndTime(String jurisdictionId, Point location, Instant time);
 }
@@ -15,8 +15,10 @@
 package app.model.servicedefinition;
 
 import io.micronaut.data.annotation.Id;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.repository.PageableRepository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -24,5 +26,12 @@ public interface ServiceDefinitionAttributeRepository extends PageableRepository
     boolean existsByServiceId(long serviceId);
     List<ServiceDefinitionAttribute> findAllByServiceId(long serviceId);
     List<ServiceDefinitionAttribute> findAllByServiceIdOrderByAttributeOrderAsc(long serviceId);
+
+    @Query("SELECT DISTINCT a FROM ServiceDefinitionAttribute a LEFT JOIN FETCH a.attributeValues WHERE a.service.jurisdiction.id = :jurisdictionId ORDER BY a.attributeOrder")
+    List<ServiceDefinitionAttribute> findAllByJurisdictionId(String jurisdictionId);
+
+    @Query("SELECT DISTINCT a.service.id FROM ServiceDefinitionAttribute a WHERE a.service.id IN (:serviceIds)")
+    List<Long> findServiceIdsWithAttributes(Collection<Long> serviceIds);
+
     void updateAttributeOrderByIdAndServiceId(@Id Long id, @Id Long serviceId, Integer attributeOrder);
 }
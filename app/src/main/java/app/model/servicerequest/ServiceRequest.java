@@ -134,6 +134,13 @@ public class ServiceRequest {
 
     private boolean deleted;
 
+    private long revision;
+
+    // only changed by ServiceRequestRepository.updateRemovalSuggestionCount, so saving a request loaded earlier
+    // cannot overwrite suggestions made in the meantime
+    @Column(name = "removal_suggestion_count", insertable = false, updatable = false)
+    private int removalSuggestionCount;
+
     @Nullable
     @Column(name = "client_request_id", unique = true, length = 36)
     private String clientRequestId;
@@ -397,6 +404,27 @@ public class ServiceRequest {
         this.deleted = deleted;
     }
 
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public int getRemovalSuggestionCount() {
+        return removalSuggestionCount;
+    }
+
+    public void setRemovalSuggestionCount(int removalSuggestionCount) {
+        this.removalSuggestionCount = removalSuggestionCount;
+    }
+
+    @PreUpdate
+    void incrementRevision() {
+        revision++;
+    }
+
     @Nullable
     public String getClientRequestId() {
         return clientRequestId;
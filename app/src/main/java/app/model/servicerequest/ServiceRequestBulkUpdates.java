@@ -0,0 +1,114 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.model.servicerequest;
+
+import app.model.jurisdiction.Jurisdiction_;
+import app.model.project.Project;
+import app.model.project.ProjectRepository;
+import app.model.project.Project_;
+import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.transaction.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based updates of many service requests. Changes are written with a single UPDATE ... WHERE id IN (...)
+ * instead of loading and merging each entity, so entity callbacks such as {@code @DateUpdated} do not run and
+ * dateUpdated and the revision are assigned explicitly, and moving requests between projects adjusts the projects'
+ * request counts.
+ */
+@Singleton
+public class ServiceRequestBulkUpdates {
+
+    private final EntityManager entityManager;
+    private final ProjectRepository projectRepository;
+
+    public ServiceRequestBulkUpdates(EntityManager entityManager, ProjectRepository projectRepository) {
+        this.entityManager = entityManager;
+        this.projectRepository = projectRepository;
+    }
+
+    /**
+     * @param assignments new values by attribute; an empty map only resolves the matching ids
+     * @return ids of the non-deleted requests of the jurisdiction that were updated
+     */
+    @Transactional
+    public List<Long> updateAll(String jurisdictionId, Collection<Long> serviceRequestIds,
+                                Map<SingularAttribute<ServiceRequest, ?>, Object> assignments, Instant now) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<ServiceRequest> root = query.from(ServiceRequest.class);
+        query.select(root.get(ServiceRequest_.id))
+                .where(root.get(ServiceRequest_.id).in(serviceRequestIds),
+                        criteriaBuilder.equal(root.get(ServiceRequest_.jurisdiction).get(Jurisdiction_.id), jurisdictionId),
+                        criteriaBuilder.isFalse(root.get(ServiceRequest_.deleted)));
+        List<Long> matchedIds = entityManager.createQuery(query).getResultList();
+        if (matchedIds.isEmpty() || assignments.isEmpty()) {
+            return matchedIds;
+        }
+
+        if (assignments.containsKey(ServiceRequest_.project)) {
+            moveProjectRequestCounts(matchedIds, (Project) assignments.get(ServiceRequest_.project));
+        }
+
+        CriteriaUpdate<ServiceRequest> update = criteriaBuilder.createCriteriaUpdate(ServiceRequest.class);
+        Root<ServiceRequest> updateRoot = update.from(ServiceRequest.class);
+        assignments.forEach((attribute, value) -> set(update, attribute, value));
+        update.set(ServiceRequest_.dateUpdated, now)
+                .set(updateRoot.get(ServiceRequest_.revision),
+                        criteriaBuilder.sum(updateRoot.get(ServiceRequest_.revision), 1L))
+                .where(updateRoot.get(ServiceRequest_.id).in(matchedIds));
+        entityManager.createQuery(update).executeUpdate();
+
+        return matchedIds;
+    }
+
+    // must run before the requests are reassigned, while they still reference their current projects
+    private void moveProjectRequestCounts(List<Long> serviceRequestIds, Project project) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<ServiceRequest> root = query.from(ServiceRequest.class);
+        Path<Long> projectId = root.get(ServiceRequest_.project).get(Project_.id);
+        query.multiselect(projectId, criteriaBuilder.count(root))
+                .where(root.get(ServiceRequest_.id).in(serviceRequestIds))
+                .groupBy(projectId);
+
+        for (Tuple previous : entityManager.createQuery(query).getResultList()) {
+            projectRepository.updateRequestCount(previous.get(0, Long.class), -previous.get(1, Long.class).intValue());
+        }
+        if (project != null) {
+            projectRepository.updateRequestCount(project.getId(), serviceRequestIds.size());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void set(CriteriaUpdate<ServiceRequest> update, SingularAttribute<ServiceRequest, T> attribute,
+                                Object value) {
+        update.set(attribute, (T) value);
+    }
+}
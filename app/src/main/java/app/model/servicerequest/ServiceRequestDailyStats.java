@@ -0,0 +1,74 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.servicerequest;
+
+import io.micronaut.core.annotation.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * One row of the daily service request rollup, or a change to be applied to it.
+ *
+ * @param requestCount   number of requests
+ * @param closedCount    number of those requests that have a closed date
+ * @param secondsToClose total seconds from creation to closing of the closed requests
+ */
+public record ServiceRequestDailyStats(Key key, long requestCount, long closedCount, long secondsToClose) {
+
+    /**
+     * @param date      UTC date the requests were created
+     * @param priority  null for requests without a priority
+     * @param projectId null for requests outside any project
+     */
+    public record Key(LocalDate date, Long serviceId, ServiceRequestStatus status,
+                      @Nullable ServiceRequestPriority priority, @Nullable Long projectId) {
+    }
+
+    /**
+     * @return the contribution of a single request to the rollup
+     */
+    public static ServiceRequestDailyStats of(ServiceRequest serviceRequest) {
+        return of(serviceRequest.getDateCreated(), serviceRequest.getService().getId(), serviceRequest.getStatus(),
+                serviceRequest.getPriority(),
+                serviceRequest.getProject() == null ? null : serviceRequest.getProject().getId(),
+                serviceRequest.getClosedDate());
+    }
+
+    static ServiceRequestDailyStats of(Instant dateCreated, Long serviceId, ServiceRequestStatus status,
+                                       @Nullable ServiceRequestPriority priority, @Nullable Long projectId,
+                                       @Nullable Instant closedDate) {
+        Key key = new Key(LocalDate.ofInstant(dateCreated, ZoneOffset.UTC), serviceId, status, priority, projectId);
+        if (closedDate == null) {
+            return new ServiceRequestDailyStats(key, 1, 0, 0);
+        }
+        return new ServiceRequestDailyStats(key, 1, 1, Math.max(0, Duration.between(dateCreated, closedDate).toSeconds()));
+    }
+
+    public ServiceRequestDailyStats plus(ServiceRequestDailyStats other) {
+        return new ServiceRequestDailyStats(key, requestCount + other.requestCount, closedCount + other.closedCount,
+                secondsToClose + other.secondsToClose);
+    }
+
+    public ServiceRequestDailyStats negate() {
+        return new ServiceRequestDailyStats(key, -requestCount, -closedCount, -secondsToClose);
+    }
+
+    public boolean isEmpty() {
+        return requestCount == 0 && closedCount == 0 && secondsToClose == 0;
+    }
+}
@@ -0,0 +1,184 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.servicerequest;
+
+import app.model.jurisdiction.Jurisdiction_;
+import app.model.project.Project_;
+import app.model.service.Service_;
+import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.transaction.Transactional;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and incrementally updates the {@code service_request_daily_stats} rollup. Changes are applied as relative
+ * upserts, so concurrent writers adding to the same row do not overwrite each other.
+ */
+@Singleton
+public class ServiceRequestDailyStatsStore {
+
+    private static final String NO_PRIORITY = "";
+    private static final long NO_PROJECT = 0L;
+
+    private static final String UPSERT = "INSERT INTO service_request_daily_stats (jurisdiction_id, stats_date, "
+            + "services_id, status, priority, project_id, request_count, closed_count, seconds_to_close) "
+            + "VALUES (:jurisdictionId, :statsDate, :serviceId, :status, :priority, :projectId, :requestCount, "
+            + ":closedCount, :secondsToClose) "
+            + "ON DUPLICATE KEY UPDATE request_count = request_count + VALUES(request_count), "
+            + "closed_count = closed_count + VALUES(closed_count), "
+            + "seconds_to_close = seconds_to_close + VALUES(seconds_to_close)";
+
+    private static final String FIND_BY_DATE_RANGE = "SELECT stats_date, services_id, status, priority, project_id, "
+            + "request_count, closed_count, seconds_to_close FROM service_request_daily_stats "
+            + "WHERE jurisdiction_id = :jurisdictionId AND stats_date BETWEEN :startDate AND :endDate "
+            + "AND request_count <> 0";
+
+    // the rollup rows as computed from service_requests, keyed like service_request_daily_stats
+    private static final String ACTUAL = "SELECT jurisdiction_id, "
+            + "DATE(CONVERT_TZ(date_created, @@session.time_zone, '+00:00')) AS stats_date, services_id, status, "
+            + "COALESCE(priority, '') AS priority, COALESCE(project_id, 0) AS project_id, COUNT(*) AS request_count, "
+            + "COUNT(closed_date) AS closed_count, "
+            + "COALESCE(SUM(GREATEST(TIMESTAMPDIFF(SECOND, date_created, closed_date), 0)), 0) AS seconds_to_close "
+            + "FROM service_requests WHERE deleted = false AND jurisdiction_id IS NOT NULL "
+            + "GROUP BY jurisdiction_id, DATE(CONVERT_TZ(date_created, @@session.time_zone, '+00:00')), services_id, "
+            + "status, COALESCE(priority, ''), COALESCE(project_id, 0)";
+
+    private static final String SAME_ROW = "s.jurisdiction_id = a.jurisdiction_id AND s.stats_date = a.stats_date "
+            + "AND s.services_id = a.services_id AND s.status = a.status AND s.priority = a.priority "
+            + "AND s.project_id = a.project_id";
+
+    private static final String CORRECT_EXISTING = "UPDATE service_request_daily_stats s LEFT JOIN (" + ACTUAL + ") a "
+            + "ON " + SAME_ROW + " "
+            + "SET s.request_count = COALESCE(a.request_count, 0), s.closed_count = COALESCE(a.closed_count, 0), "
+            + "s.seconds_to_close = COALESCE(a.seconds_to_close, 0) "
+            + "WHERE s.request_count <> COALESCE(a.request_count, 0) OR s.closed_count <> COALESCE(a.closed_count, 0) "
+            + "OR s.seconds_to_close <> COALESCE(a.seconds_to_close, 0)";
+
+    private static final String INSERT_MISSING = "INSERT INTO service_request_daily_stats (jurisdiction_id, "
+            + "stats_date, services_id, status, priority, project_id, request_count, closed_count, seconds_to_close) "
+            + "SELECT a.jurisdiction_id, a.stats_date, a.services_id, a.status, a.priority, a.project_id, "
+            + "a.request_count, a.closed_count, a.seconds_to_close FROM (" + ACTUAL + ") a "
+            + "LEFT JOIN service_request_daily_stats s ON " + SAME_ROW + " WHERE s.jurisdiction_id IS NULL";
+
+    private final EntityManager entityManager;
+
+    public ServiceRequestDailyStatsStore(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Adds the changes to the jurisdiction's rollup. Changes to the same row are combined first, and changes that
+     * cancel out are not written.
+     */
+    @Transactional
+    public void add(String jurisdictionId, Collection<ServiceRequestDailyStats> changes) {
+        Map<ServiceRequestDailyStats.Key, ServiceRequestDailyStats> combined = new LinkedHashMap<>();
+        changes.forEach(change -> combined.merge(change.key(), change, ServiceRequestDailyStats::plus));
+
+        for (ServiceRequestDailyStats change : combined.values()) {
+            if (change.isEmpty()) {
+                continue;
+            }
+            ServiceRequestDailyStats.Key key = change.key();
+            entityManager.createNativeQuery(UPSERT)
+                    .setParameter("jurisdictionId", jurisdictionId)
+                    .setParameter("statsDate", key.date())
+                    .setParameter("serviceId", key.serviceId())
+                    .setParameter("status", key.status().name())
+                    .setParameter("priority", key.priority() == null ? NO_PRIORITY : key.priority().name())
+                    .setParameter("projectId", key.projectId() == null ? NO_PROJECT : key.projectId())
+                    .setParameter("requestCount", change.requestCount())
+                    .setParameter("closedCount", change.closedCount())
+                    .setParameter("secondsToClose", change.secondsToClose())
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * Recomputes the rollup from service_requests and corrects the rows that drifted from it. Under REPEATABLE READ
+     * service_requests is read with shared locks, so requests written concurrently wait for the rebuild rather than
+     * being missed or counted twice.
+     *
+     * @return the number of rows corrected or added
+     */
+    @Transactional
+    public int reconcile() {
+        int corrected = entityManager.createNativeQuery(CORRECT_EXISTING).executeUpdate();
+        return corrected + entityManager.createNativeQuery(INSERT_MISSING).executeUpdate();
+    }
+
+    /**
+     * @return the rollup rows of requests created between the two UTC dates, both inclusive
+     */
+    @Transactional
+    public List<ServiceRequestDailyStats> findByDateRange(String jurisdictionId, LocalDate startDate, LocalDate endDate) {
+        List<Tuple> rows = entityManager.createNativeQuery(FIND_BY_DATE_RANGE, Tuple.class)
+                .setParameter("jurisdictionId", jurisdictionId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+
+        return rows.stream().map(row -> {
+            String priority = row.get(3, String.class);
+            long projectId = row.get(4, Number.class).longValue();
+            ServiceRequestDailyStats.Key key = new ServiceRequestDailyStats.Key(toLocalDate(row.get(0)),
+                    row.get(1, Number.class).longValue(), ServiceRequestStatus.valueOf(row.get(2, String.class)),
+                    NO_PRIORITY.equals(priority) ? null : ServiceRequestPriority.valueOf(priority),
+                    projectId == NO_PROJECT ? null : projectId);
+            return new ServiceRequestDailyStats(key, row.get(5, Number.class).longValue(),
+                    row.get(6, Number.class).longValue(), row.get(7, Number.class).longValue());
+        }).toList();
+    }
+
+    /**
+     * Reads the current contribution of each of the given non-deleted requests without loading the entities, so
+     * set-based updates can subtract it before they change the requests.
+     */
+    @Transactional
+    public List<ServiceRequestDailyStats> findContributions(String jurisdictionId, Collection<Long> serviceRequestIds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<ServiceRequest> root = query.from(ServiceRequest.class);
+        query.multiselect(root.get(ServiceRequest_.dateCreated), root.get(ServiceRequest_.service).get(Service_.id),
+                        root.get(ServiceRequest_.status), root.get(ServiceRequest_.priority),
+                        root.join(ServiceRequest_.project, JoinType.LEFT).get(Project_.id),
+                        root.get(ServiceRequest_.closedDate))
+                .where(root.get(ServiceRequest_.id).in(serviceRequestIds),
+                        criteriaBuilder.equal(root.get(ServiceRequest_.jurisdiction).get(Jurisdiction_.id), jurisdictionId),
+                        criteriaBuilder.isFalse(root.get(ServiceRequest_.deleted)));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> ServiceRequestDailyStats.of(row.get(0, Instant.class), row.get(1, Long.class),
+                        row.get(2, ServiceRequestStatus.class), row.get(3, ServiceRequestPriority.class),
+                        row.get(4, Long.class), row.get(5, Instant.class)))
+                .toList();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
@@ -0,0 +1,62 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.servicerequest;
+
+import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
+import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.transaction.Transactional;
+
+import java.util.List;
+
+/**
+ * Keyset ("seek") reads of service requests. Unlike {@link ServiceRequestRepository#findAll(QuerySpecification,
+ * io.micronaut.data.model.Pageable)} these never issue a COUNT query and their cost does not grow with the page
+ * number, because the position is expressed as a predicate instead of an OFFSET.
+ */
+@Singleton
+public class ServiceRequestKeysetQueries {
+
+    private final EntityManager entityManager;
+
+    public ServiceRequestKeysetQueries(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param specification filters, including any {@link ServiceRequestRepository.Specifications#createdBeforePosition}
+     *                      seek predicate
+     * @param limit         maximum number of rows to return
+     * @return matching requests ordered by dateCreated DESC, id DESC
+     */
+    @Transactional
+    public List<ServiceRequest> findNewestFirst(QuerySpecification<ServiceRequest> specification, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ServiceRequest> query = criteriaBuilder.createQuery(ServiceRequest.class);
+        Root<ServiceRequest> root = query.from(ServiceRequest.class);
+
+        query.select(root)
+                .where(specification.toPredicate(root, query, criteriaBuilder))
+                .orderBy(criteriaBuilder.desc(root.get(ServiceRequest_.dateCreated)),
+                        criteriaBuilder.desc(root.get(ServiceRequest_.id)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,89 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.servicerequest;
+
+import io.micronaut.core.annotation.Introspected;
+import org.locationtech.jts.geom.Point;
+
+import java.time.Instant;
+
+/**
+ * The columns of a service request that the public map plots. Read instead of the full request to build the map
+ * feed.
+ */
+@Introspected
+public class ServiceRequestMarker {
+    private Long id;
+    private Point location;
+    private ServiceRequestStatus status;
+    private Long serviceId;
+    private Instant dateCreated;
+
+    public ServiceRequestMarker() {}
+
+    public ServiceRequestMarker(Long id, Point location, ServiceRequestStatus status, Long serviceId,
+                                Instant dateCreated) {
+        this.id = id;
+        this.location = location;
+        this.status = status;
+        this.serviceId = serviceId;
+        this.dateCreated = dateCreated;
+    }
+
+    public static ServiceRequestMarker of(ServiceRequest serviceRequest) {
+        return new ServiceRequestMarker(serviceRequest.getId(), serviceRequest.getLocation(),
+                serviceRequest.getStatus(), serviceRequest.getService().getId(), serviceRequest.getDateCreated());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Point getLocation() {
+        return location;
+    }
+
+    public void setLocation(Point location) {
+        this.location = location;
+    }
+
+    public ServiceRequestStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ServiceRequestStatus status) {
+        this.status = status;
+    }
+
+    public Long getServiceId() {
+        return serviceId;
+    }
+
+    public void setServiceId(Long serviceId) {
+        this.serviceId = serviceId;
+    }
+
+    public Instant getDateCreated() {
+        return dateCreated;
+    }
+
+    public void setDateCreated(Instant dateCreated) {
+        this.dateCreated = dateCreated;
+    }
+}
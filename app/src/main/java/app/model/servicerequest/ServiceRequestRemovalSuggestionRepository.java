@@ -2,7 +2,6 @@ package app.model.servicerequest;
 
 import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
-import io.micronaut.data.model.Pageable;
 import io.micronaut.data.repository.CrudRepository;
 import java.util.List;
 
@@ -13,9 +12,6 @@ public interface ServiceRequestRemovalSuggestionRepository extends CrudRepositor
     @Query("update ServiceRequestRemovalSuggestion s set s.deleted = true where s.serviceRequestId = :serviceRequestId and s.jurisdictionId = :jurisdictionId")
     void deleteByServiceRequestIdAndJurisdictionId(Long serviceRequestId, String jurisdictionId);
 
-    @Query("update ServiceRequestRemovalSuggestion s set s.deleted = true where s.id = :id and s.jurisdictionId = :jurisdictionId")
-    void softDelete(Long id, String jurisdictionId);
-
-    @Query("SELECT s.serviceRequestId as serviceRequestId, COUNT(s) as count FROM ServiceRequestRemovalSuggestion s WHERE s.serviceRequestId IN (:serviceRequestIds) AND s.deleted = false GROUP BY s.serviceRequestId")
-    List<ServiceRequestRemovalSuggestionCount> countByServiceRequestIdIn(List<Long> serviceRequestIds);
+    @Query("update ServiceRequestRemovalSuggestion s set s.deleted = true where s.id = :id and s.jurisdictionId = :jurisdictionId and s.deleted = false")
+    Integer softDelete(Long id, String jurisdictionId);
 }
\ No newline at end of file
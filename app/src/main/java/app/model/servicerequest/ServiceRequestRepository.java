@@ -27,8 +27,12 @@ import io.micronaut.data.repository.PageableRepository;
 import io.micronaut.data.repository.jpa.JpaSpecificationExecutor;
 import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
 import jakarta.transaction.Transactional;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,10 +44,23 @@ public interface ServiceRequestRepository extends PageableRepository<ServiceRequ
     List<ServiceRequest> findByIdInAndJurisdictionId(List<Long> serviceRequestIds, String jurisdictionId, Sort sort);
     Optional<ServiceRequest> findByIdAndJurisdictionId(Long serviceRequestId, String jurisdictionId);
     Optional<ServiceRequest> findByClientRequestIdAndJurisdictionId(String clientRequestId, String jurisdictionId);
+    List<ServiceRequest> findByClientRequestIdInAndJurisdictionId(Collection<String> clientRequestIds, String jurisdictionId);
 
-    @Query("update ServiceRequest sr set sr.deleted = true where sr.id = :id and sr.jurisdiction.id = :jurisdictionId and sr.deleted = false")
+    @Query("SELECT sr.id as id, sr.revision as revision, s.serviceName as serviceName, p.name as projectName FROM ServiceRequest sr JOIN sr.service s LEFT JOIN sr.project p WHERE sr.id = :id AND sr.jurisdiction.id = :jurisdictionId AND sr.deleted = false")
+    Optional<ServiceRequestRevision> findRevisionByIdAndJurisdictionId(Long id, String jurisdictionId);
+
+    @Query("SELECT sr.id as id, sr.location as location, sr.status as status, s.id as serviceId, sr.dateCreated as dateCreated FROM ServiceRequest sr JOIN sr.service s WHERE sr.jurisdiction.id = :jurisdictionId AND sr.deleted = false AND (sr.status <> :closed OR sr.dateCreated >= :closedRequestCutoffDate)")
+    List<ServiceRequestMarker> findMarkersByJurisdictionId(String jurisdictionId, ServiceRequestStatus closed, Instant closedRequestCutoffDate);
+
+    @Query("SELECT sr.id as id, sr.location as location, sr.status as status, s.id as serviceId, sr.dateCreated as dateCreated FROM ServiceRequest sr JOIN sr.service s WHERE sr.id IN (:ids) AND sr.jurisdiction.id = :jurisdictionId AND sr.deleted = false")
+    List<ServiceRequestMarker> findMarkersByIdInAndJurisdictionId(Collection<Long> ids, String jurisdictionId);
+
+    @Query("update ServiceRequest sr set sr.deleted = true, sr.removalSuggestionCount = 0 where sr.id = :id and sr.jurisdiction.id = :jurisdictionId and sr.deleted = false")
     Integer delete(Long id, String jurisdictionId);
 
+    @Query("update ServiceRequest sr set sr.removalSuggestionCount = sr.removalSuggestionCount + :delta where sr.id = :id")
+    Integer updateRemovalSuggestionCount(Long id, int delta);
+
     @Where("@.deleted = :deleted")
     Optional<ServiceRequest> findByIdAndDeleted(Long id, boolean deleted);
     @Transactional
@@ -90,15 +107,14 @@ public interface ServiceRequestRepository extends PageableRepository<ServiceRequ
         return findAll(specification, sort);
     }
 
-    private static QuerySpecification<ServiceRequest> getServiceRequestSpecification(String jurisdictionId,
-                                                                                     List<Long> serviceCodes,
-                                                                                     List<ServiceRequestStatus> status,
-                                                                                     List<ServiceRequestPriority> priority,
-                                                                                     Instant startDate, Instant endDate,
-                                                                                     Long projectId,
-                                                                                     Instant closedRequestCutoffDate) {
-        QuerySpecification<ServiceRequest> specification =
-                (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(ServiceRequest_.jurisdiction).get(Jurisdiction_.id), jurisdictionId);
+    static QuerySpecification<ServiceRequest> getServiceRequestSpecification(String jurisdictionId,
+                                                                             List<Long> serviceCodes,
+                                                                             List<ServiceRequestStatus> status,
+                                                                             List<ServiceRequestPriority> priority,
+                                                                             Instant startDate, Instant endDate,
+                                                                             Long projectId,
+                                                                             Instant closedRequestCutoffDate) {
+        QuerySpecification<ServiceRequest> specification = Specifications.jurisdictionIdEqual(jurisdictionId);
 
         specification = specification.and(Specifications.notDeleted());
 
@@ -136,6 +152,14 @@ public interface ServiceRequestRepository extends PageableRepository<ServiceRequ
 
     class Specifications {
 
+        public static QuerySpecification<ServiceRequest> jurisdictionIdEqual(String jurisdictionId) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(ServiceRequest_.jurisdiction).get(Jurisdiction_.id), jurisdictionId);
+        }
+
+        public static QuerySpecification<ServiceRequest> idIn(List<Long> serviceRequestIds) {
+            return (root, query, criteriaBuilder) -> root.get(ServiceRequest_.id).in(serviceRequestIds);
+        }
+
         public static QuerySpecification<ServiceRequest> notDeleted() {
             return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(ServiceRequest_.deleted), false);
         }
@@ -169,11 +193,51 @@ public interface ServiceRequestRepository extends PageableRepository<ServiceRequ
             return (root, query, criteriaBuilder) -> criteriaBuilder.lessThanOrEqualTo(root.get(ServiceRequest_.dateCreated), instant);
         }
 
+        // removalSuggestionCount
+        public static QuerySpecification<ServiceRequest> hasRemovalSuggestions(boolean hasRemovalSuggestions) {
+            return (root, query, criteriaBuilder) -> hasRemovalSuggestions
+                    ? criteriaBuilder.greaterThan(root.get(ServiceRequest_.removalSuggestionCount), 0)
+                    : criteriaBuilder.equal(root.get(ServiceRequest_.removalSuggestionCount), 0);
+        }
+
+        // location; MySQL reads the spatial index on location for MBRContains against a constant area of the
+        // column's SRID, so pass geometries with SRID 4326. The function is used as the predicate itself: isTrue
+        // renders MBRContains(...) = true, which MySQL cannot answer from the index
+        public static QuerySpecification<ServiceRequest> locationWithin(Polygon area) {
+            return (root, query, criteriaBuilder) -> ((HibernateCriteriaBuilder) criteriaBuilder).wrap(
+                    criteriaBuilder.function("MBRContains", Boolean.class, criteriaBuilder.literal(area),
+                            root.get(ServiceRequest_.location)));
+        }
+
+        /**
+         * Matches requests within the distance of the center along the sphere. The distance cannot use the spatial
+         * index, so combine it with {@link #locationWithin} of an area around the circle.
+         */
+        public static QuerySpecification<ServiceRequest> locationWithinDistance(Point center, double meters) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.lessThanOrEqualTo(
+                    criteriaBuilder.function("ST_Distance_Sphere", Double.class, root.get(ServiceRequest_.location),
+                            criteriaBuilder.literal(center)), meters);
+        }
+
         // projectId
         public static QuerySpecification<ServiceRequest> projectIdEqual(Long projectId) {
             return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(ServiceRequest_.project).get("id"), projectId);
         }
 
+        /**
+         * Seek predicate for keyset pagination ordered by dateCreated DESC, id DESC: matches the rows that come
+         * after the given (dateCreated, id) position.
+         */
+        public static QuerySpecification<ServiceRequest> createdBeforePosition(Instant dateCreated, Long id) {
+            return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                    criteriaBuilder.lessThan(root.get(ServiceRequest_.dateCreated), dateCreated),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(root.get(ServiceRequest_.dateCreated), dateCreated),
+                            criteriaBuilder.lessThan(root.get(ServiceRequest_.id), id)
+                    )
+            );
+        }
+
         /**
          * Filter that applies date restriction only to CLOSED requests.
          * Non-closed requests are always visible; closed requests must be created after the cutoff date.
@@ -0,0 +1,77 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.model.servicerequest;
+
+import io.micronaut.core.annotation.Introspected;
+
+/**
+ * What the public representation of a service request depends on besides its own columns, which are covered by the
+ * revision. Read instead of the full request to answer conditional GETs.
+ */
+@Introspected
+public class ServiceRequestRevision {
+    private Long id;
+    private Long revision;
+    private String serviceName;
+    private String projectName;
+
+    public ServiceRequestRevision() {}
+
+    public ServiceRequestRevision(Long id, Long revision, String serviceName, String projectName) {
+        this.id = id;
+        this.revision = revision;
+        this.serviceName = serviceName;
+        this.projectName = projectName;
+    }
+
+    public static ServiceRequestRevision of(ServiceRequest serviceRequest) {
+        return new ServiceRequestRevision(serviceRequest.getId(), serviceRequest.getRevision(),
+                serviceRequest.getService().getServiceName(),
+                serviceRequest.getProject() != null ? serviceRequest.getProject().getName() : null);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public void setProjectName(String projectName) {
+        this.projectName = projectName;
+    }
+}
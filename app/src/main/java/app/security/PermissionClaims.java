@@ -0,0 +1,109 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.security.authentication.Authentication;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Reads the permission claims that UnityAuth can embed in the tokens it issues. The {@code permissions} claim maps
+ * tenant ids to the permission names the user holds in that tenant, with system-scoped permissions under
+ * {@code "*"}. {@code permissions_version} identifies the role assignments the claims were computed from. Only
+ * claims of an authenticated (i.e. signature-verified) token are ever consulted.
+ */
+public final class PermissionClaims {
+
+    public static final String PERMISSIONS_CLAIM = "permissions";
+    public static final String PERMISSIONS_VERSION_CLAIM = "permissions_version";
+    public static final String SYSTEM_PERMISSIONS_KEY = "*";
+
+    private PermissionClaims() {
+    }
+
+    /**
+     * @return the permission names the token grants for the tenant, or empty if the token carries no permission
+     * claims and the decision has to be made by UnityAuth
+     */
+    public static Optional<List<String>> getTenantPermissions(@Nullable Authentication authentication, Long tenantId) {
+        if (authentication == null || authentication.getAttributes() == null) {
+            return Optional.empty();
+        }
+
+        if (!(authentication.getAttributes().get(PERMISSIONS_CLAIM) instanceof Map<?, ?> permissionsByTenant)) {
+            return Optional.empty();
+        }
+
+        List<String> permissions = new ArrayList<>();
+        addPermissions(permissions, permissionsByTenant.get(SYSTEM_PERMISSIONS_KEY));
+        addPermissions(permissions, permissionsByTenant.get(String.valueOf(tenantId)));
+        return Optional.of(permissions);
+    }
+
+    /**
+     * @return the permission names the token grants per tenant id, or empty if the token carries no permission claims
+     */
+    public static Optional<Map<String, Set<String>>> getAllPermissions(@Nullable Authentication authentication) {
+        if (authentication == null || authentication.getAttributes() == null) {
+            return Optional.empty();
+        }
+
+        if (!(authentication.getAttributes().get(PERMISSIONS_CLAIM) instanceof Map<?, ?> permissionsByTenant)) {
+            return Optional.empty();
+        }
+        return Optional.of(normalize(permissionsByTenant));
+    }
+
+    /**
+     * @return the permission names per tenant id with tenants without permissions left out, so claims can be
+     * compared regardless of order and representation
+     */
+    static Map<String, Set<String>> normalize(Map<?, ?> permissionsByTenant) {
+        Map<String, Set<String>> normalized = new TreeMap<>();
+        permissionsByTenant.forEach((tenant, claimValue) -> {
+            List<String> names = new ArrayList<>();
+            addPermissions(names, claimValue);
+            if (!names.isEmpty()) {
+                normalized.put(String.valueOf(tenant), new TreeSet<>(names));
+            }
+        });
+        return normalized;
+    }
+
+    public static Optional<Long> getPermissionsVersion(@Nullable Authentication authentication) {
+        if (authentication == null || authentication.getAttributes() == null) {
+            return Optional.empty();
+        }
+
+        if (authentication.getAttributes().get(PERMISSIONS_VERSION_CLAIM) instanceof Number version) {
+            return Optional.of(version.longValue());
+        }
+        return Optional.empty();
+    }
+
+    private static void addPermissions(List<String> permissions, @Nullable Object claimValue) {
+        if (claimValue instanceof Collection<?> names) {
+            names.stream().map(String::valueOf).forEach(permissions::add);
+        }
+    }
+}
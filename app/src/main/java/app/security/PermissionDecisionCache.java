@@ -0,0 +1,173 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import com.nimbusds.jwt.JWTParser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of UnityAuth permission decisions keyed by (token hash, jurisdiction or tenant, permission set).
+ * Entries expire after the configured TTL or at the token's exp, whichever comes first. Concurrent misses for the
+ * same key share a single lookup, so a burst of admin requests costs one auth round trip.
+ */
+@Singleton
+public class PermissionDecisionCache {
+    private static final Logger LOG = LoggerFactory.getLogger(PermissionDecisionCache.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    record Key(String tokenHash, String scope, Set<Permission> permissions) {}
+
+    private record Decision(boolean permitted, Instant expiresAt) {}
+
+    private final Map<Key, Decision> decisions;
+    private final Map<Key, CompletableFuture<Optional<Boolean>>> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Inject
+    public PermissionDecisionCache(@Value("${app.auth.decision-cache.ttl:60s}") Duration ttl,
+                                   @Value("${app.auth.decision-cache.max-size:10000}") int maxSize,
+                                   MeterRegistry meterRegistry) {
+        this(ttl, maxSize, meterRegistry, Clock.systemUTC());
+    }
+
+    PermissionDecisionCache(Duration ttl, int maxSize, MeterRegistry meterRegistry, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.decisions = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Decision> eldest) {
+                return size() > maxSize;
+            }
+        });
+        this.hits = meterRegistry.counter("libre311.auth.decision-cache", "result", "hit");
+        this.misses = meterRegistry.counter("libre311.auth.decision-cache", "result", "miss");
+        meterRegistry.gaugeMapSize("libre311.auth.decision-cache.size", List.of(), decisions);
+    }
+
+    /**
+     * @param loader performs the actual permission check; an empty result means the check could not be completed
+     *               (e.g. the auth service failed) and is treated as a denial without being cached
+     */
+    public boolean isPermitted(String token, String scope, List<Permission> permissions,
+                               Supplier<Optional<Boolean>> loader) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return loader.get().orElse(false);
+        }
+
+        Key key = new Key(hash(token), scope, permissions.isEmpty() ? Set.of() : EnumSet.copyOf(permissions));
+        Decision cached = decisions.get(key);
+        if (cached != null && clock.instant().isBefore(cached.expiresAt())) {
+            hits.increment();
+            return cached.permitted();
+        }
+        misses.increment();
+
+        CompletableFuture<Optional<Boolean>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<Boolean>> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            return existing.join().orElse(false);
+        }
+
+        try {
+            Optional<Boolean> result = loader.get();
+            result.ifPresent(permitted -> store(key, token, permitted));
+            pending.complete(result);
+            return result.orElse(false);
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    /**
+     * Drops every cached decision, e.g. after user roles or jurisdiction assignments change.
+     */
+    public void invalidateAll() {
+        decisions.clear();
+    }
+
+    int size() {
+        return decisions.size();
+    }
+
+    private void store(Key key, String token, boolean permitted) {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(ttl);
+
+        Optional<Instant> tokenExpiry;
+        try {
+            tokenExpiry = getTokenExpiry(token);
+        } catch (ParseException e) {
+            LOG.debug("Not caching permission decision for unparseable token: {}", e.getMessage());
+            return;
+        }
+        if (tokenExpiry.isPresent() && tokenExpiry.get().isBefore(expiresAt)) {
+            expiresAt = tokenExpiry.get();
+        }
+
+        if (expiresAt.isAfter(now)) {
+            decisions.put(key, new Decision(permitted, expiresAt));
+        }
+    }
+
+    private static Optional<Instant> getTokenExpiry(String token) throws ParseException {
+        String jwt = token.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())
+                ? token.substring(BEARER_PREFIX.length())
+                : token;
+        Date expirationTime = JWTParser.parse(jwt).getJWTClaimsSet().getExpirationTime();
+        return Optional.ofNullable(expirationTime).map(Date::toInstant);
+    }
+
+    // raw bearer tokens are never kept in memory longer than the request that carried them
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.List;
+import java.util.Map;
+
+@Introspected
+public class PermissionsVersionResponse {
+    private long version;
+    private Map<String, List<String>> permissions = Map.of();
+
+    public PermissionsVersionResponse() {
+    }
+
+    public PermissionsVersionResponse(long version, Map<String, List<String>> permissions) {
+        this.version = version;
+        this.permissions = permissions;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Map<String, List<String>> getPermissions() {
+        return permissions;
+    }
+
+    public void setPermissions(Map<String, List<String>> permissions) {
+        this.permissions = permissions;
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.security.authentication.Authentication;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Decides whether the permission claims of a token are still current. UnityAuth bumps a user's permissions version
+ * whenever their roles change, but not when a tenant or service is disabled or a role's permissions are edited, so
+ * the latest version is fetched together with the permissions a token issued now would claim. Both are fetched at
+ * most once per refresh interval per user, and a token with an older version or different claims has to be checked
+ * remotely.
+ */
+@Singleton
+public class PermissionsVersionTracker {
+    private static final Logger LOG = LoggerFactory.getLogger(PermissionsVersionTracker.class);
+
+    private record KnownVersion(long version, Map<String, Set<String>> permissions, Instant checkedAt) {}
+
+    private final UnityAuthClient client;
+    private final Long serviceId;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private final Map<String, KnownVersion> knownVersions;
+
+    @Inject
+    public PermissionsVersionTracker(UnityAuthClient client,
+                                     @Value("${app.service-id}") Long serviceId,
+                                     @Value("${app.auth.permissions-version.refresh-interval:30s}") Duration refreshInterval,
+                                     @Value("${app.auth.permissions-version.max-users:10000}") int maxUsers) {
+        this(client, serviceId, refreshInterval, maxUsers, Clock.systemUTC());
+    }
+
+    PermissionsVersionTracker(UnityAuthClient client, Long serviceId, Duration refreshInterval, int maxUsers,
+                              Clock clock) {
+        this.client = client;
+        this.serviceId = serviceId;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+        this.knownVersions = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, KnownVersion> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    public boolean isCurrent(String token, Authentication authentication) {
+        Optional<Long> claimedVersion = PermissionClaims.getPermissionsVersion(authentication);
+        Optional<Map<String, Set<String>>> claimedPermissions = PermissionClaims.getAllPermissions(authentication);
+        if (claimedVersion.isEmpty() || claimedPermissions.isEmpty()) {
+            return false;
+        }
+
+        String user = authentication.getName();
+        Instant now = clock.instant();
+        KnownVersion known = knownVersions.get(user);
+        // a newer signed token means the user's permissions changed since the last fetch
+        if (known == null || !now.isBefore(known.checkedAt().plus(refreshInterval))
+                || claimedVersion.get() > known.version()) {
+            Optional<PermissionsVersionResponse> latest = fetchVersion(token);
+            if (latest.isEmpty()) {
+                return false;
+            }
+            long version = Math.max(latest.get().getVersion(), claimedVersion.get());
+            Map<String, List<String>> permissions = latest.get().getPermissions();
+            known = new KnownVersion(version,
+                    PermissionClaims.normalize(permissions == null ? Map.of() : permissions), now);
+            knownVersions.put(user, known);
+        }
+
+        return claimedVersion.get() >= known.version() && claimedPermissions.get().equals(known.permissions());
+    }
+
+    private Optional<PermissionsVersionResponse> fetchVersion(String token) {
+        try {
+            HttpResponse<PermissionsVersionResponse> response = client.getPermissionsVersion(serviceId, token);
+            return response.getBody(PermissionsVersionResponse.class);
+        } catch (HttpClientResponseException e) {
+            LOG.error("Returned {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -73,9 +73,9 @@ public class RequiresPermissionsAnnotationRule implements SecurityRule<HttpReque
         return Mono.fromCallable(() -> {
                     boolean result;
                     if (jurisdictionId != null) {
-                        result = unityAuthService.isUserPermittedForJurisdictionAction(bearerToken, jurisdictionId, declaredPermissions);
+                        result = unityAuthService.isUserPermittedForJurisdictionAction(bearerToken, authentication, jurisdictionId, declaredPermissions);
                     } else {
-                        result = unityAuthService.isUserPermittedForTenantAction(bearerToken, Long.valueOf(tenantId), declaredPermissions);
+                        result = unityAuthService.isUserPermittedForTenantAction(bearerToken, authentication, Long.valueOf(tenantId), declaredPermissions);
                     }
                     return result ? ALLOWED : REJECTED;
                 })
@@ -20,8 +20,10 @@ import app.dto.auth.ResetPasswordRequest;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Get;
 import io.micronaut.http.annotation.Header;
 import io.micronaut.http.annotation.Post;
+import io.micronaut.http.annotation.QueryValue;
 import io.micronaut.http.client.annotation.Client;
 
 import static io.micronaut.context.env.Environment.TEST;
@@ -38,6 +40,11 @@ public interface UnityAuthClient {
         @Body UnityAuthUserPermissionsRequest requestDTO,
         @Header("Authorization") String authorizationHeader);
 
+    @Get("/auth/principal/permissions-version{?serviceId}")
+    HttpResponse<PermissionsVersionResponse> getPermissionsVersion(
+        @QueryValue Long serviceId,
+        @Header("Authorization") String authorizationHeader);
+
     @Post("/auth/password-reset/generate")
     HttpResponse<GenerateTokenResponse> generateToken(
             @Body GenerateTokenRequest request,
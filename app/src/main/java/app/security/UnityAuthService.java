@@ -21,12 +21,14 @@ import app.model.jurisdictionuser.JurisdictionUserRepository;
 import app.model.user.User;
 import app.model.user.UserRepository;
 import io.micronaut.context.annotation.Property;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.http.annotation.PathVariable;
 import io.micronaut.http.client.exceptions.HttpClientResponseException;
 import io.micronaut.http.exceptions.HttpStatusException;
+import io.micronaut.security.authentication.Authentication;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,15 +47,21 @@ public class UnityAuthService {
     private final UserRepository userRepository;
     private final JurisdictionRepository jurisdictionRepository;
     private final JurisdictionUserRepository jurisdictionUserRepository;
+    private final PermissionDecisionCache permissionDecisionCache;
+    private final PermissionsVersionTracker permissionsVersionTracker;
 
 
     public UnityAuthService(UnityAuthClient client, UserRepository userRepository,
                             JurisdictionRepository jurisdictionRepository,
-                            JurisdictionUserRepository jurisdictionUserRepository) {
+                            JurisdictionUserRepository jurisdictionUserRepository,
+                            PermissionDecisionCache permissionDecisionCache,
+                            PermissionsVersionTracker permissionsVersionTracker) {
         this.client = client;
         this.userRepository = userRepository;
         this.jurisdictionRepository = jurisdictionRepository;
         this.jurisdictionUserRepository = jurisdictionUserRepository;
+        this.permissionDecisionCache = permissionDecisionCache;
+        this.permissionsVersionTracker = permissionsVersionTracker;
     }
 
     public HttpResponse<app.dto.auth.GenerateTokenResponse> generateToken(app.dto.auth.GenerateTokenRequest request, String internalToken) {
@@ -73,7 +81,18 @@ public class UnityAuthService {
             authorization);
     }
 
-    public boolean isUserPermittedForTenantAction(String token, Long tenantId, List<Permission> permissions) {
+    public boolean isUserPermittedForTenantAction(String token, @Nullable Authentication authentication,
+                                                  Long tenantId, List<Permission> permissions) {
+        return permissionDecisionCache.isPermitted(token, "tenant:" + tenantId, permissions, () -> {
+            Optional<List<String>> claimedPermissions = getClaimedPermissions(token, authentication, tenantId, permissions);
+            if (claimedPermissions.isPresent()) {
+                return Optional.of(validateTenantPermissions(claimedPermissions.get()));
+            }
+            return checkTenantPermissions(token, tenantId, permissions);
+        });
+    }
+
+    private Optional<Boolean> checkTenantPermissions(String token, Long tenantId, List<Permission> permissions) {
 
         HasPermissionRequest hasPermissionRequest = new HasPermissionRequest(tenantId, serviceId, permissions);
 
@@ -82,36 +101,51 @@ public class UnityAuthService {
             HttpResponse<HasPermissionResponse> hasPermissionResponseHttpResponse = client.hasPermission(hasPermissionRequest, token);
             Optional<HasPermissionResponse> body = hasPermissionResponseHttpResponse.getBody(HasPermissionResponse.class);
             if (body.isEmpty()) {
-                return false;
+                return Optional.empty();
             }
 
             hasPermission = body.get().isHasPermission() && validateTenantPermissions(body.get().getPermissions());
         } catch (HttpClientResponseException e) {
-            Optional<HasPermissionResponse> body = e.getResponse().getBody(HasPermissionResponse.class);
-            if (body.isEmpty()) {
-                LOG.error("Returned {}", e.getMessage());
-            } else {
-                LOG.error("Returned {}", (body.get().getErrorMessage() == null ? e.getMessage() : e.getStatus()));
-            }
-
-            return false;
+            logHasPermissionError(e);
+            return Optional.empty();
         }
 
-        return hasPermission;
+        return Optional.of(hasPermission);
     }
 
     private boolean validateTenantPermissions(List<String> permissions) {
         return permissions != null && permissions.stream().anyMatch(s -> s.endsWith("-SYSTEM") || s.endsWith("-TENANT"));
     }
 
-    public boolean isUserPermittedForJurisdictionAction(String token, String jurisdictionId, List<Permission> permissions) {
+    public boolean isUserPermittedForJurisdictionAction(String token, @Nullable Authentication authentication,
+                                                        String jurisdictionId, List<Permission> permissions) {
+        return permissionDecisionCache.isPermitted(token, "jurisdiction:" + jurisdictionId, permissions,
+                () -> checkJurisdictionPermissions(token, authentication, jurisdictionId, permissions));
+    }
+
+    /**
+     * Drops all cached permission decisions so that role changes take effect on the next request.
+     */
+    public void invalidatePermissionDecisions() {
+        permissionDecisionCache.invalidateAll();
+    }
+
+    private Optional<Boolean> checkJurisdictionPermissions(String token, @Nullable Authentication authentication,
+                                                           String jurisdictionId, List<Permission> permissions) {
 
         Optional<Jurisdiction> optionalJurisdiction = jurisdictionRepository.findById(jurisdictionId);
         if (optionalJurisdiction.isEmpty()) {
-            return false;
+            return Optional.of(false);
         }
 
         Long tenantId = optionalJurisdiction.get().getTenantId();
+
+        Optional<List<String>> claimedPermissions = getClaimedPermissions(token, authentication, tenantId, permissions);
+        if (claimedPermissions.isPresent()) {
+            return Optional.of(!claimedPermissions.get().isEmpty() &&
+                    validateUserExistenceAndPermissions(authentication.getName(), claimedPermissions.get(), jurisdictionId));
+        }
+
         HasPermissionRequest hasPermissionRequest = new HasPermissionRequest(tenantId, serviceId, permissions);
 
         boolean hasPermission;
@@ -119,23 +153,42 @@ public class UnityAuthService {
             HttpResponse<HasPermissionResponse> hasPermissionResponseHttpResponse = client.hasPermission(hasPermissionRequest, token);
             Optional<HasPermissionResponse> body = hasPermissionResponseHttpResponse.getBody(HasPermissionResponse.class);
             if (body.isEmpty()) {
-                return false;
+                return Optional.empty();
             }
 
             hasPermission = body.get().isHasPermission() &&
                     validateUserExistenceAndPermissions(body.get().getUserEmail(), body.get().getPermissions(), jurisdictionId);
         } catch (HttpClientResponseException e) {
-            Optional<HasPermissionResponse> body = e.getResponse().getBody(HasPermissionResponse.class);
-            if (body.isEmpty()) {
-                LOG.error("Returned {}", e.getMessage());
-            } else {
-                LOG.error("Returned {}", (body.get().getErrorMessage() == null ? e.getMessage() : e.getStatus()));
-            }
-
-            return false;
+            logHasPermissionError(e);
+            return Optional.empty();
         }
 
-        return hasPermission;
+        return Optional.of(hasPermission);
+    }
+
+    /**
+     * Resolves the decision from the token's own permission claims, without a hasPermission call to UnityAuth.
+     *
+     * @return the requested permissions the token grants for the tenant (the same list UnityAuth returns from
+     * hasPermission), or empty if the token carries no permission claims or they predate a role change
+     */
+    private Optional<List<String>> getClaimedPermissions(String token, @Nullable Authentication authentication,
+                                                         Long tenantId, List<Permission> permissions) {
+        return PermissionClaims.getTenantPermissions(authentication, tenantId)
+                .filter(claimed -> permissionsVersionTracker.isCurrent(token, authentication))
+                .map(claimed -> permissions.stream()
+                        .map(Permission::getPermission)
+                        .filter(claimed::contains)
+                        .toList());
+    }
+
+    private static void logHasPermissionError(HttpClientResponseException e) {
+        Optional<HasPermissionResponse> body = e.getResponse().getBody(HasPermissionResponse.class);
+        if (body.isEmpty()) {
+            LOG.error("Returned {}", e.getMessage());
+        } else {
+            LOG.error("Returned {}", (body.get().getErrorMessage() == null ? e.getMessage() : e.getStatus()));
+        }
     }
 
     private boolean validateUserExistenceAndPermissions(String userEmail, List<String> permissions, String jurisdictionId) {
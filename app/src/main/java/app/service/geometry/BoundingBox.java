@@ -0,0 +1,85 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.geometry;
+
+import app.exception.Libre311BaseException;
+import io.micronaut.http.HttpStatus;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * A longitude/latitude rectangle, as sent by map clients in {@code bbox=minLng,minLat,maxLng,maxLat}.
+ */
+public record BoundingBox(double minLng, double minLat, double maxLng, double maxLat) {
+
+    // mean Earth radius, the default of MySQL's ST_Distance_Sphere
+    public static final double EARTH_RADIUS_METERS = 6_370_986;
+
+    public static class InvalidBoundingBoxException extends Libre311BaseException {
+        public InvalidBoundingBoxException(String message) {
+            super(message, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public static BoundingBox parse(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            throw new InvalidBoundingBoxException("bbox must be minLng,minLat,maxLng,maxLat.");
+        }
+        double[] bounds = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                bounds[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidBoundingBoxException("bbox must be minLng,minLat,maxLng,maxLat.");
+        }
+        if (bounds[0] >= bounds[2] || bounds[1] >= bounds[3]) {
+            throw new InvalidBoundingBoxException("bbox minimums must be less than its maximums.");
+        }
+        if (bounds[0] < -180 || bounds[2] > 180 || bounds[1] < -90 || bounds[3] > 90) {
+            throw new InvalidBoundingBoxException("bbox must lie within longitudes -180 to 180 and latitudes -90 to 90.");
+        }
+        return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    /**
+     * @return the smallest box holding every point within the distance of the center on a sphere; boxes crossing
+     * the antimeridian are cut off at it
+     */
+    public static BoundingBox around(double lat, double lng, double meters) {
+        double angularDistance = meters / EARTH_RADIUS_METERS;
+        double deltaLat = Math.toDegrees(angularDistance);
+        double minLat = lat - deltaLat;
+        double maxLat = lat + deltaLat;
+        if (minLat <= -90 || maxLat >= 90) {
+            // the circle covers a pole, so it spans every longitude
+            return new BoundingBox(-180, Math.max(minLat, -90), 180, Math.min(maxLat, 90));
+        }
+        double deltaLng = Math.toDegrees(Math.asin(Math.sin(angularDistance) / Math.cos(Math.toRadians(lat))));
+        return new BoundingBox(Math.max(lng - deltaLng, -180), minLat, Math.min(lng + deltaLng, 180), maxLat);
+    }
+
+    public boolean contains(double lng, double lat) {
+        return lng >= minLng && lng <= maxLng && lat >= minLat && lat <= maxLat;
+    }
+
+    public Polygon toPolygon(GeometryFactory geometryFactory) {
+        return geometryFactory.createPolygon(new Coordinate[]{
+                new Coordinate(minLng, minLat), new Coordinate(maxLng, minLat), new Coordinate(maxLng, maxLat),
+                new Coordinate(minLng, maxLat), new Coordinate(minLng, minLat)});
+    }
+}
@@ -0,0 +1,62 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.geometry;
+
+/**
+ * Converts between longitude/latitude and the Web Mercator tile grid used by web maps, where zoom level z splits
+ * the world into 2^z by 2^z tiles numbered from the top left.
+ */
+public final class WebMercator {
+
+    public static final double MAX_LATITUDE = 85.05112878;
+
+    private WebMercator() {
+    }
+
+    /**
+     * @return the horizontal position in tile units at the zoom level, e.g. 3.5 is the middle of the fourth tile
+     */
+    public static double x(double lng, int zoom) {
+        return (lng + 180) / 360 * (1L << zoom);
+    }
+
+    /**
+     * @return the vertical position in tile units at the zoom level, growing southwards
+     */
+    public static double y(double lat, int zoom) {
+        double latRad = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat)));
+        return (1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * (1L << zoom);
+    }
+
+    public static double lng(double x, int zoom) {
+        return x / (1L << zoom) * 360 - 180;
+    }
+
+    public static double lat(double y, int zoom) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y / (1L << zoom)))));
+    }
+
+    public static long tileX(double lng, int zoom) {
+        return clampTile((long) Math.floor(x(lng, zoom)), zoom);
+    }
+
+    public static long tileY(double lat, int zoom) {
+        return clampTile((long) Math.floor(y(lat, zoom)), zoom);
+    }
+
+    private static long clampTile(long tile, int zoom) {
+        return Math.max(0, Math.min((1L << zoom) - 1, tile));
+    }
+}
@@ -5,42 +5,126 @@ import app.model.jurisdiction.JurisdictionBoundary;
 import app.model.jurisdiction.JurisdictionBoundaryEntity;
 import app.model.jurisdiction.JurisdictionBoundaryRepository;
 import app.service.geometry.LibreGeometryFactory;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.transaction.annotation.TransactionalEventListener;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import jakarta.transaction.Transactional;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Singleton
 public class JurisdictionBoundaryService {
 
     LibreGeometryFactory libreGeometryFactory;
     JurisdictionBoundaryRepository jurisdictionBoundaryRepository;
+    JurisdictionConfigCache jurisdictionConfigCache;
+    private final ApplicationEventPublisher<JurisdictionBoundaryChangedEvent> eventPublisher;
+    private final Duration cacheTtl;
+    private final Clock clock;
+
+    private record CachedBoundary(PreparedGeometry boundary, Instant loadedAt) {}
 
+    // prepared boundaries index their edges once, so repeated point checks against large outlines stay cheap
+    private final Map<String, CachedBoundary> preparedBoundaries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Inject
     public JurisdictionBoundaryService(LibreGeometryFactory libreGeometryFactory,
-        JurisdictionBoundaryRepository jurisdictionBoundaryRepository) {
+        JurisdictionBoundaryRepository jurisdictionBoundaryRepository,
+        JurisdictionConfigCache jurisdictionConfigCache,
+        ApplicationEventPublisher<JurisdictionBoundaryChangedEvent> eventPublisher,
+        @Value("${app.jurisdiction-boundary.cache-ttl:5m}") Duration cacheTtl) {
+        this(libreGeometryFactory, jurisdictionBoundaryRepository, jurisdictionConfigCache, eventPublisher,
+            cacheTtl, Clock.systemUTC());
+    }
+
+    JurisdictionBoundaryService(LibreGeometryFactory libreGeometryFactory,
+        JurisdictionBoundaryRepository jurisdictionBoundaryRepository,
+        JurisdictionConfigCache jurisdictionConfigCache,
+        ApplicationEventPublisher<JurisdictionBoundaryChangedEvent> eventPublisher, Duration cacheTtl,
+        Clock clock) {
         this.libreGeometryFactory = libreGeometryFactory;
         this.jurisdictionBoundaryRepository = jurisdictionBoundaryRepository;
+        this.jurisdictionConfigCache = jurisdictionConfigCache;
+        this.eventPublisher = eventPublisher;
+        this.cacheTtl = cacheTtl;
+        this.clock = clock;
     }
 
     public boolean existsInJurisdiction(String jurisdictionId, double lat, double lng){
-        JurisdictionBoundaryEntity jb = jurisdictionBoundaryRepository.findByJurisdictionId(jurisdictionId);
+        PreparedGeometry boundary = getPreparedBoundary(jurisdictionId);
+        if (boundary == null) {
+            return false;
+        }
         Point point = libreGeometryFactory.createPoint(new Coordinate(lng, lat));
 
-        return jb.getBoundary().covers(point);
+        return boundary.covers(point);
+    }
+
+    // local boundary changes evict the entry once they commit; the TTL bounds how long a change made through
+    // another instance stays invisible here
+    private PreparedGeometry getPreparedBoundary(String jurisdictionId) {
+        Instant now = clock.instant();
+        CachedBoundary cached = preparedBoundaries.get(jurisdictionId);
+        if (cached != null && now.isBefore(cached.loadedAt().plus(cacheTtl))) {
+            return cached.boundary();
+        }
+
+        long invalidationsBefore = invalidations.get();
+        JurisdictionBoundaryEntity jb = jurisdictionBoundaryRepository.findByJurisdictionId(jurisdictionId);
+        if (jb == null) {
+            return null;
+        }
+        PreparedGeometry boundary = PreparedGeometryFactory.prepare(jb.getBoundary());
+        // a change that committed while loading may not be part of it
+        if (invalidations.get() == invalidationsBefore) {
+            preparedBoundaries.put(jurisdictionId, new CachedBoundary(boundary, now));
+        }
+        return boundary;
     }
 
     public JurisdictionBoundary saveBoundary(Jurisdiction jurisdiction,
         Double[][] bounds) {
         Polygon polygon = libreGeometryFactory.createPolygon(bounds);
-        return jurisdictionBoundaryRepository.save(
+        JurisdictionBoundary savedBoundary = jurisdictionBoundaryRepository.save(
             JurisdictionBoundaryEntity.from(jurisdiction.getId(), polygon));
+        eventPublisher.publishEvent(new JurisdictionBoundaryChangedEvent(jurisdiction.getId()));
+        return savedBoundary;
     }
 
     @Transactional
     public JurisdictionBoundary updateBoundary(Jurisdiction jurisdiction, Double[][] bounds) {
         var jurisdictionBoundary = jurisdictionBoundaryRepository.findByJurisdictionId(jurisdiction.getId());
         jurisdictionBoundary.setBoundary(libreGeometryFactory.createPolygon(bounds));
-        return jurisdictionBoundaryRepository.update(jurisdictionBoundary);
+        JurisdictionBoundary updatedBoundary = jurisdictionBoundaryRepository.update(jurisdictionBoundary);
+        eventPublisher.publishEvent(new JurisdictionBoundaryChangedEvent(jurisdiction.getId()));
+        return updatedBoundary;
+    }
+
+    /**
+     * Drops every prepared boundary, e.g. after boundaries were written without going through this service.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        preparedBoundaries.clear();
+    }
+
+    @TransactionalEventListener
+    void onBoundaryChanged(JurisdictionBoundaryChangedEvent event) {
+        invalidations.incrementAndGet();
+        preparedBoundaries.remove(event.jurisdictionId());
+        jurisdictionConfigCache.invalidate(event.jurisdictionId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.jurisdiction;
+
+import app.ETags;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Serialized GET /config responses keyed by remote host name. Local jurisdiction changes invalidate entries
+ * immediately; the TTL bounds how long a change made through another instance can stay invisible here.
+ */
+@Singleton
+public class JurisdictionConfigCache {
+
+    public record JurisdictionConfig(String jurisdictionId, String json, String etag) {
+
+        public static JurisdictionConfig of(String jurisdictionId, String json) {
+            return new JurisdictionConfig(jurisdictionId, json, ETags.strong(json));
+        }
+    }
+
+    private record Entry(JurisdictionConfig config, Instant cachedAt) {}
+
+    private final Map<String, Entry> configs = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Inject
+    public JurisdictionConfigCache(@Value("${app.jurisdiction-config.cache-ttl:5m}") Duration ttl) {
+        this(ttl, Clock.systemUTC());
+    }
+
+    JurisdictionConfigCache(Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public JurisdictionConfig get(String hostName, Function<String, JurisdictionConfig> loader) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return loader.apply(hostName);
+        }
+
+        Instant now = clock.instant();
+        Entry entry = configs.get(hostName);
+        if (entry != null && now.isBefore(entry.cachedAt().plus(ttl))) {
+            return entry.config();
+        }
+
+        JurisdictionConfig config = loader.apply(hostName);
+        configs.put(hostName, new Entry(config, now));
+        return config;
+    }
+
+    public void invalidate(String jurisdictionId) {
+        configs.values().removeIf(entry -> entry.config().jurisdictionId().equals(jurisdictionId));
+    }
+
+    /**
+     * Needed when host names move between jurisdictions, since entries are keyed by the old owner.
+     */
+    public void invalidateAll() {
+        configs.clear();
+    }
+
+    int size() {
+        return configs.size();
+    }
+}
@@ -19,6 +19,10 @@ import app.dto.jurisdiction.JurisdictionDTO;
 import app.dto.jurisdiction.PatchJurisdictionDTO;
 import app.exception.Libre311BaseException;
 import app.model.jurisdiction.*;
+import app.service.jurisdiction.JurisdictionConfigCache.JurisdictionConfig;
+import app.service.service.ServiceCatalogCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micronaut.context.annotation.Property;
 import io.micronaut.http.HttpStatus;
 import jakarta.inject.Singleton;
@@ -64,17 +68,43 @@ public class JurisdictionService {
 
     private final JurisdictionRepository jurisdictionRepository;
     private final DefaultPolicyContentProvider defaultPolicyContentProvider;
+    private final JurisdictionConfigCache jurisdictionConfigCache;
+    private final ObjectMapper objectMapper;
+    private final ServiceCatalogCache serviceCatalogCache;
     JurisdictionBoundaryRepository jurisdictionBoundaryRepository;
     JurisdictionBoundaryService jurisdictionBoundaryService;
 
     public JurisdictionService(JurisdictionRepository jurisdictionRepository,
         JurisdictionBoundaryRepository jurisdictionBoundaryRepository,
         JurisdictionBoundaryService jurisdictionBoundaryService,
-        DefaultPolicyContentProvider defaultPolicyContentProvider) {
+        DefaultPolicyContentProvider defaultPolicyContentProvider,
+        JurisdictionConfigCache jurisdictionConfigCache,
+        ObjectMapper objectMapper,
+        ServiceCatalogCache serviceCatalogCache) {
         this.jurisdictionRepository = jurisdictionRepository;
         this.jurisdictionBoundaryRepository = jurisdictionBoundaryRepository;
         this.jurisdictionBoundaryService = jurisdictionBoundaryService;
         this.defaultPolicyContentProvider = defaultPolicyContentProvider;
+        this.jurisdictionConfigCache = jurisdictionConfigCache;
+        this.objectMapper = objectMapper;
+        this.serviceCatalogCache = serviceCatalogCache;
+    }
+
+    /**
+     * Serialized form of {@link #findJurisdictionByHostName(String)} with its ETag, served from cache.
+     */
+    public JurisdictionConfig findJurisdictionConfigByHostName(String hostName) {
+        return jurisdictionConfigCache.get(hostName, this::loadJurisdictionConfig);
+    }
+
+    private JurisdictionConfig loadJurisdictionConfig(String hostName) {
+        JurisdictionDTO jurisdictionDTO = findJurisdictionByHostName(hostName);
+        try {
+            return JurisdictionConfig.of(jurisdictionDTO.getJurisdictionId(),
+                objectMapper.writeValueAsString(jurisdictionDTO));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize jurisdiction " + jurisdictionDTO.getJurisdictionId(), e);
+        }
     }
 
     public JurisdictionDTO findJurisdictionByHostName(String hostName) {
@@ -127,6 +157,7 @@ public class JurisdictionService {
         }
 
         Jurisdiction savedJurisdiction = jurisdictionRepository.save(jurisdiction);
+        serviceCatalogCache.invalidate(savedJurisdiction.getId());
         JurisdictionBoundary savedBoundary = jurisdictionBoundaryService.saveBoundary(
             savedJurisdiction, requestDTO.getBounds());
 
@@ -143,6 +174,9 @@ public class JurisdictionService {
         Jurisdiction jurisdiction = jurisdictionOptional.get();
         applyPatch(requestDTO, jurisdiction);
         JurisdictionDTO jurisdictionDTO = new JurisdictionDTO(jurisdictionRepository.update(jurisdiction));
+        jurisdictionConfigCache.invalidate(jurisdictionId);
+        // the catalog snapshot carries the jurisdiction's project feature setting
+        serviceCatalogCache.refresh(jurisdictionId);
 
         Double[][] dtoBounds = requestDTO.getBounds();
         if (dtoBounds != null) {
@@ -209,6 +243,7 @@ public class JurisdictionService {
         );
 
         jurisdictionRepository.update(jurisdiction);
+        jurisdictionConfigCache.invalidateAll();
 
         var jurisdictionDTO = new JurisdictionDTO(jurisdiction);
         jurisdictionDTO.setRemoteHosts(remoteHosts);
@@ -0,0 +1,80 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.project;
+
+import app.model.project.Project;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable STRtree of the project boundaries of one jurisdiction that are active at build time. An index is only
+ * usable until the next project window opens; windows that close are handled by checking each candidate's dates
+ * at query time.
+ */
+final class ActiveProjectIndex {
+
+    private record Entry(Project project, PreparedGeometry boundary) {}
+
+    private final STRtree tree = new STRtree();
+    private final ProjectIndexVersion version;
+    private final Instant builtAt;
+    private final Instant expiresAt;
+
+    private ActiveProjectIndex(ProjectIndexVersion version, Instant builtAt, Instant expiresAt) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.expiresAt = expiresAt;
+    }
+
+    static ActiveProjectIndex build(List<Project> projects, ProjectIndexVersion version, Instant now) {
+        Instant nextStart = projects.stream()
+                .map(Project::getStartDate)
+                .filter(startDate -> startDate.isAfter(now))
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+
+        ActiveProjectIndex index = new ActiveProjectIndex(version, now, nextStart);
+        projects.stream()
+                .filter(project -> !project.getStartDate().isAfter(now) && !project.getEndDate().isBefore(now))
+                .forEach(project -> index.tree.insert(project.getBoundary().getEnvelopeInternal(),
+                        new Entry(project, PreparedGeometryFactory.prepare(project.getBoundary()))));
+        // build eagerly so concurrent readers never trigger the tree's lazy construction
+        index.tree.build();
+        return index;
+    }
+
+    boolean isUsable(ProjectIndexVersion currentVersion, Instant time) {
+        return version.equals(currentVersion)
+                && !time.isBefore(builtAt)
+                && (expiresAt == null || time.isBefore(expiresAt));
+    }
+
+    @SuppressWarnings("unchecked")
+    Optional<Project> find(Point location, Instant time) {
+        List<Entry> candidates = tree.query(location.getEnvelopeInternal());
+        return candidates.stream()
+                .filter(entry -> !entry.project().getStartDate().isAfter(time) && !entry.project().getEndDate().isBefore(time))
+                .filter(entry -> entry.boundary().intersects(location))
+                .map(Entry::project)
+                .min(Comparator.comparing(Project::getId));
+    }
+}
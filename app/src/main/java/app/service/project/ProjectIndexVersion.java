@@ -0,0 +1,21 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.project;
+
+/**
+ * Identifies one load of a jurisdiction's projects. Every load gets a new revision, whether it follows a local change
+ * or the expiry of the previous load, so anything derived from the projects can be keyed by it.
+ */
+public record ProjectIndexVersion(long revision) {}
@@ -0,0 +1,47 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.project;
+
+import app.model.project.ProjectRepository;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically corrects the maintained per-project request counts. They are adjusted in place as requests are
+ * created, moved between projects and deleted; this catches whatever those adjustments missed, e.g. a request saved
+ * by an instance that stopped before counting it, or rows changed directly in the database.
+ */
+@Singleton
+public class ProjectRequestCountReconciler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProjectRequestCountReconciler.class);
+
+    private final ProjectRepository projectRepository;
+
+    public ProjectRequestCountReconciler(ProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+    }
+
+    @Scheduled(fixedDelay = "${app.project-request-count.reconcile-interval:1h}",
+            initialDelay = "${app.project-request-count.reconcile-initial-delay:5m}")
+    void reconcile() {
+        Integer corrected = projectRepository.reconcileRequestCounts();
+        if (corrected != null && corrected > 0) {
+            LOG.warn("Corrected the request count of {} project(s).", corrected);
+        }
+    }
+}
@@ -23,29 +23,63 @@ import app.model.jurisdiction.JurisdictionRepository;
 import app.model.project.Project;
 import app.model.project.ProjectRepository;
 import app.service.geometry.LibreGeometryFactory;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.http.HttpStatus;
+import io.micronaut.transaction.annotation.TransactionalEventListener;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import jakarta.transaction.Transactional;
 import org.locationtech.jts.geom.Point;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Singleton
 public class ProjectService {
 
+    /**
+     * A jurisdiction's projects as loaded at one point. The projects are shared between callers and must not be
+     * modified.
+     */
+    public record ProjectsSnapshot(ProjectIndexVersion version, List<Project> projects, Instant loadedAt) {}
+
     private final ProjectRepository projectRepository;
     private final JurisdictionRepository jurisdictionRepository;
     private final LibreGeometryFactory geometryFactory;
-
+    private final ApplicationEventPublisher<ProjectsChangedEvent> eventPublisher;
+    private final Duration cacheTtl;
+    private final Clock clock;
+    private final Map<String, ProjectsSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, ActiveProjectIndex> activeProjectIndexes = new ConcurrentHashMap<>();
+    private final AtomicLong revisions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Inject
     public ProjectService(ProjectRepository projectRepository,
                           JurisdictionRepository jurisdictionRepository,
-                          LibreGeometryFactory geometryFactory) {
+                          LibreGeometryFactory geometryFactory,
+                          ApplicationEventPublisher<ProjectsChangedEvent> eventPublisher,
+                          @Value("${app.projects.cache-ttl:5m}") Duration cacheTtl) {
+        this(projectRepository, jurisdictionRepository, geometryFactory, eventPublisher, cacheTtl, Clock.systemUTC());
+    }
+
+    ProjectService(ProjectRepository projectRepository, JurisdictionRepository jurisdictionRepository,
+                   LibreGeometryFactory geometryFactory, ApplicationEventPublisher<ProjectsChangedEvent> eventPublisher,
+                   Duration cacheTtl, Clock clock) {
         this.projectRepository = projectRepository;
         this.jurisdictionRepository = jurisdictionRepository;
         this.geometryFactory = geometryFactory;
+        this.eventPublisher = eventPublisher;
+        this.cacheTtl = cacheTtl;
+        this.clock = clock;
     }
 
     @Transactional
@@ -95,7 +129,9 @@ public class ProjectService {
         project.setEndDate(dto.getEndDate());
         project.setJurisdiction(jurisdiction);
 
-        return new ProjectDTO(projectRepository.save(project));
+        Project savedProject = projectRepository.save(project);
+        eventPublisher.publishEvent(new ProjectsChangedEvent(jurisdictionId));
+        return new ProjectDTO(savedProject);
     }
 
     @Transactional
@@ -131,10 +167,59 @@ public class ProjectService {
 
         dto.getClosedDate().ifPresent(project::setClosedDate);
 
-        return new ProjectDTO(projectRepository.update(project));
+        Project updatedProject = projectRepository.update(project);
+        eventPublisher.publishEvent(new ProjectsChangedEvent(jurisdictionId));
+        return new ProjectDTO(updatedProject);
     }
 
+    /**
+     * Looks up the active project containing the location in the jurisdiction's in-memory project index. The
+     * index is rebuilt when the jurisdiction's projects are reloaded or when a project's window opens.
+     */
     public Optional<Project> findProjectForLocationAndTime(Point location, Instant time, String jurisdictionId) {
-        return projectRepository.findProjectForLocationAndTime(jurisdictionId, location, time);
+        ProjectsSnapshot snapshot = getProjectsSnapshot(jurisdictionId);
+
+        ActiveProjectIndex index = activeProjectIndexes.get(jurisdictionId);
+        if (index == null || !index.isUsable(snapshot.version(), time)) {
+            index = ActiveProjectIndex.build(snapshot.projects(), snapshot.version(), time);
+            activeProjectIndexes.put(jurisdictionId, index);
+        }
+
+        return index.find(location, time);
+    }
+
+    /**
+     * @return the jurisdiction's projects, reloaded after they change through this instance and at least once per
+     * cache TTL, which bounds how long a change made through another instance stays invisible here
+     */
+    public ProjectsSnapshot getProjectsSnapshot(String jurisdictionId) {
+        Instant now = clock.instant();
+        ProjectsSnapshot snapshot = snapshots.get(jurisdictionId);
+        if (snapshot != null && now.isBefore(snapshot.loadedAt().plus(cacheTtl))) {
+            return snapshot;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        snapshot = new ProjectsSnapshot(new ProjectIndexVersion(revisions.incrementAndGet()),
+                List.copyOf(projectRepository.findAllByJurisdictionId(jurisdictionId)), now);
+        // a change that committed while loading may not be part of it
+        if (invalidations.get() == invalidationsBefore) {
+            snapshots.put(jurisdictionId, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops every jurisdiction's projects, e.g. after projects were written without going through this service.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        snapshots.clear();
+    }
+
+    @TransactionalEventListener
+    void onProjectsChanged(ProjectsChangedEvent event) {
+        invalidations.incrementAndGet();
+        snapshots.remove(event.jurisdictionId());
     }
 }
@@ -0,0 +1,113 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.service.service;
+
+import app.model.jurisdiction.Jurisdiction;
+import app.model.service.Service;
+import app.model.service.group.ServiceGroup;
+import app.model.servicedefinition.ServiceDefinitionAttribute;
+import io.micronaut.core.annotation.Nullable;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of one jurisdiction's service catalog: its services, groups and attribute definitions with
+ * their values. The entities are detached and shared between threads, so they must be treated as read-only.
+ */
+public final class ServiceCatalog {
+
+    private final long version;
+    private final Instant loadedAt;
+    private final Jurisdiction jurisdiction;
+    private final List<Service> services;
+    private final Map<Long, Service> servicesById;
+    private final List<ServiceGroup> groups;
+    private final Map<Long, List<ServiceDefinitionAttribute>> attributesByServiceId;
+
+    private ServiceCatalog(long version, Instant loadedAt, @Nullable Jurisdiction jurisdiction, List<Service> services,
+                           List<ServiceGroup> groups, Map<Long, List<ServiceDefinitionAttribute>> attributesByServiceId) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.jurisdiction = jurisdiction;
+        this.services = services;
+        this.servicesById = services.stream().collect(Collectors.toUnmodifiableMap(Service::getId, Function.identity()));
+        this.groups = groups;
+        this.attributesByServiceId = attributesByServiceId;
+    }
+
+    static ServiceCatalog build(long version, Instant loadedAt, @Nullable Jurisdiction jurisdiction,
+                                List<Service> services, List<ServiceGroup> groups,
+                                List<ServiceDefinitionAttribute> attributes) {
+        Map<Long, List<ServiceDefinitionAttribute>> attributesByServiceId = attributes.stream()
+                .sorted(Comparator.comparingInt(ServiceDefinitionAttribute::getAttributeOrder))
+                .collect(Collectors.groupingBy(attribute -> attribute.getService().getId(),
+                        Collectors.toUnmodifiableList()));
+
+        return new ServiceCatalog(version, loadedAt, jurisdiction, List.copyOf(services), List.copyOf(groups),
+                Map.copyOf(attributesByServiceId));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * @return the jurisdiction, or null if it does not exist
+     */
+    @Nullable
+    public Jurisdiction getJurisdiction() {
+        return jurisdiction;
+    }
+
+    /**
+     * @return the jurisdiction's services ordered by their order position
+     */
+    public List<Service> getServices() {
+        return services;
+    }
+
+    /**
+     * @return the service if it belongs to this jurisdiction
+     */
+    public Optional<Service> findService(Long serviceCode) {
+        return Optional.ofNullable(servicesById.get(serviceCode));
+    }
+
+    public List<ServiceGroup> getGroups() {
+        return groups;
+    }
+
+    /**
+     * @return the service's attribute definitions ordered by attribute order, each with its values loaded
+     */
+    public List<ServiceDefinitionAttribute> getAttributes(Long serviceId) {
+        return attributesByServiceId.getOrDefault(serviceId, List.of());
+    }
+
+    public boolean hasAttributes(Long serviceId) {
+        return attributesByServiceId.containsKey(serviceId);
+    }
+}
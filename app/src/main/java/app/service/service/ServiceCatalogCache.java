@@ -0,0 +1,127 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.service.service;
+
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.service.ServiceRepository;
+import app.model.service.group.ServiceGroupRepository;
+import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the current {@link ServiceCatalog} of each jurisdiction. Catalog mutations on this instance swap in a new
+ * snapshot once they are committed; the refresh interval bounds how long mutations made through other instances
+ * stay invisible here.
+ */
+@Singleton
+public class ServiceCatalogCache {
+
+    private final Map<String, ServiceCatalog> catalogs = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final JurisdictionRepository jurisdictionRepository;
+    private final ServiceRepository serviceRepository;
+    private final ServiceGroupRepository serviceGroupRepository;
+    private final ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository;
+    private final Duration refreshInterval;
+    private final Clock clock;
+
+    @Inject
+    public ServiceCatalogCache(JurisdictionRepository jurisdictionRepository,
+                               ServiceRepository serviceRepository,
+                               ServiceGroupRepository serviceGroupRepository,
+                               ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository,
+                               @Value("${app.service-catalog.refresh-interval:5m}") Duration refreshInterval) {
+        this(jurisdictionRepository, serviceRepository, serviceGroupRepository, serviceDefinitionAttributeRepository,
+                refreshInterval, Clock.systemUTC());
+    }
+
+    ServiceCatalogCache(JurisdictionRepository jurisdictionRepository,
+                        ServiceRepository serviceRepository,
+                        ServiceGroupRepository serviceGroupRepository,
+                        ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository,
+                        Duration refreshInterval, Clock clock) {
+        this.jurisdictionRepository = jurisdictionRepository;
+        this.serviceRepository = serviceRepository;
+        this.serviceGroupRepository = serviceGroupRepository;
+        this.serviceDefinitionAttributeRepository = serviceDefinitionAttributeRepository;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+    }
+
+    public ServiceCatalog get(String jurisdictionId) {
+        if (isDisabled()) {
+            return load(jurisdictionId);
+        }
+
+        ServiceCatalog catalog = catalogs.get(jurisdictionId);
+        if (catalog != null && isFresh(catalog)) {
+            return catalog;
+        }
+        return catalogs.compute(jurisdictionId,
+                (id, current) -> current != null && isFresh(current) ? current : load(id));
+    }
+
+    /**
+     * Replaces the jurisdiction's snapshot with one read from the database. Call after the mutation has committed,
+     * otherwise the new snapshot may not include it.
+     */
+    public void refresh(String jurisdictionId) {
+        if (isDisabled()) {
+            return;
+        }
+        catalogs.compute(jurisdictionId, (id, current) -> load(id));
+    }
+
+    /**
+     * Drops the jurisdiction's snapshot so that the next reader loads a new one.
+     */
+    public void invalidate(String jurisdictionId) {
+        catalogs.remove(jurisdictionId);
+    }
+
+    /**
+     * Drops every jurisdiction's snapshot, e.g. after the catalog tables were written without going through
+     * {@link ServiceService}.
+     */
+    public void invalidateAll() {
+        catalogs.clear();
+    }
+
+    private ServiceCatalog load(String jurisdictionId) {
+        return ServiceCatalog.build(versions.incrementAndGet(), clock.instant(),
+                jurisdictionRepository.findById(jurisdictionId).orElse(null),
+                serviceRepository.findAllByJurisdictionIdOrderByOrderPosition(jurisdictionId),
+                serviceGroupRepository.findAllByJurisdictionId(jurisdictionId),
+                serviceDefinitionAttributeRepository.findAllByJurisdictionId(jurisdictionId));
+    }
+
+    private boolean isFresh(ServiceCatalog catalog) {
+        return clock.instant().isBefore(catalog.getLoadedAt().plus(refreshInterval));
+    }
+
+    private boolean isDisabled() {
+        return refreshInterval.isZero() || refreshInterval.isNegative();
+    }
+}
@@ -0,0 +1,86 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.service.service;
+
+import app.ETags;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.inject.Singleton;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized public responses derived from a jurisdiction's service catalog, such as GET /services and
+ * GET /services/{serviceCode}. Entries are tagged with the version of the catalog snapshot they were built from, so
+ * every catalog refresh after a service, group or attribute mutation also replaces them.
+ */
+@Singleton
+public class ServiceCatalogResponseCache {
+
+    public record CachedBody(byte[] body, String etag) {
+
+        public static CachedBody of(byte[] body) {
+            return new CachedBody(body, ETags.strong(body));
+        }
+    }
+
+    @FunctionalInterface
+    public interface Serializer {
+        byte[] serialize(ObjectMapper objectMapper) throws JsonProcessingException;
+    }
+
+    private record Key(String jurisdictionId, String resource) {}
+
+    private record Entry(long catalogVersion, CachedBody body) {}
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+
+    public ServiceCatalogResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param resource   identifies the response within the jurisdiction, e.g. {@code services.json}
+     * @param serializer writes the response from the given catalog; only called when the cached body is missing or
+     *                   was built from another snapshot
+     */
+    public CachedBody get(String jurisdictionId, String resource, ServiceCatalog catalog, Serializer serializer) {
+        Key key = new Key(jurisdictionId, resource);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.catalogVersion() == catalog.getVersion()) {
+            return entry.body();
+        }
+
+        CachedBody body = serialize(jurisdictionId, resource, serializer);
+        // a concurrent reader may have cached a newer snapshot in the meantime; keep the newest
+        entries.merge(key, new Entry(catalog.getVersion(), body),
+                (current, update) -> update.catalogVersion() > current.catalogVersion() ? update : current);
+        return body;
+    }
+
+    /**
+     * Serializes a response that is not backed by the catalog snapshot, without caching it.
+     */
+    public CachedBody serialize(String jurisdictionId, String resource, Serializer serializer) {
+        try {
+            return CachedBody.of(serializer.serialize(objectMapper));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + resource + " of jurisdiction " + jurisdictionId, e);
+        }
+    }
+}
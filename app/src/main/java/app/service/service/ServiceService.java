@@ -30,6 +30,10 @@ import app.model.service.ServiceRepository;
 import app.model.service.group.ServiceGroup;
 import app.model.service.group.ServiceGroupRepository;
 import app.model.servicedefinition.*;
+import app.service.service.ServiceCatalogResponseCache.CachedBody;
+import app.service.xml.Open311XmlWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.http.HttpStatus;
@@ -40,6 +44,7 @@ import org.slf4j.LoggerFactory;
 
 import jakarta.transaction.Transactional;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -53,13 +58,19 @@ public class ServiceService {
     private final ServiceGroupRepository serviceGroupRepository;
     private final ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository;
     private final AttributeValueRepository attributeValueRepository;
+    private final ServiceCatalogCache serviceCatalogCache;
+    private final ServiceCatalogResponseCache responseCache;
+    private final Open311XmlWriter xmlWriter;
 
-    public ServiceService(ServiceRepository serviceRepository, JurisdictionRepository jurisdictionRepository, ServiceGroupRepository serviceGroupRepository, ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository, AttributeValueRepository attributeValueRepository) {
+    public ServiceService(ServiceRepository serviceRepository, JurisdictionRepository jurisdictionRepository, ServiceGroupRepository serviceGroupRepository, ServiceDefinitionAttributeRepository serviceDefinitionAttributeRepository, AttributeValueRepository attributeValueRepository, ServiceCatalogCache serviceCatalogCache, ServiceCatalogResponseCache responseCache, Open311XmlWriter xmlWriter) {
         this.serviceRepository = serviceRepository;
         this.jurisdictionRepository = jurisdictionRepository;
         this.serviceGroupRepository = serviceGroupRepository;
         this.serviceDefinitionAttributeRepository = serviceDefinitionAttributeRepository;
         this.attributeValueRepository = attributeValueRepository;
+        this.serviceCatalogCache = serviceCatalogCache;
+        this.responseCache = responseCache;
+        this.xmlWriter = xmlWriter;
     }
 
     static class ServiceNotFoundException extends Libre311BaseException {
@@ -95,9 +106,25 @@ public class ServiceService {
     }
 
     public List<ServiceDTO> findAll(String jurisdictionId) {
-        List<Service> servicePage = serviceRepository.findAllByJurisdictionIdOrderByOrderPosition(jurisdictionId);
+        return toServiceDTOs(serviceCatalogCache.get(jurisdictionId));
+    }
+
+    public CachedBody getServiceListJson(String jurisdictionId) {
+        ServiceCatalog catalog = serviceCatalogCache.get(jurisdictionId);
+        return responseCache.get(jurisdictionId, "services.json", catalog,
+                objectMapper -> objectMapper.writeValueAsBytes(toServiceDTOs(catalog)));
+    }
 
-        return servicePage.stream().map(this::toServiceDTO).collect(Collectors.toList());
+    public CachedBody getServiceListXml(String jurisdictionId) {
+        ServiceCatalog catalog = serviceCatalogCache.get(jurisdictionId);
+        return responseCache.get(jurisdictionId, "services.xml", catalog,
+                objectMapper -> xmlWriter.writeServices(toServiceDTOs(catalog)));
+    }
+
+    private static List<ServiceDTO> toServiceDTOs(ServiceCatalog catalog) {
+        return catalog.getServices().stream()
+                .map(service -> new ServiceDTO(service, catalog.hasAttributes(service.getId())))
+                .collect(Collectors.toList());
     }
 
     public ServiceDefinitionDTO getServiceDefinition(Long serviceCode, String jurisdictionId) {
@@ -111,6 +138,38 @@ public class ServiceService {
         return convertToServiceDefinitionDTO(service);
     }
 
+    public CachedBody getServiceDefinitionJson(Long serviceCode, String jurisdictionId) {
+        return getServiceDefinitionBody(serviceCode, jurisdictionId, "json",
+                (objectMapper, serviceDefinition) -> objectMapper.writeValueAsBytes(serviceDefinition));
+    }
+
+    public CachedBody getServiceDefinitionXml(Long serviceCode, String jurisdictionId) {
+        return getServiceDefinitionBody(serviceCode, jurisdictionId, "xml",
+                (objectMapper, serviceDefinition) -> xmlWriter.writeServiceDefinition(serviceDefinition));
+    }
+
+    private interface ServiceDefinitionSerializer {
+        byte[] serialize(ObjectMapper objectMapper, ServiceDefinitionDTO serviceDefinition) throws JsonProcessingException;
+    }
+
+    /**
+     * Definitions of services in the jurisdiction's catalog snapshot are served without touching the database, so a
+     * conditional GET of an unchanged definition costs no query. Other services are read and serialized per call.
+     */
+    private CachedBody getServiceDefinitionBody(Long serviceCode, String jurisdictionId, String format,
+                                                ServiceDefinitionSerializer serializer) {
+        String resource = "services/" + serviceCode + "." + format;
+        ServiceCatalog catalog = serviceCatalogCache.get(jurisdictionId);
+        if (catalog.findService(serviceCode).isPresent()) {
+            return responseCache.get(jurisdictionId, resource, catalog, objectMapper -> serializer.serialize(objectMapper,
+                    convertToServiceDefinitionDTO(serviceCode, catalog.getAttributes(serviceCode))));
+        }
+
+        ServiceDefinitionDTO serviceDefinition = getServiceDefinition(serviceCode, jurisdictionId);
+        return responseCache.serialize(jurisdictionId, resource,
+                objectMapper -> serializer.serialize(objectMapper, serviceDefinition));
+    }
+
     public ServiceDTO createService(CreateServiceDTO serviceDTO, String jurisdictionId) {
         Jurisdiction jurisdiction = jurisdictionRepository.findById(jurisdictionId).get();
         ServiceGroup group = validateGroupExistenceAndReturn(serviceDTO.getGroupId(), jurisdictionId);
@@ -124,7 +183,9 @@ public class ServiceService {
             service.setOrderPosition(serviceDTO.getOrderPosition());
         }
 
-        return toServiceDTO(serviceRepository.save(service));
+        ServiceDTO savedServiceDTO = toServiceDTO(serviceRepository.save(service));
+        serviceCatalogCache.refresh(jurisdictionId);
+        return savedServiceDTO;
     }
 
     public ServiceDTO updateService(Long serviceCode, UpdateServiceDTO serviceDTO, String jurisdictionId) {
@@ -152,7 +213,9 @@ public class ServiceService {
             service.setOrderPosition(serviceDTO.getOrderPosition());
         }
 
-        return toServiceDTO(serviceRepository.update(service));
+        ServiceDTO updatedServiceDTO = toServiceDTO(serviceRepository.update(service));
+        refreshCatalog(service.getJurisdiction());
+        return updatedServiceDTO;
     }
 
     public List<ServiceDTO> updateServiceOrderPositions(Long groupId, List<PatchServiceOrderPositionDTO> requestDTO) {
@@ -161,7 +224,14 @@ public class ServiceService {
 
         // get refreshed list of services
         List<Service> services = serviceRepository.findAllByServiceGroupIdOrderByOrderPositionAsc(groupId);
-        return services.stream().map(this::toServiceDTO).collect(Collectors.toList());
+        if (!services.isEmpty()) {
+            refreshCatalog(services.get(0).getJurisdiction());
+        }
+        Set<Long> servicesWithAttributes = services.isEmpty() ? Set.of() : new HashSet<>(serviceDefinitionAttributeRepository
+                .findServiceIdsWithAttributes(services.stream().map(Service::getId).collect(Collectors.toList())));
+        return services.stream()
+                .map(service -> new ServiceDTO(service, servicesWithAttributes.contains(service.getId())))
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -176,6 +246,7 @@ public class ServiceService {
         serviceRepository.findById(serviceCode)
             .orElseThrow(() -> new ServiceNotFoundException(serviceCode, jurisdictionId));
         serviceRepository.deleteById(serviceCode);
+        serviceCatalogCache.refresh(jurisdictionId);
     }
 
     private ServiceGroup validateGroupExistenceAndReturn(Long groupId, String jurisdictionId) {
@@ -184,7 +255,7 @@ public class ServiceService {
     }
 
     public List<GroupDTO> getListGroups(String jurisdictionId) {
-        return serviceGroupRepository.findAllByJurisdictionId(jurisdictionId).stream()
+        return serviceCatalogCache.get(jurisdictionId).getGroups().stream()
                 .map(GroupDTO::new).collect(Collectors.toList());
     }
 
@@ -198,7 +269,9 @@ public class ServiceService {
         group.setJurisdiction(jurisdiction);
         group.setName(requestDTO.getName());
 
-        return new GroupDTO(serviceGroupRepository.save(group));
+        GroupDTO savedGroupDTO = new GroupDTO(serviceGroupRepository.save(group));
+        serviceCatalogCache.refresh(jurisdictionId);
+        return savedGroupDTO;
     }
 
     public GroupDTO updateGroup(Long groupId, CreateUpdateGroupDTO requestDTO) {
@@ -216,7 +289,9 @@ public class ServiceService {
             group.setName(requestDTO.getName());
         }
 
-        return new GroupDTO(serviceGroupRepository.update(group));
+        GroupDTO updatedGroupDTO = new GroupDTO(serviceGroupRepository.update(group));
+        refreshCatalog(group.getJurisdiction());
+        return updatedGroupDTO;
 
     }
 
@@ -235,14 +310,21 @@ public class ServiceService {
             ServiceGroup serviceGroup = groupOptional.get();
             if (serviceRepository.countByServiceGroup(serviceGroup) == 0) {
                 serviceGroupRepository.delete(serviceGroup);
+                refreshCatalog(serviceGroup.getJurisdiction());
             }
         } else {
             throw new HttpStatusException(HttpStatus.BAD_REQUEST, "Cannot delete Group with existing Service associations.");
         }
     }
 
-    @Transactional
     public ServiceDefinitionDTO addServiceDefinitionAttributeToServiceDefinition(Long serviceId, CreateServiceDefinitionAttributeDTO serviceDefinitionAttributeDTO, String jurisdictionId) {
+        ServiceDefinitionDTO serviceDefinitionDTO = addServiceDefinitionAttribute(serviceId, serviceDefinitionAttributeDTO, jurisdictionId);
+        serviceCatalogCache.refresh(jurisdictionId);
+        return serviceDefinitionDTO;
+    }
+
+    @Transactional
+    public ServiceDefinitionDTO addServiceDefinitionAttribute(Long serviceId, CreateServiceDefinitionAttributeDTO serviceDefinitionAttributeDTO, String jurisdictionId) {
         Optional<Service> serviceOptional = serviceRepository.findById(serviceId);
         if (serviceOptional.isEmpty()) {
             throw new ServiceNotFoundException(serviceId, jurisdictionId);
@@ -253,9 +335,13 @@ public class ServiceService {
     }
 
     private ServiceDefinitionDTO convertToServiceDefinitionDTO(Service service) {
-        ServiceDefinitionDTO serviceDefinitionDTO = new ServiceDefinitionDTO(service.getId());
+        return convertToServiceDefinitionDTO(service.getId(),
+                serviceDefinitionAttributeRepository.findAllByServiceIdOrderByAttributeOrderAsc(service.getId()));
+    }
+
+    private static ServiceDefinitionDTO convertToServiceDefinitionDTO(Long serviceId, List<ServiceDefinitionAttribute> serviceDefinitionAttributes) {
+        ServiceDefinitionDTO serviceDefinitionDTO = new ServiceDefinitionDTO(serviceId);
 
-        List<ServiceDefinitionAttribute> serviceDefinitionAttributes = serviceDefinitionAttributeRepository.findAllByServiceIdOrderByAttributeOrderAsc(service.getId());
         if (serviceDefinitionAttributes != null) {
             serviceDefinitionDTO.setAttributes(serviceDefinitionAttributes.stream().map(serviceDefinitionAttributeEntity -> {
                 ServiceDefinitionAttributeDTO serviceDefinitionAttributeDTO = new ServiceDefinitionAttributeDTO(
@@ -292,6 +378,7 @@ public class ServiceService {
         ServiceDefinitionAttribute serviceDefinitionAttribute = serviceDefinitionAttributeEntityOptional.get();
 
         ServiceDefinitionAttribute patch = patchServiceDefinitionAttribute(serviceDefinitionAttribute, serviceDefinitionAttributeDTO);
+        refreshCatalog(patch.getService().getJurisdiction());
 
         return convertToServiceDefinitionDTO(patch.getService());
     }
@@ -348,6 +435,7 @@ public class ServiceService {
         }
         ServiceDefinitionAttribute serviceDefinitionAttributeEntity = serviceDefinitionAttribute.get();
         serviceDefinitionAttributeRepository.delete(serviceDefinitionAttributeEntity);
+        refreshCatalog(serviceDefinitionAttributeEntity.getService().getJurisdiction());
     }
 
     @Transactional
@@ -385,6 +473,7 @@ public class ServiceService {
 
         // get refreshed list of attributes
         Optional<Service> serviceOptional = serviceRepository.findById(serviceCode);
+        refreshCatalog(serviceOptional.get().getJurisdiction());
         return convertToServiceDefinitionDTO(serviceOptional.get());
     }
 
@@ -396,6 +485,13 @@ public class ServiceService {
         ));
     }
 
+    // catalog snapshots are only swapped after the mutation committed, see ServiceCatalogCache#refresh
+    private void refreshCatalog(Jurisdiction jurisdiction) {
+        if (jurisdiction != null) {
+            serviceCatalogCache.refresh(jurisdiction.getId());
+        }
+    }
+
     private ServiceDTO toServiceDTO(Service service){
         return new ServiceDTO(service, serviceDefinitionAttributeRepository.existsByServiceId(service.getId()));
     }
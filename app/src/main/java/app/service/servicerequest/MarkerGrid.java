@@ -0,0 +1,167 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.servicerequest.ServiceRequestClusterDTO;
+import app.model.servicerequest.ServiceRequestMarker;
+import app.service.geometry.BoundingBox;
+import app.service.geometry.WebMercator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Buckets map markers into Web Mercator tile cells at {@link #BASE_ZOOM}, the same tiling the map itself uses, so
+ * area queries only read the markers of the occupied cells overlapping the area. Clusters for a zoom level merge
+ * the markers of each coarser cell. Not thread-safe; the owning snapshot synchronizes access.
+ */
+class MarkerGrid {
+
+    static final int BASE_ZOOM = 16;
+    static final int MAX_ZOOM = 22;
+
+    // each 256px map tile is split into 8 x 8 cells of 32px
+    private static final int CELL_ZOOM_OFFSET = 3;
+
+    private final Map<Long, Map<Long, ServiceRequestMarker>> cells = new HashMap<>();
+
+    void put(ServiceRequestMarker previous, ServiceRequestMarker marker) {
+        if (previous != null) {
+            remove(previous);
+        }
+        cells.computeIfAbsent(cellKey(marker), key -> new HashMap<>()).put(marker.getId(), marker);
+    }
+
+    void remove(ServiceRequestMarker marker) {
+        long key = cellKey(marker);
+        Map<Long, ServiceRequestMarker> cell = cells.get(key);
+        if (cell != null && cell.remove(marker.getId()) != null && cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    boolean isEmpty() {
+        return cells.isEmpty();
+    }
+
+    /**
+     * @param visible markers failing the predicate are not counted
+     * @param byService whether to break the clusters down by service as well as by status
+     */
+    List<ServiceRequestClusterDTO> cluster(BoundingBox area, int zoom, Predicate<ServiceRequestMarker> visible,
+                                           boolean byService) {
+        int cellZoom = Math.min(zoom + CELL_ZOOM_OFFSET, BASE_ZOOM);
+        Map<Long, Cluster> clusters = new HashMap<>();
+        forEachInside(area, marker -> {
+            if (visible.test(marker)) {
+                long clusterKey = WebMercator.tileX(marker.getLocation().getX(), cellZoom) << 32
+                        | WebMercator.tileY(marker.getLocation().getY(), cellZoom);
+                clusters.computeIfAbsent(clusterKey, k -> new Cluster()).add(marker, byService);
+            }
+        });
+
+        List<ServiceRequestClusterDTO> result = new ArrayList<>(clusters.size());
+        clusters.values().forEach(cluster -> result.add(cluster.toDTO()));
+        return result;
+    }
+
+    List<ServiceRequestMarker> find(BoundingBox area, Predicate<ServiceRequestMarker> visible) {
+        List<ServiceRequestMarker> found = new ArrayList<>();
+        forEachInside(area, marker -> {
+            if (visible.test(marker)) {
+                found.add(marker);
+            }
+        });
+        return found;
+    }
+
+    private void forEachInside(BoundingBox area, Consumer<ServiceRequestMarker> action) {
+        long minX = WebMercator.tileX(area.minLng(), BASE_ZOOM);
+        long maxX = WebMercator.tileX(area.maxLng(), BASE_ZOOM);
+        long minY = WebMercator.tileY(area.maxLat(), BASE_ZOOM);
+        long maxY = WebMercator.tileY(area.minLat(), BASE_ZOOM);
+
+        // small areas look up the cells they overlap instead of scanning every occupied cell
+        if ((maxX - minX + 1) * (maxY - minY + 1) < cells.size()) {
+            for (long x = minX; x <= maxX; x++) {
+                for (long y = minY; y <= maxY; y++) {
+                    Map<Long, ServiceRequestMarker> markers = cells.get(x << 32 | y);
+                    if (markers != null) {
+                        forEachInside(area, markers, action);
+                    }
+                }
+            }
+            return;
+        }
+
+        cells.forEach((key, markers) -> {
+            long x = key >>> 32;
+            long y = key & 0xFFFFFFFFL;
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                forEachInside(area, markers, action);
+            }
+        });
+    }
+
+    private static void forEachInside(BoundingBox area, Map<Long, ServiceRequestMarker> markers,
+                                      Consumer<ServiceRequestMarker> action) {
+        for (ServiceRequestMarker marker : markers.values()) {
+            if (area.contains(marker.getLocation().getX(), marker.getLocation().getY())) {
+                action.accept(marker);
+            }
+        }
+    }
+
+    private static long cellKey(ServiceRequestMarker marker) {
+        return WebMercator.tileX(marker.getLocation().getX(), BASE_ZOOM) << 32
+                | WebMercator.tileY(marker.getLocation().getY(), BASE_ZOOM);
+    }
+
+    private static final class Cluster {
+        private int count;
+        private double lngSum;
+        private double latSum;
+        private final Map<String, Integer> statusCounts = new TreeMap<>();
+        private Map<Long, Integer> serviceCounts;
+
+        void add(ServiceRequestMarker marker, boolean byService) {
+            count++;
+            lngSum += marker.getLocation().getX();
+            latSum += marker.getLocation().getY();
+            statusCounts.merge(marker.getStatus().toString(), 1, Integer::sum);
+            if (byService) {
+                if (serviceCounts == null) {
+                    serviceCounts = new TreeMap<>();
+                }
+                serviceCounts.merge(marker.getServiceId(), 1, Integer::sum);
+            }
+        }
+
+        ServiceRequestClusterDTO toDTO() {
+            ServiceRequestClusterDTO dto = new ServiceRequestClusterDTO();
+            dto.setLat(latSum / count);
+            dto.setLng(lngSum / count);
+            dto.setCount(count);
+            dto.setStatusCounts(statusCounts);
+            dto.setServiceCounts(serviceCounts);
+            return dto;
+        }
+    }
+}
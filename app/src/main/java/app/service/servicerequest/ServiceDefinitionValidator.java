@@ -0,0 +1,261 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.service.servicerequest;
+
+import app.dto.servicedefinition.AttributeValueDTO;
+import app.dto.servicedefinition.ServiceDefinitionAttributeDTO;
+import app.model.service.AttributeDataType;
+import app.model.servicedefinition.AttributeValue;
+import app.model.servicedefinition.ServiceDefinitionAttribute;
+import app.service.servicerequest.ServiceRequestService.InvalidServiceRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A service definition compiled for validating submitted {@code attribute[code]} values: attributes are indexed by
+ * code, list values by key, and required attributes by bit position, so validation costs one hash lookup per
+ * submitted attribute and value key.
+ * <p>
+ * Instances are immutable and may be shared between threads.
+ */
+final class ServiceDefinitionValidator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServiceDefinitionValidator.class);
+    private static final String ATTRIBUTE_KEY_PREFIX = "attribute[";
+
+    record Result(List<ServiceDefinitionAttributeDTO> attributes, boolean staleFallbackUsed, boolean hasAllRequired) {}
+
+    /**
+     * @param valueNames value names by key, or null for attributes that do not take list values
+     */
+    private record CompiledAttribute(int index, ServiceDefinitionAttribute definition, Map<String, String> valueNames,
+                                     boolean hasValues) {}
+
+    private final List<ServiceDefinitionAttribute> source;
+    private final Map<Long, CompiledAttribute> attributesById;
+    private final BitSet required;
+
+    private ServiceDefinitionValidator(List<ServiceDefinitionAttribute> source,
+                                       Map<Long, CompiledAttribute> attributesById, BitSet required) {
+        this.source = source;
+        this.attributesById = attributesById;
+        this.required = required;
+    }
+
+    static ServiceDefinitionValidator compile(List<ServiceDefinitionAttribute> serviceDefinitionAttributes) {
+        Map<Long, CompiledAttribute> attributesById = HashMap.newHashMap(serviceDefinitionAttributes.size());
+        BitSet required = new BitSet(serviceDefinitionAttributes.size());
+        for (ServiceDefinitionAttribute attribute : serviceDefinitionAttributes) {
+            int index = attributesById.size();
+            if (attributesById.putIfAbsent(attribute.getId(), compileAttribute(index, attribute)) != null) {
+                continue;
+            }
+            if (attribute.isRequired()) {
+                required.set(index);
+            }
+        }
+        return new ServiceDefinitionValidator(serviceDefinitionAttributes, Map.copyOf(attributesById), required);
+    }
+
+    /**
+     * @return whether this validator was compiled from exactly this list instance; catalog snapshots hand out the
+     * same list until they are replaced, so identity is enough to tell whether the definition changed
+     */
+    boolean isCompiledFrom(List<ServiceDefinitionAttribute> serviceDefinitionAttributes) {
+        return source == serviceDefinitionAttributes;
+    }
+
+    /**
+     * Builds the response attributes for the submitted values. Keys that are not {@code attribute[code]} or name an
+     * attribute outside this definition are ignored, as are blank values. List value keys that are not in the
+     * definition are named from the client's attribute snapshot, which marks the result as needing review.
+     */
+    Result validate(Map<String, String> dtoAttributes, List<ServiceDefinitionAttributeDTO> snapshot) {
+        if (dtoAttributes == null || dtoAttributes.isEmpty()) {
+            return new Result(List.of(), false, required.isEmpty());
+        }
+
+        List<ServiceDefinitionAttributeDTO> attributes = new ArrayList<>(Math.min(dtoAttributes.size(), attributesById.size()));
+        BitSet seen = new BitSet(attributesById.size());
+        int requiredSeen = 0;
+        boolean staleFallbackUsed = false;
+        Map<Long, Map<String, String>> snapshotNameLookup = null;
+
+        for (Map.Entry<String, String> entry : dtoAttributes.entrySet()) {
+            String k = entry.getKey();
+            String v = entry.getValue();
+            if (v != null && v.trim().isEmpty()) continue;
+            if (!k.startsWith(ATTRIBUTE_KEY_PREFIX)) continue;
+
+            long attributeCode = parseAttributeCode(k);
+            CompiledAttribute attribute = attributesById.get(attributeCode);
+            if (attribute == null) continue;
+
+            ServiceDefinitionAttribute sda = attribute.definition();
+            if (v != null && !validValueType(v, sda.getDatatype())) {
+                String errorMsg = String.format("Provided value for attribute with code %s is invalid", attributeCode);
+                LOG.error(errorMsg);
+                throw new RuntimeException(errorMsg);
+            }
+
+            List<AttributeValueDTO> values;
+            if (attribute.valueNames() == null) {
+                values = List.of(new AttributeValueDTO(String.valueOf(attributeCode), v));
+            } else if (!attribute.hasValues()) {
+                values = List.of();
+            } else {
+                String[] keys = sda.getDatatype() == AttributeDataType.MULTIVALUELIST && v.indexOf(',') >= 0
+                        ? v.split(",")
+                        : new String[]{v};
+                values = new ArrayList<>(keys.length);
+                for (String key : keys) {
+                    String name = attribute.valueNames().get(key);
+                    if (name == null) {
+                        staleFallbackUsed = true;
+                        if (snapshotNameLookup == null) {
+                            snapshotNameLookup = buildSnapshotNameLookup(snapshot);
+                        }
+                        name = snapshotNameLookup.getOrDefault(attributeCode, Map.of()).getOrDefault(key, key);
+                    }
+                    values.add(new AttributeValueDTO(key, name));
+                }
+            }
+
+            attributes.add(toDTO(attributeCode, sda, values));
+            if (!seen.get(attribute.index())) {
+                seen.set(attribute.index());
+                if (required.get(attribute.index())) {
+                    requiredSeen++;
+                }
+            }
+        }
+
+        return new Result(attributes, staleFallbackUsed, requiredSeen == required.cardinality());
+    }
+
+    private static long parseAttributeCode(String key) {
+        try {
+            return Long.parseLong(key, ATTRIBUTE_KEY_PREFIX.length(), key.indexOf(']'), 10);
+        } catch (NumberFormatException nfe) {
+            throw new InvalidServiceRequestException("Code should be an Integer.");
+        }
+    }
+
+    private static boolean validValueType(String value, AttributeDataType datatype) {
+        if (datatype == AttributeDataType.NUMBER) {
+            return isInteger(value);
+        } else if (datatype == AttributeDataType.DATETIME) {
+            return isInstant(value);
+        }
+        return true;
+    }
+
+    // same acceptance as Integer.parseInt, without throwing for the rejected values
+    private static boolean isInteger(String value) {
+        int length = value.length();
+        if (length == 0) return false;
+
+        int i = 0;
+        long limit = Integer.MAX_VALUE;
+        char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            if (length == 1) return false;
+            if (first == '-') limit = -(long) Integer.MIN_VALUE;
+            i = 1;
+        }
+
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0) return false;
+            result = result * 10 + digit;
+            if (result > limit) return false;
+        }
+        return true;
+    }
+
+    private static boolean isInstant(String value) {
+        // reject malformed text without an exception; only syntactically valid values with out-of-range fields
+        // (e.g. month 13) reach the throwing resolver
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor parsed = DateTimeFormatter.ISO_INSTANT.parseUnresolved(value, position);
+        if (parsed == null || position.getErrorIndex() >= 0 || position.getIndex() != value.length()) {
+            return false;
+        }
+        try {
+            Instant.parse(value);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static ServiceDefinitionAttributeDTO toDTO(long attributeCode, ServiceDefinitionAttribute sda,
+                                                       List<AttributeValueDTO> values) {
+        ServiceDefinitionAttributeDTO dto = new ServiceDefinitionAttributeDTO();
+        dto.setId(attributeCode);
+        dto.setAttributeOrder(sda.getAttributeOrder());
+        dto.setRequired(sda.isRequired());
+        dto.setVariable(sda.isVariable());
+        dto.setDatatype(sda.getDatatype());
+        dto.setDescription(sda.getDescription());
+        dto.setValues(values);
+        return dto;
+    }
+
+    private static CompiledAttribute compileAttribute(int index, ServiceDefinitionAttribute attribute) {
+        if (attribute.getDatatype() != AttributeDataType.SINGLEVALUELIST
+                && attribute.getDatatype() != AttributeDataType.MULTIVALUELIST) {
+            return new CompiledAttribute(index, attribute, null, false);
+        }
+        Set<AttributeValue> attributeValues = attribute.getAttributeValues();
+        if (attributeValues == null || attributeValues.isEmpty()) {
+            return new CompiledAttribute(index, attribute, Map.of(), false);
+        }
+        // a value without a name is treated like an unknown key, so it is left out
+        Map<String, String> valueNames = HashMap.newHashMap(attributeValues.size());
+        for (AttributeValue attributeValue : attributeValues) {
+            if (attributeValue.getValueName() != null) {
+                valueNames.putIfAbsent(attributeValue.getId().toString(), attributeValue.getValueName());
+            }
+        }
+        return new CompiledAttribute(index, attribute, valueNames, true);
+    }
+
+    private static Map<Long, Map<String, String>> buildSnapshotNameLookup(List<ServiceDefinitionAttributeDTO> snapshot) {
+        return snapshot.stream()
+                .filter(s -> s.getId() != null && s.getValues() != null)
+                .collect(Collectors.toMap(
+                        ServiceDefinitionAttributeDTO::getId,
+                        s -> s.getValues().stream()
+                                .filter(v -> v.getKey() != null && v.getName() != null)
+                                .collect(Collectors.toMap(AttributeValueDTO::getKey, AttributeValueDTO::getName, (a, b) -> a))
+                ));
+    }
+}
@@ -0,0 +1,108 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.servicedefinition.ServiceDefinitionAttributeDTO;
+import app.model.servicerequest.ServiceRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads and writes the Open311 attribute JSON stored on service requests. Parsed attribute lists are cached
+ * per request id and {@code dateUpdated}, so list pages do not re-parse rows that have not changed.
+ * <p>
+ * Cached lists are shared between responses and must be treated as read-only.
+ */
+@Singleton
+public class ServiceRequestAttributesParser {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectReader ATTRIBUTES_READER = OBJECT_MAPPER.readerFor(ServiceDefinitionAttributeDTO[].class);
+    private static final ObjectWriter ATTRIBUTES_WRITER = OBJECT_MAPPER.writer();
+
+    private record CacheKey(Long serviceRequestId, Instant dateUpdated) {}
+
+    private record CacheEntry(String attributesJson, List<ServiceDefinitionAttributeDTO> attributes) {}
+
+    private final Map<CacheKey, CacheEntry> cache;
+
+    public ServiceRequestAttributesParser(@Value("${app.service-request.attributes-cache-size:10000}") int maxCacheSize) {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                return size() > maxCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Returns the parsed {@code attributesJson} of a persisted service request, or null when it has none.
+     */
+    public List<ServiceDefinitionAttributeDTO> getAttributes(ServiceRequest serviceRequest) {
+        String attributesJson = serviceRequest.getAttributesJson();
+        if (attributesJson == null) {
+            return null;
+        }
+        if (serviceRequest.getId() == null || serviceRequest.getDateUpdated() == null) {
+            return parse(attributesJson);
+        }
+
+        CacheKey key = new CacheKey(serviceRequest.getId(), serviceRequest.getDateUpdated());
+        CacheEntry entry = cache.get(key);
+        // the stored json is compared as well, so writes that bypass @DateUpdated never serve a stale list
+        if (entry != null && Objects.equals(entry.attributesJson(), attributesJson)) {
+            return entry.attributes();
+        }
+
+        List<ServiceDefinitionAttributeDTO> attributes = parse(attributesJson);
+        cache.put(key, new CacheEntry(attributesJson, attributes));
+        return attributes;
+    }
+
+    /**
+     * Parses attribute JSON without caching it, e.g. a client-supplied attribute snapshot.
+     */
+    public List<ServiceDefinitionAttributeDTO> parse(String attributesJson) {
+        try {
+            ServiceDefinitionAttributeDTO[] attributes = ATTRIBUTES_READER.readValue(attributesJson);
+            return List.of(attributes);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public String write(List<ServiceDefinitionAttributeDTO> attributes) {
+        try {
+            return ATTRIBUTES_WRITER.writeValueAsString(attributes);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,54 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.exception.Libre311BaseException;
+import app.model.servicerequest.ServiceRequest;
+import io.micronaut.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page. Encoded as an opaque URL-safe token so clients do not depend on
+ * its layout.
+ */
+record ServiceRequestCursor(Instant dateCreated, Long id) {
+
+    static ServiceRequestCursor of(ServiceRequest serviceRequest) {
+        return new ServiceRequestCursor(serviceRequest.getDateCreated(), serviceRequest.getId());
+    }
+
+    String encode() {
+        String raw = dateCreated.getEpochSecond() + ":" + dateCreated.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ServiceRequestCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(raw);
+            }
+            Instant dateCreated = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new ServiceRequestCursor(dateCreated, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new Libre311BaseException("Invalid cursor.", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.model.servicerequest.ServiceRequestDailyStatsStore;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically rebuilds the daily service request rollup. It is adjusted in place as requests are created, patched
+ * and deleted; this catches whatever those adjustments missed, e.g. two patches of the same request that both read
+ * its contribution before either wrote, or rows changed directly in the database.
+ */
+@Singleton
+public class ServiceRequestDailyStatsReconciler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServiceRequestDailyStatsReconciler.class);
+
+    private final ServiceRequestDailyStatsStore store;
+
+    public ServiceRequestDailyStatsReconciler(ServiceRequestDailyStatsStore store) {
+        this.store = store;
+    }
+
+    @Scheduled(fixedDelay = "${app.service-request-stats.reconcile-interval:1h}",
+            initialDelay = "${app.service-request-stats.reconcile-initial-delay:5m}")
+    void reconcile() {
+        int corrected = store.reconcile();
+        if (corrected > 0) {
+            LOG.warn("Corrected {} row(s) of the daily service request stats.", corrected);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.download.CsvHeaders;
+import app.dto.download.DownloadServiceRequestDTO;
+import app.dto.servicedefinition.AttributeValueDTO;
+import app.dto.servicerequest.GetServiceRequestsDTO;
+import app.exception.Libre311BaseException;
+import app.model.jurisdiction.Jurisdiction_;
+import app.model.service.Service;
+import app.model.service.Service_;
+import app.model.service.group.ServiceGroup;
+import app.model.service.group.ServiceGroup_;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestPriority;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.model.servicerequest.ServiceRequest_;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.transaction.Transactional;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.locationtech.jts.geom.Point;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes the CSV export of service requests row by row from a forward-only database cursor, so memory use
+ * stays flat regardless of how many requests match the filters. Rows are read as a flat projection: loading
+ * entities would fetch their eager associations with further queries, which MySQL refuses while a streaming
+ * result set is open.
+ */
+@Singleton
+public class ServiceRequestExportService {
+
+    // MySQL Connector/J only streams rows instead of buffering the full result set when the fetch size is MIN_VALUE
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ServiceRequestAttributesParser attributesParser;
+    private final ServiceRequestLocationFilter locationFilter;
+
+    public ServiceRequestExportService(EntityManager entityManager, EntityManagerFactory entityManagerFactory,
+                                       ServiceRequestAttributesParser attributesParser,
+                                       ServiceRequestLocationFilter locationFilter) {
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.attributesParser = attributesParser;
+        this.locationFilter = locationFilter;
+    }
+
+    static class InvalidExportException extends Libre311BaseException {
+        public InvalidExportException(String message) {
+            super(message, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * A validated export, ready to be written once the response has started.
+     */
+    public record Export(QuerySpecification<ServiceRequest> specification, Sort sort) {}
+
+    /**
+     * Validates the filters and sort of an export. Runs before the response is committed, so invalid parameters
+     * are still answered with a 400 rather than a truncated CSV.
+     */
+    public Export prepare(GetServiceRequestsDTO requestDTO, String jurisdictionId) {
+        Pageable pageable = requestDTO.getPageable();
+        Sort sort = pageable != null && pageable.isSorted()
+                ? pageable.getSort()
+                : Sort.of(new Sort.Order("dateCreated", Sort.Order.Direction.DESC, false));
+        sort.getOrderBy().forEach(order -> validateSortProperty(order.getProperty()));
+        return new Export(getSpecification(requestDTO, jurisdictionId), sort);
+    }
+
+    /**
+     * Writes and flushes the export but leaves the writer open, so the caller can signal a failure before the
+     * stream ends.
+     */
+    @Transactional
+    public void writeCsv(Export export, Writer writer) throws IOException {
+        CSVFormat.Builder builder = CSVFormat.Builder.create(CSVFormat.DEFAULT);
+        builder.setHeader(CsvHeaders.class);
+
+        CSVPrinter csvPrinter = new CSVPrinter(writer, builder.build());
+        try (Stream<Tuple> rows = streamRows(export)) {
+            rows.forEach(row -> {
+                try {
+                    printRecord(csvPrinter, toDownloadDTO(row));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        csvPrinter.flush();
+    }
+
+    private Stream<Tuple> streamRows(Export export) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<ServiceRequest> root = query.from(ServiceRequest.class);
+        Join<ServiceRequest, Service> service = root.join(ServiceRequest_.service);
+        Join<Service, ServiceGroup> serviceGroup = service.join(Service_.serviceGroup, JoinType.LEFT);
+
+        // CSV export should not filter closed requests - export all data
+        query.multiselect(root.get(ServiceRequest_.jurisdiction).get(Jurisdiction_.id),
+                        service.get(Service_.serviceName), serviceGroup.get(ServiceGroup_.name),
+                        service.get(Service_.id), root.get(ServiceRequest_.id),
+                        root.get(ServiceRequest_.attributesJson), root.get(ServiceRequest_.description),
+                        root.get(ServiceRequest_.mediaUrl), root.get(ServiceRequest_.addressString),
+                        root.get(ServiceRequest_.zipCode), root.get(ServiceRequest_.location),
+                        root.get(ServiceRequest_.firstName), root.get(ServiceRequest_.lastName),
+                        root.get(ServiceRequest_.email), root.get(ServiceRequest_.phone),
+                        root.get(ServiceRequest_.dateCreated), root.get(ServiceRequest_.dateUpdated),
+                        root.get(ServiceRequest_.closedDate), root.get(ServiceRequest_.agencyResponsible),
+                        root.get(ServiceRequest_.agencyEmail), root.get(ServiceRequest_.priority),
+                        root.get(ServiceRequest_.status), root.get(ServiceRequest_.statusNotes),
+                        root.get(ServiceRequest_.serviceNotice))
+                .where(export.specification().toPredicate(root, query, criteriaBuilder));
+        query.orderBy(getOrders(export.sort(), root, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+                .setHint("org.hibernate.fetchSize", STREAMING_FETCH_SIZE)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream();
+    }
+
+    // in the order of the multiselect above
+    private DownloadServiceRequestDTO toDownloadDTO(Tuple row) {
+        DownloadServiceRequestDTO dto = new DownloadServiceRequestDTO();
+        dto.setJurisdictionId(row.get(0, String.class));
+        dto.setServiceName(DownloadServiceRequestDTO.sanitize(row.get(1, String.class)));
+        dto.setGroup(DownloadServiceRequestDTO.sanitize(row.get(2, String.class)));
+        dto.setServiceCode(row.get(3, Long.class));
+        dto.setId(row.get(4, Long.class));
+        dto.setServiceSubtype(getServiceSubtype(row.get(5, String.class)));
+        dto.setDescription(DownloadServiceRequestDTO.sanitize(row.get(6, String.class)));
+        dto.setMediaUrl(DownloadServiceRequestDTO.sanitize(row.get(7, String.class)));
+        dto.setAddress(DownloadServiceRequestDTO.sanitize(row.get(8, String.class)));
+        dto.setZipcode(DownloadServiceRequestDTO.sanitize(row.get(9, String.class)));
+        Point location = row.get(10, Point.class);
+        dto.setLatitude(DownloadServiceRequestDTO.sanitize(String.valueOf(location.getY())));
+        dto.setLongitude(DownloadServiceRequestDTO.sanitize(String.valueOf(location.getX())));
+        dto.setFirstName(DownloadServiceRequestDTO.sanitize(row.get(11, String.class)));
+        dto.setLastName(DownloadServiceRequestDTO.sanitize(row.get(12, String.class)));
+        dto.setEmail(DownloadServiceRequestDTO.sanitize(row.get(13, String.class)));
+        dto.setPhone(DownloadServiceRequestDTO.sanitize(row.get(14, String.class)));
+        dto.setDateCreated(row.get(15, Instant.class));
+        dto.setDateUpdated(row.get(16, Instant.class));
+        dto.setClosedDate(row.get(17, Instant.class));
+        dto.setAgencyResponsible(DownloadServiceRequestDTO.sanitize(row.get(18, String.class)));
+        dto.setAgencyEmail(DownloadServiceRequestDTO.sanitize(row.get(19, String.class)));
+        dto.setPriority(row.get(20, ServiceRequestPriority.class));
+        dto.setStatus(row.get(21, ServiceRequestStatus.class));
+        dto.setStatusNotes(DownloadServiceRequestDTO.sanitize(row.get(22, String.class)));
+        dto.setServiceNotice(DownloadServiceRequestDTO.sanitize(row.get(23, String.class)));
+        return dto;
+    }
+
+    private QuerySpecification<ServiceRequest> getSpecification(GetServiceRequestsDTO requestDTO, String jurisdictionId) {
+        QuerySpecification<ServiceRequest> location = locationFilter.getSpecification(requestDTO);
+        String serviceRequestIds = requestDTO.getId();
+        if (StringUtils.hasText(serviceRequestIds)) {
+            List<Long> requestIds;
+            try {
+                requestIds = Arrays.stream(serviceRequestIds.split(",")).map(String::trim).map(Long::valueOf).collect(Collectors.toList());
+            } catch (NumberFormatException e) {
+                throw new InvalidExportException("id must be a comma-separated list of service request ids.");
+            }
+            return ServiceRequestRepository.Specifications.jurisdictionIdEqual(jurisdictionId)
+                    .and(ServiceRequestRepository.Specifications.notDeleted())
+                    .and(ServiceRequestRepository.Specifications.idIn(requestIds));
+        }
+
+        QuerySpecification<ServiceRequest> specification = ServiceRequestRepository.getServiceRequestSpecification(
+                jurisdictionId, requestDTO.getServiceCodes(), requestDTO.getStatuses(), requestDTO.getPriorities(),
+                requestDTO.getStartDate(), requestDTO.getEndDate(), requestDTO.getProjectId(), null);
+        return location == null ? specification : specification.and(location);
+    }
+
+    // sort properties are paths of single-valued attributes, e.g. addressString or service.serviceName
+    private void validateSortProperty(String property) {
+        ManagedType<?> type = entityManagerFactory.getMetamodel().managedType(ServiceRequest.class);
+        for (String segment : property.split("\\.", -1)) {
+            Attribute<?, ?> attribute = null;
+            if (type != null) {
+                try {
+                    attribute = type.getAttribute(segment);
+                } catch (IllegalArgumentException e) {
+                    // unknown attribute
+                }
+            }
+            if (!(attribute instanceof SingularAttribute<?, ?> singularAttribute)) {
+                throw new InvalidExportException("Cannot sort by " + property + ".");
+            }
+            type = singularAttribute.getType() instanceof ManagedType<?> managedType ? managedType : null;
+        }
+    }
+
+    private List<Order> getOrders(Sort sort, Root<ServiceRequest> root, CriteriaBuilder criteriaBuilder) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort.getOrderBy()) {
+            Path<Object> path = getPath(root, order.getProperty());
+            orders.add(order.isAscending() ? criteriaBuilder.asc(path) : criteriaBuilder.desc(path));
+        }
+        return orders;
+    }
+
+    private static Path<Object> getPath(Root<ServiceRequest> root, String property) {
+        String[] segments = property.split("\\.");
+        Path<Object> path = root.get(segments[0]);
+        for (int i = 1; i < segments.length; i++) {
+            path = path.get(segments[i]);
+        }
+        return path;
+    }
+
+    private String getServiceSubtype(String attributesJson) {
+        if (attributesJson == null) {
+            return null;
+        }
+
+        // exported rows are read once, so they are parsed without going through the attribute cache
+        List<String> values = attributesParser.parse(attributesJson).stream()
+                .flatMap(serviceDefinitionAttribute -> {
+                    if (serviceDefinitionAttribute.getValues() != null) {
+                        return serviceDefinitionAttribute.getValues().stream();
+                    }
+                    return Stream.of();
+                })
+                .map(AttributeValueDTO::getKey).collect(Collectors.toList());
+
+        return String.join(",", values);
+    }
+
+    private static void printRecord(CSVPrinter csvPrinter, DownloadServiceRequestDTO downloadServiceRequestDTO) throws IOException {
+        csvPrinter.printRecord(
+                downloadServiceRequestDTO.getJurisdictionId(),
+                downloadServiceRequestDTO.getServiceName(),
+                downloadServiceRequestDTO.getGroup(),
+                downloadServiceRequestDTO.getServiceCode(),
+                downloadServiceRequestDTO.getId(),
+                downloadServiceRequestDTO.getServiceSubtype(),
+                downloadServiceRequestDTO.getDescription(),
+                downloadServiceRequestDTO.getMediaUrl(),
+                downloadServiceRequestDTO.getAddress(),
+                downloadServiceRequestDTO.getZipcode(),
+                downloadServiceRequestDTO.getLatitude(),
+                downloadServiceRequestDTO.getLongitude(),
+                downloadServiceRequestDTO.getFirstName(),
+                downloadServiceRequestDTO.getLastName(),
+                downloadServiceRequestDTO.getEmail(),
+                downloadServiceRequestDTO.getPhone(),
+                downloadServiceRequestDTO.getDateCreated(),
+                downloadServiceRequestDTO.getDateUpdated(),
+                downloadServiceRequestDTO.getClosedDate(),
+                downloadServiceRequestDTO.getAgencyResponsible(),
+                downloadServiceRequestDTO.getAgencyEmail(),
+                downloadServiceRequestDTO.getPriority(),
+                downloadServiceRequestDTO.getStatus(),
+                downloadServiceRequestDTO.getStatusNotes(),
+                downloadServiceRequestDTO.getServiceNotice()
+        );
+    }
+}
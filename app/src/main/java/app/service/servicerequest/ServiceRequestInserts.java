@@ -0,0 +1,59 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.model.project.ProjectRepository;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestRepository;
+import jakarta.inject.Singleton;
+import jakarta.transaction.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Inserts new service requests together with the project request counts and daily stats derived from them, in one
+ * transaction. A failure in any of them rolls back the requests too, so a client is never told a submission failed
+ * after it was saved. In-memory views such as the map feed are left to the caller, to update after the commit.
+ */
+@Singleton
+public class ServiceRequestInserts {
+
+    private final ServiceRequestRepository serviceRequestRepository;
+    private final ProjectRepository projectRepository;
+    private final ServiceRequestStatsService statsService;
+
+    public ServiceRequestInserts(ServiceRequestRepository serviceRequestRepository,
+                                 ProjectRepository projectRepository,
+                                 ServiceRequestStatsService statsService) {
+        this.serviceRequestRepository = serviceRequestRepository;
+        this.projectRepository = projectRepository;
+        this.statsService = statsService;
+    }
+
+    /**
+     * @return the saved requests, in the order given
+     */
+    @Transactional
+    public List<ServiceRequest> insertAll(String jurisdictionId, List<ServiceRequest> serviceRequests) {
+        List<ServiceRequest> saved = serviceRequestRepository.saveAll(serviceRequests);
+        saved.stream()
+                .filter(serviceRequest -> serviceRequest.getProject() != null)
+                .collect(Collectors.groupingBy(serviceRequest -> serviceRequest.getProject().getId(), Collectors.counting()))
+                .forEach((projectId, count) -> projectRepository.updateRequestCount(projectId, count.intValue()));
+        statsService.recordCreated(jurisdictionId, saved);
+        return saved;
+    }
+}
@@ -0,0 +1,94 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.servicerequest.GetServiceRequestsDTO;
+import app.exception.Libre311BaseException;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.service.geometry.BoundingBox;
+import app.service.geometry.LibreGeometryFactory;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * Turns the bbox and lat/lng/radius parameters of a service request search into specifications that MySQL can
+ * answer from the spatial index on location.
+ */
+@Singleton
+public class ServiceRequestLocationFilter {
+
+    static final double MAX_RADIUS_METERS = 100_000;
+
+    private final LibreGeometryFactory geometryFactory;
+
+    public ServiceRequestLocationFilter(LibreGeometryFactory geometryFactory) {
+        this.geometryFactory = geometryFactory;
+    }
+
+    static class InvalidLocationFilterException extends Libre311BaseException {
+        public InvalidLocationFilterException(String message) {
+            super(message, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * @return the location filter of the search, or null when it has none
+     */
+    @Nullable
+    public QuerySpecification<ServiceRequest> getSpecification(GetServiceRequestsDTO requestDTO) {
+        boolean hasLocation = requestDTO.getBbox() != null || requestDTO.getLat() != null
+                || requestDTO.getLng() != null || requestDTO.getRadius() != null;
+        // an id search ignores every other filter, so a location would silently be dropped
+        if (hasLocation && StringUtils.hasText(requestDTO.getId())) {
+            throw new InvalidLocationFilterException("id cannot be combined with bbox or lat, lng and radius.");
+        }
+
+        QuerySpecification<ServiceRequest> specification = null;
+        if (requestDTO.getBbox() != null) {
+            BoundingBox area = BoundingBox.parse(requestDTO.getBbox());
+            specification = ServiceRequestRepository.Specifications.locationWithin(area.toPolygon(geometryFactory));
+        }
+
+        Double lat = requestDTO.getLat();
+        Double lng = requestDTO.getLng();
+        Double radius = requestDTO.getRadius();
+        if (lat == null && lng == null && radius == null) {
+            return specification;
+        }
+        if (lat == null || lng == null || radius == null) {
+            throw new InvalidLocationFilterException("lat, lng and radius must be given together.");
+        }
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new InvalidLocationFilterException("lat must be between -90 and 90 and lng between -180 and 180.");
+        }
+        if (radius <= 0 || radius > MAX_RADIUS_METERS) {
+            throw new InvalidLocationFilterException("radius must be greater than 0 and at most "
+                    + (long) MAX_RADIUS_METERS + " meters.");
+        }
+
+        // the enclosing box narrows the rows through the index, the distance then trims its corners
+        BoundingBox enclosingBox = BoundingBox.around(lat, lng, radius);
+        QuerySpecification<ServiceRequest> withinRadius = ServiceRequestRepository.Specifications
+                .locationWithin(enclosingBox.toPolygon(geometryFactory))
+                .and(ServiceRequestRepository.Specifications.locationWithinDistance(
+                        geometryFactory.createPoint(new Coordinate(lng, lat)), radius));
+        return specification == null ? withinRadius : specification.and(withinRadius);
+    }
+}
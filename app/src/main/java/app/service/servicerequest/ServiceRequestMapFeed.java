@@ -0,0 +1,449 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.servicerequest.NearbyServiceRequestDTO;
+import app.dto.servicerequest.ServiceRequestClusterDTO;
+import app.dto.servicerequest.ServiceRequestMapFeedDTO;
+import app.exception.Libre311BaseException;
+import app.model.jurisdiction.Jurisdiction;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestMarker;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.service.geometry.BoundingBox;
+import app.service.service.ServiceCatalogCache;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.transaction.annotation.TransactionalEventListener;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.Point;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps an in-memory snapshot of each jurisdiction's map markers and serves the public map feed and its grid
+ * clusters from it. Requests created, patched or deleted on this instance update the snapshot in place once the change
+ * has committed and are handed out as deltas to clients that pass the cursor of their previous feed. The refresh
+ * interval bounds how long changes made through other instances stay invisible; a refresh starts a new snapshot, so
+ * cursors of the previous one get a full feed.
+ * <p>
+ * Each snapshot also indexes its open requests by service, so possible duplicates of a new submission are found
+ * without a query.
+ */
+@Singleton
+public class ServiceRequestMapFeed {
+
+    static final double MAX_NEARBY_RADIUS_METERS = 1_000;
+    static final int MAX_NEARBY_RESULTS = 20;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, List<Point>>> changeListeners = new CopyOnWriteArrayList<>();
+    private final ServiceRequestRepository serviceRequestRepository;
+    private final ServiceCatalogCache serviceCatalogCache;
+    private final Duration refreshInterval;
+    private final double duplicateRadius;
+    private final Clock clock;
+
+    @Inject
+    public ServiceRequestMapFeed(ServiceRequestRepository serviceRequestRepository,
+                                 ServiceCatalogCache serviceCatalogCache,
+                                 @Value("${app.map-feed.refresh-interval:5m}") Duration refreshInterval,
+                                 @Value("${app.map-feed.duplicate-radius:50}") double duplicateRadius) {
+        this(serviceRequestRepository, serviceCatalogCache, refreshInterval, duplicateRadius, Clock.systemUTC());
+    }
+
+    ServiceRequestMapFeed(ServiceRequestRepository serviceRequestRepository, ServiceCatalogCache serviceCatalogCache,
+                          Duration refreshInterval, double duplicateRadius, Clock clock) {
+        this.serviceRequestRepository = serviceRequestRepository;
+        this.serviceCatalogCache = serviceCatalogCache;
+        this.refreshInterval = refreshInterval;
+        this.duplicateRadius = duplicateRadius;
+        this.clock = clock;
+    }
+
+    /**
+     * @param since cursor of a feed previously returned for the jurisdiction; null, unknown or outdated cursors get
+     *              a full feed
+     */
+    public ServiceRequestMapFeedDTO get(String jurisdictionId, @Nullable String since) {
+        Instant closedRequestCutoffDate = getClosedRequestCutoffDate(jurisdictionId);
+        return getSnapshot(jurisdictionId, closedRequestCutoffDate).toFeed(since, closedRequestCutoffDate);
+    }
+
+    /**
+     * Counts the markers inside the bounding box per grid cell, for map views too far zoomed out to plot them one
+     * by one. Cells are an eighth of a map tile wide at the given zoom level.
+     *
+     * @param bbox {@code minLng,minLat,maxLng,maxLat}
+     */
+    public List<ServiceRequestClusterDTO> getClusters(String jurisdictionId, String bbox, int zoom, boolean byService) {
+        BoundingBox area = BoundingBox.parse(bbox);
+        if (zoom < 0 || zoom > MarkerGrid.MAX_ZOOM) {
+            throw new InvalidMapAreaException("zoom must be between 0 and " + MarkerGrid.MAX_ZOOM + ".");
+        }
+
+        Instant closedRequestCutoffDate = getClosedRequestCutoffDate(jurisdictionId);
+        return getSnapshot(jurisdictionId, closedRequestCutoffDate)
+                .toClusters(area, zoom, byService, closedRequestCutoffDate);
+    }
+
+    /**
+     * @return the id of the jurisdiction's current snapshot; it changes whenever the snapshot is rebuilt
+     */
+    public String getSnapshotId(String jurisdictionId) {
+        return getSnapshot(jurisdictionId, getClosedRequestCutoffDate(jurisdictionId)).id;
+    }
+
+    /**
+     * @return the visible markers inside the area, and the id of the snapshot they were read from
+     */
+    public AreaMarkers getMarkers(String jurisdictionId, BoundingBox area) {
+        Instant closedRequestCutoffDate = getClosedRequestCutoffDate(jurisdictionId);
+        Snapshot snapshot = getSnapshot(jurisdictionId, closedRequestCutoffDate);
+        return new AreaMarkers(snapshot.id, snapshot.find(area, closedRequestCutoffDate));
+    }
+
+    /**
+     * @param radius meters; defaults to the duplicate radius
+     * @return the open requests of the service within the radius, nearest first
+     */
+    public List<NearbyServiceRequestDTO> getNearby(String jurisdictionId, Long serviceCode, double lat, double lng,
+                                                   @Nullable Double radius) {
+        double meters = radius == null ? duplicateRadius : radius;
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new InvalidMapAreaException("lat must be between -90 and 90 and lng between -180 and 180.");
+        }
+        if (!(meters > 0 && meters <= MAX_NEARBY_RADIUS_METERS)) {
+            throw new InvalidMapAreaException("radius must be greater than 0 and at most "
+                    + (long) MAX_NEARBY_RADIUS_METERS + " meters.");
+        }
+
+        return getSnapshot(jurisdictionId, getClosedRequestCutoffDate(jurisdictionId))
+                .findOpenNearby(serviceCode, lat, lng, meters);
+    }
+
+    /**
+     * Looks up open requests of the service within the duplicate radius of a new submission. Only reads a snapshot
+     * that is already loaded, even if it is due for a refresh, so it never queries the database.
+     *
+     * @return the ids of the possible duplicates, nearest first; empty when no snapshot is loaded
+     */
+    public List<Long> findPossibleDuplicates(String jurisdictionId, Long serviceId, Point location) {
+        Snapshot snapshot = snapshots.get(jurisdictionId);
+        if (snapshot == null || duplicateRadius <= 0) {
+            return List.of();
+        }
+        return snapshot.findOpenNearby(serviceId, location.getY(), location.getX(), duplicateRadius).stream()
+                .map(NearbyServiceRequestDTO::getId)
+                .toList();
+    }
+
+    /**
+     * Registers a callback that receives the previous and new locations of markers changed in place. It is not
+     * called when a snapshot is rebuilt; compare {@link #getSnapshotId} for that.
+     */
+    public void addChangeListener(BiConsumer<String, List<Point>> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Adds or replaces the markers of committed requests.
+     */
+    public void put(String jurisdictionId, Collection<ServiceRequest> serviceRequests) {
+        putMarkers(jurisdictionId, serviceRequests.stream().map(ServiceRequestMarker::of).toList());
+    }
+
+    private void putMarkers(String jurisdictionId, List<ServiceRequestMarker> markers) {
+        Snapshot snapshot = snapshots.get(jurisdictionId);
+        if (snapshot != null && !markers.isEmpty()) {
+            notifyChanged(jurisdictionId, snapshot.put(markers));
+        }
+    }
+
+    /**
+     * Re-reads the markers of requests that were changed without being loaded, e.g. by set-based updates.
+     */
+    public void reload(String jurisdictionId, Collection<Long> serviceRequestIds) {
+        Snapshot snapshot = snapshots.get(jurisdictionId);
+        if (snapshot != null && !serviceRequestIds.isEmpty()) {
+            List<ServiceRequestMarker> changed =
+                    serviceRequestRepository.findMarkersByIdInAndJurisdictionId(serviceRequestIds, jurisdictionId);
+            notifyChanged(jurisdictionId, snapshot.put(changed));
+        }
+    }
+
+    public void remove(String jurisdictionId, Long serviceRequestId) {
+        Snapshot snapshot = snapshots.get(jurisdictionId);
+        if (snapshot != null) {
+            notifyChanged(jurisdictionId, snapshot.remove(serviceRequestId));
+        }
+    }
+
+    /**
+     * Drops every jurisdiction's snapshot, e.g. after requests were written without going through
+     * {@link ServiceRequestService}. The next reader loads a new snapshot with a new id, which also retires the
+     * tiles rendered from the old one.
+     */
+    public void invalidateAll() {
+        snapshots.clear();
+    }
+
+    @TransactionalEventListener
+    void onServiceRequestsChanged(ServiceRequestsChangedEvent event) {
+        putMarkers(event.jurisdictionId(), event.markers());
+        event.removedIds().forEach(serviceRequestId -> remove(event.jurisdictionId(), serviceRequestId));
+    }
+
+    private void notifyChanged(String jurisdictionId, List<Point> locations) {
+        if (!locations.isEmpty()) {
+            changeListeners.forEach(listener -> listener.accept(jurisdictionId, locations));
+        }
+    }
+
+    private Snapshot getSnapshot(String jurisdictionId, Instant closedRequestCutoffDate) {
+        if (isDisabled()) {
+            return load(jurisdictionId, closedRequestCutoffDate);
+        }
+
+        Snapshot snapshot = snapshots.get(jurisdictionId);
+        if (snapshot == null || !isFresh(snapshot)) {
+            snapshot = snapshots.compute(jurisdictionId, (id, current) ->
+                    current != null && isFresh(current) ? current : load(id, closedRequestCutoffDate));
+        }
+        return snapshot;
+    }
+
+    private Snapshot load(String jurisdictionId, Instant closedRequestCutoffDate) {
+        Snapshot snapshot = new Snapshot(Long.toHexString(ThreadLocalRandom.current().nextLong()), clock.instant());
+        snapshot.put(serviceRequestRepository.findMarkersByJurisdictionId(jurisdictionId,
+                ServiceRequestStatus.CLOSED, closedRequestCutoffDate));
+        return snapshot;
+    }
+
+    // same visibility as the public GET /requests: closed requests only while they are recent
+    private Instant getClosedRequestCutoffDate(String jurisdictionId) {
+        Jurisdiction jurisdiction = serviceCatalogCache.get(jurisdictionId).getJurisdiction();
+        int closedRequestDaysVisible = jurisdiction == null ? 0 : jurisdiction.getClosedRequestDaysVisibleUser();
+        return clock.instant().minus(closedRequestDaysVisible, ChronoUnit.DAYS);
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return clock.instant().isBefore(snapshot.loadedAt.plus(refreshInterval));
+    }
+
+    private boolean isDisabled() {
+        return refreshInterval.isZero() || refreshInterval.isNegative();
+    }
+
+    static class InvalidMapAreaException extends Libre311BaseException {
+        public InvalidMapAreaException(String message) {
+            super(message, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public record AreaMarkers(String snapshotId, List<ServiceRequestMarker> markers) {}
+
+    private record Entry(ServiceRequestMarker marker, long version) {}
+
+    /**
+     * Markers and removals are stamped with the snapshot version at which they changed, so a delta is everything
+     * stamped after the client's version. Removals are kept until the snapshot is replaced.
+     */
+    private static final class Snapshot {
+        private final String id;
+        private final Instant loadedAt;
+        private final Map<Long, Entry> markers = new HashMap<>();
+        private final Map<Long, Long> removedAt = new HashMap<>();
+        private final MarkerGrid grid = new MarkerGrid();
+        private final Map<Long, MarkerGrid> openByService = new HashMap<>();
+        private long version;
+
+        private Snapshot(String id, Instant loadedAt) {
+            this.id = id;
+            this.loadedAt = loadedAt;
+        }
+
+        // returns the previous and new locations of the changed markers
+        synchronized List<Point> put(List<ServiceRequestMarker> changed) {
+            version++;
+            List<Point> locations = new ArrayList<>(changed.size());
+            for (ServiceRequestMarker marker : changed) {
+                Entry previous = markers.put(marker.getId(), new Entry(marker, version));
+                grid.put(previous == null ? null : previous.marker(), marker);
+                if (previous != null) {
+                    removeOpen(previous.marker());
+                }
+                if (marker.getStatus() != ServiceRequestStatus.CLOSED) {
+                    openByService.computeIfAbsent(marker.getServiceId(), serviceId -> new MarkerGrid())
+                            .put(null, marker);
+                }
+                removedAt.remove(marker.getId());
+                if (previous != null && !previous.marker().getLocation().equalsExact(marker.getLocation())) {
+                    locations.add(previous.marker().getLocation());
+                }
+                locations.add(marker.getLocation());
+            }
+            return locations;
+        }
+
+        synchronized List<Point> remove(Long serviceRequestId) {
+            Entry removed = markers.remove(serviceRequestId);
+            if (removed == null) {
+                return List.of();
+            }
+            grid.remove(removed.marker());
+            removeOpen(removed.marker());
+            removedAt.put(serviceRequestId, ++version);
+            return List.of(removed.marker().getLocation());
+        }
+
+        private void removeOpen(ServiceRequestMarker marker) {
+            MarkerGrid openGrid = openByService.get(marker.getServiceId());
+            if (openGrid != null) {
+                openGrid.remove(marker);
+                if (openGrid.isEmpty()) {
+                    openByService.remove(marker.getServiceId());
+                }
+            }
+        }
+
+        synchronized List<NearbyServiceRequestDTO> findOpenNearby(Long serviceId, double lat, double lng,
+                                                                  double meters) {
+            MarkerGrid openGrid = openByService.get(serviceId);
+            if (openGrid == null) {
+                return List.of();
+            }
+            List<NearbyServiceRequestDTO> nearby = new ArrayList<>();
+            BoundingBox area = BoundingBox.around(lat, lng, meters);
+            for (ServiceRequestMarker marker : openGrid.find(area, candidate -> true)) {
+                double distance = distance(lat, lng, marker.getLocation().getY(), marker.getLocation().getX());
+                if (distance <= meters) {
+                    nearby.add(new NearbyServiceRequestDTO(marker, distance));
+                }
+            }
+            nearby.sort(Comparator.comparingDouble(NearbyServiceRequestDTO::getDistance));
+            return nearby.size() > MAX_NEARBY_RESULTS ? List.copyOf(nearby.subList(0, MAX_NEARBY_RESULTS)) : nearby;
+        }
+
+        synchronized List<ServiceRequestMarker> find(BoundingBox area, Instant closedRequestCutoffDate) {
+            return grid.find(area, marker -> isVisible(marker, closedRequestCutoffDate));
+        }
+
+        synchronized List<ServiceRequestClusterDTO> toClusters(BoundingBox area, int zoom, boolean byService,
+                                                               Instant closedRequestCutoffDate) {
+            return grid.cluster(area, zoom, marker -> isVisible(marker, closedRequestCutoffDate), byService);
+        }
+
+        synchronized ServiceRequestMapFeedDTO toFeed(@Nullable String since, Instant closedRequestCutoffDate) {
+            long sinceVersion = parseSince(since);
+            boolean full = sinceVersion < 0;
+
+            List<ServiceRequestMarker> visible = new ArrayList<>(full ? markers.size() : 16);
+            List<Long> removed = new ArrayList<>();
+            for (Entry entry : markers.values()) {
+                if (!full && entry.version() <= sinceVersion) {
+                    continue;
+                }
+                if (isVisible(entry.marker(), closedRequestCutoffDate)) {
+                    visible.add(entry.marker());
+                } else if (!full) {
+                    removed.add(entry.marker().getId());
+                }
+            }
+            if (!full) {
+                removedAt.forEach((serviceRequestId, removedVersion) -> {
+                    if (removedVersion > sinceVersion) {
+                        removed.add(serviceRequestId);
+                    }
+                });
+            }
+
+            ServiceRequestMapFeedDTO feed = new ServiceRequestMapFeedDTO();
+            feed.setCursor(id + "." + version);
+            feed.setFull(full);
+            int size = visible.size();
+            long[] ids = new long[size];
+            double[] lat = new double[size];
+            double[] lng = new double[size];
+            String[] status = new String[size];
+            long[] serviceCode = new long[size];
+            long[] created = new long[size];
+            for (int i = 0; i < size; i++) {
+                ServiceRequestMarker marker = visible.get(i);
+                ids[i] = marker.getId();
+                lat[i] = marker.getLocation().getY();
+                lng[i] = marker.getLocation().getX();
+                status[i] = marker.getStatus().toString();
+                serviceCode[i] = marker.getServiceId();
+                created[i] = marker.getDateCreated().getEpochSecond();
+            }
+            feed.setIds(ids);
+            feed.setLat(lat);
+            feed.setLng(lng);
+            feed.setStatus(status);
+            feed.setServiceCode(serviceCode);
+            feed.setCreated(created);
+            feed.setRemovedIds(removed.stream().mapToLong(Long::longValue).toArray());
+            return feed;
+        }
+
+        // the client's version, or -1 when the cursor does not belong to this snapshot
+        private long parseSince(@Nullable String since) {
+            if (since == null) {
+                return -1;
+            }
+            int separator = since.indexOf('.');
+            if (separator < 0 || !id.equals(since.substring(0, separator))) {
+                return -1;
+            }
+            try {
+                long sinceVersion = Long.parseLong(since.substring(separator + 1));
+                return sinceVersion >= 0 && sinceVersion <= version ? sinceVersion : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        // haversine on the same sphere as MySQL's ST_Distance_Sphere
+        private static double distance(double lat1, double lng1, double lat2, double lng2) {
+            double sinDeltaLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+            double sinDeltaLng = Math.sin(Math.toRadians(lng2 - lng1) / 2);
+            double a = sinDeltaLat * sinDeltaLat
+                    + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinDeltaLng * sinDeltaLng;
+            return 2 * BoundingBox.EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+
+        private static boolean isVisible(ServiceRequestMarker marker, Instant closedRequestCutoffDate) {
+            return marker.getStatus() != ServiceRequestStatus.CLOSED
+                    || !marker.getDateCreated().isBefore(closedRequestCutoffDate);
+        }
+    }
+}
@@ -14,12 +14,9 @@
 
 package app.service.servicerequest;
 
-import app.dto.download.CsvHeaders;
-import app.dto.download.DownloadServiceRequestDTO;
-import app.dto.servicedefinition.AttributeValueDTO;
+import app.ETags;
 import app.dto.servicedefinition.ServiceDefinitionAttributeDTO;
 import app.dto.servicerequest.*;
-import app.model.service.AttributeDataType;
 import app.exception.Libre311BaseException;
 import app.model.jurisdiction.Jurisdiction;
 import app.model.jurisdiction.JurisdictionRepository;
@@ -28,54 +25,66 @@ import app.model.project.Project;
 import app.model.project.ProjectRepository;
 import app.model.service.Service;
 import app.model.service.ServiceRepository;
-import app.model.servicedefinition.AttributeValue;
 import app.model.servicedefinition.ServiceDefinitionAttribute;
 import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
 import app.model.servicerequest.AttributeValidationStatus;
 import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestBulkUpdates;
+import app.model.servicerequest.ServiceRequest_;
+import app.model.servicerequest.ServiceRequestKeysetQueries;
 import app.model.servicerequest.ServiceRequestPriority;
+import app.model.servicerequest.ServiceRequestDailyStats;
 import app.model.servicerequest.ServiceRequestRemovalSuggestion;
-import app.model.servicerequest.ServiceRequestRemovalSuggestionCount;
 import app.model.servicerequest.ServiceRequestRemovalSuggestionRepository;
 import app.model.servicerequest.ServiceRequestRepository;
+import app.model.servicerequest.ServiceRequestRevision;
 import app.model.servicerequest.ServiceRequestStatus;
 import app.security.Permission;
 import app.security.UnityAuthService;
 import app.service.geometry.LibreGeometryFactory;
 import app.service.jurisdiction.JurisdictionBoundaryService;
 import app.service.project.ProjectService;
+import app.service.service.ServiceCatalog;
+import app.service.service.ServiceCatalogCache;
 import app.service.storage.StorageUrlUtil;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.model.Sort;
+import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
 import io.micronaut.http.server.types.files.StreamedFile;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.security.authentication.Authentication;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
+import jakarta.persistence.metamodel.SingularAttribute;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 import java.util.function.Function;
 import jakarta.annotation.Nullable;
 
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.io.Writer;
-import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 
 @Singleton
@@ -94,6 +103,8 @@ public class ServiceRequestService {
     }
 
     private static final Logger LOG = LoggerFactory.getLogger(ServiceRequestService.class);
+    private static final MediaType CSV_MEDIA_TYPE = MediaType.of("text/csv");
+    private static final int CSV_EXPORT_BUFFER_SIZE = 64 * 1024;
     private final ServiceRequestRepository serviceRequestRepository;
     private final ServiceRequestRemovalSuggestionRepository removalSuggestionRepository;
     private final ServiceRepository serviceRepository;
@@ -103,6 +114,19 @@ public class ServiceRequestService {
     private final UnityAuthService unityAuthService;
     private final ProjectService projectService;
     private final ProjectRepository projectRepository;
+    private final ServiceRequestExportService serviceRequestExportService;
+    private final ServiceRequestAttributesParser attributesParser;
+    private final ServiceRequestKeysetQueries keysetQueries;
+    private final ExecutorService ioExecutorService;
+    private final Validator validator;
+    private final ServiceRequestBulkUpdates serviceRequestBulkUpdates;
+    private final ServiceCatalogCache serviceCatalogCache;
+    private final ServiceRequestStatsService statsService;
+    private final ServiceRequestMapFeed mapFeed;
+    private final ServiceRequestLocationFilter locationFilter;
+    private final ServiceRequestInserts serviceRequestInserts;
+    private final ApplicationEventPublisher<ServiceRequestsChangedEvent> eventPublisher;
+    private final Map<Long, ServiceDefinitionValidator> serviceDefinitionValidators = new ConcurrentHashMap<>();
     JurisdictionBoundaryService jurisdictionBoundaryService;
     LibreGeometryFactory libreGeometryFactory;
 
@@ -116,7 +140,19 @@ public class ServiceRequestService {
         ProjectService projectService,
         ProjectRepository projectRepository,
         JurisdictionBoundaryService jurisdictionBoundaryService,
-        LibreGeometryFactory libreGeometryFactory) {
+        LibreGeometryFactory libreGeometryFactory,
+        ServiceRequestExportService serviceRequestExportService,
+        ServiceRequestAttributesParser attributesParser,
+        ServiceRequestKeysetQueries keysetQueries,
+        @Named(TaskExecutors.IO) ExecutorService ioExecutorService,
+        Validator validator,
+        ServiceRequestBulkUpdates serviceRequestBulkUpdates,
+        ServiceCatalogCache serviceCatalogCache,
+        ServiceRequestStatsService statsService,
+        ServiceRequestMapFeed mapFeed,
+        ServiceRequestLocationFilter locationFilter,
+        ServiceRequestInserts serviceRequestInserts,
+        ApplicationEventPublisher<ServiceRequestsChangedEvent> eventPublisher) {
         this.serviceRequestRepository = serviceRequestRepository;
         this.removalSuggestionRepository = removalSuggestionRepository;
         this.serviceRepository = serviceRepository;
@@ -128,21 +164,27 @@ public class ServiceRequestService {
         this.projectRepository = projectRepository;
         this.jurisdictionBoundaryService = jurisdictionBoundaryService;
         this.libreGeometryFactory = libreGeometryFactory;
+        this.serviceRequestExportService = serviceRequestExportService;
+        this.attributesParser = attributesParser;
+        this.keysetQueries = keysetQueries;
+        this.ioExecutorService = ioExecutorService;
+        this.validator = validator;
+        this.serviceRequestBulkUpdates = serviceRequestBulkUpdates;
+        this.serviceCatalogCache = serviceCatalogCache;
+        this.statsService = statsService;
+        this.mapFeed = mapFeed;
+        this.locationFilter = locationFilter;
+        this.serviceRequestInserts = serviceRequestInserts;
+        this.eventPublisher = eventPublisher;
     }
 
 
-    private static ServiceRequestDTO convertToDTO(ServiceRequest serviceRequest) {
+    private ServiceRequestDTO convertToDTO(ServiceRequest serviceRequest) {
         ServiceRequestDTO serviceRequestDTO = new ServiceRequestDTO(serviceRequest);
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        String attributesJson = serviceRequest.getAttributesJson();
-        if (attributesJson != null) {
-            try {
-                ServiceDefinitionAttributeDTO[] serviceDefinitionAttributeDTOS = objectMapper.readValue(attributesJson, ServiceDefinitionAttributeDTO[].class);
-                serviceRequestDTO.setSelectedValues(List.of(serviceDefinitionAttributeDTOS));
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
-            }
+        List<ServiceDefinitionAttributeDTO> attributes = attributesParser.getAttributes(serviceRequest);
+        if (attributes != null) {
+            serviceRequestDTO.setSelectedValues(attributes);
         }
 
         return serviceRequestDTO;
@@ -161,6 +203,20 @@ public class ServiceRequestService {
             }
         }
 
+        ServiceRequest serviceRequest = serviceRequestInserts.insertAll(jurisdictionId,
+                List.of(buildServiceRequest(serviceRequestDTO, new SubmissionLookups(jurisdictionId)))).get(0);
+        // the insert has committed, so the map feed never shows a request that was rolled back; looked up before the new request joins the index, so it is not its own duplicate
+        List<Long> nearbyServiceRequestIds = mapFeed.findPossibleDuplicates(jurisdictionId,
+                serviceRequest.getService().getId(), serviceRequest.getLocation());
+        mapFeed.put(jurisdictionId, List.of(serviceRequest));
+
+        PostResponseServiceRequestDTO response = new PostResponseServiceRequestDTO(serviceRequest);
+        response.setNearbyServiceRequestIds(nearbyServiceRequestIds);
+        return response;
+    }
+
+    private ServiceRequest buildServiceRequest(PostRequestServiceRequestDTO serviceRequestDTO, SubmissionLookups lookups) {
+        String jurisdictionId = lookups.jurisdictionId;
         double lat = Double.parseDouble(serviceRequestDTO.getLatitude());
         double lng = Double.parseDouble(serviceRequestDTO.getLongitude());
         if (!jurisdictionBoundaryService.existsInJurisdiction(jurisdictionId, lat, lng)){
@@ -171,7 +227,7 @@ public class ServiceRequestService {
             throw new InvalidServiceRequestException("Media URL is invalid.");
         }
 
-        Optional<Service> serviceByServiceCodeOptional = serviceRepository.findById(serviceRequestDTO.getServiceCode());
+        Optional<Service> serviceByServiceCodeOptional = lookups.getService(serviceRequestDTO.getServiceCode());
 
         if (serviceByServiceCodeOptional.isEmpty()) {
             throw new InvalidServiceRequestException("Corresponding service is not found.");
@@ -186,10 +242,10 @@ public class ServiceRequestService {
         Service service = serviceByServiceCodeOptional.get();
         ServiceRequest serviceRequest = transformDtoToServiceRequest(serviceRequestDTO, service);
 
-        Jurisdiction jurisdiction = jurisdictionRepository.findByJurisdictionId(jurisdictionId);
+        Jurisdiction jurisdiction = lookups.getJurisdiction();
         if (jurisdiction.getProjectFeature() != ProjectFeature.DISABLED) {
             if (serviceRequestDTO.getProjectId() != null) {
-                Project project = projectRepository.findByIdAndJurisdictionId(serviceRequestDTO.getProjectId(), jurisdictionId)
+                Project project = lookups.getProject(serviceRequestDTO.getProjectId())
                         .orElseThrow(() -> new InvalidServiceRequestException("Project not found"));
                 serviceRequest.setProject(project);
             } else {
@@ -202,12 +258,13 @@ public class ServiceRequestService {
             }
         }
 
-        List<ServiceDefinitionAttribute> serviceDefinitionAttributes = attributeRepository.findAllByServiceId(service.getId());
+        List<ServiceDefinitionAttribute> serviceDefinitionAttributes = lookups.getAttributes(service.getId());
         if (!serviceDefinitionAttributes.isEmpty()) {
             List<ServiceDefinitionAttributeDTO> snapshot = parseAttributeSnapshot(serviceRequestDTO.getAttributeSnapshot());
-            AttributeBuildResult buildResult = buildUserResponseAttributesFromRequest(serviceRequestDTO.getAttributes(), snapshot, serviceDefinitionAttributes);
-            boolean validationFailed = !requestAttributesHasAllRequiredServiceDefinitionAttributes(serviceDefinitionAttributes, buildResult.attributes());
-            boolean needsReview = validationFailed || buildResult.staleFallbackUsed();
+            LOG.debug("Request body: {}", serviceRequestDTO.getAttributes());
+            ServiceDefinitionValidator.Result buildResult = getValidator(service.getId(), serviceDefinitionAttributes)
+                    .validate(serviceRequestDTO.getAttributes(), snapshot);
+            boolean needsReview = !buildResult.hasAllRequired() || buildResult.staleFallbackUsed();
             if (needsReview) {
                 if (snapshot.isEmpty()) {
                     throw new InvalidServiceRequestException("Submitted Service Request does not contain required attribute values.");
@@ -216,18 +273,204 @@ public class ServiceRequestService {
                 serviceRequest.setAttributeValidation(AttributeValidationStatus.NEEDS_REVIEW);
                 serviceRequest.setAttributesJson(serviceRequestDTO.getAttributeSnapshot());
             } else {
-                ObjectMapper objectMapper = new ObjectMapper();
-                try {
-                    serviceRequest.setAttributesJson(objectMapper.writeValueAsString(buildResult.attributes()));
-                } catch (JsonProcessingException e) {
-                    throw new RuntimeException(e);
+                serviceRequest.setAttributesJson(attributesParser.write(buildResult.attributes()));
+            }
+        }
+
+        return serviceRequest;
+    }
+
+    /**
+     * Compiles a service definition once per catalog snapshot; definitions read outside the snapshot are compiled on
+     * every call.
+     */
+    private ServiceDefinitionValidator getValidator(Long serviceId, List<ServiceDefinitionAttribute> serviceDefinitionAttributes) {
+        ServiceDefinitionValidator validator = serviceDefinitionValidators.get(serviceId);
+        if (validator == null || !validator.isCompiledFrom(serviceDefinitionAttributes)) {
+            validator = ServiceDefinitionValidator.compile(serviceDefinitionAttributes);
+            serviceDefinitionValidators.put(serviceId, validator);
+        }
+        return validator;
+    }
+
+    /**
+     * Resolves what validating a submission needs from the jurisdiction's service catalog snapshot. Services missing
+     * from the snapshot (unknown, in another jurisdiction, or newer than the snapshot) and projects are looked up
+     * once per call, so a batch hits the database at most once for each of them.
+     */
+    private final class SubmissionLookups {
+        private final String jurisdictionId;
+        private ServiceCatalog catalog;
+        private final Map<Long, Optional<Service>> uncatalogedServices = new HashMap<>();
+        private final Map<Long, List<ServiceDefinitionAttribute>> uncatalogedAttributes = new HashMap<>();
+        private final Map<Long, Optional<Project>> projects = new HashMap<>();
+
+        private SubmissionLookups(String jurisdictionId) {
+            this.jurisdictionId = jurisdictionId;
+        }
+
+        private ServiceCatalog getCatalog() {
+            if (catalog == null) {
+                catalog = serviceCatalogCache.get(jurisdictionId);
+            }
+            return catalog;
+        }
+
+        private Jurisdiction getJurisdiction() {
+            Jurisdiction jurisdiction = getCatalog().getJurisdiction();
+            if (jurisdiction == null) {
+                throw new JurisdictionRepository.JurisdictionNotFoundException(
+                        String.format("No Jurisdiction found with id: %s", jurisdictionId));
+            }
+            return jurisdiction;
+        }
+
+        private Optional<Service> getService(Long serviceCode) {
+            Optional<Service> service = getCatalog().findService(serviceCode);
+            if (service.isPresent()) {
+                return service;
+            }
+            return uncatalogedServices.computeIfAbsent(serviceCode, this::findUncatalogedService);
+        }
+
+        private Optional<Service> findUncatalogedService(Long serviceCode) {
+            Optional<Service> service = serviceRepository.findById(serviceCode);
+            if (service.isPresent() && service.get().getJurisdiction() != null
+                    && jurisdictionId.equals(service.get().getJurisdiction().getId())) {
+                // added through another instance after the snapshot was taken
+                serviceCatalogCache.invalidate(jurisdictionId);
+            }
+            return service;
+        }
+
+        private List<ServiceDefinitionAttribute> getAttributes(Long serviceId) {
+            if (getCatalog().findService(serviceId).isPresent()) {
+                return getCatalog().getAttributes(serviceId);
+            }
+            return uncatalogedAttributes.computeIfAbsent(serviceId, attributeRepository::findAllByServiceId);
+        }
+
+        private Optional<Project> getProject(Long projectId) {
+            return projects.computeIfAbsent(projectId,
+                    id -> projectRepository.findByIdAndJurisdictionId(id, jurisdictionId));
+        }
+    }
+
+    /**
+     * Creates a batch of service requests. Each item is validated on its own and reported at its position in the
+     * batch; the items that pass validation are inserted together in one transaction. A client_request_id that was
+     * already submitted, in an earlier call or earlier in the same batch, resolves to the original request.
+     */
+    public List<BulkServiceRequestResultDTO> createServiceRequests(BulkPostRequestServiceRequestDTO bulkDTO, String jurisdictionId) {
+        List<PostRequestServiceRequestDTO> items = bulkDTO.getRequests();
+        BulkServiceRequestResultDTO[] results = new BulkServiceRequestResultDTO[items.size()];
+
+        Map<String, ServiceRequest> existingByClientRequestId = findExistingByClientRequestId(items, jurisdictionId);
+        SubmissionLookups lookups = new SubmissionLookups(jurisdictionId);
+
+        List<Integer> pendingIndexes = new ArrayList<>();
+        List<ServiceRequest> pending = new ArrayList<>();
+        Map<String, Integer> pendingIndexByClientRequestId = new HashMap<>();
+        Map<Integer, Integer> repeatedIndexes = new HashMap<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            PostRequestServiceRequestDTO item = items.get(i);
+            String clientRequestId = item == null ? null : item.getClientRequestId();
+            boolean hasClientRequestId = clientRequestId != null && !clientRequestId.isBlank();
+
+            if (item == null) {
+                results[i] = BulkServiceRequestResultDTO.failed(i, null, "Service request is missing.");
+                continue;
+            }
+            // the batch's reCAPTCHA token was verified for the whole request
+            item.setgRecaptchaResponse(bulkDTO.getgRecaptchaResponse());
+            Set<ConstraintViolation<PostRequestServiceRequestDTO>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                results[i] = BulkServiceRequestResultDTO.failed(i, clientRequestId, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+
+            if (hasClientRequestId) {
+                ServiceRequest existing = existingByClientRequestId.get(clientRequestId);
+                if (existing != null) {
+                    LOG.info("Duplicate client_request_id detected: {}. Returning existing service request.", clientRequestId);
+                    results[i] = BulkServiceRequestResultDTO.duplicate(i, existing);
+                    continue;
+                }
+                Integer pendingIndex = pendingIndexByClientRequestId.get(clientRequestId);
+                if (pendingIndex != null) {
+                    repeatedIndexes.put(i, pendingIndex);
+                    continue;
                 }
             }
+
+            try {
+                pending.add(buildServiceRequest(item, lookups));
+                pendingIndexes.add(i);
+                if (hasClientRequestId) {
+                    pendingIndexByClientRequestId.put(clientRequestId, i);
+                }
+            } catch (RuntimeException e) {
+                LOG.debug("Rejected service request {} of bulk submission: {}", i, e.getMessage());
+                results[i] = BulkServiceRequestResultDTO.failed(i, clientRequestId, e.getMessage());
+            }
+        }
+
+        savePending(pending, pendingIndexes, results, jurisdictionId);
+
+        repeatedIndexes.forEach((index, originalIndex) -> {
+            BulkServiceRequestResultDTO original = results[originalIndex];
+            String clientRequestId = items.get(index).getClientRequestId();
+            results[index] = original.getStatus() == BulkServiceRequestResultDTO.Status.CREATED
+                    ? BulkServiceRequestResultDTO.duplicate(index, pending.get(pendingIndexes.indexOf(originalIndex)))
+                    : BulkServiceRequestResultDTO.failed(index, clientRequestId, original.getError());
+        });
+
+        return Arrays.asList(results);
+    }
+
+    private Map<String, ServiceRequest> findExistingByClientRequestId(List<PostRequestServiceRequestDTO> items, String jurisdictionId) {
+        Set<String> clientRequestIds = items.stream()
+                .filter(Objects::nonNull)
+                .map(PostRequestServiceRequestDTO::getClientRequestId)
+                .filter(clientRequestId -> clientRequestId != null && !clientRequestId.isBlank())
+                .collect(Collectors.toSet());
+        if (clientRequestIds.isEmpty()) {
+            return Map.of();
         }
+        return serviceRequestRepository.findByClientRequestIdInAndJurisdictionId(clientRequestIds, jurisdictionId).stream()
+                .collect(Collectors.toMap(ServiceRequest::getClientRequestId, Function.identity()));
+    }
 
-        return new PostResponseServiceRequestDTO(serviceRequestRepository.save(serviceRequest));
+    private void savePending(List<ServiceRequest> pending, List<Integer> pendingIndexes, BulkServiceRequestResultDTO[] results,
+                             String jurisdictionId) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ServiceRequest> saved;
+        try {
+            saved = serviceRequestInserts.insertAll(jurisdictionId, pending);
+        } catch (RuntimeException e) {
+            // the batch, its project counts and stats are written in one transaction, so a failure rolls back every item
+            LOG.error("Failed to save bulk service request submission", e);
+            for (int i = 0; i < pending.size(); i++) {
+                results[pendingIndexes.get(i)] = BulkServiceRequestResultDTO.failed(pendingIndexes.get(i),
+                        pending.get(i).getClientRequestId(), "Service request could not be saved.");
+            }
+            return;
+        }
+
+        for (int i = 0; i < saved.size(); i++) {
+            pending.set(i, saved.get(i));
+            results[pendingIndexes.get(i)] = BulkServiceRequestResultDTO.created(pendingIndexes.get(i), saved.get(i));
+        }
+        mapFeed.put(jurisdictionId, saved);
     }
 
+    @Transactional
     public void createRemovalSuggestion(Long serviceRequestId, String jurisdictionId, PostRequestServiceRequestRemovalSuggestionDTO suggestionDTO) {
         Optional<ServiceRequest> serviceRequestOptional = serviceRequestRepository.findByIdAndJurisdictionId(serviceRequestId, jurisdictionId);
         if (serviceRequestOptional.isEmpty()) {
@@ -243,6 +486,7 @@ public class ServiceRequestService {
         suggestion.setReason(suggestionDTO.getReason());
 
         removalSuggestionRepository.save(suggestion);
+        serviceRequestRepository.updateRemovalSuggestionCount(suggestion.getServiceRequestId(), 1);
     }
 
     @Transactional
@@ -268,148 +512,16 @@ public class ServiceRequestService {
         return mediaUrl.startsWith(storageUrlUtil.getBucketUrlString());
     }
 
-    private boolean requestAttributesHasAllRequiredServiceDefinitionAttributes(List<ServiceDefinitionAttribute> serviceDefinitionAttributes, List<ServiceDefinitionAttributeDTO> requestAttributes) {
-        // collect all required attributes
-        List<Long> requiredCodes = serviceDefinitionAttributes.stream()
-                .filter(ServiceDefinitionAttribute::isRequired)
-                .map(ServiceDefinitionAttribute::getId)
-                .collect(Collectors.toList());
-
-        // for each attr, check if it exists in requestAttributes
-        List<Long> requestCodes = requestAttributes.stream()
-                .map(ServiceDefinitionAttributeDTO::getId)
-                .collect(Collectors.toList());
-        LOG.debug("Required attributes: {}", requiredCodes);
-        LOG.debug("Request attributes: {}", requestCodes);
-        return requestCodes.containsAll(requiredCodes);
-    }
-
-    private record AttributeBuildResult(List<ServiceDefinitionAttributeDTO> attributes, boolean staleFallbackUsed) {}
-
-    private AttributeBuildResult buildUserResponseAttributesFromRequest(Map<String, String> dtoAttributes, List<ServiceDefinitionAttributeDTO> snapshot, List<ServiceDefinitionAttribute> serviceDefinitionAttributes) {
-        Map<Long, Map<String, String>> snapshotNameLookup = buildSnapshotNameLookup(snapshot);
-
-        List<ServiceDefinitionAttributeDTO> attributes = new ArrayList<>();
-        boolean[] staleFallbackUsed = {false};
-
-        LOG.debug("Request body: {}", dtoAttributes);
-        if (dtoAttributes != null) {
-            dtoAttributes.forEach((k, v) -> {
-                if (v != null && v.trim().isEmpty()) return;
-                if (!k.startsWith("attribute[")) return;
-
-                String attributeCodeStr = k.substring(k.indexOf("[") + 1, k.indexOf("]"));
-                Long attributeCode;
-                try {
-                    attributeCode = Long.parseLong(attributeCodeStr);
-                } catch (NumberFormatException nfe) {
-                    throw new InvalidServiceRequestException("Code should be an Integer.");
-                }
-
-                Optional<ServiceDefinitionAttribute> sdaOptional = serviceDefinitionAttributes.stream()
-                        .filter(a -> a.getId().equals(attributeCode))
-                        .findFirst();
-                if (sdaOptional.isEmpty()) return;
-
-                ServiceDefinitionAttribute sda = sdaOptional.get();
-                if (v != null && !validValueType(v, sda.getDatatype())) {
-                    String errorMsg = String.format("Provided value for attribute with code %s is invalid", attributeCode);
-                    LOG.error(errorMsg);
-                    throw new RuntimeException(errorMsg);
-                }
-
-                attributes.add(buildAttributeDTO(attributeCode, v, sda, snapshotNameLookup, staleFallbackUsed));
-            });
-        }
-
-        return new AttributeBuildResult(attributes, staleFallbackUsed[0]);
-    }
-
-    private Map<Long, Map<String, String>> buildSnapshotNameLookup(List<ServiceDefinitionAttributeDTO> snapshot) {
-        return snapshot.stream()
-                .filter(s -> s.getId() != null && s.getValues() != null)
-                .collect(Collectors.toMap(
-                        ServiceDefinitionAttributeDTO::getId,
-                        s -> s.getValues().stream()
-                                .filter(v -> v.getKey() != null && v.getName() != null)
-                                .collect(Collectors.toMap(AttributeValueDTO::getKey, AttributeValueDTO::getName, (a, b) -> a))
-                ));
-    }
-
-    private ServiceDefinitionAttributeDTO buildAttributeDTO(Long attributeCode, String value, ServiceDefinitionAttribute sda, Map<Long, Map<String, String>> snapshotNameLookup, boolean[] staleFallbackUsed) {
-        ServiceDefinitionAttributeDTO dto = new ServiceDefinitionAttributeDTO();
-        dto.setId(attributeCode);
-        dto.setAttributeOrder(sda.getAttributeOrder());
-        dto.setRequired(sda.isRequired());
-        dto.setVariable(sda.isVariable());
-        dto.setDatatype(sda.getDatatype());
-        dto.setDescription(sda.getDescription());
-        dto.setValues(buildAttributeValues(attributeCode, value, sda, snapshotNameLookup, staleFallbackUsed));
-        return dto;
-    }
-
-    private List<AttributeValueDTO> buildAttributeValues(Long attributeCode, String value, ServiceDefinitionAttribute sda, Map<Long, Map<String, String>> snapshotNameLookup, boolean[] staleFallbackUsed) {
-        List<AttributeValueDTO> values = new ArrayList<>();
-
-        if (sda.getDatatype() == AttributeDataType.SINGLEVALUELIST ||
-                sda.getDatatype() == AttributeDataType.MULTIVALUELIST) {
-            Set<AttributeValue> attributeValues = sda.getAttributeValues();
-            if (attributeValues != null && !attributeValues.isEmpty()) {
-                Map<String, String> codeNameLookup = snapshotNameLookup.getOrDefault(attributeCode, Map.of());
-                if (value.contains(",") && sda.getDatatype() == AttributeDataType.MULTIVALUELIST) {
-                    for (String key : value.split(",")) {
-                        Optional<String> dbName = getAttributeValueName(key, attributeValues);
-                        if (dbName.isEmpty()) staleFallbackUsed[0] = true;
-                        values.add(new AttributeValueDTO(key, dbName.orElse(codeNameLookup.getOrDefault(key, key))));
-                    }
-                } else {
-                    Optional<String> dbName = getAttributeValueName(value, attributeValues);
-                    if (dbName.isEmpty()) staleFallbackUsed[0] = true;
-                    values.add(new AttributeValueDTO(value, dbName.orElse(codeNameLookup.getOrDefault(value, value))));
-                }
-            }
-        } else {
-            values.add(new AttributeValueDTO(String.valueOf(attributeCode), value));
-        }
-
-        return values;
-    }
-
-    private boolean validValueType(String value, AttributeDataType datatype) {
-        if (datatype == AttributeDataType.NUMBER) {
-            try {
-                Integer.parseInt(value);
-            } catch (NumberFormatException nfe) {
-                return false;
-            }
-        } else if (datatype == AttributeDataType.DATETIME) {
-            try {
-                Instant.parse(value);
-            } catch (DateTimeParseException dtpe) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     private List<ServiceDefinitionAttributeDTO> parseAttributeSnapshot(String snapshot) {
         if (snapshot == null || snapshot.isBlank()) return List.of();
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            return Arrays.asList(mapper.readValue(snapshot, ServiceDefinitionAttributeDTO[].class));
-        } catch (JsonProcessingException e) {
+            return attributesParser.parse(snapshot);
+        } catch (RuntimeException e) {
             LOG.warn("Failed to parse attribute snapshot: {}", e.getMessage());
             return List.of();
         }
     }
 
-    private Optional<String> getAttributeValueName(String valueKey, Set<AttributeValue> attributeValues) {
-        return attributeValues.stream()
-                .filter(attributeValue -> attributeValue.getId().toString().equals(valueKey))
-                .findFirst()
-                .map(AttributeValue::getValueName);
-    }
-
     private ServiceRequest transformDtoToServiceRequest(PostRequestServiceRequestDTO serviceRequestDTO, Service service) {
         ServiceRequest serviceRequest = new ServiceRequest();
         serviceRequest.setService(service);
@@ -430,6 +542,7 @@ public class ServiceRequestService {
         return serviceRequest;
     }
 
+    @Transactional
     public SensitiveServiceRequestDTO updateServiceRequest(Long serviceRequestId, PatchServiceRequestDTO serviceRequestDTO, String jurisdictionId) {
         Optional<ServiceRequest> serviceRequestOptional = serviceRequestRepository.findByIdAndJurisdictionId(serviceRequestId, jurisdictionId);
 
@@ -439,9 +552,11 @@ public class ServiceRequestService {
         }
 
         ServiceRequest serviceRequest = serviceRequestOptional.get();
+        ServiceRequestDailyStats statsBefore = ServiceRequestDailyStats.of(serviceRequest);
         applyPatch(serviceRequestDTO, serviceRequest);
 
         if (serviceRequestDTO.getProjectId() != null) {
+            Long previousProjectId = serviceRequest.getProject() == null ? null : serviceRequest.getProject().getId();
             if (serviceRequestDTO.getProjectId() == -1L) {
                 serviceRequest.setProject(null);
             } else {
@@ -449,9 +564,102 @@ public class ServiceRequestService {
                         .orElseThrow(() -> new Libre311BaseException("Project not found", HttpStatus.NOT_FOUND));
                 serviceRequest.setProject(project);
             }
+            Long projectId = serviceRequest.getProject() == null ? null : serviceRequest.getProject().getId();
+            if (!Objects.equals(previousProjectId, projectId)) {
+                if (previousProjectId != null) {
+                    projectRepository.updateRequestCount(previousProjectId, -1);
+                }
+                if (projectId != null) {
+                    projectRepository.updateRequestCount(projectId, 1);
+                }
+            }
         }
 
-        return convertToSensitiveDTO(serviceRequestRepository.update(serviceRequest));
+        ServiceRequest updated = serviceRequestRepository.update(serviceRequest);
+        statsService.recordChanged(jurisdictionId, List.of(statsBefore), List.of(ServiceRequestDailyStats.of(updated)));
+        eventPublisher.publishEvent(ServiceRequestsChangedEvent.updated(jurisdictionId, List.of(updated)));
+
+        return convertToSensitiveDTO(updated);
+    }
+
+    /**
+     * Applies one patch to many requests with set-based updates. Unlike {@link #updateServiceRequest} the requests
+     * are never loaded, so the response only reports which ids were updated.
+     */
+    @Transactional
+    public BulkPatchServiceRequestResultDTO updateServiceRequests(BulkPatchServiceRequestDTO bulkPatchDTO, String jurisdictionId) {
+        Map<SingularAttribute<ServiceRequest, ?>, Object> assignments = getPatchAssignments(bulkPatchDTO.getChanges(), jurisdictionId);
+        // status, priority, project and closed date place a request in the daily stats rollup
+        boolean changesStats = assignments.containsKey(ServiceRequest_.status)
+                || assignments.containsKey(ServiceRequest_.priority)
+                || assignments.containsKey(ServiceRequest_.project)
+                || assignments.containsKey(ServiceRequest_.closedDate);
+        List<ServiceRequestDailyStats> statsBefore = changesStats
+                ? statsService.getContributions(jurisdictionId, bulkPatchDTO.getServiceRequestIds())
+                : List.of();
+
+        List<Long> updatedIds = new ArrayList<>(serviceRequestBulkUpdates.updateAll(jurisdictionId,
+                bulkPatchDTO.getServiceRequestIds(), assignments, Instant.now()));
+        if (changesStats) {
+            statsService.recordChanged(jurisdictionId, statsBefore, statsService.getContributions(jurisdictionId, updatedIds));
+        }
+        if (assignments.containsKey(ServiceRequest_.status)) {
+            // read within the transaction, so the feed gets the patched markers once they commit
+            eventPublisher.publishEvent(ServiceRequestsChangedEvent.updatedMarkers(jurisdictionId,
+                    serviceRequestRepository.findMarkersByIdInAndJurisdictionId(updatedIds, jurisdictionId)));
+        }
+        Collections.sort(updatedIds);
+        List<Long> notFoundIds = bulkPatchDTO.getServiceRequestIds().stream()
+                .filter(id -> Collections.binarySearch(updatedIds, id) < 0)
+                .sorted()
+                .toList();
+        if (!notFoundIds.isEmpty()) {
+            LOG.warn("Could not find Service Requests with ids {} and jurisdiction id {}.", notFoundIds, jurisdictionId);
+        }
+
+        return new BulkPatchServiceRequestResultDTO(updatedIds, notFoundIds);
+    }
+
+    // the set-based counterpart of applyPatch and the project handling in updateServiceRequest; keep them in sync
+    private Map<SingularAttribute<ServiceRequest, ?>, Object> getPatchAssignments(PatchServiceRequestDTO serviceRequestDTO, String jurisdictionId) {
+        Map<SingularAttribute<ServiceRequest, ?>, Object> assignments = new LinkedHashMap<>();
+        if (serviceRequestDTO.getStatus() != null) {
+            assignments.put(ServiceRequest_.status, serviceRequestDTO.getStatus());
+        }
+        if (serviceRequestDTO.getPriority() != null) {
+            assignments.put(ServiceRequest_.priority, serviceRequestDTO.getPriority());
+        }
+        if (serviceRequestDTO.getAgency_email() != null) {
+            assignments.put(ServiceRequest_.agencyEmail, serviceRequestDTO.getAgency_email());
+        }
+        if (serviceRequestDTO.getService_notice() != null) {
+            assignments.put(ServiceRequest_.serviceNotice, serviceRequestDTO.getService_notice());
+        }
+        if (serviceRequestDTO.getStatus_notes() != null) {
+            assignments.put(ServiceRequest_.statusNotes, serviceRequestDTO.getStatus_notes());
+        }
+        if (serviceRequestDTO.getAgency_responsible() != null) {
+            assignments.put(ServiceRequest_.agencyResponsible, serviceRequestDTO.getAgency_responsible());
+        }
+        if (serviceRequestDTO.getExpected_date() != null) {
+            assignments.put(ServiceRequest_.expectedDate, serviceRequestDTO.getExpected_date().orElse(null));
+        }
+        if (serviceRequestDTO.getClosed_date() != null) {
+            assignments.put(ServiceRequest_.closedDate, serviceRequestDTO.getClosed_date());
+        }
+        if (serviceRequestDTO.getAttributeValidation() != null) {
+            assignments.put(ServiceRequest_.attributeValidation, serviceRequestDTO.getAttributeValidation());
+        }
+        if (serviceRequestDTO.getProjectId() != null) {
+            if (serviceRequestDTO.getProjectId() == -1L) {
+                assignments.put(ServiceRequest_.project, null);
+            } else {
+                Project project = projectRepository.findByIdAndJurisdictionId(serviceRequestDTO.getProjectId(), jurisdictionId)
+                        .orElseThrow(() -> new Libre311BaseException("Project not found", HttpStatus.NOT_FOUND));
+                assignments.put(ServiceRequest_.project, project);
+            }
+        }
+        return assignments;
     }
 
     static void applyPatch(PatchServiceRequestDTO serviceRequestDTO, ServiceRequest serviceRequest) {
@@ -487,18 +695,13 @@ public class ServiceRequestService {
         }
     }
 
-    private static SensitiveServiceRequestDTO convertToSensitiveDTO(ServiceRequest serviceRequest) {
+    private SensitiveServiceRequestDTO convertToSensitiveDTO(ServiceRequest serviceRequest) {
         SensitiveServiceRequestDTO serviceRequestDTO = new SensitiveServiceRequestDTO(serviceRequest);
+        serviceRequestDTO.setRemovalSuggestionsCount((long) serviceRequest.getRemovalSuggestionCount());
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        String attributesJson = serviceRequest.getAttributesJson();
-        if (attributesJson != null) {
-            try {
-                ServiceDefinitionAttributeDTO[] serviceDefinitionAttributeDTOS = objectMapper.readValue(attributesJson, ServiceDefinitionAttributeDTO[].class);
-                serviceRequestDTO.setSelectedValues(List.of(serviceDefinitionAttributeDTOS));
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
-            }
+        List<ServiceDefinitionAttributeDTO> attributes = attributesParser.getAttributes(serviceRequest);
+        if (attributes != null) {
+            serviceRequestDTO.setSelectedValues(attributes);
         }
 
         return serviceRequestDTO;
@@ -506,42 +709,117 @@ public class ServiceRequestService {
 
     @Transactional
     public Page<ServiceRequestDTO> findAll(GetServiceRequestsDTO requestDTO, String jurisdictionId,
-            @Nullable String authorization) {
+            @Nullable String authorization, @Nullable Authentication authentication) {
+
+        boolean canViewSensitive = canViewSensitive(authorization, authentication, jurisdictionId);
+
+        Function<ServiceRequest, ServiceRequestDTO> mapper = canViewSensitive
+                ? this::convertToSensitiveDTO
+                : this::convertToDTO;
+
+        int closedRequestDaysVisible = getClosedRequestDaysVisible(jurisdictionId, canViewSensitive);
+
+        Page<ServiceRequest> page = getServiceRequestPage(requestDTO, jurisdictionId, closedRequestDaysVisible,
+                canViewSensitive);
+
+        return page.map(mapper);
+    }
+
+    public boolean isCursorPagination(GetServiceRequestsDTO requestDTO) {
+        return "cursor".equalsIgnoreCase(requestDTO.getPagination()) || requestDTO.getCursor() != null;
+    }
 
-        boolean canViewSensitive = false;
-        if (authorization != null){
-            canViewSensitive = unityAuthService.isUserPermittedForJurisdictionAction(authorization, jurisdictionId,
-                    List.of(Permission.LIBRE311_REQUEST_VIEW_SUBTENANT,
-                            Permission.LIBRE311_REQUEST_VIEW_TENANT, Permission.LIBRE311_REQUEST_VIEW_SYSTEM));
+    /**
+     * Keyset variant of {@link #findAll}: pages are ordered by dateCreated DESC, id DESC and continue from the
+     * position encoded in {@code requestDTO.getCursor()}. No COUNT query runs unless {@code include_total} is set.
+     */
+    @Transactional
+    public ServiceRequestCursorPage findAllByCursor(GetServiceRequestsDTO requestDTO, String jurisdictionId,
+            @Nullable String authorization, @Nullable Authentication authentication) {
+        Pageable pageable = requestDTO.getPageable();
+        if (pageable.isSorted()) {
+            throw new InvalidServiceRequestException("Cursor pagination does not support custom sorting.");
         }
 
+        boolean canViewSensitive = canViewSensitive(authorization, authentication, jurisdictionId);
+
         Function<ServiceRequest, ServiceRequestDTO> mapper = canViewSensitive
-                ? ServiceRequestService::convertToSensitiveDTO
-                : ServiceRequestService::convertToDTO;
+                ? this::convertToSensitiveDTO
+                : this::convertToDTO;
+
+        int closedRequestDaysVisible = getClosedRequestDaysVisible(jurisdictionId, canViewSensitive);
+        QuerySpecification<ServiceRequest> specification = getServiceRequestSpecification(requestDTO, jurisdictionId, closedRequestDaysVisible);
+        if (canViewSensitive && requestDTO.getHasRemovalSuggestions() != null) {
+            specification = specification.and(
+                    ServiceRequestRepository.Specifications.hasRemovalSuggestions(requestDTO.getHasRemovalSuggestions()));
+        }
+
+        Long totalSize = Boolean.TRUE.equals(requestDTO.getIncludeTotal())
+                ? serviceRequestRepository.count(specification)
+                : null;
+
+        if (requestDTO.getCursor() != null) {
+            ServiceRequestCursor cursor = ServiceRequestCursor.decode(requestDTO.getCursor());
+            specification = specification.and(
+                    ServiceRequestRepository.Specifications.createdBeforePosition(cursor.dateCreated(), cursor.id()));
+        }
+
+        // one extra row tells whether another page follows without counting
+        int size = pageable.getSize();
+        List<ServiceRequest> serviceRequests = keysetQueries.findNewestFirst(specification, size + 1);
+        boolean hasNext = serviceRequests.size() > size;
+        if (hasNext) {
+            serviceRequests = serviceRequests.subList(0, size);
+        }
+
+        List<ServiceRequestDTO> content = serviceRequests.stream().map(mapper).collect(Collectors.toList());
+
+        String nextCursor = hasNext
+                ? ServiceRequestCursor.of(serviceRequests.get(serviceRequests.size() - 1)).encode()
+                : null;
+        return new ServiceRequestCursorPage(content, nextCursor, totalSize);
+    }
 
+    // decided from the token's permission claims when present; either way the decision is cached per token
+    private boolean canViewSensitive(@Nullable String authorization, @Nullable Authentication authentication,
+                                     String jurisdictionId) {
+        if (authorization == null) {
+            return false;
+        }
+        return unityAuthService.isUserPermittedForJurisdictionAction(authorization, authentication, jurisdictionId,
+                List.of(Permission.LIBRE311_REQUEST_VIEW_SUBTENANT,
+                        Permission.LIBRE311_REQUEST_VIEW_TENANT, Permission.LIBRE311_REQUEST_VIEW_SYSTEM));
+    }
+
+    private int getClosedRequestDaysVisible(String jurisdictionId, boolean canViewSensitive) {
         // Get the visibility days from jurisdiction config
         Jurisdiction jurisdiction = jurisdictionRepository.findByJurisdictionId(jurisdictionId);
-        int closedRequestDaysVisible = canViewSensitive
+        return canViewSensitive
                 ? jurisdiction.getClosedRequestDaysVisibleAdmin()
                 : jurisdiction.getClosedRequestDaysVisibleUser();
+    }
 
-        Page<ServiceRequest> page = getServiceRequestPage(requestDTO, jurisdictionId, closedRequestDaysVisible);
-        Page<ServiceRequestDTO> dtoPage = page.map(mapper);
-
-        if (canViewSensitive && !dtoPage.getContent().isEmpty()) {
-            List<Long> ids = dtoPage.getContent().stream().map(ServiceRequestDTO::getId).collect(Collectors.toList());
-            List<ServiceRequestRemovalSuggestionCount> counts = removalSuggestionRepository.countByServiceRequestIdIn(ids);
-            Map<Long, Long> countMap = counts.stream().collect(Collectors.toMap(ServiceRequestRemovalSuggestionCount::getServiceRequestId, ServiceRequestRemovalSuggestionCount::getCount));
-
-            dtoPage.getContent().forEach(dto -> {
-                dto.setRemovalSuggestionsCount(countMap.getOrDefault(dto.getId(), 0L));
-            });
+    private QuerySpecification<ServiceRequest> getServiceRequestSpecification(GetServiceRequestsDTO requestDTO, String jurisdictionId, int closedRequestDaysVisible) {
+        QuerySpecification<ServiceRequest> location = locationFilter.getSpecification(requestDTO);
+        String serviceRequestIds = requestDTO.getId();
+        if (StringUtils.hasText(serviceRequestIds)) {
+            List<Long> requestIds = Arrays.stream(serviceRequestIds.split(",")).map(String::trim).map(Long::valueOf).collect(Collectors.toList());
+            return ServiceRequestRepository.Specifications.jurisdictionIdEqual(jurisdictionId)
+                    .and(ServiceRequestRepository.Specifications.notDeleted())
+                    .and(ServiceRequestRepository.Specifications.idIn(requestIds));
         }
 
-        return dtoPage;
+        // Calculate the cutoff date for closed requests visibility
+        Instant closedRequestCutoffDate = Instant.now().minus(closedRequestDaysVisible, ChronoUnit.DAYS);
+
+        QuerySpecification<ServiceRequest> specification = ServiceRequestRepository.getServiceRequestSpecification(
+                jurisdictionId, requestDTO.getServiceCodes(), requestDTO.getStatuses(), requestDTO.getPriorities(),
+                requestDTO.getStartDate(), requestDTO.getEndDate(), requestDTO.getProjectId(), closedRequestCutoffDate);
+        return location == null ? specification : specification.and(location);
     }
 
-    private Page<ServiceRequest> getServiceRequestPage(GetServiceRequestsDTO requestDTO, String jurisdictionId, int closedRequestDaysVisible) {
+    private Page<ServiceRequest> getServiceRequestPage(GetServiceRequestsDTO requestDTO, String jurisdictionId,
+                                                       int closedRequestDaysVisible, boolean canViewSensitive) {
         String serviceRequestIds = requestDTO.getId();
         List<Long> serviceCodes = requestDTO.getServiceCodes();
         List<ServiceRequestStatus> statuses = requestDTO.getStatuses();
@@ -554,7 +832,13 @@ public class ServiceRequestService {
         if(!pageable.isSorted()) {
             pageable = pageable.order("dateCreated", Sort.Order.Direction.DESC);
         }
+        // pending removal suggestions are only visible to staff, so ordering by them would leak which requests have any
+        if (!canViewSensitive && pageable.getSort().getOrderBy().stream()
+                .anyMatch(order -> "removalSuggestionCount".equals(order.getProperty()))) {
+            throw new InvalidServiceRequestException("Sorting by removalSuggestionCount is not permitted.");
+        }
 
+        QuerySpecification<ServiceRequest> location = locationFilter.getSpecification(requestDTO);
         if (StringUtils.hasText(serviceRequestIds)) {
             List<Long> requestIds = Arrays.stream(serviceRequestIds.split(",")).map(String::trim).map(Long::valueOf).collect(Collectors.toList());
             return serviceRequestRepository.findByIdInAndJurisdictionId(requestIds, jurisdictionId, pageable);
@@ -563,133 +847,142 @@ public class ServiceRequestService {
         // Calculate the cutoff date for closed requests visibility
         Instant closedRequestCutoffDate = Instant.now().minus(closedRequestDaysVisible, ChronoUnit.DAYS);
 
+        // pending removal suggestions are only visible to staff, so only staff can filter on them
+        boolean filterRemovalSuggestions = canViewSensitive && requestDTO.getHasRemovalSuggestions() != null;
+        if (filterRemovalSuggestions || location != null) {
+            QuerySpecification<ServiceRequest> specification = ServiceRequestRepository.getServiceRequestSpecification(
+                    jurisdictionId, serviceCodes, statuses, priorities, startDate, endDate, projectId,
+                    closedRequestCutoffDate);
+            if (filterRemovalSuggestions) {
+                specification = specification.and(
+                        ServiceRequestRepository.Specifications.hasRemovalSuggestions(requestDTO.getHasRemovalSuggestions()));
+            }
+            if (location != null) {
+                specification = specification.and(location);
+            }
+            return serviceRequestRepository.findAll(specification, pageable);
+        }
+
         return serviceRequestRepository.findAllBy(jurisdictionId, serviceCodes, statuses, priorities, startDate, endDate, projectId, closedRequestCutoffDate, pageable);
     }
 
     @Transactional
     public ServiceRequestDTO getServiceRequest(Long serviceRequestId, String jurisdictionId) {
         return findServiceRequest(serviceRequestId, jurisdictionId)
-                .map(ServiceRequestService::convertToDTO)
+                .map(this::convertToDTO)
                 .orElse(null);
     }
 
+    public record VersionedServiceRequest(ServiceRequestDTO serviceRequest, String etag) {}
+
+    /**
+     * @param variant distinguishes representations of the same request, e.g. {@code json} and {@code xml}
+     * @return the request with the ETag of its public representation
+     */
+    public Optional<VersionedServiceRequest> getVersionedServiceRequest(Long serviceRequestId, String jurisdictionId,
+                                                                        String variant) {
+        return findServiceRequest(serviceRequestId, jurisdictionId)
+                .map(serviceRequest -> new VersionedServiceRequest(convertToDTO(serviceRequest),
+                        getEtag(ServiceRequestRevision.of(serviceRequest), variant)));
+    }
+
+    /**
+     * Reads the current ETag of a request's public representation without loading the request or parsing its
+     * attributes, for answering conditional GETs.
+     */
+    public Optional<String> findServiceRequestEtag(Long serviceRequestId, String jurisdictionId, String variant) {
+        return serviceRequestRepository.findRevisionByIdAndJurisdictionId(serviceRequestId, jurisdictionId)
+                .map(revision -> getEtag(revision, variant));
+    }
+
+    private static String getEtag(ServiceRequestRevision revision, String variant) {
+        return ETags.strong(String.join(":", variant, String.valueOf(revision.getId()),
+                String.valueOf(revision.getRevision()), String.valueOf(revision.getServiceName()),
+                String.valueOf(revision.getProjectName())));
+    }
+
     private Optional<ServiceRequest> findServiceRequest(Long serviceRequestId, String jurisdictionId) {
         return serviceRequestRepository.findByIdAndJurisdictionId(serviceRequestId, jurisdictionId);
     }
 
-    @Transactional
-    public StreamedFile getAllServiceRequests(GetServiceRequestsDTO requestDTO, String jurisdictionId) throws MalformedURLException {
-        // CSV export should not filter closed requests - export all data
-        List<DownloadServiceRequestDTO> downloadServiceRequestDTOS = getServiceRequestsUnfiltered(requestDTO, jurisdictionId).stream()
-                .map(serviceRequest -> {
-                    DownloadServiceRequestDTO dto = new DownloadServiceRequestDTO(serviceRequest);
-
-                    if (serviceRequest.getAttributesJson() != null) {
-                        ObjectMapper objectMapper = new ObjectMapper();
-                        try {
-                            ServiceDefinitionAttributeDTO[] serviceDefinitionAttributeDTOS =
-                                    objectMapper.readValue(serviceRequest.getAttributesJson(), ServiceDefinitionAttributeDTO[].class);
-                            List<String> values = Arrays.stream(serviceDefinitionAttributeDTOS)
-                                    .flatMap(serviceDefinitionAttribute -> {
-                                        if (serviceDefinitionAttribute.getValues() != null) {
-                                            return serviceDefinitionAttribute.getValues().stream();
-                                        }
-                                        return Stream.of();
-                                    })
-                                    .map(AttributeValueDTO::getKey).collect(Collectors.toList());
-
-                            dto.setServiceSubtype(String.join(",", values));
-                        } catch (JsonProcessingException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-
-                    return dto;
-                })
-                .collect(Collectors.toList());
-
-
-        File tmpFile;
-        Instant now = Instant.now();
+    public StreamedFile getAllServiceRequests(GetServiceRequestsDTO requestDTO, String jurisdictionId) {
+        // invalid filters are rejected here, while the response can still be an error status
+        ServiceRequestExportService.Export export = serviceRequestExportService.prepare(requestDTO, jurisdictionId);
+
+        ExportInputStream inputStream = new ExportInputStream(CSV_EXPORT_BUFFER_SIZE);
+        PipedOutputStream outputStream;
         try {
-            tmpFile = File.createTempFile(now.toString().replaceAll(":", ""), ".csv");
-            try (Writer writer  = new FileWriter(tmpFile)) {
-
-                CSVFormat.Builder builder = CSVFormat.Builder.create(CSVFormat.DEFAULT);
-                builder.setHeader(CsvHeaders.class);
-
-                try (CSVPrinter csvPrinter = new CSVPrinter(writer, builder.build())) {
-                    downloadServiceRequestDTOS.forEach(downloadServiceRequestDTO -> {
-                        try {
-                            csvPrinter.printRecord(
-                                    downloadServiceRequestDTO.getJurisdictionId(),
-                                    downloadServiceRequestDTO.getServiceName(),
-                                    downloadServiceRequestDTO.getGroup(),
-                                    downloadServiceRequestDTO.getServiceCode(),
-                                    downloadServiceRequestDTO.getId(),
-                                    downloadServiceRequestDTO.getServiceSubtype(),
-                                    downloadServiceRequestDTO.getDescription(),
-                                    downloadServiceRequestDTO.getMediaUrl(),
-                                    downloadServiceRequestDTO.getAddress(),
-                                    downloadServiceRequestDTO.getZipcode(),
-                                    downloadServiceRequestDTO.getLatitude(),
-                                    downloadServiceRequestDTO.getLongitude(),
-                                    downloadServiceRequestDTO.getFirstName(),
-                                    downloadServiceRequestDTO.getLastName(),
-                                    downloadServiceRequestDTO.getEmail(),
-                                    downloadServiceRequestDTO.getPhone(),
-                                    downloadServiceRequestDTO.getDateCreated(),
-                                    downloadServiceRequestDTO.getDateUpdated(),
-                                    downloadServiceRequestDTO.getClosedDate(),
-                                    downloadServiceRequestDTO.getAgencyResponsible(),
-                                    downloadServiceRequestDTO.getAgencyEmail(),
-                                    downloadServiceRequestDTO.getPriority(),
-                                    downloadServiceRequestDTO.getStatus(),
-                                    downloadServiceRequestDTO.getStatusNotes(),
-                                    downloadServiceRequestDTO.getServiceNotice()
-                            );
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
-                }
-            }
+            outputStream = new PipedOutputStream(inputStream);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
 
-        return new StreamedFile(tmpFile.toURI().toURL()).attach(now + ".csv");
+        // rows are written on a separate thread while the response drains the pipe; the bounded pipe buffer
+        // applies backpressure so the export never holds more than a buffer's worth of CSV in memory
+        ioExecutorService.execute(() -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try {
+                serviceRequestExportService.writeCsv(export, writer);
+            } catch (IOException e) {
+                LOG.warn("CSV export for jurisdiction {} ended early: {}", jurisdictionId, e.getMessage());
+            } catch (RuntimeException e) {
+                LOG.error("CSV export for jurisdiction {} failed.", jurisdictionId, e);
+                inputStream.fail(e);
+            } finally {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    LOG.debug("Closing the CSV export of jurisdiction {} failed: {}", jurisdictionId, e.getMessage());
+                }
+            }
+        });
+
+        return new StreamedFile(inputStream, CSV_MEDIA_TYPE).attach(Instant.now() + ".csv");
     }
 
-    private List<ServiceRequest> getServiceRequests(GetServiceRequestsDTO requestDTO, String jurisdictionId, int closedRequestDaysVisible) {
-        String serviceRequestIds = requestDTO.getId();
-        List<Long> serviceCodes = requestDTO.getServiceCodes();
-        List<ServiceRequestStatus> statuses = requestDTO.getStatuses();
-        List<ServiceRequestPriority> priorities = requestDTO.getPriorities();
-        Instant startDate = requestDTO.getStartDate();
-        Instant endDate = requestDTO.getEndDate();
-        Long projectId = requestDTO.getProjectId();
-        Pageable pageable = requestDTO.getPageable();
+    /**
+     * The reading end of the CSV export pipe. When the writer fails after the response has started, the reader
+     * gets an error instead of the end of the stream, so the response is aborted rather than ending as a
+     * well-formed but truncated file.
+     */
+    private static final class ExportInputStream extends PipedInputStream {
+        private volatile RuntimeException failure;
 
-        Sort sort;
-        if(pageable != null && pageable.isSorted()) {
-            sort = pageable.getSort();
-        } else {
-            sort = Sort.of(new Sort.Order("dateCreated", Sort.Order.Direction.DESC, false));
+        private ExportInputStream(int pipeSize) {
+            super(pipeSize);
         }
 
-        if (StringUtils.hasText(serviceRequestIds)) {
-            List<Long> requestIds = Arrays.stream(serviceRequestIds.split(",")).map(String::trim).map(Long::valueOf).collect(Collectors.toList());
-            return serviceRequestRepository.findByIdInAndJurisdictionId(requestIds, jurisdictionId, sort);
+        // called before the writer closes its end, so the reader sees the failure instead of the end of the stream
+        void fail(RuntimeException failure) {
+            this.failure = failure;
         }
 
-        // Calculate the cutoff date for closed requests visibility
-        Instant closedRequestCutoffDate = Instant.now().minus(closedRequestDaysVisible, ChronoUnit.DAYS);
+        @Override
+        public synchronized int read() throws IOException {
+            int read = super.read();
+            if (read < 0) {
+                throwIfFailed();
+            }
+            return read;
+        }
 
-        return serviceRequestRepository.findAllBy(jurisdictionId, serviceCodes, statuses, priorities, startDate, endDate, projectId, closedRequestCutoffDate, sort);
+        @Override
+        public synchronized int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read < 0) {
+                throwIfFailed();
+            }
+            return read;
+        }
+
+        private void throwIfFailed() throws IOException {
+            if (failure != null) {
+                throw new IOException("CSV export failed.", failure);
+            }
+        }
     }
 
-    private List<ServiceRequest> getServiceRequestsUnfiltered(GetServiceRequestsDTO requestDTO, String jurisdictionId) {
+    private List<ServiceRequest> getServiceRequests(GetServiceRequestsDTO requestDTO, String jurisdictionId, int closedRequestDaysVisible) {
         String serviceRequestIds = requestDTO.getId();
         List<Long> serviceCodes = requestDTO.getServiceCodes();
         List<ServiceRequestStatus> statuses = requestDTO.getStatuses();
@@ -711,21 +1004,37 @@ public class ServiceRequestService {
             return serviceRequestRepository.findByIdInAndJurisdictionId(requestIds, jurisdictionId, sort);
         }
 
-        // No closed request filtering for CSV export
-        return serviceRequestRepository.findAllBy(jurisdictionId, serviceCodes, statuses, priorities, startDate, endDate, projectId, sort);
+        // Calculate the cutoff date for closed requests visibility
+        Instant closedRequestCutoffDate = Instant.now().minus(closedRequestDaysVisible, ChronoUnit.DAYS);
+
+        return serviceRequestRepository.findAllBy(jurisdictionId, serviceCodes, statuses, priorities, startDate, endDate, projectId, closedRequestCutoffDate, sort);
     }
 
+    @Transactional
     public int delete(Long serviceRequestId, String jurisdictionId) {
+        Optional<ServiceRequest> serviceRequest = serviceRequestRepository.findByIdAndJurisdictionId(serviceRequestId, jurisdictionId);
         removalSuggestionRepository.deleteByServiceRequestIdAndJurisdictionId(serviceRequestId, jurisdictionId);
-        return serviceRequestRepository.delete(serviceRequestId, jurisdictionId);
+        int deleted = serviceRequestRepository.delete(serviceRequestId, jurisdictionId);
+        if (deleted > 0 && serviceRequest.isPresent()) {
+            if (serviceRequest.get().getProject() != null) {
+                projectRepository.updateRequestCount(serviceRequest.get().getProject().getId(), -1);
+            }
+            statsService.recordDeleted(jurisdictionId, serviceRequest.get());
+            eventPublisher.publishEvent(ServiceRequestsChangedEvent.deleted(jurisdictionId, serviceRequestId));
+        }
+        return deleted;
     }
 
+    @Transactional
     public void deleteRemovalSuggestion(Long id, String jurisdictionId) {
         Optional<ServiceRequestRemovalSuggestion> suggestionOptional = removalSuggestionRepository.findById(id);
         if (suggestionOptional.isPresent()) {
             ServiceRequestRemovalSuggestion suggestion = suggestionOptional.get();
             if (suggestion.getJurisdictionId().equals(jurisdictionId)) {
-                removalSuggestionRepository.softDelete(id, jurisdictionId);
+                // a concurrent delete of the same suggestion must only decrement once
+                if (removalSuggestionRepository.softDelete(id, jurisdictionId) > 0) {
+                    serviceRequestRepository.updateRemovalSuggestionCount(suggestion.getServiceRequestId(), -1);
+                }
                 return;
             }
         }
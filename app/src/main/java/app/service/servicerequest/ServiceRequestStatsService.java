@@ -0,0 +1,157 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.servicerequest.ServiceRequestStatsDTO;
+import app.exception.Libre311BaseException;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestDailyStats;
+import app.model.servicerequest.ServiceRequestDailyStatsStore;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Singleton;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the daily service request rollup in step with request changes and answers statistics from it. A stats
+ * query reads at most one row per day and combination of service, status, priority and project, however many
+ * requests the jurisdiction has.
+ */
+@Singleton
+public class ServiceRequestStatsService {
+
+    static final int DEFAULT_DAYS = 30;
+    static final int MAX_DAYS = 366;
+    private static final String NONE = "none";
+
+    private final ServiceRequestDailyStatsStore store;
+    private final Clock clock;
+
+    public ServiceRequestStatsService(ServiceRequestDailyStatsStore store) {
+        this(store, Clock.systemUTC());
+    }
+
+    ServiceRequestStatsService(ServiceRequestDailyStatsStore store, Clock clock) {
+        this.store = store;
+        this.clock = clock;
+    }
+
+    static class InvalidStatsRangeException extends Libre311BaseException {
+        public InvalidStatsRangeException(String message) {
+            super(message, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public void recordCreated(String jurisdictionId, Collection<ServiceRequest> serviceRequests) {
+        store.add(jurisdictionId, serviceRequests.stream().map(ServiceRequestDailyStats::of).toList());
+    }
+
+    public void recordDeleted(String jurisdictionId, ServiceRequest serviceRequest) {
+        store.add(jurisdictionId, List.of(ServiceRequestDailyStats.of(serviceRequest).negate()));
+    }
+
+    /**
+     * Moves requests between rollup rows. Contributions that did not change cancel out and are not written.
+     *
+     * @param before the contributions of the requests before the change
+     * @param after  their contributions after the change
+     */
+    public void recordChanged(String jurisdictionId, Collection<ServiceRequestDailyStats> before,
+                              Collection<ServiceRequestDailyStats> after) {
+        List<ServiceRequestDailyStats> changes = new ArrayList<>(before.size() + after.size());
+        before.forEach(contribution -> changes.add(contribution.negate()));
+        changes.addAll(after);
+        store.add(jurisdictionId, changes);
+    }
+
+    /**
+     * @return the current contributions of the given requests, for {@link #recordChanged}
+     */
+    public List<ServiceRequestDailyStats> getContributions(String jurisdictionId, Collection<Long> serviceRequestIds) {
+        if (serviceRequestIds.isEmpty()) {
+            return List.of();
+        }
+        return store.findContributions(jurisdictionId, serviceRequestIds);
+    }
+
+    /**
+     * @param startDate first UTC creation date to include; defaults to {@value #DEFAULT_DAYS} days before endDate
+     * @param endDate   last UTC creation date to include; defaults to today
+     */
+    public ServiceRequestStatsDTO getStats(String jurisdictionId, @Nullable LocalDate startDate,
+                                           @Nullable LocalDate endDate) {
+        LocalDate end = endDate == null ? LocalDate.now(clock.withZone(ZoneOffset.UTC)) : endDate;
+        LocalDate start = startDate == null ? end.minusDays(DEFAULT_DAYS - 1) : startDate;
+        if (start.isAfter(end)) {
+            throw new InvalidStatsRangeException("start_date must not be after end_date.");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new InvalidStatsRangeException(String.format("The date range cannot exceed %d days.", MAX_DAYS));
+        }
+
+        long total = 0;
+        long closed = 0;
+        long secondsToClose = 0;
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Long> byPriority = new TreeMap<>();
+        Map<Long, Long> byService = new TreeMap<>();
+        Map<String, Long> byProject = new TreeMap<>();
+        Map<LocalDate, ServiceRequestDailyStats> byDate = new TreeMap<>();
+
+        for (ServiceRequestDailyStats row : store.findByDateRange(jurisdictionId, start, end)) {
+            ServiceRequestDailyStats.Key key = row.key();
+            total += row.requestCount();
+            closed += row.closedCount();
+            secondsToClose += row.secondsToClose();
+            byStatus.merge(key.status().toString(), row.requestCount(), Long::sum);
+            byPriority.merge(key.priority() == null ? NONE : key.priority().toString(), row.requestCount(), Long::sum);
+            byService.merge(key.serviceId(), row.requestCount(), Long::sum);
+            byProject.merge(key.projectId() == null ? NONE : key.projectId().toString(), row.requestCount(), Long::sum);
+            // rows of one date are summed under the key of the first one; only the counts are read below
+            byDate.merge(key.date(), row, ServiceRequestDailyStats::plus);
+        }
+
+        ServiceRequestStatsDTO stats = new ServiceRequestStatsDTO();
+        stats.setStartDate(start);
+        stats.setEndDate(end);
+        stats.setTotalRequests(total);
+        stats.setClosedRequests(closed);
+        stats.setAverageSecondsToClose(average(secondsToClose, closed));
+        stats.setByStatus(byStatus);
+        stats.setByPriority(byPriority);
+        stats.setByService(byService);
+        stats.setByProject(byProject);
+        stats.setDaily(byDate.entrySet().stream()
+                .map(entry -> new ServiceRequestStatsDTO.Day(entry.getKey(), entry.getValue().requestCount(),
+                        entry.getValue().closedCount(),
+                        average(entry.getValue().secondsToClose(), entry.getValue().closedCount())))
+                .toList());
+        return stats;
+    }
+
+    @Nullable
+    private static Double average(long totalSeconds, long count) {
+        return count > 0 ? (double) totalSeconds / count : null;
+    }
+}
@@ -0,0 +1,46 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestMarker;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when requests are patched or deleted through this instance. The map feed applies it after the change
+ * commits, so a rolled back change never reaches the feed, the vector tiles or the duplicate index. Markers are read
+ * before the commit, within the transaction that changed them.
+ *
+ * @param markers    the markers of the changed requests
+ * @param removedIds requests that were deleted
+ */
+public record ServiceRequestsChangedEvent(String jurisdictionId, List<ServiceRequestMarker> markers,
+                                          List<Long> removedIds) {
+
+    static ServiceRequestsChangedEvent updated(String jurisdictionId, Collection<ServiceRequest> serviceRequests) {
+        return new ServiceRequestsChangedEvent(jurisdictionId,
+                serviceRequests.stream().map(ServiceRequestMarker::of).toList(), List.of());
+    }
+
+    static ServiceRequestsChangedEvent updatedMarkers(String jurisdictionId, List<ServiceRequestMarker> markers) {
+        return new ServiceRequestsChangedEvent(jurisdictionId, List.copyOf(markers), List.of());
+    }
+
+    static ServiceRequestsChangedEvent deleted(String jurisdictionId, Long serviceRequestId) {
+        return new ServiceRequestsChangedEvent(jurisdictionId, List.of(), List.of(serviceRequestId));
+    }
+}
@@ -0,0 +1,239 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.tile;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Orientation;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a Mapbox Vector Tile (version 2.1). Geometries must already be in tile coordinates, i.e. rounded to
+ * integers between 0 and the extent with y growing downwards; points and polygons are the only geometry types
+ * the tiles of this application contain. The protobuf messages are written by hand because the tile schema only
+ * needs varints, strings and nested messages.
+ */
+class VectorTileEncoder {
+
+    private static final int MOVE_TO = 1;
+    private static final int LINE_TO = 2;
+    private static final int CLOSE_PATH = 7;
+
+    private static final int POINT = 1;
+    private static final int POLYGON = 3;
+
+    private final int extent;
+    private final List<Layer> layers = new ArrayList<>();
+
+    VectorTileEncoder(int extent) {
+        this.extent = extent;
+    }
+
+    Layer addLayer(String name) {
+        Layer layer = new Layer(name);
+        layers.add(layer);
+        return layer;
+    }
+
+    byte[] encode() {
+        ProtobufWriter tile = new ProtobufWriter();
+        for (Layer layer : layers) {
+            if (!layer.features.isEmpty()) {
+                tile.writeMessage(3, layer.encode(extent));
+            }
+        }
+        return tile.toByteArray();
+    }
+
+    static final class Layer {
+        private final String name;
+        private final List<ProtobufWriter> features = new ArrayList<>();
+        private final Map<String, Integer> keys = new LinkedHashMap<>();
+        private final Map<Object, Integer> values = new LinkedHashMap<>();
+
+        private Layer(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @param attributes String, Long, Integer or Boolean values; null values are left out
+         */
+        void addFeature(long id, Map<String, Object> attributes, Geometry geometry) {
+            List<Integer> commands = new ArrayList<>();
+            int type;
+            if (geometry instanceof Point) {
+                type = POINT;
+                encodePoints(geometry, commands);
+            } else {
+                type = POLYGON;
+                // the cursor carries over between rings and parts, so each one starts relative to where the
+                // previous one ended
+                int[] cursor = new int[2];
+                for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                    if (geometry.getGeometryN(i) instanceof Polygon polygon) {
+                        encodePolygon(polygon, commands, cursor);
+                    }
+                }
+            }
+            if (commands.isEmpty()) {
+                return;
+            }
+
+            ProtobufWriter feature = new ProtobufWriter();
+            feature.writeVarint(1, id);
+            List<Integer> tags = new ArrayList<>();
+            attributes.forEach((key, value) -> {
+                if (value != null) {
+                    tags.add(keys.computeIfAbsent(key, k -> keys.size()));
+                    tags.add(values.computeIfAbsent(value, v -> values.size()));
+                }
+            });
+            feature.writePacked(2, tags);
+            feature.writeVarint(3, type);
+            feature.writePacked(4, commands);
+            features.add(feature);
+        }
+
+        private ProtobufWriter encode(int extent) {
+            ProtobufWriter layer = new ProtobufWriter();
+            layer.writeVarint(15, 2);
+            layer.writeString(1, name);
+            features.forEach(feature -> layer.writeMessage(2, feature));
+            keys.keySet().forEach(key -> layer.writeString(3, key));
+            values.keySet().forEach(value -> layer.writeMessage(4, encodeValue(value)));
+            layer.writeVarint(5, extent);
+            return layer;
+        }
+
+        private static ProtobufWriter encodeValue(Object value) {
+            ProtobufWriter writer = new ProtobufWriter();
+            if (value instanceof Boolean bool) {
+                writer.writeVarint(7, bool ? 1 : 0);
+            } else if (value instanceof Number number) {
+                writer.writeVarint(6, zigZag(number.longValue()));
+            } else {
+                writer.writeString(1, value.toString());
+            }
+            return writer;
+        }
+    }
+
+    private static void encodePoints(Geometry geometry, List<Integer> commands) {
+        Coordinate coordinate = geometry.getCoordinate();
+        commands.add(command(MOVE_TO, 1));
+        commands.add((int) zigZag((long) coordinate.x));
+        commands.add((int) zigZag((long) coordinate.y));
+    }
+
+    private static void encodePolygon(Polygon polygon, List<Integer> commands, int[] cursor) {
+        if (encodeRing(polygon.getExteriorRing(), true, commands, cursor)) {
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                encodeRing(polygon.getInteriorRingN(i), false, commands, cursor);
+            }
+        }
+    }
+
+    /**
+     * Exterior rings are written clockwise and interior rings counter-clockwise as seen with y growing downwards,
+     * which is counter-clockwise and clockwise respectively in JTS's y-up terms.
+     */
+    private static boolean encodeRing(LinearRing ring, boolean exterior, List<Integer> commands, int[] cursor) {
+        Coordinate[] coordinates = ring.getCoordinates();
+        // the last coordinate repeats the first one and is implied by ClosePath
+        int count = coordinates.length - 1;
+        if (count < 3) {
+            return false;
+        }
+        boolean reverse = Orientation.isCCW(coordinates) != exterior;
+
+        commands.add(command(MOVE_TO, 1));
+        for (int i = 0; i < count; i++) {
+            Coordinate coordinate = coordinates[reverse ? count - i : i];
+            if (i == 1) {
+                commands.add(command(LINE_TO, count - 1));
+            }
+            int x = (int) coordinate.x;
+            int y = (int) coordinate.y;
+            commands.add((int) zigZag(x - cursor[0]));
+            commands.add((int) zigZag(y - cursor[1]));
+            cursor[0] = x;
+            cursor[1] = y;
+        }
+        commands.add(command(CLOSE_PATH, 1));
+        return true;
+    }
+
+    private static int command(int id, int count) {
+        return (id & 0x7) | (count << 3);
+    }
+
+    private static long zigZag(long n) {
+        return (n << 1) ^ (n >> 63);
+    }
+
+    private static final class ProtobufWriter {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        void writeVarint(int field, long value) {
+            writeTag(field, 0);
+            writeRawVarint(value);
+        }
+
+        void writeString(int field, String value) {
+            writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeMessage(int field, ProtobufWriter message) {
+            writeBytes(field, message.toByteArray());
+        }
+
+        void writePacked(int field, List<Integer> values) {
+            ProtobufWriter packed = new ProtobufWriter();
+            values.forEach(value -> packed.writeRawVarint(Integer.toUnsignedLong(value)));
+            writeBytes(field, packed.toByteArray());
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+        private void writeBytes(int field, byte[] bytes) {
+            writeTag(field, 2);
+            writeRawVarint(bytes.length);
+            out.writeBytes(bytes);
+        }
+
+        private void writeTag(int field, int wireType) {
+            writeRawVarint((long) field << 3 | wireType);
+        }
+
+        private void writeRawVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.tile;
+
+import app.exception.Libre311BaseException;
+import app.model.project.Project;
+import app.model.servicerequest.ServiceRequestMarker;
+import app.service.geometry.BoundingBox;
+import app.service.geometry.WebMercator;
+import app.service.project.ProjectIndexVersion;
+import app.service.project.ProjectService;
+import app.service.service.ServiceCatalogResponseCache.CachedBody;
+import app.service.servicerequest.ServiceRequestMapFeed;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpStatus;
+import jakarta.inject.Singleton;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.util.GeometryTransformer;
+import org.locationtech.jts.precision.GeometryPrecisionReducer;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders Mapbox Vector Tiles of a jurisdiction's public service requests and project boundaries. Request points
+ * come from the {@link ServiceRequestMapFeed} snapshot and project boundaries are clipped and simplified per tile.
+ * <p>
+ * Rendered tiles are kept in a bounded LRU. A request changed through the map feed evicts the tiles around its old
+ * and new location at every zoom level; a new map feed snapshot or a reload of the jurisdiction's projects makes the
+ * cached tiles of the jurisdiction stale.
+ */
+@Singleton
+public class VectorTileService {
+
+    static final int MAX_ZOOM = 22;
+    static final int EXTENT = 4096;
+    // features this far outside the tile are kept so that symbols and outlines are not cut off at tile edges
+    static final int BUFFER = 64;
+    // in tile units; 4096 units span 256 screen pixels, so this drops detail smaller than half a pixel
+    private static final double SIMPLIFY_TOLERANCE = 8;
+    private static final PrecisionModel TILE_PRECISION = new PrecisionModel(1);
+    private static final GeometryFactory TILE_GEOMETRY_FACTORY = new GeometryFactory(TILE_PRECISION);
+
+    private record TileKey(String jurisdictionId, int z, long x, long y) {}
+
+    private record CachedTile(String snapshotId, ProjectIndexVersion projectsVersion, CachedBody body) {}
+
+    private final ServiceRequestMapFeed mapFeed;
+    private final ProjectService projectService;
+    private final Map<TileKey, CachedTile> cache;
+    // guarded by cache; lets a render that raced with an eviction skip caching its possibly outdated tile
+    private long evictions;
+
+    public VectorTileService(ServiceRequestMapFeed mapFeed, ProjectService projectService,
+                             @Value("${app.tiles.cache-size:2000}") int maxCacheSize) {
+        this.mapFeed = mapFeed;
+        this.projectService = projectService;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TileKey, CachedTile> eldest) {
+                return size() > maxCacheSize;
+            }
+        });
+        mapFeed.addChangeListener(this::evict);
+    }
+
+    static class InvalidTileException extends Libre311BaseException {
+        public InvalidTileException(String message) {
+            super(message, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public CachedBody getTile(String jurisdictionId, int z, long x, long y) {
+        if (z < 0 || z > MAX_ZOOM) {
+            throw new InvalidTileException("z must be between 0 and " + MAX_ZOOM + ".");
+        }
+        if (x < 0 || y < 0 || x >= 1L << z || y >= 1L << z) {
+            throw new InvalidTileException("x and y must be between 0 and " + ((1L << z) - 1) + " at zoom " + z + ".");
+        }
+
+        TileKey key = new TileKey(jurisdictionId, z, x, y);
+        String snapshotId = mapFeed.getSnapshotId(jurisdictionId);
+        // the projects come from ProjectService's in-memory snapshot, so neither a hit nor a miss queries them
+        ProjectService.ProjectsSnapshot projects = projectService.getProjectsSnapshot(jurisdictionId);
+        CachedTile cached = cache.get(key);
+        if (cached != null && cached.snapshotId().equals(snapshotId)
+                && cached.projectsVersion().equals(projects.version())) {
+            return cached.body();
+        }
+
+        long evictionsBefore;
+        synchronized (cache) {
+            evictionsBefore = evictions;
+        }
+        CachedTile tile = render(key, projects);
+        synchronized (cache) {
+            if (evictions == evictionsBefore) {
+                cache.put(key, tile);
+            }
+        }
+        return tile.body();
+    }
+
+    private CachedTile render(TileKey key, ProjectService.ProjectsSnapshot projects) {
+        double buffer = (double) BUFFER / EXTENT;
+        double minLng = WebMercator.lng(key.x() - buffer, key.z());
+        double maxLng = WebMercator.lng(key.x() + 1 + buffer, key.z());
+        double minLat = WebMercator.lat(key.y() + 1 + buffer, key.z());
+        double maxLat = WebMercator.lat(key.y() - buffer, key.z());
+
+        VectorTileEncoder encoder = new VectorTileEncoder(EXTENT);
+
+        ServiceRequestMapFeed.AreaMarkers markers =
+                mapFeed.getMarkers(key.jurisdictionId(), new BoundingBox(minLng, minLat, maxLng, maxLat));
+        VectorTileEncoder.Layer requestLayer = encoder.addLayer("service_requests");
+        for (ServiceRequestMarker marker : markers.markers()) {
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            attributes.put("status", marker.getStatus().toString());
+            attributes.put("service_code", marker.getServiceId());
+            attributes.put("created", marker.getDateCreated().getEpochSecond());
+            requestLayer.addFeature(marker.getId(), attributes,
+                    TILE_GEOMETRY_FACTORY.createPoint(toTileCoordinate(marker.getLocation().getCoordinate(), key)));
+        }
+
+        Envelope area = new Envelope(minLng, maxLng, minLat, maxLat);
+        Polygon clip = (Polygon) TILE_GEOMETRY_FACTORY.toGeometry(
+                new Envelope(-BUFFER, EXTENT + BUFFER, -BUFFER, EXTENT + BUFFER));
+        VectorTileEncoder.Layer projectLayer = encoder.addLayer("projects");
+        for (Project project : projects.projects()) {
+            Polygon boundary = project.getBoundary();
+            if (boundary == null || !area.intersects(boundary.getEnvelopeInternal())) {
+                continue;
+            }
+            Geometry geometry = DouglasPeuckerSimplifier.simplify(toTileGeometry(boundary, key), SIMPLIFY_TOLERANCE);
+            if (!clip.getEnvelopeInternal().contains(geometry.getEnvelopeInternal())) {
+                geometry = clip.intersection(geometry);
+            }
+            geometry = GeometryPrecisionReducer.reduce(geometry, TILE_PRECISION);
+            if (geometry.isEmpty()) {
+                continue;
+            }
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            attributes.put("name", project.getName());
+            attributes.put("slug", project.getSlug());
+            attributes.put("status", project.getStatus().name().toLowerCase());
+            projectLayer.addFeature(project.getId(), attributes, geometry);
+        }
+
+        return new CachedTile(markers.snapshotId(), projects.version(), CachedBody.of(encoder.encode()));
+    }
+
+    private void evict(String jurisdictionId, List<Point> locations) {
+        double buffer = (double) BUFFER / EXTENT;
+        synchronized (cache) {
+            evictions++;
+            for (Point location : locations) {
+                for (int z = 0; z <= MAX_ZOOM; z++) {
+                    double x = WebMercator.x(location.getX(), z);
+                    double y = WebMercator.y(location.getY(), z);
+                    // a point close to a tile edge is also drawn in the buffer of the neighbouring tiles
+                    long maxTileX = (long) Math.floor(x + buffer);
+                    long maxTileY = (long) Math.floor(y + buffer);
+                    for (long tileX = (long) Math.floor(x - buffer); tileX <= maxTileX; tileX++) {
+                        for (long tileY = (long) Math.floor(y - buffer); tileY <= maxTileY; tileY++) {
+                            cache.remove(new TileKey(jurisdictionId, z, tileX, tileY));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Coordinate toTileCoordinate(Coordinate lngLat, TileKey key) {
+        return new Coordinate(
+                Math.round((WebMercator.x(lngLat.getX(), key.z()) - key.x()) * EXTENT),
+                Math.round((WebMercator.y(lngLat.getY(), key.z()) - key.y()) * EXTENT));
+    }
+
+    private static Geometry toTileGeometry(Geometry geometry, TileKey key) {
+        return new GeometryTransformer() {
+            @Override
+            protected CoordinateSequence transformCoordinates(CoordinateSequence coordinates, Geometry parent) {
+                Coordinate[] projected = new Coordinate[coordinates.size()];
+                for (int i = 0; i < projected.length; i++) {
+                    projected[i] = new Coordinate(
+                            (WebMercator.x(coordinates.getX(i), key.z()) - key.x()) * EXTENT,
+                            (WebMercator.y(coordinates.getY(i), key.z()) - key.y()) * EXTENT);
+                }
+                return TILE_GEOMETRY_FACTORY.getCoordinateSequenceFactory().create(projected);
+            }
+        }.transform(geometry);
+    }
+}
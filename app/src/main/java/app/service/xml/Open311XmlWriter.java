@@ -0,0 +1,117 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.service.xml;
+
+import app.dto.discovery.DiscoveryDTO;
+import app.dto.service.ServiceDTO;
+import app.dto.service.ServiceList;
+import app.dto.servicedefinition.ServiceDefinitionDTO;
+import app.dto.servicerequest.ServiceRequestDTO;
+import app.dto.servicerequest.ServiceRequestResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.common.xml.XmlEscapers;
+import io.micronaut.core.io.Writable;
+import jakarta.inject.Singleton;
+
+import javax.xml.namespace.QName;
+import java.util.List;
+
+/**
+ * Pre-built writers for the Open311 GeoReport v2 XML representations. Jackson writers are immutable and thread-safe,
+ * so they are configured once instead of per request.
+ * <p>
+ * Descriptions and addresses are XML-escaped before serialization, as these endpoints always have, so clients keep
+ * receiving the same documents.
+ */
+@Singleton
+public class Open311XmlWriter {
+
+    private static final QName SERVICE_REQUESTS_ELEMENT = new QName("service_requests");
+    private static final String SERVICE_REQUEST_ELEMENT = "request";
+
+    private final ObjectWriter discoveryWriter;
+    private final ObjectWriter serviceDefinitionWriter;
+    private final ObjectWriter listWriter;
+    private final XmlMapper listMapper;
+
+    public Open311XmlWriter() {
+        this.discoveryWriter = XmlMapper.xmlBuilder()
+                .configure(ToXmlGenerator.Feature.WRITE_XML_DECLARATION, true)
+                .defaultUseWrapper(true)
+                .build()
+                .writer();
+        this.serviceDefinitionWriter = XmlMapper.xmlBuilder().build().writer();
+        // the response owns the target stream, so finishing a document must not close it
+        this.listMapper = XmlMapper.xmlBuilder()
+                .defaultUseWrapper(false)
+                .addModule(new JavaTimeModule())
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .build();
+        this.listWriter = listMapper.writer();
+    }
+
+    public String writeDiscovery(DiscoveryDTO discovery) throws JsonProcessingException {
+        return discoveryWriter.writeValueAsString(discovery);
+    }
+
+    public byte[] writeServiceDefinition(ServiceDefinitionDTO serviceDefinition) throws JsonProcessingException {
+        return serviceDefinitionWriter.writeValueAsBytes(serviceDefinition);
+    }
+
+    public byte[] writeServices(List<ServiceDTO> services) throws JsonProcessingException {
+        services.forEach(service -> {
+            if (service.getDescription() != null) {
+                service.setDescription(XmlEscapers.xmlContentEscaper().escape(service.getDescription()));
+            }
+        });
+        return listWriter.writeValueAsBytes(new ServiceList(services));
+    }
+
+    /**
+     * Writes a {@code <service_requests>} document one {@code <request>} element at a time straight to the response
+     * body, instead of building the whole document as a string first.
+     */
+    public Writable writeServiceRequests(List<? extends ServiceRequestResponseDTO> serviceRequests) {
+        return out -> {
+            try (ToXmlGenerator generator = (ToXmlGenerator) listMapper.getFactory().createGenerator(out)) {
+                generator.setNextName(SERVICE_REQUESTS_ELEMENT);
+                generator.writeStartObject();
+                for (ServiceRequestResponseDTO serviceRequest : serviceRequests) {
+                    if (serviceRequest instanceof ServiceRequestDTO serviceRequestDTO) {
+                        escapeText(serviceRequestDTO);
+                    }
+                    generator.writeFieldName(SERVICE_REQUEST_ELEMENT);
+                    listWriter.writeValue(generator, serviceRequest);
+                }
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    private static void escapeText(ServiceRequestDTO serviceRequestDTO) {
+        if (serviceRequestDTO.getDescription() != null) {
+            serviceRequestDTO.setDescription(XmlEscapers.xmlContentEscaper().escape(serviceRequestDTO.getDescription()));
+        }
+        if (serviceRequestDTO.getAddress() != null) {
+            serviceRequestDTO.setAddress(XmlEscapers.xmlContentEscaper().escape(serviceRequestDTO.getAddress()));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- Composite indexes for the GET /requests filters in ServiceRequestRepository.getServiceRequestSpecification.
+-- Each one leads with the equality columns and ends with date_created, so the default ORDER BY date_created DESC
+-- (and the keyset order date_created DESC, id DESC, since InnoDB appends the primary key) is read from the index
+-- instead of being sorted.
+CREATE INDEX idx_service_requests_jurisdiction_deleted_created ON service_requests (jurisdiction_id, deleted, date_created);
+CREATE INDEX idx_service_requests_jurisdiction_status_created ON service_requests (jurisdiction_id, status, date_created);
+CREATE INDEX idx_service_requests_jurisdiction_service_created ON service_requests (jurisdiction_id, services_id, date_created);
+CREATE INDEX idx_service_requests_project_created ON service_requests (project_id, date_created);
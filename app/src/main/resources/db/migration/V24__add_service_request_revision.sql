@@ -0,0 +1,3 @@
+-- Incremented on every update of a service request. date_updated only has second precision, so it cannot tell
+-- apart two updates within the same second; the revision backs the ETag of GET /requests/{id}.
+ALTER TABLE service_requests ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,13 @@
+-- Number of pending (not deleted) removal suggestions per service request, maintained by ServiceRequestService so
+-- staff pages read it from the request row instead of counting service_request_removal_suggestions per page.
+ALTER TABLE service_requests ADD COLUMN removal_suggestion_count INT NOT NULL DEFAULT 0;
+
+UPDATE service_requests sr
+    JOIN (SELECT service_request_id, COUNT(*) AS pending
+          FROM service_request_removal_suggestions
+          WHERE deleted = false
+          GROUP BY service_request_id) s ON s.service_request_id = sr.id
+SET sr.removal_suggestion_count = s.pending;
+
+-- serves the has_removal_suggestions filter and sorting by the count within a jurisdiction
+CREATE INDEX idx_service_requests_jurisdiction_removal_suggestions ON service_requests (jurisdiction_id, deleted, removal_suggestion_count);
@@ -0,0 +1,16 @@
+-- Number of non-deleted service requests per project, maintained by ServiceRequestService and reconciled by
+-- ProjectRequestCountReconciler. It replaces the correlated COUNT(*) the open_projects view ran per project row.
+ALTER TABLE projects ADD COLUMN request_count INT NOT NULL DEFAULT 0;
+
+UPDATE projects p
+    JOIN (SELECT project_id, COUNT(*) AS requests
+          FROM service_requests
+          WHERE project_id IS NOT NULL AND deleted = false
+          GROUP BY project_id) sr ON sr.project_id = p.id
+SET p.request_count = sr.requests;
+
+-- p.* is expanded when the view is created, so it has to be recreated to pick up request_count
+CREATE OR REPLACE VIEW open_projects AS
+SELECT p.*
+FROM projects p
+WHERE p.closed_date IS NULL AND p.end_date >= CURRENT_TIMESTAMP;
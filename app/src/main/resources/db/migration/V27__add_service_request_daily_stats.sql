@@ -0,0 +1,32 @@
+-- Daily rollups of service requests per (jurisdiction, UTC creation date, service, status, priority, project),
+-- maintained by ServiceRequestStatsService as requests are created, patched and deleted. A request without a
+-- priority is counted under '' and one without a project under project_id 0, so every dimension can be part of the
+-- primary key. closed_count and seconds_to_close cover the requests that have a closed_date.
+CREATE TABLE service_request_daily_stats (
+    jurisdiction_id VARCHAR(255) NOT NULL,
+    stats_date DATE NOT NULL,
+    services_id BIGINT NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    priority VARCHAR(32) NOT NULL DEFAULT '',
+    project_id BIGINT NOT NULL DEFAULT 0,
+    request_count BIGINT NOT NULL DEFAULT 0,
+    closed_count BIGINT NOT NULL DEFAULT 0,
+    seconds_to_close BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (jurisdiction_id, stats_date, services_id, status, priority, project_id)
+);
+
+INSERT INTO service_request_daily_stats (jurisdiction_id, stats_date, services_id, status, priority, project_id,
+                                         request_count, closed_count, seconds_to_close)
+SELECT jurisdiction_id,
+       DATE(CONVERT_TZ(date_created, @@session.time_zone, '+00:00')),
+       services_id,
+       status,
+       COALESCE(priority, ''),
+       COALESCE(project_id, 0),
+       COUNT(*),
+       COUNT(closed_date),
+       COALESCE(SUM(GREATEST(TIMESTAMPDIFF(SECOND, date_created, closed_date), 0)), 0)
+FROM service_requests
+WHERE deleted = false AND jurisdiction_id IS NOT NULL
+GROUP BY jurisdiction_id, DATE(CONVERT_TZ(date_created, @@session.time_zone, '+00:00')), services_id, status,
+         COALESCE(priority, ''), COALESCE(project_id, 0);
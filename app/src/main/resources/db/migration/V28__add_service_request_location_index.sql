@@ -0,0 +1,3 @@
+-- Serves the bbox and radius filters of GET /requests: MBRContains against a constant area reads only the index
+-- entries inside it. location is already NOT NULL with SRID 4326, which InnoDB requires for the index to be used.
+CREATE SPATIAL INDEX idx_service_requests_location ON service_requests (location);
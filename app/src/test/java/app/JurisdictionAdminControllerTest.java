@@ -31,10 +31,13 @@ import app.dto.service.PatchServiceOrderPositionDTO;
 import app.dto.service.ServiceDTO;
 import app.dto.service.UpdateServiceDTO;
 import app.dto.servicedefinition.*;
+import app.dto.servicerequest.BulkPatchServiceRequestResultDTO;
 import app.dto.servicerequest.PatchServiceRequestDTO;
 import app.dto.servicerequest.PostRequestServiceRequestDTO;
 import app.dto.servicerequest.PostResponseServiceRequestDTO;
 import app.dto.servicerequest.SensitiveServiceRequestDTO;
+import app.dto.servicerequest.ServiceRequestMapFeedDTO;
+import app.dto.servicerequest.ServiceRequestStatsDTO;
 import app.model.jurisdiction.Jurisdiction;
 import app.model.jurisdiction.JurisdictionRepository;
 import app.model.jurisdictionuser.JurisdictionUser;
@@ -49,12 +52,17 @@ import app.model.servicedefinition.AttributeValue;
 import app.model.servicedefinition.AttributeValueRepository;
 import app.model.servicedefinition.ServiceDefinitionAttribute;
 import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequestDailyStats;
+import app.model.servicerequest.ServiceRequestDailyStatsStore;
 import app.model.servicerequest.ServiceRequestPriority;
+import app.model.servicerequest.ServiceRequestRepository;
 import app.model.servicerequest.ServiceRequestStatus;
 import app.model.user.User;
 import app.model.user.UserRepository;
 import app.security.HasPermissionResponse;
 import app.service.jurisdiction.JurisdictionBoundaryService;
+import app.util.CacheCleanup;
 import app.util.DbCleanup;
 import app.util.MockAuthenticationFetcher;
 import app.util.MockUnityAuthClient;
@@ -71,6 +79,8 @@ import io.micronaut.http.client.exceptions.HttpClientResponseException;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.io.IOException;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -101,6 +111,9 @@ public class JurisdictionAdminControllerTest  {
     @Inject
     DbCleanup dbCleanup;
 
+    @Inject
+    CacheCleanup cacheCleanup;
+
     @Inject
     UserRepository userRepository;
 
@@ -125,6 +138,12 @@ public class JurisdictionAdminControllerTest  {
     @Inject
     JurisdictionBoundaryService jurisdictionBoundaryService;
 
+    @Inject
+    ServiceRequestRepository serviceRequestRepository;
+
+    @Inject
+    ServiceRequestDailyStatsStore serviceRequestDailyStatsStore;
+
     private Service sidewalkService;
     private ServiceDefinitionAttribute savedSDA;
     private HashMap<String, Long> sidewalkAttrIdMap = new HashMap<>();
@@ -140,6 +159,7 @@ public class JurisdictionAdminControllerTest  {
     @AfterEach
     void teardown(){
         dbCleanup.cleanupAll();
+        cacheCleanup.clearAll();
     }
 
     public void setupMockData() {
@@ -704,6 +724,165 @@ public class JurisdictionAdminControllerTest  {
         assertNull(updatedServiceRequestDTO.getExpectedDate());
     }
 
+    @Test
+    public void canUpdateServiceRequestsInBulk() {
+        List<Long> ids = new ArrayList<>();
+        for (String address : List.of("12345 Fairway", "6789 Faraway")) {
+            HttpResponse<?> response = createSidewalkServiceRequest(address,
+                Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+            ids.add(response.getBody(PostResponseServiceRequestDTO[].class).get()[0].getId());
+        }
+        long missingId = Long.MAX_VALUE;
+
+        HttpRequest<?> request = HttpRequest
+            .PATCH("/jurisdiction-admin/requests?jurisdiction_id=fakecity.gov", Map.of(
+                "service_request_ids", List.of(ids.get(0), ids.get(1), missingId),
+                "changes", Map.of("status", "closed", "priority", "high", "status_notes", "Storm cleanup complete")))
+            .header("Authorization", "Bearer token.text.here");
+
+        HttpClientResponseException exception = assertThrowsExactly(HttpClientResponseException.class,
+            () -> client.toBlocking().exchange(request, BulkPatchServiceRequestResultDTO.class));
+        assertEquals(UNAUTHORIZED, exception.getStatus());
+
+        authLogin();
+
+        HttpResponse<BulkPatchServiceRequestResultDTO> response = client.toBlocking()
+            .exchange(request, BulkPatchServiceRequestResultDTO.class);
+        assertEquals(OK, response.getStatus());
+        BulkPatchServiceRequestResultDTO result = response.getBody().get();
+        assertEquals(ids.stream().sorted().toList(), result.getUpdatedIds());
+        assertEquals(List.of(missingId), result.getNotFoundIds());
+
+        for (Long id : ids) {
+            ServiceRequest serviceRequest = serviceRequestRepository.findById(id).get();
+            assertEquals(ServiceRequestStatus.CLOSED, serviceRequest.getStatus());
+            assertEquals(ServiceRequestPriority.HIGH, serviceRequest.getPriority());
+            assertEquals("Storm cleanup complete", serviceRequest.getStatusNotes());
+            assertNotNull(serviceRequest.getDateUpdated());
+        }
+    }
+
+    @Test
+    public void mapFeedFollowsPatchedAndDeletedRequests() {
+        List<Long> ids = new ArrayList<>();
+        for (String address : List.of("12345 Fairway", "6789 Faraway")) {
+            HttpResponse<?> response = createSidewalkServiceRequest(address,
+                Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+            ids.add(response.getBody(PostResponseServiceRequestDTO[].class).get()[0].getId());
+        }
+        assertEquals("open", mapFeedStatus(ids.get(0)));
+
+        authLogin();
+
+        HttpResponse<?> response = client.toBlocking().exchange(HttpRequest
+            .PATCH("/jurisdiction-admin/requests?jurisdiction_id=fakecity.gov", Map.of(
+                "service_request_ids", ids,
+                "changes", Map.of("status", "in_progress")))
+            .header("Authorization", "Bearer token.text.here"), BulkPatchServiceRequestResultDTO.class);
+        assertEquals(OK, response.getStatus());
+        assertEquals("in_progress", mapFeedStatus(ids.get(0)));
+        assertEquals("in_progress", mapFeedStatus(ids.get(1)));
+
+        response = client.toBlocking().exchange(HttpRequest
+            .PATCH("/jurisdiction-admin/requests/" + ids.get(0) + "?jurisdiction_id=fakecity.gov",
+                Map.of("status", "closed"))
+            .header("Authorization", "Bearer token.text.here"), SensitiveServiceRequestDTO.class);
+        assertEquals(OK, response.getStatus());
+        assertEquals("closed", mapFeedStatus(ids.get(0)));
+
+        response = client.toBlocking().exchange(HttpRequest
+            .DELETE("/requests/" + ids.get(1) + "?jurisdiction_id=fakecity.gov")
+            .header("Authorization", "Bearer token.text.here"));
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatus());
+        assertNull(mapFeedStatus(ids.get(1)));
+    }
+
+    @Test
+    public void servicesListFollowsServicesCreatedAndDeleted() {
+        assertEquals(List.of(sidewalkService.getId()), listServiceIds());
+
+        authLogin();
+
+        Long groupId = createGroup("Animal Control", "fakecity.gov").getBody(GroupDTO.class).get().getId();
+        Long serviceId = createService("Animal in Distress", "fakecity.gov", groupId)
+            .getBody(ServiceDTO.class).get().getId();
+        assertEquals(Set.of(sidewalkService.getId(), serviceId), Set.copyOf(listServiceIds()));
+
+        HttpResponse<?> response = client.toBlocking().exchange(HttpRequest
+            .DELETE("/jurisdiction-admin/services/" + serviceId + "?jurisdiction_id=fakecity.gov")
+            .header("Authorization", "Bearer token.text.here"));
+        assertEquals(OK, response.getStatus());
+        assertEquals(List.of(sidewalkService.getId()), listServiceIds());
+    }
+
+    @Test
+    public void serviceRequestStatsFollowCreatedAndPatchedRequests() {
+        List<Long> ids = new ArrayList<>();
+        for (String address : List.of("12345 Fairway", "6789 Faraway")) {
+            HttpResponse<?> response = createSidewalkServiceRequest(address,
+                Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+            ids.add(response.getBody(PostResponseServiceRequestDTO[].class).get()[0].getId());
+        }
+
+        HttpRequest<?> statsRequest = HttpRequest.GET("/jurisdiction-admin/requests/stats?jurisdiction_id=fakecity.gov")
+            .header("Authorization", "Bearer token.text.here");
+        HttpClientResponseException exception = assertThrowsExactly(HttpClientResponseException.class,
+            () -> client.toBlocking().exchange(statsRequest, ServiceRequestStatsDTO.class));
+        assertEquals(UNAUTHORIZED, exception.getStatus());
+
+        authLogin();
+
+        ServiceRequestStatsDTO stats = client.toBlocking().retrieve(statsRequest, ServiceRequestStatsDTO.class);
+        assertEquals(2, stats.getTotalRequests());
+        assertEquals(0, stats.getClosedRequests());
+        assertNull(stats.getAverageSecondsToClose());
+        assertEquals(Map.of("open", 2L), stats.getByStatus());
+        assertEquals(1, stats.getDaily().size());
+
+        client.toBlocking().exchange(HttpRequest
+            .PATCH("/jurisdiction-admin/requests?jurisdiction_id=fakecity.gov", Map.of(
+                "service_request_ids", List.of(ids.get(0)),
+                "changes", Map.of("status", "closed", "closed_datetime", "2099-01-01T00:00:00Z")))
+            .header("Authorization", "Bearer token.text.here"), BulkPatchServiceRequestResultDTO.class);
+        client.toBlocking().exchange(HttpRequest
+            .PATCH("/jurisdiction-admin/requests/" + ids.get(1) + "?jurisdiction_id=fakecity.gov", Map.of("priority", "high"))
+            .header("Authorization", "Bearer token.text.here"), SensitiveServiceRequestDTO.class);
+
+        stats = client.toBlocking().retrieve(statsRequest, ServiceRequestStatsDTO.class);
+        assertEquals(2, stats.getTotalRequests());
+        assertEquals(1, stats.getClosedRequests());
+        assertTrue(stats.getAverageSecondsToClose() > 0);
+        assertEquals(Map.of("open", 1L, "closed", 1L), stats.getByStatus());
+        assertEquals(1L, stats.getByPriority().get("high"));
+    }
+
+    @Test
+    public void serviceRequestStatsReconcileCorrectsDrift() {
+        createSidewalkServiceRequest("12345 Fairway",
+            Map.of("attribute[" + savedSDA.getId() + "]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<ServiceRequestDailyStats> rows = serviceRequestDailyStatsStore.findByDateRange("fakecity.gov", today, today);
+        assertEquals(1, rows.size());
+        ServiceRequestDailyStats row = rows.get(0);
+
+        // a missed adjustment, and a row no request contributes to
+        serviceRequestDailyStatsStore.add("fakecity.gov", List.of(
+            new ServiceRequestDailyStats(row.key(), 3, 1, 60),
+            new ServiceRequestDailyStats(new ServiceRequestDailyStats.Key(today, row.key().serviceId(),
+                ServiceRequestStatus.CLOSED, ServiceRequestPriority.LOW, null), 2, 2, 120)));
+        assertEquals(2, serviceRequestDailyStatsStore.findByDateRange("fakecity.gov", today, today).size());
+
+        assertEquals(2, serviceRequestDailyStatsStore.reconcile());
+        assertEquals(List.of(row), serviceRequestDailyStatsStore.findByDateRange("fakecity.gov", today, today));
+        assertEquals(0, serviceRequestDailyStatsStore.reconcile());
+
+        // counts lost from a row are restored
+        serviceRequestDailyStatsStore.add("fakecity.gov", List.of(row.negate()));
+        assertTrue(serviceRequestDailyStatsStore.findByDateRange("fakecity.gov", today, today).isEmpty());
+        assertEquals(1, serviceRequestDailyStatsStore.reconcile());
+        assertEquals(List.of(row), serviceRequestDailyStatsStore.findByDateRange("fakecity.gov", today, today));
+    }
+
     @Test
     public void canDownloadCSVFile() throws IOException {
         HttpResponse<?> response;
@@ -794,6 +973,52 @@ public class JurisdictionAdminControllerTest  {
         assertEquals("x st.",  firstRecord.get("ADDRESS"));
     }
 
+    @Test
+    public void downloadCSVStreamsServiceColumnsWithoutFurtherQueries() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            HttpResponse<?> response = createSidewalkServiceRequest(i + " Streamway",
+                    Map.of("attribute["+savedSDA.getId()+"]", sidewalkAttrIdMap.get("Cracked")), "fakecity.gov");
+            assertEquals(HttpStatus.OK, response.getStatus());
+        }
+
+        authLogin();
+
+        // the service and its group are read by the streaming query itself, sorted here through a joined path
+        HttpRequest<?> request = HttpRequest.GET(
+                "/jurisdiction-admin/requests/download?jurisdiction_id=fakecity.gov&sort=service.serviceName,asc")
+            .header("Authorization", "Bearer token.text.here");
+        HttpResponse<byte[]> response = client.toBlocking().exchange(request, byte[].class);
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder().setSkipHeaderRecord(true).setHeader(CsvHeaders.class).build();
+        List<CSVRecord> records = new CSVParser(new InputStreamReader(new ByteArrayInputStream(response.body())), csvFormat)
+                .getRecords();
+        assertEquals(3, records.size());
+        for (CSVRecord record : records) {
+            assertEquals("fakecity.gov", record.get("JURISDICTION_ID"));
+            assertEquals("Sidewalk", record.get("SERVICE_NAME"));
+            assertEquals("Infrastructure", record.get("GROUP"));
+            assertEquals(String.valueOf(sidewalkService.getId()), record.get("SERVICE_CODE"));
+            assertEquals(String.valueOf(IN_BOUNDS_COORDINATE.getY()), record.get("LAT"));
+            assertEquals("open", record.get("STATUS"));
+        }
+    }
+
+    @Test
+    public void downloadCSVRejectsInvalidParametersBeforeStreaming() {
+        authLogin();
+
+        for (String query : List.of("id=1,abc", "sort=noSuchProperty,asc", "sort=service.noSuchProperty,asc",
+                "bbox=1,2,3", "lat=38.6&lng=-90.2")) {
+            HttpRequest<?> request = HttpRequest.GET(
+                    "/jurisdiction-admin/requests/download?jurisdiction_id=fakecity.gov&" + query)
+                .header("Authorization", "Bearer token.text.here");
+            HttpClientResponseException exception = assertThrowsExactly(HttpClientResponseException.class,
+                    () -> client.toBlocking().exchange(request, byte[].class), query);
+            assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus(), query);
+        }
+    }
+
     @Test
     public void theCSVFileShouldNotContainCellsBeginningWithUnsafeCharacters() throws IOException {
         HttpResponse<?> response;
@@ -849,6 +1074,24 @@ public class JurisdictionAdminControllerTest  {
         assertTrue(address.startsWith("'"));
     }
 
+    // the status of the request on the public map, or null when it is not shown
+    private String mapFeedStatus(Long serviceRequestId) {
+        ServiceRequestMapFeedDTO feed = client.toBlocking()
+            .retrieve("/requests/map?jurisdiction_id=fakecity.gov", ServiceRequestMapFeedDTO.class);
+        for (int i = 0; i < feed.getIds().length; i++) {
+            if (feed.getIds()[i] == serviceRequestId) {
+                return feed.getStatus()[i];
+            }
+        }
+        return null;
+    }
+
+    private List<Long> listServiceIds() {
+        ServiceDTO[] services = client.toBlocking()
+            .retrieve("/services?jurisdiction_id=fakecity.gov", ServiceDTO[].class);
+        return Arrays.stream(services).map(ServiceDTO::getId).toList();
+    }
+
     private HttpResponse<?> createGroup(String name, String jurisdictionId) {
         CreateUpdateGroupDTO groupDTO = new CreateUpdateGroupDTO();
         groupDTO.setName(name);
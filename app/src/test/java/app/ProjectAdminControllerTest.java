@@ -23,6 +23,7 @@ import app.model.project.Project;
 import app.model.project.ProjectRepository;
 import app.security.HasPermissionResponse;
 import app.service.geometry.LibreGeometryFactory;
+import app.util.CacheCleanup;
 import app.util.DbCleanup;
 import app.util.MockAuthenticationFetcher;
 import app.util.MockUnityAuthClient;
@@ -63,6 +64,9 @@ public class ProjectAdminControllerTest {
     @Inject
     DbCleanup dbCleanup;
 
+    @Inject
+    CacheCleanup cacheCleanup;
+
     @Inject
     JurisdictionRepository jurisdictionRepository;
 
@@ -84,6 +88,7 @@ public class ProjectAdminControllerTest {
     @AfterEach
     void cleanup() {
         dbCleanup.cleanupAll();
+        cacheCleanup.clearAll();
     }
 
     private void authLogin() {
@@ -46,12 +46,14 @@ import app.security.HasPermissionResponse;
 import app.security.Permission;
 import app.service.geometry.LibreGeometryFactory;
 import app.service.jurisdiction.JurisdictionBoundaryService;
+import app.util.CacheCleanup;
 import app.util.DbCleanup;
 import app.util.MockAuthenticationFetcher;
 import app.util.MockUnityAuthClient;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micronaut.core.type.Argument;
 import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
@@ -117,6 +119,9 @@ public class RootControllerTest {
     @Inject
     DbCleanup dbCleanup;
 
+    @Inject
+    CacheCleanup cacheCleanup;
+
     @Inject
     LibreGeometryFactory libreGeometryFactory;
 
@@ -142,6 +147,7 @@ public class RootControllerTest {
     @AfterEach
     void teardown(){
         dbCleanup.cleanupAll();
+        cacheCleanup.clearAll();
     }
 
     private void setupCityJurisdiction() {
@@ -326,6 +332,47 @@ public class RootControllerTest {
             .anyMatch(postResponseServiceRequestDTO -> postResponseServiceRequestDTO.getId() != null));
     }
 
+    @Test
+    public void canCreateServiceRequestsInBulk() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        PostRequestServiceRequestDTO first = new PostRequestServiceRequestDTO(townOtherService.getId());
+        first.setLongitude(String.valueOf(IN_BOUNDS_COORDINATE.getX()));
+        first.setLatitude(String.valueOf(IN_BOUNDS_COORDINATE.getY()));
+        first.setClientRequestId("bulk-client-request-1");
+        PostRequestServiceRequestDTO unknownService = new PostRequestServiceRequestDTO(Long.MAX_VALUE);
+        unknownService.setLongitude(String.valueOf(IN_BOUNDS_COORDINATE.getX()));
+        unknownService.setLatitude(String.valueOf(IN_BOUNDS_COORDINATE.getY()));
+        PostRequestServiceRequestDTO missingLocation = new PostRequestServiceRequestDTO(townOtherService.getId());
+
+        Map<String, Object> payload = Map.of(
+            "g_recaptcha_response", "abc",
+            "requests", List.of(
+                objectMapper.convertValue(first, Map.class),
+                objectMapper.convertValue(first, Map.class),
+                objectMapper.convertValue(unknownService, Map.class),
+                objectMapper.convertValue(missingLocation, Map.class)));
+        HttpRequest<?> request = HttpRequest.POST("/requests/bulk?jurisdiction_id=town.gov", payload);
+
+        HttpResponse<List> response = client.toBlocking().exchange(request, List.class);
+        assertEquals(HttpStatus.OK, response.getStatus());
+        List<Map<String, Object>> results = response.getBody().get();
+        assertEquals(4, results.size());
+        assertEquals("created", results.get(0).get("status"));
+        assertNotNull(results.get(0).get("service_request_id"));
+        assertEquals("duplicate", results.get(1).get("status"));
+        assertEquals(results.get(0).get("service_request_id"), results.get(1).get("service_request_id"));
+        assertEquals("failed", results.get(2).get("status"));
+        assertEquals("Corresponding service is not found.", results.get(2).get("error"));
+        assertEquals("failed", results.get(3).get("status"));
+        assertEquals(3, results.get(3).get("index"));
+
+        // resubmitting the queue is idempotent
+        response = client.toBlocking().exchange(request, List.class);
+        results = response.getBody().get();
+        assertEquals("duplicate", results.get(0).get("status"));
+        assertEquals("duplicate", results.get(1).get("status"));
+    }
+
     @Test
     public void canCreateServiceRequestWithRequiredAttributes() {
         HttpResponse<?> response;
@@ -628,6 +675,51 @@ public class RootControllerTest {
                 sensitiveServiceRequestDTO.getId().equals(closedHighSR.getId())));
     }
 
+    @Test
+    public void canFilterServiceRequestsByLocation() {
+        ServiceRequest near = new ServiceRequest();
+        near.setStatus(ServiceRequestStatus.OPEN);
+        near.setService(sidewalkService);
+        near.setJurisdiction(sidewalkService.getJurisdiction());
+        setLocation(near, IN_BOUNDS_COORDINATE);
+        ServiceRequest nearSR = serviceRequestRepository.save(near);
+
+        // about 4.3 km east of the first one
+        ServiceRequest far = new ServiceRequest();
+        far.setStatus(ServiceRequestStatus.OPEN);
+        far.setService(sidewalkService);
+        far.setJurisdiction(sidewalkService.getJurisdiction());
+        setLocation(far, new Coordinate(IN_BOUNDS_COORDINATE.getX() + 0.05, IN_BOUNDS_COORDINATE.getY()));
+        ServiceRequest farSR = serviceRequestRepository.save(far);
+
+        String around = (IN_BOUNDS_COORDINATE.getX() - 0.01) + "," + (IN_BOUNDS_COORDINATE.getY() - 0.01) + ","
+            + (IN_BOUNDS_COORDINATE.getX() + 0.01) + "," + (IN_BOUNDS_COORDINATE.getY() + 0.01);
+        ServiceRequestDTO[] inBox = client.toBlocking().retrieve(
+            "/requests?jurisdiction_id=city.gov&bbox=" + around, ServiceRequestDTO[].class);
+        assertEquals(1, inBox.length);
+        assertEquals(nearSR.getId(), inBox[0].getId());
+
+        String center = "&lat=" + IN_BOUNDS_COORDINATE.getY() + "&lng=" + IN_BOUNDS_COORDINATE.getX();
+        ServiceRequestDTO[] withinOneKm = client.toBlocking().retrieve(
+            "/requests?jurisdiction_id=city.gov" + center + "&radius=1000", ServiceRequestDTO[].class);
+        assertEquals(1, withinOneKm.length);
+        assertEquals(nearSR.getId(), withinOneKm[0].getId());
+
+        ServiceRequestDTO[] withinTenKm = client.toBlocking().retrieve(
+            "/requests?jurisdiction_id=city.gov" + center + "&radius=10000", ServiceRequestDTO[].class);
+        assertEquals(2, withinTenKm.length);
+        assertTrue(Arrays.stream(withinTenKm).anyMatch(dto -> dto.getId().equals(farSR.getId())));
+
+        HttpClientResponseException thrown = assertThrows(HttpClientResponseException.class, () ->
+            client.toBlocking().retrieve("/requests?jurisdiction_id=city.gov" + center, ServiceRequestDTO[].class));
+        assertEquals(HttpStatus.BAD_REQUEST, thrown.getStatus());
+
+        // an id search would ignore the location
+        thrown = assertThrows(HttpClientResponseException.class, () -> client.toBlocking().retrieve(
+            "/requests?jurisdiction_id=city.gov&id=" + farSR.getId() + "&bbox=" + around, ServiceRequestDTO[].class));
+        assertEquals(HttpStatus.BAD_REQUEST, thrown.getStatus());
+    }
+
     @Test
     public void canGetAServiceRequestWithJurisdictionId() {
         HttpResponse<?> response;
@@ -698,6 +790,75 @@ public class RootControllerTest {
         assertTrue(infoResponse.getBounds().length > 0);
     }
 
+    @Test
+    public void getJurisdictionReturnsNotModifiedForMatchingEtag() {
+        Jurisdiction j = new Jurisdiction("etag-test", 1L, "ETag Jurisdiction", null);
+        RemoteHost h = new RemoteHost("etaghost");
+        h.setJurisdiction(j);
+        j.getRemoteHosts().add(h);
+        j = jurisdictionRepository.save(j);
+        jurisdictionBoundaryService.saveBoundary(j, DEFAULT_BOUNDS);
+
+        HttpResponse<String> response = client.toBlocking().exchange(HttpRequest.GET("/config")
+            .header("referer", "http://etaghost"), String.class);
+        String etag = response.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertTrue(response.getBody().isPresent());
+
+        HttpResponse<String> notModified = client.toBlocking().exchange(HttpRequest.GET("/config")
+            .header("referer", "http://etaghost")
+            .header(HttpHeaders.IF_NONE_MATCH, etag), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatus());
+        assertTrue(notModified.getBody().isEmpty());
+
+        jurisdictionBoundaryService.updateBoundary(j, new Double[][]{{41.0, -73.0}, {42.0, -73.0}, {42.0, -72.0}, {41.0, -72.0}, {41.0, -73.0}});
+        HttpResponse<String> changed = client.toBlocking().exchange(HttpRequest.GET("/config")
+            .header("referer", "http://etaghost")
+            .header(HttpHeaders.IF_NONE_MATCH, etag), String.class);
+        assertEquals(HttpStatus.OK, changed.getStatus());
+        assertNotEquals(etag, changed.getHeaders().get(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void getServiceDefinitionReturnsNotModifiedForMatchingEtag() {
+        String uri = "/services/" + sidewalkService.getId() + "?jurisdiction_id=city.gov";
+        HttpResponse<String> response = client.toBlocking().exchange(uri, String.class);
+        String etag = response.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertEquals("no-cache", response.getHeaders().get(HttpHeaders.CACHE_CONTROL));
+
+        HttpResponse<String> notModified = client.toBlocking().exchange(HttpRequest.GET(uri)
+            .header(HttpHeaders.IF_NONE_MATCH, etag), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatus());
+        assertEquals(etag, notModified.getHeaders().get(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void getServiceRequestReturnsNotModifiedUntilRequestChanges() {
+        HttpResponse<?> created = createServiceRequest(sidewalkService.getId(), "12345 Fairway",
+            Map.of("attribute["+sidewalkMultiValueAttr.getId()+"]", getAttributeValueId(sidewalkMultiValueAttr, "Too narrow")),
+            "city.gov");
+        Long serviceRequestId = created.getBody(PostResponseServiceRequestDTO[].class).orElseThrow()[0].getId();
+        String uri = "/requests/" + serviceRequestId + "?jurisdiction_id=city.gov";
+
+        HttpResponse<String> response = client.toBlocking().exchange(uri, String.class);
+        String etag = response.getHeaders().get(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        HttpResponse<String> notModified = client.toBlocking().exchange(HttpRequest.GET(uri)
+            .header(HttpHeaders.IF_NONE_MATCH, etag), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatus());
+
+        ServiceRequest serviceRequest = serviceRequestRepository.findById(serviceRequestId).orElseThrow();
+        serviceRequest.setDescription("Changed within the same second");
+        serviceRequestRepository.update(serviceRequest);
+
+        HttpResponse<String> changed = client.toBlocking().exchange(HttpRequest.GET(uri)
+            .header(HttpHeaders.IF_NONE_MATCH, etag), String.class);
+        assertEquals(HttpStatus.OK, changed.getStatus());
+        assertNotEquals(etag, changed.getHeaders().get(HttpHeaders.ETAG));
+    }
+
     @Test
     public void getJurisdictionReturnsDefaultPolicyContentWhenNotSet() {
         Jurisdiction j = new Jurisdiction("policy-test-1", 1L, "Policy Test Jurisdiction", null);
@@ -0,0 +1,116 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app;
+
+import app.security.HasPermissionResponse;
+import app.util.MockAuthenticationFetcher;
+import app.util.MockUnityAuthClient;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static app.util.MockAuthenticationFetcher.DEFAULT_MOCK_AUTHENTICATION;
+import static io.micronaut.http.HttpStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs with the permission decision cache enabled, which application-test.yml otherwise turns off.
+ */
+@MicronautTest
+@Property(name = "app.auth.decision-cache.ttl", value = "60s")
+public class TenantAdminPermissionCacheTest {
+
+    @Inject
+    @Client("/api/tenant-admin")
+    HttpClient client;
+
+    @Inject
+    MockUnityAuthClient mockUnityAuthClient;
+
+    @Inject
+    MockAuthenticationFetcher mockAuthenticationFetcher;
+
+    @BeforeEach
+    void setup() {
+        // login
+        mockAuthenticationFetcher.setAuthentication(DEFAULT_MOCK_AUTHENTICATION);
+    }
+
+    private void setAuthHasPermissionResponse(boolean hasPermission, String email, List<String> permissions) {
+        mockUnityAuthClient.setResponse(HttpResponse.ok(new HasPermissionResponse(hasPermission, email, null, permissions)));
+    }
+
+    @Test
+    public void revokedPermissionIsHonoredAfterTheCacheIsCleared() {
+        String tenantAdminToken = token("tenantAdmin@test.io");
+        setAuthHasPermissionResponse(true, "tenantAdmin@test.io", List.of("LIBRE311_ADMIN_EDIT-TENANT"));
+        // the jurisdiction does not exist, so a permitted request gets past the permission check to a 404
+        assertEquals(NOT_FOUND, setRemoteHosts(tenantAdminToken));
+
+        // the role is revoked in UnityAuth, but the decision is still cached
+        setAuthHasPermissionResponse(false, "tenantAdmin@test.io", List.of());
+        assertEquals(NOT_FOUND, setRemoteHosts(tenantAdminToken));
+
+        setAuthHasPermissionResponse(true, "systemAdmin@test.io", List.of("LIBRE311_ADMIN_EDIT-SYSTEM"));
+        HttpResponse<?> cleared = client.toBlocking().exchange(HttpRequest.DELETE("/permission-cache?tenant_id=1")
+                .header("Authorization", token("systemAdmin@test.io")));
+        assertEquals(NO_CONTENT, cleared.getStatus());
+
+        setAuthHasPermissionResponse(false, "tenantAdmin@test.io", List.of());
+        assertEquals(FORBIDDEN, setRemoteHosts(tenantAdminToken));
+    }
+
+    @Test
+    public void tenantAdminCannotClearTheCache() {
+        setAuthHasPermissionResponse(false, "tenantAdmin@test.io", List.of("LIBRE311_ADMIN_EDIT-TENANT"));
+        HttpClientResponseException exception = assertThrowsExactly(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(HttpRequest.DELETE("/permission-cache?tenant_id=1")
+                        .header("Authorization", token("tenantAdmin@test.io"))));
+        assertEquals(FORBIDDEN, exception.getStatus());
+    }
+
+    private HttpStatus setRemoteHosts(String authorization) {
+        HttpRequest<?> request = HttpRequest.POST("/jurisdictions/missing.town/remote_hosts?tenant_id=1",
+                        Set.of("missing.town"))
+                .header("Authorization", authorization);
+        HttpClientResponseException exception = assertThrowsExactly(HttpClientResponseException.class,
+                () -> client.toBlocking().exchange(request));
+        return exception.getStatus();
+    }
+
+    // decisions are only cached for tokens whose expiry can be read
+    private static String token(String email) {
+        return "Bearer " + new PlainJWT(new JWTClaimsSet.Builder()
+                .subject(email)
+                .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .build()).serialize();
+    }
+}
@@ -0,0 +1,241 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.model.servicerequest;
+
+import app.dto.servicerequest.GetServiceRequestsDTO;
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.project.Project;
+import app.model.project.ProjectRepository;
+import app.model.service.Service;
+import app.model.service.ServiceRepository;
+import app.model.service.ServiceType;
+import app.model.service.group.ServiceGroup;
+import app.model.service.group.ServiceGroupRepository;
+import app.service.geometry.LibreGeometryFactory;
+import app.service.servicerequest.ServiceRequestLocationFilter;
+import app.util.DbCleanup;
+import app.util.QueryPlanUtil;
+import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query plan regression tests for the GET /requests filters. Each test EXPLAINs the SQL Hibernate generates from
+ * {@link ServiceRequestRepository#getServiceRequestSpecification} and its filters, and fails if MySQL falls back to
+ * a full scan of service_requests or to sorting the matching rows.
+ */
+@MicronautTest(transactional = false)
+public class ServiceRequestQueryPlanTest {
+
+    private static final int JURISDICTIONS = 8;
+    private static final int REQUESTS_PER_JURISDICTION = 500;
+
+    private static final int PAGE_SIZE = 10;
+    // an IN list of the column with more than one element, as Hibernate renders it
+    private static final String MULTI_VALUE_IN = "(?is).*\\.%s\\s+in\\s*\\([^()]*,[^()]*\\).*";
+
+    @Inject
+    JurisdictionRepository jurisdictionRepository;
+
+    @Inject
+    ServiceGroupRepository serviceGroupRepository;
+
+    @Inject
+    ServiceRepository serviceRepository;
+
+    @Inject
+    ProjectRepository projectRepository;
+
+    @Inject
+    LibreGeometryFactory geometryFactory;
+
+    @Inject
+    QueryPlanUtil queryPlanUtil;
+
+    @Inject
+    ServiceRequestLocationFilter locationFilter;
+
+    @Inject
+    DbCleanup dbCleanup;
+
+    private Long serviceId;
+    private Long otherServiceId;
+    private Long projectId;
+
+    @BeforeEach
+    void setup() {
+        // spread rows over several jurisdictions so a single jurisdiction is a selective filter
+        for (int i = 0; i < JURISDICTIONS; i++) {
+            Jurisdiction jurisdiction = jurisdictionRepository.save(new Jurisdiction("plan-" + i, 1L));
+            ServiceGroup serviceGroup = serviceGroupRepository.save(new ServiceGroup("Group", jurisdiction));
+
+            Service service = new Service("Service " + i);
+            service.setType(ServiceType.REALTIME);
+            service.setJurisdiction(jurisdiction);
+            service.setServiceGroup(serviceGroup);
+            service = serviceRepository.save(service);
+            queryPlanUtil.insertServiceRequests(jurisdiction.getId(), service.getId(), REQUESTS_PER_JURISDICTION);
+
+            if (i == 0) {
+                serviceId = service.getId();
+
+                Service otherService = new Service("Other service");
+                otherService.setType(ServiceType.REALTIME);
+                otherService.setJurisdiction(jurisdiction);
+                otherService.setServiceGroup(serviceGroup);
+                otherServiceId = serviceRepository.save(otherService).getId();
+                queryPlanUtil.insertServiceRequests(jurisdiction.getId(), otherServiceId, REQUESTS_PER_JURISDICTION);
+
+                projectId = projectRepository.save(project(jurisdiction)).getId();
+                queryPlanUtil.assignProject(jurisdiction.getId(), projectId, 20);
+            }
+        }
+        queryPlanUtil.analyzeTable("service_requests");
+    }
+
+    @AfterEach
+    void cleanup() {
+        dbCleanup.cleanupAll();
+    }
+
+    @Test
+    void defaultListUsesIndexOrder() {
+        assertIndexedWithoutSort(queryPlanUtil.explain(specification(null, null, null, null), PAGE_SIZE));
+    }
+
+    @Test
+    void statusFilterUsesIndexOrder() {
+        // a single value is planned like an equality, so the filter is only exercised with several
+        QueryPlanUtil.GeneratedPlan plan = queryPlanUtil.explain(specification(null,
+                List.of(ServiceRequestStatus.OPEN, ServiceRequestStatus.ASSIGNED), null, null), PAGE_SIZE);
+
+        assertTrue(plan.sql().matches(MULTI_VALUE_IN.formatted("status")), plan.sql());
+        assertIndexedWithoutSort(plan);
+    }
+
+    @Test
+    void serviceFilterUsesIndexOrder() {
+        QueryPlanUtil.GeneratedPlan plan = queryPlanUtil.explain(specification(List.of(serviceId, otherServiceId),
+                null, null, null), PAGE_SIZE);
+
+        assertTrue(plan.sql().matches(MULTI_VALUE_IN.formatted("services_id")), plan.sql());
+        assertIndexedWithoutSort(plan);
+    }
+
+    @Test
+    void priorityFilterUsesIndexOrder() {
+        // priority has no index of its own; it is filtered while reading another index in date_created order
+        QueryPlanUtil.GeneratedPlan plan = queryPlanUtil.explain(specification(null, null,
+                List.of(ServiceRequestPriority.HIGH, ServiceRequestPriority.MEDIUM), null), PAGE_SIZE);
+
+        assertTrue(plan.sql().matches(MULTI_VALUE_IN.formatted("priority")), plan.sql());
+        assertIndexedWithoutSort(plan);
+    }
+
+    @Test
+    void projectFilterUsesProjectIndex() {
+        QueryPlanUtil.GeneratedPlan plan = queryPlanUtil.explain(specification(null, null, null, projectId), PAGE_SIZE);
+
+        assertIndexedWithoutSort(plan);
+        assertEquals("idx_service_requests_project_created", plan.table("sr").key(), plan.sql());
+    }
+
+    @Test
+    void dateRangeFilterUsesIndex() {
+        QueryPlanUtil.GeneratedPlan plan = queryPlanUtil.explain(specification(null, null, null, null)
+                .and(ServiceRequestRepository.Specifications.createdDateBetween(
+                        Instant.now().minus(48, ChronoUnit.HOURS), Instant.now().minus(24, ChronoUnit.HOURS))),
+                PAGE_SIZE);
+
+        assertIndexedWithoutSort(plan);
+    }
+
+    @Test
+    void keysetPageUsesIndexOrder() {
+        QueryPlanUtil.GeneratedPlan plan = queryPlanUtil.explainKeysetPage(specification(null, null, null, null)
+                .and(ServiceRequestRepository.Specifications.createdBeforePosition(
+                        Instant.now().minus(100, ChronoUnit.HOURS), Long.MAX_VALUE)), PAGE_SIZE + 1);
+
+        assertIndexedWithoutSort(plan);
+    }
+
+    @Test
+    void bboxFilterUsesSpatialIndex() {
+        GetServiceRequestsDTO requestDTO = new GetServiceRequestsDTO();
+        requestDTO.setBbox("0,0,0.03,0.03");
+
+        assertUsesSpatialIndex(requestDTO);
+    }
+
+    @Test
+    void radiusFilterUsesSpatialIndex() {
+        GetServiceRequestsDTO requestDTO = new GetServiceRequestsDTO();
+        requestDTO.setLat(0.01);
+        requestDTO.setLng(0.01);
+        requestDTO.setRadius(1_500.0);
+
+        assertUsesSpatialIndex(requestDTO);
+    }
+
+    private void assertUsesSpatialIndex(GetServiceRequestsDTO requestDTO) {
+        QuerySpecification<ServiceRequest> specification = ServiceRequestRepository.Specifications
+                .jurisdictionIdEqual("plan-0")
+                .and(ServiceRequestRepository.Specifications.notDeleted())
+                .and(locationFilter.getSpecification(requestDTO));
+        QueryPlanUtil.GeneratedPlan plan = queryPlanUtil.explain(specification, null);
+
+        // comparing the function result, e.g. MBRContains(...) = true, hides it from the index
+        assertFalse(plan.sql().matches("(?is).*MBRContains\\([^()]*\\)\\s*(=|is\\b).*"), plan.sql());
+        QueryPlanUtil.ExplainRow serviceRequests = plan.table("sr");
+        assertEquals("range", serviceRequests.type(), "spatial index not read for " + plan.sql() + ": " + serviceRequests);
+        assertEquals("idx_service_requests_location", serviceRequests.key(), plan.sql());
+    }
+
+    private QuerySpecification<ServiceRequest> specification(List<Long> serviceIds, List<ServiceRequestStatus> statuses,
+                                                             List<ServiceRequestPriority> priorities, Long projectId) {
+        return ServiceRequestRepository.getServiceRequestSpecification("plan-0", serviceIds, statuses, priorities,
+                null, null, projectId, Instant.now().minus(90, ChronoUnit.DAYS));
+    }
+
+    private Project project(Jurisdiction jurisdiction) {
+        Project project = new Project();
+        project.setName("Plan project");
+        project.setJurisdiction(jurisdiction);
+        project.setBoundary(geometryFactory.createPolygon(
+                new Double[][]{{0.0, 0.0}, {0.0, 1.0}, {1.0, 1.0}, {1.0, 0.0}, {0.0, 0.0}}));
+        project.setStartDate(Instant.now().minus(30, ChronoUnit.DAYS));
+        project.setEndDate(Instant.now().plus(30, ChronoUnit.DAYS));
+        return project;
+    }
+
+    private static void assertIndexedWithoutSort(QueryPlanUtil.GeneratedPlan plan) {
+        QueryPlanUtil.ExplainRow serviceRequests = plan.table("sr");
+        String sql = plan.sql();
+        assertFalse(serviceRequests.isFullScan(), "full scan of service_requests for " + sql + ": " + serviceRequests);
+        assertNotNull(serviceRequests.key(), "no index used for " + sql + ": " + serviceRequests);
+        assertFalse(serviceRequests.usesFilesort(),
+                "service_requests rows are sorted instead of read in index order for " + sql + ": " + serviceRequests);
+    }
+}
@@ -0,0 +1,46 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import io.micronaut.security.authentication.Authentication;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionClaimsTest {
+
+    @Test
+    void tenantPermissionsIncludeSystemScope() {
+        Authentication authentication = Authentication.build("person1@test.io", Map.of(
+                PermissionClaims.PERMISSIONS_CLAIM, Map.of(
+                        "*", List.of("LIBRE311_ADMIN_VIEW-SYSTEM"),
+                        "7", List.of("LIBRE311_REQUEST_VIEW-TENANT"),
+                        "8", List.of("LIBRE311_ADMIN_EDIT-TENANT"))));
+
+        assertEquals(List.of("LIBRE311_ADMIN_VIEW-SYSTEM", "LIBRE311_REQUEST_VIEW-TENANT"),
+                PermissionClaims.getTenantPermissions(authentication, 7L).orElseThrow());
+        assertEquals(List.of("LIBRE311_ADMIN_VIEW-SYSTEM"),
+                PermissionClaims.getTenantPermissions(authentication, 9L).orElseThrow());
+    }
+
+    @Test
+    void tokenWithoutPermissionClaimsNeedsRemoteCheck() {
+        assertTrue(PermissionClaims.getTenantPermissions(null, 7L).isEmpty());
+        assertTrue(PermissionClaims.getTenantPermissions(Authentication.build("person1@test.io"), 7L).isEmpty());
+    }
+}
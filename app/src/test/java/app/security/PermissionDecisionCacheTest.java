@@ -0,0 +1,106 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionDecisionCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final List<Permission> PERMISSIONS = List.of(Permission.LIBRE311_ADMIN_VIEW_TENANT);
+
+    @Test
+    void repeatedCheckIsServedFromCache() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PermissionDecisionCache cache = cache(Duration.ofMinutes(1), meterRegistry, NOW);
+        AtomicInteger lookups = new AtomicInteger();
+        String token = token(NOW.plusSeconds(3600));
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(cache.isPermitted(token, "jurisdiction:1", PERMISSIONS, () -> {
+                lookups.incrementAndGet();
+                return Optional.of(true);
+            }));
+        }
+
+        assertEquals(1, lookups.get());
+        assertEquals(19, meterRegistry.counter("libre311.auth.decision-cache", "result", "hit").count());
+        assertEquals(1, meterRegistry.counter("libre311.auth.decision-cache", "result", "miss").count());
+    }
+
+    @Test
+    void decisionIsNotKeptPastTokenExpiry() {
+        PermissionDecisionCache cache = cache(Duration.ofMinutes(1), new SimpleMeterRegistry(), NOW);
+        String expiredToken = token(NOW);
+        AtomicInteger lookups = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            cache.isPermitted(expiredToken, "tenant:1", PERMISSIONS, () -> {
+                lookups.incrementAndGet();
+                return Optional.of(true);
+            });
+        }
+
+        assertEquals(2, lookups.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void failedChecksAreNotCached() {
+        PermissionDecisionCache cache = cache(Duration.ofMinutes(1), new SimpleMeterRegistry(), NOW);
+        String token = token(NOW.plusSeconds(3600));
+
+        assertFalse(cache.isPermitted(token, "jurisdiction:1", PERMISSIONS, Optional::empty));
+        assertTrue(cache.isPermitted(token, "jurisdiction:1", PERMISSIONS, () -> Optional.of(true)));
+    }
+
+    @Test
+    void decisionsAreScopedAndInvalidated() {
+        PermissionDecisionCache cache = cache(Duration.ofMinutes(1), new SimpleMeterRegistry(), NOW);
+        String token = token(NOW.plusSeconds(3600));
+
+        cache.isPermitted(token, "jurisdiction:1", PERMISSIONS, () -> Optional.of(true));
+        assertFalse(cache.isPermitted(token, "jurisdiction:2", PERMISSIONS, () -> Optional.of(false)));
+        assertEquals(2, cache.size());
+
+        cache.invalidateAll();
+        assertFalse(cache.isPermitted(token, "jurisdiction:1", PERMISSIONS, () -> Optional.of(false)));
+    }
+
+    private static PermissionDecisionCache cache(Duration ttl, SimpleMeterRegistry meterRegistry, Instant now) {
+        return new PermissionDecisionCache(ttl, 100, meterRegistry, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static String token(Instant expiresAt) {
+        return "Bearer " + new PlainJWT(new JWTClaimsSet.Builder()
+                .subject("person1@test.io")
+                .expirationTime(Date.from(expiresAt))
+                .build()).serialize();
+    }
+}
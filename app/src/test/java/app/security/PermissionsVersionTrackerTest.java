@@ -0,0 +1,100 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.security;
+
+import io.micronaut.http.HttpResponse;
+import io.micronaut.security.authentication.Authentication;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PermissionsVersionTrackerTest {
+
+    private static final String TOKEN = "Bearer token";
+    private static final Long SERVICE_ID = 1L;
+    private static final Map<String, List<String>> PERMISSIONS = Map.of(
+            "*", List.of("AUTH_SERVICE_VIEW-SYSTEM"),
+            "2", List.of("LIBRE311_REQUEST_EDIT-TENANT", "LIBRE311_ADMIN_VIEW-TENANT"));
+
+    @Test
+    void claimsAreCurrentUntilVersionChanges() {
+        UnityAuthClient client = mock(UnityAuthClient.class);
+        when(client.getPermissionsVersion(SERVICE_ID, TOKEN))
+                .thenReturn(HttpResponse.ok(new PermissionsVersionResponse(3, PERMISSIONS)));
+        PermissionsVersionTracker tracker = tracker(client);
+
+        assertTrue(tracker.isCurrent(TOKEN, authentication(3)));
+        assertTrue(tracker.isCurrent(TOKEN, authentication(3)));
+        assertFalse(tracker.isCurrent(TOKEN, authentication(2)));
+
+        // the latest version is fetched once per refresh interval, not per check
+        verify(client, times(1)).getPermissionsVersion(TOKEN);
+    }
+
+    @Test
+    void newerTokenMakesOlderClaimsStale() {
+        UnityAuthClient client = mock(UnityAuthClient.class);
+        when(client.getPermissionsVersion(SERVICE_ID, TOKEN))
+                .thenReturn(HttpResponse.ok(new PermissionsVersionResponse(3, PERMISSIONS)));
+        PermissionsVersionTracker tracker = tracker(client);
+
+        assertTrue(tracker.isCurrent(TOKEN, authentication(3)));
+        assertTrue(tracker.isCurrent(TOKEN, authentication(4)));
+        assertFalse(tracker.isCurrent(TOKEN, authentication(3)));
+    }
+
+    @Test
+    void claimsThatNoLongerMatchAreStale() {
+        UnityAuthClient client = mock(UnityAuthClient.class);
+        when(client.getPermissionsVersion(SERVICE_ID, TOKEN))
+                .thenReturn(HttpResponse.ok(new PermissionsVersionResponse(3, PERMISSIONS)))
+                // e.g. the tenant or service was disabled without a version bump
+                .thenReturn(HttpResponse.ok(new PermissionsVersionResponse(3, Map.of())));
+        PermissionsVersionTracker tracker = new PermissionsVersionTracker(client, SERVICE_ID, Duration.ZERO, 100,
+                Clock.fixed(Instant.parse("2024-06-01T12:00:00Z"), ZoneOffset.UTC));
+
+        assertTrue(tracker.isCurrent(TOKEN, authentication(3)));
+        assertFalse(tracker.isCurrent(TOKEN, authentication(3)));
+    }
+
+    @Test
+    void claimsWithoutVersionAreNeverCurrent() {
+        UnityAuthClient client = mock(UnityAuthClient.class);
+
+        assertFalse(tracker(client).isCurrent(TOKEN, Authentication.build("person1@test.io")));
+        verifyNoInteractions(client);
+    }
+
+    private static PermissionsVersionTracker tracker(UnityAuthClient client) {
+        return new PermissionsVersionTracker(client, SERVICE_ID, Duration.ofSeconds(30), 100,
+                Clock.fixed(Instant.parse("2024-06-01T12:00:00Z"), ZoneOffset.UTC));
+    }
+
+    private static Authentication authentication(long version) {
+        // claims keep the order UnityAuth issued them in, which need not match the order fetched
+        return Authentication.build("person1@test.io", Map.of(PermissionClaims.PERMISSIONS_VERSION_CLAIM, version,
+                PermissionClaims.PERMISSIONS_CLAIM, Map.of(
+                        "*", List.of("AUTH_SERVICE_VIEW-SYSTEM"),
+                        "2", List.of("LIBRE311_ADMIN_VIEW-TENANT", "LIBRE311_REQUEST_EDIT-TENANT"))));
+    }
+}
@@ -0,0 +1,96 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.jurisdiction;
+
+import app.model.jurisdiction.JurisdictionBoundaryEntity;
+import app.model.jurisdiction.JurisdictionBoundaryRepository;
+import app.service.geometry.LibreGeometryFactory;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JurisdictionBoundaryCacheTest {
+
+    private static final String JURISDICTION_ID = "city";
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final Double[][] LOWER_SQUARE = {{0.0, 0.0}, {0.0, 10.0}, {10.0, 10.0}, {10.0, 0.0}, {0.0, 0.0}};
+    private static final Double[][] UPPER_SQUARE = {{10.0, 10.0}, {10.0, 20.0}, {20.0, 20.0}, {20.0, 10.0}, {10.0, 10.0}};
+
+    private final LibreGeometryFactory geometryFactory = new LibreGeometryFactory();
+    private final JurisdictionBoundaryRepository boundaryRepository = mock(JurisdictionBoundaryRepository.class);
+    private final JurisdictionConfigCache configCache = mock(JurisdictionConfigCache.class);
+    private final AtomicReference<Instant> now = new AtomicReference<>(NOW);
+    private final JurisdictionBoundaryService boundaryService = new JurisdictionBoundaryService(geometryFactory,
+            boundaryRepository, configCache, mock(ApplicationEventPublisher.class), Duration.ofMinutes(5),
+            new Clock() {
+                @Override
+                public ZoneId getZone() {
+                    return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                    return this;
+                }
+
+                @Override
+                public Instant instant() {
+                    return now.get();
+                }
+            });
+
+    @Test
+    void boundaryIsReloadedOnlyAfterACommittedChange() {
+        when(boundaryRepository.findByJurisdictionId(JURISDICTION_ID)).thenReturn(boundary(LOWER_SQUARE));
+        assertTrue(boundaryService.existsInJurisdiction(JURISDICTION_ID, 5, 5));
+        assertTrue(boundaryService.existsInJurisdiction(JURISDICTION_ID, 5, 5));
+        verify(boundaryRepository, times(1)).findByJurisdictionId(JURISDICTION_ID);
+
+        // the new boundary is only read once the change has committed
+        when(boundaryRepository.findByJurisdictionId(JURISDICTION_ID)).thenReturn(boundary(UPPER_SQUARE));
+        assertTrue(boundaryService.existsInJurisdiction(JURISDICTION_ID, 5, 5));
+        boundaryService.onBoundaryChanged(new JurisdictionBoundaryChangedEvent(JURISDICTION_ID));
+        assertFalse(boundaryService.existsInJurisdiction(JURISDICTION_ID, 5, 5));
+        assertTrue(boundaryService.existsInJurisdiction(JURISDICTION_ID, 15, 15));
+        verify(boundaryRepository, times(2)).findByJurisdictionId(JURISDICTION_ID);
+        verify(configCache).invalidate(JURISDICTION_ID);
+    }
+
+    @Test
+    void changesFromOtherInstancesAreLoadedAfterTheTtl() {
+        when(boundaryRepository.findByJurisdictionId(JURISDICTION_ID)).thenReturn(boundary(LOWER_SQUARE));
+        assertTrue(boundaryService.existsInJurisdiction(JURISDICTION_ID, 5, 5));
+
+        when(boundaryRepository.findByJurisdictionId(JURISDICTION_ID)).thenReturn(boundary(UPPER_SQUARE));
+        now.set(NOW.plus(Duration.ofMinutes(4)));
+        assertTrue(boundaryService.existsInJurisdiction(JURISDICTION_ID, 5, 5));
+
+        now.set(NOW.plus(Duration.ofMinutes(5)));
+        assertFalse(boundaryService.existsInJurisdiction(JURISDICTION_ID, 5, 5));
+    }
+
+    private JurisdictionBoundaryEntity boundary(Double[][] bounds) {
+        return JurisdictionBoundaryEntity.from(JURISDICTION_ID, geometryFactory.createPolygon(bounds));
+    }
+}
@@ -11,6 +11,7 @@ import app.model.jurisdiction.Jurisdiction;
 import app.model.jurisdiction.JurisdictionBoundary;
 import app.model.jurisdiction.JurisdictionBoundaryRepository;
 import app.model.jurisdiction.JurisdictionRepository;
+import app.util.CacheCleanup;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.AfterEach;
@@ -27,6 +28,8 @@ class JurisdictionBoundaryServiceTest  {
     JurisdictionBoundaryService jurisdictionBoundaryService;
     @Inject
     JurisdictionBoundaryRepository jurisdictionBoundaryRepository;
+    @Inject
+    CacheCleanup cacheCleanup;
 
     Jurisdiction savedJurisdiction;
 
@@ -38,6 +41,7 @@ class JurisdictionBoundaryServiceTest  {
     @AfterEach
     void teardown() {
         jurisdictionRepository.deleteAll();
+        cacheCleanup.clearAll();
     }
 
     @Test
@@ -75,4 +79,21 @@ class JurisdictionBoundaryServiceTest  {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void updatedBoundaryReplacesCachedBoundary() {
+        jurisdictionBoundaryService.saveBoundary(savedJurisdiction, DEFAULT_BOUNDS);
+        assertTrue(jurisdictionBoundaryService.existsInJurisdiction(savedJurisdiction.getId(),
+            38.689033913397765, -90.29517238194957));
+
+        Double[][] kansasCityBounds = new Double[][]{new Double[]{39.0, -95.0},
+            new Double[]{39.0, -94.5}, new Double[]{39.3, -94.5},
+            new Double[]{39.3, -95.0}, new Double[]{39.0, -95.0}};
+        jurisdictionBoundaryService.updateBoundary(savedJurisdiction, kansasCityBounds);
+
+        assertFalse(jurisdictionBoundaryService.existsInJurisdiction(savedJurisdiction.getId(),
+            38.689033913397765, -90.29517238194957));
+        assertTrue(jurisdictionBoundaryService.existsInJurisdiction(savedJurisdiction.getId(),
+            39.129514523061744, -94.74894776569042));
+    }
+
+}
@@ -0,0 +1,95 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.jurisdiction;
+
+import app.service.jurisdiction.JurisdictionConfigCache.JurisdictionConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JurisdictionConfigCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    @Test
+    void servesCachedConfigUntilInvalidated() {
+        JurisdictionConfigCache cache = new JurisdictionConfigCache(Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, JurisdictionConfig> loader = host -> {
+            loads.incrementAndGet();
+            return JurisdictionConfig.of("city", "{\"name\":\"" + host + "\"}");
+        };
+
+        JurisdictionConfig first = cache.get("city.gov", loader);
+        assertSame(first, cache.get("city.gov", loader));
+        assertEquals(1, loads.get());
+
+        cache.invalidate("town");
+        assertSame(first, cache.get("city.gov", loader));
+
+        cache.invalidate("city");
+        assertEquals(0, cache.size());
+        cache.get("city.gov", loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void reloadsAfterTtl() {
+        AtomicReference<Instant> now = new AtomicReference<>(NOW);
+        JurisdictionConfigCache cache = new JurisdictionConfigCache(Duration.ofMinutes(5), new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        });
+        cache.get("city.gov", host -> JurisdictionConfig.of("city", "{\"name\":\"old\"}"));
+
+        now.set(NOW.plus(Duration.ofMinutes(4)));
+        assertEquals("{\"name\":\"old\"}",
+            cache.get("city.gov", host -> JurisdictionConfig.of("city", "{\"name\":\"new\"}")).json());
+
+        now.set(NOW.plus(Duration.ofMinutes(6)));
+        assertEquals("{\"name\":\"new\"}",
+            cache.get("city.gov", host -> JurisdictionConfig.of("city", "{\"name\":\"new\"}")).json());
+    }
+
+    @Test
+    void etagTracksBody() {
+        JurisdictionConfig a = JurisdictionConfig.of("city", "{\"name\":\"a\"}");
+
+        assertEquals(a.etag(), JurisdictionConfig.of("city", "{\"name\":\"a\"}").etag());
+        assertNotEquals(a.etag(), JurisdictionConfig.of("city", "{\"name\":\"b\"}").etag());
+        assertTrue(a.etag().startsWith("\"") && a.etag().endsWith("\""));
+    }
+}
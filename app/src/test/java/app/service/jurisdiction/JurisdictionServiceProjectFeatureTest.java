@@ -19,6 +19,7 @@ import app.dto.jurisdiction.JurisdictionDTO;
 import app.dto.jurisdiction.PatchJurisdictionDTO;
 import app.model.jurisdiction.JurisdictionRepository;
 import app.model.jurisdiction.ProjectFeature;
+import app.util.CacheCleanup;
 import app.util.DbCleanup;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
@@ -39,9 +40,13 @@ class JurisdictionServiceProjectFeatureTest {
     @Inject
     DbCleanup dbCleanup;
 
+    @Inject
+    CacheCleanup cacheCleanup;
+
     @AfterEach
     void cleanup() {
         dbCleanup.cleanupAll();
+        cacheCleanup.clearAll();
     }
 
     @Test
@@ -0,0 +1,84 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.project;
+
+import app.model.project.Project;
+import app.service.geometry.LibreGeometryFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveProjectIndexTest {
+
+    private static final LibreGeometryFactory GEOMETRY_FACTORY = new LibreGeometryFactory();
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final ProjectIndexVersion VERSION = new ProjectIndexVersion(2, NOW);
+
+    @Test
+    void findsActiveProjectContainingLocation() {
+        Project active = project(1L, NOW.minus(1, ChronoUnit.DAYS), NOW.plus(1, ChronoUnit.DAYS));
+        ActiveProjectIndex index = ActiveProjectIndex.build(List.of(active), VERSION, NOW);
+
+        Optional<Project> found = index.find(GEOMETRY_FACTORY.createPoint("15.0", "15.0"), NOW);
+
+        assertTrue(found.isPresent());
+        assertEquals(1L, found.get().getId());
+        assertTrue(index.find(GEOMETRY_FACTORY.createPoint("50.0", "50.0"), NOW).isEmpty());
+    }
+
+    @Test
+    void closedWindowIsIgnoredWithoutRebuild() {
+        Project active = project(1L, NOW.minus(1, ChronoUnit.DAYS), NOW.plus(1, ChronoUnit.HOURS));
+        ActiveProjectIndex index = ActiveProjectIndex.build(List.of(active), VERSION, NOW);
+        Instant later = NOW.plus(2, ChronoUnit.HOURS);
+
+        assertTrue(index.isUsable(VERSION, later));
+        assertTrue(index.find(GEOMETRY_FACTORY.createPoint("15.0", "15.0"), later).isEmpty());
+    }
+
+    @Test
+    void indexExpiresWhenUpcomingWindowOpens() {
+        Instant start = NOW.plus(1, ChronoUnit.DAYS);
+        Project upcoming = project(1L, start, start.plus(7, ChronoUnit.DAYS));
+        ActiveProjectIndex index = ActiveProjectIndex.build(List.of(upcoming), VERSION, NOW);
+
+        assertTrue(index.isUsable(VERSION, NOW));
+        assertTrue(index.find(GEOMETRY_FACTORY.createPoint("15.0", "15.0"), NOW).isEmpty());
+        assertFalse(index.isUsable(VERSION, start));
+    }
+
+    @Test
+    void indexIsNotUsableForChangedProjects() {
+        ActiveProjectIndex index = ActiveProjectIndex.build(List.of(), VERSION, NOW);
+
+        assertFalse(index.isUsable(new ProjectIndexVersion(3, NOW), NOW));
+        assertFalse(index.isUsable(VERSION, NOW.minus(1, ChronoUnit.SECONDS)));
+    }
+
+    private static Project project(Long id, Instant startDate, Instant endDate) {
+        Project project = new Project();
+        project.setId(id);
+        project.setName("Project " + id);
+        project.setBoundary(GEOMETRY_FACTORY.createPolygon(new Double[][]{{10.0, 10.0}, {10.0, 20.0}, {20.0, 20.0}, {20.0, 10.0}, {10.0, 10.0}}));
+        project.setStartDate(startDate);
+        project.setEndDate(endDate);
+        return project;
+    }
+}
@@ -0,0 +1,110 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.project;
+
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.project.Project;
+import app.model.project.ProjectRepository;
+import app.service.geometry.LibreGeometryFactory;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Point;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProjectIndexCacheTest {
+
+    private static final String JURISDICTION_ID = "city";
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private final LibreGeometryFactory geometryFactory = new LibreGeometryFactory();
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final AtomicReference<Instant> now = new AtomicReference<>(NOW);
+    private final ProjectService projectService = new ProjectService(projectRepository,
+            mock(JurisdictionRepository.class), geometryFactory, mock(ApplicationEventPublisher.class),
+            Duration.ofMinutes(5), new Clock() {
+                @Override
+                public ZoneId getZone() {
+                    return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(ZoneId zone) {
+                    return this;
+                }
+
+                @Override
+                public Instant instant() {
+                    return now.get();
+                }
+            });
+
+    @Test
+    void submissionsDoNotQueryProjectsUntilTheyChange() {
+        Project project = project(1L);
+        when(projectRepository.findAllByJurisdictionId(JURISDICTION_ID)).thenReturn(List.of(project));
+        Point inside = geometryFactory.createPoint(new Coordinate(15, 15));
+
+        assertEquals(project, projectService.findProjectForLocationAndTime(inside, now.get(), JURISDICTION_ID).orElseThrow());
+        ProjectIndexVersion version = projectService.getProjectsSnapshot(JURISDICTION_ID).version();
+        assertEquals(project, projectService.findProjectForLocationAndTime(inside, now.get(), JURISDICTION_ID).orElseThrow());
+        assertEquals(version, projectService.getProjectsSnapshot(JURISDICTION_ID).version());
+        verify(projectRepository, times(1)).findAllByJurisdictionId(JURISDICTION_ID);
+
+        // a committed local change
+        when(projectRepository.findAllByJurisdictionId(JURISDICTION_ID)).thenReturn(List.of());
+        projectService.onProjectsChanged(new ProjectsChangedEvent(JURISDICTION_ID));
+        assertTrue(projectService.findProjectForLocationAndTime(inside, now.get(), JURISDICTION_ID).isEmpty());
+        assertNotEquals(version, projectService.getProjectsSnapshot(JURISDICTION_ID).version());
+        verify(projectRepository, times(2)).findAllByJurisdictionId(JURISDICTION_ID);
+    }
+
+    @Test
+    void changesFromOtherInstancesAreLoadedAfterTheTtl() {
+        Project project = project(1L);
+        when(projectRepository.findAllByJurisdictionId(JURISDICTION_ID)).thenReturn(List.of());
+        Point inside = geometryFactory.createPoint(new Coordinate(15, 15));
+        assertTrue(projectService.findProjectForLocationAndTime(inside, now.get(), JURISDICTION_ID).isEmpty());
+
+        when(projectRepository.findAllByJurisdictionId(JURISDICTION_ID)).thenReturn(List.of(project));
+        now.set(NOW.plus(Duration.ofMinutes(4)));
+        assertTrue(projectService.findProjectForLocationAndTime(inside, now.get(), JURISDICTION_ID).isEmpty());
+
+        now.set(NOW.plus(Duration.ofMinutes(5)));
+        assertEquals(project, projectService.findProjectForLocationAndTime(inside, now.get(), JURISDICTION_ID).orElseThrow());
+    }
+
+    private Project project(Long id) {
+        Project project = new Project();
+        project.setId(id);
+        project.setName("Project " + id);
+        project.setBoundary(geometryFactory.createPolygon(
+                new Double[][]{{10.0, 10.0}, {10.0, 20.0}, {20.0, 20.0}, {20.0, 10.0}, {10.0, 10.0}}));
+        project.setStartDate(NOW.minus(1, ChronoUnit.DAYS));
+        project.setEndDate(NOW.plus(1, ChronoUnit.DAYS));
+        return project;
+    }
+}
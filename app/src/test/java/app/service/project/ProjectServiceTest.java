@@ -23,6 +23,7 @@ import app.model.jurisdiction.JurisdictionRepository;
 import app.model.project.Project;
 import app.model.project.ProjectRepository;
 import app.service.geometry.LibreGeometryFactory;
+import app.util.CacheCleanup;
 import app.util.DbCleanup;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
@@ -52,6 +53,9 @@ public class ProjectServiceTest {
     @Inject
     DbCleanup dbCleanup;
 
+    @Inject
+    CacheCleanup cacheCleanup;
+
     private Jurisdiction jurisdiction;
 
     @BeforeEach
@@ -63,6 +67,7 @@ public class ProjectServiceTest {
     @AfterEach
     void cleanup() {
         dbCleanup.cleanupAll();
+        cacheCleanup.clearAll();
     }
 
     @Test
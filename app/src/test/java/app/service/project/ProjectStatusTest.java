@@ -17,6 +17,7 @@ import app.model.servicerequest.ServiceRequest;
 import app.model.servicerequest.ServiceRequestRepository;
 import app.service.geometry.LibreGeometryFactory;
 import app.service.servicerequest.ServiceRequestService;
+import app.util.CacheCleanup;
 import app.util.DbCleanup;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
@@ -60,6 +61,9 @@ public class ProjectStatusTest {
     @Inject
     DbCleanup dbCleanup;
 
+    @Inject
+    CacheCleanup cacheCleanup;
+
     private Jurisdiction jurisdiction;
     private Service service;
 
@@ -80,6 +84,7 @@ public class ProjectStatusTest {
     @AfterEach
     void cleanup() {
         dbCleanup.cleanupAll();
+        cacheCleanup.clearAll();
     }
 
     private Project createProject(Instant startDate, Instant endDate) {
@@ -0,0 +1,131 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.service.service;
+
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.service.Service;
+import app.model.service.ServiceRepository;
+import app.model.service.group.ServiceGroup;
+import app.model.service.group.ServiceGroupRepository;
+import app.model.servicedefinition.ServiceDefinitionAttribute;
+import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ServiceCatalogCacheTest {
+
+    private static final String JURISDICTION_ID = "city.gov";
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private final JurisdictionRepository jurisdictionRepository = mock(JurisdictionRepository.class);
+    private final ServiceRepository serviceRepository = mock(ServiceRepository.class);
+    private final ServiceGroupRepository serviceGroupRepository = mock(ServiceGroupRepository.class);
+    private final ServiceDefinitionAttributeRepository attributeRepository = mock(ServiceDefinitionAttributeRepository.class);
+
+    private Service sidewalk;
+    private Service pothole;
+
+    @BeforeEach
+    void setup() {
+        Jurisdiction jurisdiction = new Jurisdiction(JURISDICTION_ID, 1L);
+        ServiceGroup group = new ServiceGroup("Streets", jurisdiction);
+        group.setId(1L);
+        sidewalk = service(10L, "Sidewalk", group);
+        pothole = service(11L, "Pothole", group);
+
+        when(jurisdictionRepository.findById(JURISDICTION_ID)).thenReturn(Optional.of(jurisdiction));
+        when(serviceRepository.findAllByJurisdictionIdOrderByOrderPosition(JURISDICTION_ID)).thenReturn(List.of(sidewalk, pothole));
+        when(serviceGroupRepository.findAllByJurisdictionId(JURISDICTION_ID)).thenReturn(List.of(group));
+        when(attributeRepository.findAllByJurisdictionId(JURISDICTION_ID))
+                .thenReturn(List.of(attribute(101L, sidewalk, 2), attribute(100L, sidewalk, 1)));
+    }
+
+    @Test
+    void snapshotIndexesServicesAndAttributes() {
+        ServiceCatalog catalog = cache(Duration.ofMinutes(5)).get(JURISDICTION_ID);
+
+        assertEquals(JURISDICTION_ID, catalog.getJurisdiction().getId());
+        assertEquals(List.of(sidewalk, pothole), catalog.getServices());
+        assertSame(pothole, catalog.findService(11L).orElseThrow());
+        assertTrue(catalog.findService(99L).isEmpty());
+        assertEquals(1, catalog.getGroups().size());
+        assertEquals(List.of(100L, 101L), catalog.getAttributes(10L).stream().map(ServiceDefinitionAttribute::getId).toList());
+        assertTrue(catalog.hasAttributes(10L));
+        assertFalse(catalog.hasAttributes(11L));
+        assertTrue(catalog.getAttributes(11L).isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getServices().clear());
+    }
+
+    @Test
+    void readsAreServedFromSnapshotUntilRefresh() {
+        ServiceCatalogCache cache = cache(Duration.ofMinutes(5));
+
+        ServiceCatalog first = cache.get(JURISDICTION_ID);
+        assertSame(first, cache.get(JURISDICTION_ID));
+        verify(serviceRepository, times(1)).findAllByJurisdictionIdOrderByOrderPosition(JURISDICTION_ID);
+
+        cache.refresh(JURISDICTION_ID);
+        ServiceCatalog refreshed = cache.get(JURISDICTION_ID);
+        assertNotSame(first, refreshed);
+        assertTrue(refreshed.getVersion() > first.getVersion());
+
+        cache.invalidate(JURISDICTION_ID);
+        assertNotSame(refreshed, cache.get(JURISDICTION_ID));
+        verify(serviceRepository, times(3)).findAllByJurisdictionIdOrderByOrderPosition(JURISDICTION_ID);
+    }
+
+    @Test
+    void zeroRefreshIntervalDisablesCaching() {
+        ServiceCatalogCache cache = cache(Duration.ZERO);
+
+        cache.get(JURISDICTION_ID);
+        cache.get(JURISDICTION_ID);
+
+        verify(serviceRepository, times(2)).findAllByJurisdictionIdOrderByOrderPosition(JURISDICTION_ID);
+    }
+
+    private ServiceCatalogCache cache(Duration refreshInterval) {
+        return new ServiceCatalogCache(jurisdictionRepository, serviceRepository, serviceGroupRepository,
+                attributeRepository, refreshInterval, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static Service service(Long id, String name, ServiceGroup group) {
+        Service service = new Service(name);
+        service.setId(id);
+        service.setJurisdiction(group.getJurisdiction());
+        service.setServiceGroup(group);
+        return service;
+    }
+
+    private static ServiceDefinitionAttribute attribute(Long id, Service service, int order) {
+        ServiceDefinitionAttribute attribute = new ServiceDefinitionAttribute();
+        attribute.setId(id);
+        attribute.setService(service);
+        attribute.setAttributeOrder(order);
+        return attribute;
+    }
+}
@@ -0,0 +1,81 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.service.service;
+
+import app.service.service.ServiceCatalogResponseCache.CachedBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceCatalogResponseCacheTest {
+
+    private static final String JURISDICTION_ID = "city.gov";
+
+    private final ServiceCatalogResponseCache cache = new ServiceCatalogResponseCache(new ObjectMapper());
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Test
+    void bodyIsReusedUntilCatalogVersionChanges() {
+        ServiceCatalog catalog = catalog(1);
+
+        CachedBody first = cache.get(JURISDICTION_ID, "services.json", catalog, serializer("Pothole"));
+        assertSame(first, cache.get(JURISDICTION_ID, "services.json", catalog, serializer("Pothole")));
+        assertEquals(1, builds.get());
+
+        CachedBody refreshed = cache.get(JURISDICTION_ID, "services.json", catalog(2), serializer("Sidewalk"));
+        assertNotSame(first, refreshed);
+        assertEquals("{\"service_name\":\"Sidewalk\"}", new String(refreshed.body(), StandardCharsets.UTF_8));
+        assertNotEquals(first.etag(), refreshed.etag());
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void olderSnapshotDoesNotReplaceNewerBody() {
+        CachedBody newer = cache.get(JURISDICTION_ID, "services.json", catalog(2), serializer("Sidewalk"));
+        cache.get(JURISDICTION_ID, "services.json", catalog(1), serializer("Pothole"));
+
+        assertSame(newer, cache.get(JURISDICTION_ID, "services.json", catalog(2), serializer("Sidewalk")));
+    }
+
+    @Test
+    void resourcesAreCachedSeparately() {
+        ServiceCatalog catalog = catalog(1);
+        CachedBody list = cache.get(JURISDICTION_ID, "services.json", catalog, serializer("Pothole"));
+        CachedBody definition = cache.get(JURISDICTION_ID, "services/1.json", catalog, serializer("Pothole"));
+
+        assertEquals(2, builds.get());
+        assertNotSame(list, definition);
+        assertEquals(list.etag(), definition.etag());
+    }
+
+    private ServiceCatalogResponseCache.Serializer serializer(String name) {
+        return objectMapper -> {
+            builds.incrementAndGet();
+            return objectMapper.writeValueAsBytes(Map.of("service_name", name));
+        };
+    }
+
+    private static ServiceCatalog catalog(long version) {
+        return ServiceCatalog.build(version, Instant.EPOCH, null, List.of(), List.of(), List.of());
+    }
+}
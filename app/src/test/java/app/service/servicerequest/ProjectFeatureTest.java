@@ -1,5 +1,6 @@
 package app.service.servicerequest;
 
+import app.dto.servicerequest.PatchServiceRequestDTO;
 import app.dto.servicerequest.PostRequestServiceRequestDTO;
 import app.dto.servicerequest.PostResponseServiceRequestDTO;
 import app.model.jurisdiction.Jurisdiction;
@@ -15,6 +16,7 @@ import app.model.servicerequest.ServiceRequest;
 import app.model.servicerequest.ServiceRequestRepository;
 import app.service.geometry.LibreGeometryFactory;
 import app.service.jurisdiction.JurisdictionBoundaryService;
+import app.util.CacheCleanup;
 import app.util.DbCleanup;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
@@ -59,6 +61,9 @@ public class ProjectFeatureTest {
     @Inject
     DbCleanup dbCleanup;
 
+    @Inject
+    CacheCleanup cacheCleanup;
+
     private Jurisdiction jurisdiction;
     private Service service;
 
@@ -84,6 +89,7 @@ public class ProjectFeatureTest {
     @AfterEach
     void cleanup() {
         dbCleanup.cleanupAll();
+        cacheCleanup.clearAll();
     }
 
     private Project createProject() {
@@ -212,4 +218,55 @@ public class ProjectFeatureTest {
         assertNotNull(savedRequest.get().getProject());
         assertEquals(project.getId(), savedRequest.get().getProject().getId());
     }
+
+    @Test
+    void testProjectRequestCount_FollowsCreateReassignAndDelete() {
+        jurisdiction.setProjectFeature(ProjectFeature.OPTIONAL);
+        jurisdictionRepository.update(jurisdiction);
+        Project project = createProject();
+
+        PostRequestServiceRequestDTO dto = new PostRequestServiceRequestDTO(service.getId());
+        dto.setLatitude("15.0");
+        dto.setLongitude("15.0");
+        dto.setgRecaptchaResponse("dummy");
+        Long serviceRequestId = serviceRequestService.createServiceRequest(HttpRequest.POST("/", ""), dto, jurisdiction.getId()).getId();
+        assertEquals(1, requestCount(project));
+        assertEquals(1, projectRepository.findOpenProjectsByJurisdictionId(jurisdiction.getId()).get(0).getRequestCount());
+
+        PatchServiceRequestDTO patchDTO = new PatchServiceRequestDTO();
+        patchDTO.setProjectId(-1L);
+        serviceRequestService.updateServiceRequest(serviceRequestId, patchDTO, jurisdiction.getId());
+        assertEquals(0, requestCount(project));
+
+        patchDTO.setProjectId(project.getId());
+        serviceRequestService.updateServiceRequest(serviceRequestId, patchDTO, jurisdiction.getId());
+        serviceRequestService.updateServiceRequest(serviceRequestId, patchDTO, jurisdiction.getId());
+        assertEquals(1, requestCount(project));
+
+        serviceRequestService.delete(serviceRequestId, jurisdiction.getId());
+        assertEquals(0, requestCount(project));
+
+        projectRepository.updateRequestCount(project.getId(), 5);
+        assertEquals(1, projectRepository.reconcileRequestCounts());
+        assertEquals(0, requestCount(project));
+    }
+
+    @Test
+    void testProjectRequestCount_LeavesDateUpdatedAlone() throws InterruptedException {
+        Project project = createProject();
+        Instant dateUpdated = projectRepository.findById(project.getId()).orElseThrow().getDateUpdated();
+
+        // date_updated has second precision
+        Thread.sleep(1100);
+        projectRepository.updateRequestCount(project.getId(), 3);
+        assertEquals(dateUpdated, projectRepository.findById(project.getId()).orElseThrow().getDateUpdated());
+        projectRepository.reconcileRequestCounts();
+        Project reconciled = projectRepository.findById(project.getId()).orElseThrow();
+        assertEquals(0, reconciled.getRequestCount());
+        assertEquals(dateUpdated, reconciled.getDateUpdated());
+    }
+
+    private int requestCount(Project project) {
+        return projectRepository.findById(project.getId()).orElseThrow().getRequestCount();
+    }
 }
@@ -0,0 +1,132 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package app.service.servicerequest;
+
+import app.dto.servicedefinition.AttributeValueDTO;
+import app.dto.servicedefinition.ServiceDefinitionAttributeDTO;
+import app.model.service.AttributeDataType;
+import app.model.servicedefinition.AttributeValue;
+import app.model.servicedefinition.ServiceDefinitionAttribute;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceDefinitionValidatorTest {
+
+    private final ServiceDefinitionAttribute size = attribute(1L, AttributeDataType.SINGLEVALUELIST, true,
+            value(10L, "Small"), value(11L, "Large"));
+    private final ServiceDefinitionAttribute hazards = attribute(2L, AttributeDataType.MULTIVALUELIST, false,
+            value(20L, "Glass"), value(21L, "Oil"));
+    private final ServiceDefinitionAttribute count = attribute(3L, AttributeDataType.NUMBER, false);
+    private final ServiceDefinitionAttribute seenAt = attribute(4L, AttributeDataType.DATETIME, false);
+    private final ServiceDefinitionValidator validator = ServiceDefinitionValidator.compile(List.of(size, hazards, count, seenAt));
+
+    @Test
+    void namesListValuesFromDefinition() {
+        ServiceDefinitionValidator.Result result = validator.validate(Map.of(
+                "attribute[1]", "11",
+                "attribute[2]", "20,21",
+                "attribute[3]", "-42",
+                "attribute[99]", "ignored",
+                "other", "ignored"), List.of());
+
+        assertTrue(result.hasAllRequired());
+        assertFalse(result.staleFallbackUsed());
+        assertEquals(3, result.attributes().size());
+        assertEquals(List.of("Large"), names(result, 1L));
+        assertEquals(List.of("Glass", "Oil"), names(result, 2L));
+        assertEquals(List.of("-42"), names(result, 3L));
+    }
+
+    @Test
+    void missingRequiredAttributeIsReported() {
+        assertFalse(validator.validate(Map.of("attribute[2]", "20"), List.of()).hasAllRequired());
+        assertFalse(validator.validate(Map.of("attribute[1]", "  "), List.of()).hasAllRequired());
+        assertFalse(validator.validate(null, List.of()).hasAllRequired());
+    }
+
+    @Test
+    void unknownValueKeysFallBackToSnapshot() {
+        ServiceDefinitionAttributeDTO snapshotAttribute = new ServiceDefinitionAttributeDTO();
+        snapshotAttribute.setId(1L);
+        snapshotAttribute.setValues(List.of(new AttributeValueDTO("12", "Medium")));
+
+        ServiceDefinitionValidator.Result result = validator.validate(Map.of("attribute[1]", "12"), List.of(snapshotAttribute));
+
+        assertTrue(result.staleFallbackUsed());
+        assertEquals(List.of("Medium"), names(result, 1L));
+    }
+
+    @Test
+    void rejectsValuesOfTheWrongType() {
+        assertThrows(RuntimeException.class, () -> validator.validate(Map.of("attribute[3]", "NotANumber"), List.of()));
+        assertThrows(RuntimeException.class, () -> validator.validate(Map.of("attribute[3]", "2147483648"), List.of()));
+        assertThrows(RuntimeException.class, () -> validator.validate(Map.of("attribute[4]", "0015/04/14Z"), List.of()));
+        assertThrows(RuntimeException.class, () -> validator.validate(Map.of("attribute[4]", "2024-13-01T00:00:00Z"), List.of()));
+        assertThrows(ServiceRequestService.InvalidServiceRequestException.class,
+                () -> validator.validate(Map.of("attribute[x]", "1"), List.of()));
+
+        Map<String, String> valid = new LinkedHashMap<>();
+        valid.put("attribute[1]", "10");
+        valid.put("attribute[3]", "2147483647");
+        valid.put("attribute[4]", "2024-06-01T12:00:00Z");
+        assertEquals(3, validator.validate(valid, List.of()).attributes().size());
+    }
+
+    @Test
+    void tracksTheListItWasCompiledFrom() {
+        List<ServiceDefinitionAttribute> attributes = List.of(size);
+        ServiceDefinitionValidator compiled = ServiceDefinitionValidator.compile(attributes);
+
+        assertTrue(compiled.isCompiledFrom(attributes));
+        assertFalse(compiled.isCompiledFrom(List.of(size)));
+    }
+
+    private static List<String> names(ServiceDefinitionValidator.Result result, Long code) {
+        return result.attributes().stream()
+                .filter(attribute -> attribute.getId().equals(code))
+                .findFirst()
+                .orElseThrow()
+                .getValues().stream()
+                .map(AttributeValueDTO::getName)
+                .toList();
+    }
+
+    private static ServiceDefinitionAttribute attribute(Long id, AttributeDataType datatype, boolean required,
+                                                        AttributeValue... values) {
+        ServiceDefinitionAttribute attribute = new ServiceDefinitionAttribute();
+        attribute.setId(id);
+        attribute.setDatatype(datatype);
+        attribute.setRequired(required);
+        attribute.setAttributeOrder(id.intValue());
+        Set<AttributeValue> attributeValues = new LinkedHashSet<>(List.of(values));
+        attribute.setAttributeValues(attributeValues);
+        return attribute;
+    }
+
+    private static AttributeValue value(Long id, String name) {
+        AttributeValue value = new AttributeValue();
+        value.setId(id);
+        value.setValueName(name);
+        return value;
+    }
+}
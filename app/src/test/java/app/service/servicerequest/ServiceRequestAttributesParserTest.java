@@ -0,0 +1,80 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.servicedefinition.ServiceDefinitionAttributeDTO;
+import app.model.servicerequest.ServiceRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceRequestAttributesParserTest {
+
+    private static final String ATTRIBUTES_JSON = "[{\"code\":1,\"datatype\":\"STRING\",\"values\":[{\"key\":\"1\",\"name\":\"a\"}]}]";
+
+    @Test
+    void unchangedRequestIsServedFromCache() {
+        ServiceRequestAttributesParser parser = new ServiceRequestAttributesParser(10);
+        ServiceRequest serviceRequest = serviceRequest(1L, Instant.parse("2024-01-01T00:00:00Z"), ATTRIBUTES_JSON);
+
+        List<ServiceDefinitionAttributeDTO> first = parser.getAttributes(serviceRequest);
+        List<ServiceDefinitionAttributeDTO> second = parser.getAttributes(serviceRequest);
+
+        assertSame(first, second);
+        assertEquals(1L, first.get(0).getId());
+    }
+
+    @Test
+    void changedAttributesAreReparsed() {
+        ServiceRequestAttributesParser parser = new ServiceRequestAttributesParser(10);
+        Instant dateUpdated = Instant.parse("2024-01-01T00:00:00Z");
+        List<ServiceDefinitionAttributeDTO> first = parser.getAttributes(serviceRequest(1L, dateUpdated, ATTRIBUTES_JSON));
+
+        String changedJson = ATTRIBUTES_JSON.replace("\"code\":1", "\"code\":2");
+        List<ServiceDefinitionAttributeDTO> second = parser.getAttributes(serviceRequest(1L, dateUpdated, changedJson));
+
+        assertNotSame(first, second);
+        assertEquals(2L, second.get(0).getId());
+    }
+
+    @Test
+    void cacheIsBounded() {
+        ServiceRequestAttributesParser parser = new ServiceRequestAttributesParser(2);
+        Instant dateUpdated = Instant.parse("2024-01-01T00:00:00Z");
+        for (long id = 1; id <= 5; id++) {
+            parser.getAttributes(serviceRequest(id, dateUpdated, ATTRIBUTES_JSON));
+        }
+
+        assertEquals(2, parser.size());
+    }
+
+    @Test
+    void requestWithoutAttributesReturnsNull() {
+        ServiceRequestAttributesParser parser = new ServiceRequestAttributesParser(10);
+
+        assertNull(parser.getAttributes(serviceRequest(1L, Instant.now(), null)));
+    }
+
+    private static ServiceRequest serviceRequest(Long id, Instant dateUpdated, String attributesJson) {
+        ServiceRequest serviceRequest = new ServiceRequest();
+        serviceRequest.setId(id);
+        serviceRequest.setDateUpdated(dateUpdated);
+        serviceRequest.setAttributesJson(attributesJson);
+        return serviceRequest;
+    }
+}
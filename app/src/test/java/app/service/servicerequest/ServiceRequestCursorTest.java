@@ -0,0 +1,41 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.exception.Libre311BaseException;
+import io.micronaut.http.HttpStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceRequestCursorTest {
+
+    @Test
+    void encodedCursorRoundTrips() {
+        ServiceRequestCursor cursor = new ServiceRequestCursor(Instant.parse("2024-03-05T10:15:30.123456Z"), 42L);
+
+        assertEquals(cursor, ServiceRequestCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        Libre311BaseException exception = assertThrows(Libre311BaseException.class,
+                () -> ServiceRequestCursor.decode("not-a-cursor"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+}
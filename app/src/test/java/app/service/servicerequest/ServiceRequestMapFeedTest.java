@@ -0,0 +1,248 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.servicerequest;
+
+import app.dto.servicerequest.NearbyServiceRequestDTO;
+import app.dto.servicerequest.ServiceRequestClusterDTO;
+import app.dto.servicerequest.ServiceRequestMapFeedDTO;
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.service.ServiceRepository;
+import app.model.service.group.ServiceGroupRepository;
+import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
+import app.model.servicerequest.ServiceRequestMarker;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.service.geometry.BoundingBox;
+import app.service.service.ServiceCatalogCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ServiceRequestMapFeedTest {
+
+    private static final String JURISDICTION_ID = "city.gov";
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    private final ServiceRequestRepository serviceRequestRepository = mock(ServiceRequestRepository.class);
+    private final JurisdictionRepository jurisdictionRepository = mock(JurisdictionRepository.class);
+    private final ServiceCatalogCache serviceCatalogCache = new ServiceCatalogCache(jurisdictionRepository,
+            mock(ServiceRepository.class), mock(ServiceGroupRepository.class),
+            mock(ServiceDefinitionAttributeRepository.class), Duration.ofMinutes(5));
+
+    @BeforeEach
+    void setup() {
+        // closed requests stay visible for 7 days by default
+        when(jurisdictionRepository.findById(JURISDICTION_ID)).thenReturn(Optional.of(new Jurisdiction(JURISDICTION_ID, 1L)));
+        when(serviceRequestRepository.findMarkersByJurisdictionId(eq(JURISDICTION_ID), eq(ServiceRequestStatus.CLOSED), any()))
+                .thenReturn(List.of(marker(1L, ServiceRequestStatus.OPEN, NOW.minus(1, ChronoUnit.DAYS)),
+                        marker(2L, ServiceRequestStatus.CLOSED, NOW.minus(2, ChronoUnit.DAYS))));
+    }
+
+    @Test
+    void deltasContainOnlyChangesSinceCursor() {
+        ServiceRequestMapFeed mapFeed = mapFeed(Duration.ofMinutes(5));
+
+        ServiceRequestMapFeedDTO full = mapFeed.get(JURISDICTION_ID, null);
+        assertTrue(full.isFull());
+        assertArrayEquals(new long[]{1L, 2L}, sorted(full.getIds()));
+        int first = full.getIds()[0] == 1L ? 0 : 1;
+        assertEquals(40.5, full.getLat()[first]);
+        assertEquals(-90.25, full.getLng()[first]);
+        assertEquals("open", full.getStatus()[first]);
+        assertEquals(10L, full.getServiceCode()[first]);
+        assertEquals(NOW.minus(1, ChronoUnit.DAYS).getEpochSecond(), full.getCreated()[first]);
+
+        ServiceRequestMapFeedDTO unchanged = mapFeed.get(JURISDICTION_ID, full.getCursor());
+        assertFalse(unchanged.isFull());
+        assertEquals(0, unchanged.getIds().length);
+        assertEquals(0, unchanged.getRemovedIds().length);
+
+        when(serviceRequestRepository.findMarkersByIdInAndJurisdictionId(anyCollection(), eq(JURISDICTION_ID)))
+                .thenReturn(List.of(marker(3L, ServiceRequestStatus.OPEN, NOW)));
+        mapFeed.reload(JURISDICTION_ID, List.of(3L));
+        mapFeed.remove(JURISDICTION_ID, 2L);
+
+        ServiceRequestMapFeedDTO delta = mapFeed.get(JURISDICTION_ID, full.getCursor());
+        assertFalse(delta.isFull());
+        assertArrayEquals(new long[]{3L}, delta.getIds());
+        assertArrayEquals(new long[]{2L}, delta.getRemovedIds());
+        assertArrayEquals(new long[]{1L, 3L}, sorted(mapFeed.get(JURISDICTION_ID, null).getIds()));
+        verify(serviceRequestRepository, times(1)).findMarkersByJurisdictionId(any(), any(), any());
+    }
+
+    @Test
+    void closingAnOldRequestRemovesItsMarker() {
+        ServiceRequestMapFeed mapFeed = mapFeed(Duration.ofMinutes(5));
+        String cursor = mapFeed.get(JURISDICTION_ID, null).getCursor();
+
+        when(serviceRequestRepository.findMarkersByIdInAndJurisdictionId(anyCollection(), eq(JURISDICTION_ID)))
+                .thenReturn(List.of(marker(1L, ServiceRequestStatus.CLOSED, NOW.minus(30, ChronoUnit.DAYS))));
+        mapFeed.reload(JURISDICTION_ID, List.of(1L));
+
+        ServiceRequestMapFeedDTO delta = mapFeed.get(JURISDICTION_ID, cursor);
+        assertEquals(0, delta.getIds().length);
+        assertArrayEquals(new long[]{1L}, delta.getRemovedIds());
+        assertArrayEquals(new long[]{2L}, mapFeed.get(JURISDICTION_ID, null).getIds());
+    }
+
+    @Test
+    void unknownOrOutdatedCursorGetsFullFeed() {
+        ServiceRequestMapFeed mapFeed = mapFeed(Duration.ofMinutes(5));
+        String cursor = mapFeed.get(JURISDICTION_ID, null).getCursor();
+
+        assertTrue(mapFeed.get(JURISDICTION_ID, "unknown.1").isFull());
+        assertTrue(mapFeed.get(JURISDICTION_ID, cursor + "5").isFull());
+        assertTrue(mapFeed(Duration.ofMinutes(5)).get(JURISDICTION_ID, cursor).isFull());
+    }
+
+    @Test
+    void clustersCountVisibleMarkersPerCellInsideBoundingBox() {
+        ServiceRequestMapFeed mapFeed = mapFeed(Duration.ofMinutes(5));
+        when(serviceRequestRepository.findMarkersByIdInAndJurisdictionId(anyCollection(), eq(JURISDICTION_ID)))
+                .thenReturn(List.of(
+                        new ServiceRequestMarker(3L, GEOMETRY_FACTORY.createPoint(new Coordinate(-90.2501, 40.5001)),
+                                ServiceRequestStatus.IN_PROGRESS, 11L, NOW),
+                        new ServiceRequestMarker(4L, GEOMETRY_FACTORY.createPoint(new Coordinate(-90.1, 40.6)),
+                                ServiceRequestStatus.OPEN, 10L, NOW),
+                        marker(5L, ServiceRequestStatus.CLOSED, NOW.minus(30, ChronoUnit.DAYS))));
+        mapFeed.get(JURISDICTION_ID, null);
+        mapFeed.reload(JURISDICTION_ID, List.of(3L, 4L, 5L));
+
+        List<ServiceRequestClusterDTO> clusters = mapFeed.getClusters(JURISDICTION_ID, "-91,40,-90.2,41", 10, true);
+        assertEquals(1, clusters.size());
+        ServiceRequestClusterDTO cluster = clusters.get(0);
+        assertEquals(3, cluster.getCount());
+        assertEquals(Map.of("open", 1, "closed", 1, "in_progress", 1), cluster.getStatusCounts());
+        assertEquals(Map.of(10L, 2, 11L, 1), cluster.getServiceCounts());
+        assertEquals(40.5, cluster.getLat(), 0.001);
+
+        assertEquals(2, mapFeed.getClusters(JURISDICTION_ID, "-91,40,-90,41", 10, false).size());
+        List<ServiceRequestClusterDTO> zoomedOut = mapFeed.getClusters(JURISDICTION_ID, "-91,40,-90,41", 5, false);
+        assertEquals(1, zoomedOut.size());
+        assertEquals(4, zoomedOut.get(0).getCount());
+        assertNull(zoomedOut.get(0).getServiceCounts());
+
+        mapFeed.remove(JURISDICTION_ID, 4L);
+        assertEquals(3, mapFeed.getClusters(JURISDICTION_ID, "-91,40,-90,41", 5, false).get(0).getCount());
+        assertTrue(mapFeed.getClusters(JURISDICTION_ID, "0,0,1,1", 10, false).isEmpty());
+    }
+
+    @Test
+    void invalidClusterAreaIsRejected() {
+        ServiceRequestMapFeed mapFeed = mapFeed(Duration.ofMinutes(5));
+
+        assertThrows(BoundingBox.InvalidBoundingBoxException.class,
+                () -> mapFeed.getClusters(JURISDICTION_ID, "-91,40,-90", 10, false));
+        assertThrows(BoundingBox.InvalidBoundingBoxException.class,
+                () -> mapFeed.getClusters(JURISDICTION_ID, "-90,40,-91,41", 10, false));
+        assertThrows(ServiceRequestMapFeed.InvalidMapAreaException.class,
+                () -> mapFeed.getClusters(JURISDICTION_ID, "-91,40,-90,41", 30, false));
+    }
+
+    @Test
+    void nearbyFindsOpenRequestsOfTheSameServiceWithinRadius() {
+        ServiceRequestMapFeed mapFeed = mapFeed(Duration.ofMinutes(5));
+        assertTrue(mapFeed.findPossibleDuplicates(JURISDICTION_ID, 10L, point(-90.25, 40.5)).isEmpty());
+        verify(serviceRequestRepository, never()).findMarkersByJurisdictionId(any(), any(), any());
+
+        // 3 is about 25 m east of 1, 5 about 100 m; 4 is at the same spot but of another service
+        when(serviceRequestRepository.findMarkersByIdInAndJurisdictionId(anyCollection(), eq(JURISDICTION_ID)))
+                .thenReturn(List.of(
+                        new ServiceRequestMarker(3L, point(-90.2497, 40.5), ServiceRequestStatus.OPEN, 10L, NOW),
+                        new ServiceRequestMarker(4L, point(-90.25, 40.5), ServiceRequestStatus.OPEN, 11L, NOW),
+                        new ServiceRequestMarker(5L, point(-90.2488, 40.5), ServiceRequestStatus.ASSIGNED, 10L, NOW)));
+        mapFeed.get(JURISDICTION_ID, null);
+        mapFeed.reload(JURISDICTION_ID, List.of(3L, 4L, 5L));
+
+        List<NearbyServiceRequestDTO> nearby = mapFeed.getNearby(JURISDICTION_ID, 10L, 40.5, -90.25, null);
+        assertEquals(List.of(1L, 3L), nearby.stream().map(NearbyServiceRequestDTO::getId).toList());
+        assertEquals(25.4, nearby.get(1).getDistance(), 0.1);
+        assertEquals(List.of(1L, 3L, 5L), mapFeed.getNearby(JURISDICTION_ID, 10L, 40.5, -90.25, 200.0).stream()
+                .map(NearbyServiceRequestDTO::getId).toList());
+        assertEquals(List.of(1L, 3L), mapFeed.findPossibleDuplicates(JURISDICTION_ID, 10L, point(-90.25, 40.5)));
+
+        when(serviceRequestRepository.findMarkersByIdInAndJurisdictionId(anyCollection(), eq(JURISDICTION_ID)))
+                .thenReturn(List.of(marker(1L, ServiceRequestStatus.CLOSED, NOW)));
+        mapFeed.reload(JURISDICTION_ID, List.of(1L));
+        assertEquals(List.of(3L), mapFeed.findPossibleDuplicates(JURISDICTION_ID, 10L, point(-90.25, 40.5)));
+        mapFeed.remove(JURISDICTION_ID, 3L);
+        assertTrue(mapFeed.findPossibleDuplicates(JURISDICTION_ID, 10L, point(-90.25, 40.5)).isEmpty());
+        verify(serviceRequestRepository, times(1)).findMarkersByJurisdictionId(any(), any(), any());
+    }
+
+    @Test
+    void invalidNearbySearchIsRejected() {
+        ServiceRequestMapFeed mapFeed = mapFeed(Duration.ofMinutes(5));
+
+        assertThrows(ServiceRequestMapFeed.InvalidMapAreaException.class,
+                () -> mapFeed.getNearby(JURISDICTION_ID, 10L, 40.5, -90.25, 5000.0));
+        assertThrows(ServiceRequestMapFeed.InvalidMapAreaException.class,
+                () -> mapFeed.getNearby(JURISDICTION_ID, 10L, 40.5, -90.25, 0.0));
+        assertThrows(ServiceRequestMapFeed.InvalidMapAreaException.class,
+                () -> mapFeed.getNearby(JURISDICTION_ID, 10L, 100, -90.25, null));
+    }
+
+    @Test
+    void zeroRefreshIntervalDisablesSnapshot() {
+        ServiceRequestMapFeed mapFeed = mapFeed(Duration.ZERO);
+
+        String cursor = mapFeed.get(JURISDICTION_ID, null).getCursor();
+        assertTrue(mapFeed.get(JURISDICTION_ID, cursor).isFull());
+        mapFeed.remove(JURISDICTION_ID, 1L);
+
+        assertEquals(2, mapFeed.get(JURISDICTION_ID, null).getIds().length);
+        verify(serviceRequestRepository, times(3)).findMarkersByJurisdictionId(any(), any(), any());
+    }
+
+    private ServiceRequestMapFeed mapFeed(Duration refreshInterval) {
+        return new ServiceRequestMapFeed(serviceRequestRepository, serviceCatalogCache, refreshInterval, 50,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static ServiceRequestMarker marker(Long id, ServiceRequestStatus status, Instant dateCreated) {
+        return new ServiceRequestMarker(id, GEOMETRY_FACTORY.createPoint(new Coordinate(-90.25, 40.5)), status, 10L,
+                dateCreated);
+    }
+
+    private static Point point(double lng, double lat) {
+        return GEOMETRY_FACTORY.createPoint(new Coordinate(lng, lat));
+    }
+
+    private static long[] sorted(long[] ids) {
+        long[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -14,7 +14,11 @@
 
 package app.service.servicerequest;
 
+import app.dto.servicerequest.GetServiceRequestsDTO;
 import app.dto.servicerequest.PatchServiceRequestDTO;
+import app.dto.servicerequest.PostRequestServiceRequestRemovalSuggestionDTO;
+import app.dto.servicerequest.ServiceRequestCursorPage;
+import app.dto.servicerequest.ServiceRequestDTO;
 import app.model.jurisdiction.Jurisdiction;
 import app.model.jurisdiction.JurisdictionRepository;
 import app.model.service.Service;
@@ -23,9 +27,15 @@ import app.model.service.group.ServiceGroup;
 import app.model.service.group.ServiceGroupRepository;
 import app.model.servicerequest.ServiceRequest;
 import app.model.servicerequest.ServiceRequestPriority;
+import app.model.servicerequest.ServiceRequestRemovalSuggestion;
+import app.model.servicerequest.ServiceRequestRemovalSuggestionRepository;
 import app.model.servicerequest.ServiceRequestRepository;
 import app.model.servicerequest.ServiceRequestStatus;
+import app.util.CacheCleanup;
 import app.util.DbCleanup;
+import app.util.QueryPlanUtil;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.AfterEach;
@@ -37,6 +47,11 @@ import org.locationtech.jts.io.WKTReader;
 import org.openapitools.jackson.nullable.JsonNullable;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -58,9 +73,18 @@ class ServiceRequestServiceTest {
     @Inject
     ServiceGroupRepository serviceGroupRepository;
 
+    @Inject
+    ServiceRequestRemovalSuggestionRepository removalSuggestionRepository;
+
+    @Inject
+    QueryPlanUtil queryPlanUtil;
+
     @Inject
     DbCleanup dbCleanup;
 
+    @Inject
+    CacheCleanup cacheCleanup;
+
     private Jurisdiction testJurisdiction;
     private Service testServiceDefinition;
     private ServiceGroup testServiceGroup;
@@ -75,6 +99,7 @@ class ServiceRequestServiceTest {
     @AfterEach
     void teardown() {
         dbCleanup.cleanupAll();
+        cacheCleanup.clearAll();
     }
 
     void setupMockData() {
@@ -150,6 +175,66 @@ class ServiceRequestServiceTest {
         assertEquals(0, secondUpdateCount); // Should return 0 because no non-deleted record was found/updated
     }
 
+    @Test
+    void removalSuggestionCount_shouldFollowCreatedAndDeletedSuggestions() throws ParseException {
+        ServiceRequest serviceRequest = createPersistedTestServiceRequest();
+
+        serviceRequestService.createRemovalSuggestion(serviceRequest.getId(), JURISDICTION_ID, removalSuggestion("Duplicate"));
+        serviceRequestService.createRemovalSuggestion(serviceRequest.getId(), JURISDICTION_ID, removalSuggestion("Already fixed"));
+        assertEquals(2, serviceRequestRepository.findById(serviceRequest.getId()).orElseThrow().getRemovalSuggestionCount());
+
+        List<ServiceRequestRemovalSuggestion> suggestions = removalSuggestionRepository
+                .findAllByJurisdictionIdAndServiceRequestId(JURISDICTION_ID, serviceRequest.getId());
+        Long suggestionId = suggestions.get(0).getId();
+        serviceRequestService.deleteRemovalSuggestion(suggestionId, JURISDICTION_ID);
+        assertThrows(ServiceRequestService.InvalidServiceRequestException.class,
+                () -> serviceRequestService.deleteRemovalSuggestion(suggestionId, JURISDICTION_ID));
+        assertEquals(1, serviceRequestRepository.findById(serviceRequest.getId()).orElseThrow().getRemovalSuggestionCount());
+
+        serviceRequestService.delete(serviceRequest.getId(), JURISDICTION_ID);
+        assertEquals(0, serviceRequestRepository.findByIdAndDeleted(serviceRequest.getId(), true).orElseThrow().getRemovalSuggestionCount());
+    }
+
+    @Test
+    void findAll_shouldRejectSortingByRemovalSuggestionCountForThePublic() throws ParseException {
+        createPersistedTestServiceRequest();
+        GetServiceRequestsDTO requestDTO = new GetServiceRequestsDTO();
+        requestDTO.setPageable(Pageable.from(0, 10, Sort.of(Sort.Order.desc("removalSuggestionCount"))));
+
+        assertThrows(ServiceRequestService.InvalidServiceRequestException.class,
+                () -> serviceRequestService.findAll(requestDTO, JURISDICTION_ID, null, null));
+    }
+
+    @Test
+    void findAllByCursor_shouldPageThroughTiesWithoutGapsOrDuplicates() {
+        // pages of 5 end inside each group of requests created in the same second
+        Instant newest = Instant.now().truncatedTo(ChronoUnit.SECONDS).minus(1, ChronoUnit.HOURS);
+        queryPlanUtil.insertServiceRequestsCreatedAt(JURISDICTION_ID, testServiceDefinition.getId(), 7, newest);
+        queryPlanUtil.insertServiceRequestsCreatedAt(JURISDICTION_ID, testServiceDefinition.getId(), 6, newest.minus(1, ChronoUnit.MINUTES));
+        queryPlanUtil.insertServiceRequestsCreatedAt(JURISDICTION_ID, testServiceDefinition.getId(), 1, newest.minus(2, ChronoUnit.MINUTES));
+
+        GetServiceRequestsDTO requestDTO = new GetServiceRequestsDTO();
+        requestDTO.setPagination("cursor");
+        requestDTO.setPageable(Pageable.from(0, 5));
+        List<ServiceRequestDTO> paged = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        ServiceRequestCursorPage page;
+        do {
+            page = serviceRequestService.findAllByCursor(requestDTO, JURISDICTION_ID, null, null);
+            paged.addAll(page.content());
+            pageSizes.add(page.content().size());
+            requestDTO.setCursor(page.nextCursor());
+        } while (page.nextCursor() != null && pageSizes.size() < 10);
+
+        assertNull(page.nextCursor());
+        assertEquals(List.of(5, 5, 4), pageSizes);
+        List<Long> pagedIds = paged.stream().map(ServiceRequestDTO::getId).toList();
+        assertEquals(pagedIds.size(), new HashSet<>(pagedIds).size(), "duplicates in " + pagedIds);
+        assertEquals(new HashSet<>(serviceRequestRepository.findAll().stream().map(ServiceRequest::getId).toList()),
+                new HashSet<>(pagedIds));
+        assertEquals(paged.stream().sorted(Comparator.comparing(ServiceRequestDTO::getDateCreated)
+                .thenComparing(ServiceRequestDTO::getId).reversed()).toList(), paged);
+    }
 
     @Test
     void applyPatch_shouldUpdateStatus() {
@@ -290,6 +375,13 @@ class ServiceRequestServiceTest {
         assertEquals("original@agency.gov", serviceRequest.getAgencyEmail());
     }
 
+    private static PostRequestServiceRequestRemovalSuggestionDTO removalSuggestion(String reason) {
+        PostRequestServiceRequestRemovalSuggestionDTO suggestionDTO = new PostRequestServiceRequestRemovalSuggestionDTO();
+        suggestionDTO.setEmail("resident@example.com");
+        suggestionDTO.setReason(reason);
+        return suggestionDTO;
+    }
+
     private ServiceRequest createTestServiceRequest() {
         ServiceRequest serviceRequest = new ServiceRequest();
         Jurisdiction jurisdiction = new Jurisdiction();
@@ -0,0 +1,84 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.tile;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VectorTileEncoderTest {
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+    @Test
+    void encodesPointFeature() {
+        VectorTileEncoder encoder = new VectorTileEncoder(4096);
+        encoder.addLayer("r").addFeature(1, Map.of("status", "open"),
+                GEOMETRY_FACTORY.createPoint(new Coordinate(25, 17)));
+
+        String expected = "1a27"                      // layer, 39 bytes
+                + "7802"                              // version 2
+                + "0a0172"                            // name "r"
+                + "120d"                              // feature, 13 bytes
+                + "0801"                              //   id 1
+                + "12020000"                          //   tags key 0 = value 0
+                + "1801"                              //   type point
+                + "2203093222"                        //   geometry MoveTo(25, 17)
+                + "1a06737461747573"                  // key "status"
+                + "22060a046f70656e"                  // value "open"
+                + "288020";                           // extent 4096
+        assertEquals(expected, HexFormat.of().formatHex(encoder.encode()));
+    }
+
+    @Test
+    void writesExteriorRingsWithPositiveArea() {
+        VectorTileEncoder encoder = new VectorTileEncoder(4096);
+        // clockwise with y growing upwards, so it has to be reversed
+        encoder.addLayer("p").addFeature(2, Map.of(), GEOMETRY_FACTORY.createPolygon(new Coordinate[]{
+                new Coordinate(0, 0), new Coordinate(0, 10), new Coordinate(10, 10), new Coordinate(10, 0),
+                new Coordinate(0, 0)}));
+
+        // MoveTo(0, 0) LineTo(10, 0) (0, 10) (-10, 0) ClosePath
+        String geometry = "220b" + "090000" + "1a" + "1400" + "0014" + "1300" + "0f";
+        assertTrue(HexFormat.of().formatHex(encoder.encode()).contains(geometry));
+    }
+
+    @Test
+    void continuesTheCursorAcrossMultiPolygonParts() {
+        VectorTileEncoder encoder = new VectorTileEncoder(4096);
+        encoder.addLayer("p").addFeature(3, Map.of(), GEOMETRY_FACTORY.createMultiPolygon(new Polygon[]{
+                square(0), square(20)}));
+
+        // the second part's MoveTo(20, 20) is relative to where the first part ended, (0, 10)
+        String geometry = "2216"
+                + "090000" + "1a" + "1400" + "0014" + "1300" + "0f"
+                + "092814" + "1a" + "1400" + "0014" + "1300" + "0f";
+        assertTrue(HexFormat.of().formatHex(encoder.encode()).contains(geometry));
+    }
+
+    private static Polygon square(int origin) {
+        return GEOMETRY_FACTORY.createPolygon(new Coordinate[]{
+                new Coordinate(origin, origin), new Coordinate(origin, origin + 10),
+                new Coordinate(origin + 10, origin + 10), new Coordinate(origin + 10, origin),
+                new Coordinate(origin, origin)});
+    }
+}
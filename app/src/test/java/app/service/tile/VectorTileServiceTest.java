@@ -0,0 +1,137 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.tile;
+
+import app.model.jurisdiction.Jurisdiction;
+import app.model.jurisdiction.JurisdictionRepository;
+import app.model.project.Project;
+import app.model.service.ServiceRepository;
+import app.model.service.group.ServiceGroupRepository;
+import app.model.servicedefinition.ServiceDefinitionAttributeRepository;
+import app.model.servicerequest.ServiceRequestMarker;
+import app.model.servicerequest.ServiceRequestRepository;
+import app.model.servicerequest.ServiceRequestStatus;
+import app.service.project.ProjectIndexVersion;
+import app.service.project.ProjectService;
+import app.service.service.ServiceCatalogCache;
+import app.service.service.ServiceCatalogResponseCache.CachedBody;
+import app.service.servicerequest.ServiceRequestMapFeed;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VectorTileServiceTest {
+
+    private static final String JURISDICTION_ID = "city.gov";
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+    private static final Instant CREATED = Instant.now().minus(1, ChronoUnit.DAYS);
+
+    private final ServiceRequestRepository serviceRequestRepository = mock(ServiceRequestRepository.class);
+    private final JurisdictionRepository jurisdictionRepository = mock(JurisdictionRepository.class);
+    private final ProjectService projectService = mock(ProjectService.class);
+    private VectorTileService vectorTileService;
+    private ServiceRequestMapFeed mapFeed;
+
+    @BeforeEach
+    void setup() {
+        when(jurisdictionRepository.findById(JURISDICTION_ID)).thenReturn(Optional.of(new Jurisdiction(JURISDICTION_ID, 1L)));
+        when(serviceRequestRepository.findMarkersByJurisdictionId(eq(JURISDICTION_ID), eq(ServiceRequestStatus.CLOSED), any()))
+                .thenReturn(List.of(marker(1L, ServiceRequestStatus.OPEN, -90.25, 40.5),
+                        marker(2L, ServiceRequestStatus.OPEN, -89.0, 41.0)));
+        when(projectService.getProjectsSnapshot(JURISDICTION_ID)).thenReturn(
+                new ProjectService.ProjectsSnapshot(new ProjectIndexVersion(1), List.of(), Instant.now()));
+
+        ServiceCatalogCache serviceCatalogCache = new ServiceCatalogCache(jurisdictionRepository,
+                mock(ServiceRepository.class), mock(ServiceGroupRepository.class),
+                mock(ServiceDefinitionAttributeRepository.class), Duration.ofMinutes(5));
+        mapFeed = new ServiceRequestMapFeed(serviceRequestRepository, serviceCatalogCache, Duration.ofMinutes(5), 50);
+        vectorTileService = new VectorTileService(mapFeed, projectService, 100);
+    }
+
+    @Test
+    void requestChangesEvictOnlyTheTilesAroundThem() {
+        CachedBody changedTile = vectorTileService.getTile(JURISDICTION_ID, 10, 255, 385);
+        CachedBody otherTile = vectorTileService.getTile(JURISDICTION_ID, 10, 258, 383);
+        CachedBody world = vectorTileService.getTile(JURISDICTION_ID, 0, 0, 0);
+        assertSame(changedTile, vectorTileService.getTile(JURISDICTION_ID, 10, 255, 385));
+        assertTrue(contains(changedTile, "service_requests"));
+
+        when(serviceRequestRepository.findMarkersByIdInAndJurisdictionId(anyCollection(), eq(JURISDICTION_ID)))
+                .thenReturn(List.of(marker(1L, ServiceRequestStatus.IN_PROGRESS, -90.25, 40.5)));
+        mapFeed.reload(JURISDICTION_ID, List.of(1L));
+
+        CachedBody rerendered = vectorTileService.getTile(JURISDICTION_ID, 10, 255, 385);
+        assertNotSame(changedTile, rerendered);
+        assertNotEquals(changedTile.etag(), rerendered.etag());
+        assertTrue(contains(rerendered, "in_progress"));
+        assertNotSame(world, vectorTileService.getTile(JURISDICTION_ID, 0, 0, 0));
+        assertSame(otherTile, vectorTileService.getTile(JURISDICTION_ID, 10, 258, 383));
+    }
+
+    @Test
+    void projectChangesMakeTilesStale() {
+        CachedBody tile = vectorTileService.getTile(JURISDICTION_ID, 10, 255, 385);
+        assertFalse(contains(tile, "projects"));
+
+        Project project = new Project();
+        project.setId(7L);
+        project.setName("Main Street Repaving");
+        project.setEndDate(Instant.now().plus(30, ChronoUnit.DAYS));
+        project.setBoundary(GEOMETRY_FACTORY.createPolygon(new Coordinate[]{
+                new Coordinate(-90.3, 40.45), new Coordinate(-90.2, 40.45), new Coordinate(-90.2, 40.55),
+                new Coordinate(-90.3, 40.55), new Coordinate(-90.3, 40.45)}));
+        when(projectService.getProjectsSnapshot(JURISDICTION_ID)).thenReturn(
+                new ProjectService.ProjectsSnapshot(new ProjectIndexVersion(2), List.of(project), Instant.now()));
+
+        CachedBody withProject = vectorTileService.getTile(JURISDICTION_ID, 10, 255, 385);
+        assertTrue(contains(withProject, "projects"));
+        assertTrue(contains(withProject, "Main Street Repaving"));
+        assertFalse(contains(vectorTileService.getTile(JURISDICTION_ID, 10, 258, 383), "projects"));
+    }
+
+    @Test
+    void tilesOutsideTheGridAreRejected() {
+        assertThrows(VectorTileService.InvalidTileException.class,
+                () -> vectorTileService.getTile(JURISDICTION_ID, 23, 0, 0));
+        assertThrows(VectorTileService.InvalidTileException.class,
+                () -> vectorTileService.getTile(JURISDICTION_ID, 2, 4, 0));
+        assertThrows(VectorTileService.InvalidTileException.class,
+                () -> vectorTileService.getTile(JURISDICTION_ID, 2, 0, -1));
+    }
+
+    private static ServiceRequestMarker marker(Long id, ServiceRequestStatus status, double lng, double lat) {
+        Point location = GEOMETRY_FACTORY.createPoint(new Coordinate(lng, lat));
+        return new ServiceRequestMarker(id, location, status, 10L, CREATED);
+    }
+
+    private static boolean contains(CachedBody tile, String text) {
+        return new String(tile.body(), StandardCharsets.ISO_8859_1).contains(text);
+    }
+}
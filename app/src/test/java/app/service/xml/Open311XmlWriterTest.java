@@ -0,0 +1,73 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.service.xml;
+
+import app.dto.servicerequest.PostResponseServiceRequestDTO;
+import app.dto.servicerequest.ServiceRequestDTO;
+import app.dto.servicerequest.ServiceRequestList;
+import app.dto.servicerequest.ServiceRequestResponseDTO;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Open311XmlWriterTest {
+
+    private final Open311XmlWriter xmlWriter = new Open311XmlWriter();
+
+    @Test
+    void streamedServiceRequestsMatchBufferedDocument() throws IOException {
+        ServiceRequestDTO first = new ServiceRequestDTO();
+        first.setId(1L);
+        first.setDescription("curb < sidewalk");
+        first.setAddress("1 Main St & 2nd Ave");
+        ServiceRequestDTO second = new ServiceRequestDTO();
+        second.setId(2L);
+        List<ServiceRequestDTO> serviceRequests = List.of(first, second);
+
+        String streamed = write(serviceRequests);
+
+        assertEquals("curb &lt; sidewalk", first.getDescription());
+        assertEquals(buffered(serviceRequests), streamed);
+        assertTrue(streamed.startsWith("<service_requests><request>"));
+        assertTrue(streamed.contains("curb &amp;lt; sidewalk"));
+    }
+
+    @Test
+    void writesCreatedRequestAndEmptyList() throws IOException {
+        PostResponseServiceRequestDTO created = new PostResponseServiceRequestDTO();
+        created.setId(3L);
+
+        assertEquals(buffered(List.of(created)), write(List.of(created)));
+        assertEquals(buffered(List.of()), write(List.of()));
+    }
+
+    private String write(List<? extends ServiceRequestResponseDTO> serviceRequests) throws IOException {
+        StringWriter out = new StringWriter();
+        xmlWriter.writeServiceRequests(serviceRequests).writeTo(out);
+        return out.toString();
+    }
+
+    private static String buffered(List<? extends ServiceRequestResponseDTO> serviceRequests) throws IOException {
+        XmlMapper xmlMapper = XmlMapper.xmlBuilder().defaultUseWrapper(false).build();
+        xmlMapper.registerModule(new JavaTimeModule());
+        return xmlMapper.writeValueAsString(new ServiceRequestList(serviceRequests));
+    }
+}
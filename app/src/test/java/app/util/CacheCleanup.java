@@ -0,0 +1,58 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.util;
+
+import app.security.PermissionDecisionCache;
+import app.service.jurisdiction.JurisdictionBoundaryService;
+import app.service.jurisdiction.JurisdictionConfigCache;
+import app.service.project.ProjectService;
+import app.service.service.ServiceCatalogCache;
+import app.service.servicerequest.ServiceRequestMapFeed;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Clears the in-memory caches, which tests that write through the repositories or clean the tables bypass.
+ */
+@Singleton
+public class CacheCleanup {
+
+    @Inject
+    public JurisdictionConfigCache jurisdictionConfigCache;
+
+    @Inject
+    public JurisdictionBoundaryService jurisdictionBoundaryService;
+
+    @Inject
+    public ServiceCatalogCache serviceCatalogCache;
+
+    @Inject
+    public ProjectService projectService;
+
+    @Inject
+    public ServiceRequestMapFeed serviceRequestMapFeed;
+
+    @Inject
+    public PermissionDecisionCache permissionDecisionCache;
+
+    public void clearAll() {
+        jurisdictionConfigCache.invalidateAll();
+        jurisdictionBoundaryService.invalidateAll();
+        serviceCatalogCache.invalidateAll();
+        projectService.invalidateAll();
+        serviceRequestMapFeed.invalidateAll();
+        permissionDecisionCache.invalidateAll();
+    }
+}
@@ -25,6 +25,7 @@ import app.model.servicerequest.ServiceRequestRepository;
 import app.model.user.UserRepository;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManager;
 
 import jakarta.transaction.Transactional;
 
@@ -57,6 +58,9 @@ public class DbCleanup {
     @Inject
     public JurisdictionUserRepository jurisdictionUserRepository;
 
+    @Inject
+    public EntityManager entityManager;
+
     @Transactional
     public void cleanupAll(){
         userRepository.deleteAll();
@@ -67,11 +71,18 @@ public class DbCleanup {
         serviceGroupRepository.deleteAll();
         jurisdictionRepository.deleteAll();
         serviceRequestRepository.deleteAll();
+        deleteServiceRequestStats();
     }
 
     @Transactional
     public void cleanupServiceRequests() {
         serviceRequestRepository.deleteAll();
+        deleteServiceRequestStats();
+    }
+
+    // the rollup has no entity, so it is not covered by the repositories above
+    private void deleteServiceRequestStats() {
+        entityManager.createNativeQuery("DELETE FROM service_request_daily_stats").executeUpdate();
     }
 
 }
@@ -0,0 +1,50 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets tests EXPLAIN the SQL Hibernate generates. While {@link #explain} runs on a thread, the statements it sends
+ * are prefixed with {@code EXPLAIN FORMAT=JSON}, so MySQL plans exactly the statement and the parameters Hibernate
+ * binds, and the plan comes back in place of the first selected column.
+ */
+public class ExplainStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<String> EXPLAINED_SQL = new ThreadLocal<>();
+
+    static <T> Explained<T> explain(Supplier<T> query) {
+        EXPLAINED_SQL.set("");
+        try {
+            T result = query.get();
+            return new Explained<>(EXPLAINED_SQL.get(), result);
+        } finally {
+            EXPLAINED_SQL.remove();
+        }
+    }
+
+    record Explained<T>(String sql, T result) {}
+
+    @Override
+    public String inspect(String sql) {
+        if (EXPLAINED_SQL.get() == null) {
+            return sql;
+        }
+        EXPLAINED_SQL.set(sql);
+        return "EXPLAIN FORMAT=JSON " + sql;
+    }
+}
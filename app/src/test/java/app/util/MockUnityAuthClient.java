@@ -19,12 +19,15 @@ import app.dto.auth.GenerateTokenResponse;
 import app.dto.auth.ResetPasswordRequest;
 import app.security.HasPermissionRequest;
 import app.security.HasPermissionResponse;
+import app.security.PermissionsVersionResponse;
 import app.security.UnityAuthClient;
 import app.security.UnityAuthUserPermissionsRequest;
 import app.security.UserPermissionsResponse;
 import io.micronaut.http.HttpResponse;
 import jakarta.inject.Singleton;
 
+import java.util.Map;
+
 @Singleton
 public class MockUnityAuthClient implements UnityAuthClient {
 
@@ -43,6 +46,11 @@ public class MockUnityAuthClient implements UnityAuthClient {
         return userPermissionsResponse;
     }
 
+    @Override
+    public HttpResponse<PermissionsVersionResponse> getPermissionsVersion(Long serviceId, String authorizationHeader) {
+        return HttpResponse.ok(new PermissionsVersionResponse(0, Map.of()));
+    }
+
     @Override
     public HttpResponse<GenerateTokenResponse> generateToken(GenerateTokenRequest request, String internalToken) {
         return HttpResponse.notFound();
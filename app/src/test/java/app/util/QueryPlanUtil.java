@@ -0,0 +1,193 @@
+// Copyright 2023 Libre311 Authors
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package app.util;
+
+import app.model.servicerequest.ServiceRequest;
+import app.model.servicerequest.ServiceRequest_;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
+import jakarta.inject.Singleton;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.transaction.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Singleton
+public class QueryPlanUtil {
+
+    /**
+     * The plan of a statement Hibernate generated, and the statement itself.
+     */
+    public record GeneratedPlan(String sql, List<ExplainRow> rows) {
+        public ExplainRow table(String entityAlias) {
+            return rows.stream()
+                    .filter(row -> row.table() != null && row.table().startsWith(entityAlias))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("no plan of " + entityAlias + " in " + rows));
+        }
+    }
+
+    public record ExplainRow(String table, String type, String key, String extra) {
+        public boolean isFullScan() {
+            return "ALL".equals(type);
+        }
+
+        public boolean usesFilesort() {
+            return extra != null && extra.contains("Using filesort");
+        }
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final EntityManager entityManager;
+
+    public QueryPlanUtil(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Bulk inserts service requests spread over the last {@code count} hours, cycling through the statuses. They lie
+     * on a grid 0.02 degrees wide and 0.1 degrees high starting at 0,0, 50 requests per row.
+     */
+    @Transactional
+    public void insertServiceRequests(String jurisdictionId, Long serviceId, int count) {
+        entityManager.createNativeQuery("""
+                INSERT INTO service_requests (jurisdiction_id, services_id, location, status, deleted, date_created, date_updated)
+                WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < :count)
+                SELECT :jurisdictionId, :serviceId, ST_SRID(POINT((n % 50) * 0.02, (n DIV 50) * 0.1), 4326),
+                       ELT(1 + n % 4, 'OPEN', 'ASSIGNED', 'IN_PROGRESS', 'CLOSED'), false,
+                       NOW() - INTERVAL n HOUR, NOW() - INTERVAL n HOUR
+                FROM seq
+                """)
+                .setParameter("count", count)
+                .setParameter("jurisdictionId", jurisdictionId)
+                .setParameter("serviceId", serviceId)
+                .executeUpdate();
+    }
+
+    /**
+     * Bulk inserts open service requests that were all created at the same instant, e.g. to page through ties.
+     */
+    @Transactional
+    public void insertServiceRequestsCreatedAt(String jurisdictionId, Long serviceId, int count, Instant dateCreated) {
+        entityManager.createNativeQuery("""
+                INSERT INTO service_requests (jurisdiction_id, services_id, location, status, deleted, date_created, date_updated)
+                WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < :count)
+                SELECT :jurisdictionId, :serviceId, ST_SRID(POINT(0, 0), 4326), 'OPEN', false, :dateCreated, :dateCreated
+                FROM seq
+                """)
+                .setParameter("count", count)
+                .setParameter("jurisdictionId", jurisdictionId)
+                .setParameter("serviceId", serviceId)
+                .setParameter("dateCreated", dateCreated)
+                .executeUpdate();
+    }
+
+    /**
+     * Assigns every {@code every}-th request of the jurisdiction, by id, to the project.
+     */
+    @Transactional
+    public void assignProject(String jurisdictionId, Long projectId, int every) {
+        entityManager.createNativeQuery("UPDATE service_requests SET project_id = :projectId "
+                        + "WHERE jurisdiction_id = :jurisdictionId AND id % :every = 0")
+                .setParameter("projectId", projectId)
+                .setParameter("jurisdictionId", jurisdictionId)
+                .setParameter("every", every)
+                .executeUpdate();
+    }
+
+    @Transactional
+    public void analyzeTable(String table) {
+        entityManager.createNativeQuery("ANALYZE TABLE " + table).getResultList();
+    }
+
+    /**
+     * EXPLAINs the statement Hibernate generates for the service requests matching the specification, with the
+     * parameters Hibernate binds.
+     *
+     * @param newestFirstLimit when given, the rows are ordered by date_created DESC and limited to as many
+     */
+    @Transactional
+    public GeneratedPlan explain(QuerySpecification<ServiceRequest> specification, @Nullable Integer newestFirstLimit) {
+        return explain(specification, newestFirstLimit, false);
+    }
+
+    /**
+     * Like {@link #explain(QuerySpecification, Integer)} for a keyset page, which is ordered by date_created DESC,
+     * id DESC.
+     */
+    @Transactional
+    public GeneratedPlan explainKeysetPage(QuerySpecification<ServiceRequest> specification, int limit) {
+        return explain(specification, limit, true);
+    }
+
+    private GeneratedPlan explain(QuerySpecification<ServiceRequest> specification, @Nullable Integer newestFirstLimit,
+                                  boolean keysetOrder) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        // a single string column, which Hibernate reads the JSON plan from
+        CriteriaQuery<String> query = criteriaBuilder.createQuery(String.class);
+        Root<ServiceRequest> root = query.from(ServiceRequest.class);
+        query.select(root.get(ServiceRequest_.description))
+                .where(specification.toPredicate(root, query, criteriaBuilder));
+        if (keysetOrder) {
+            query.orderBy(criteriaBuilder.desc(root.get(ServiceRequest_.dateCreated)),
+                    criteriaBuilder.desc(root.get(ServiceRequest_.id)));
+        } else if (newestFirstLimit != null) {
+            query.orderBy(criteriaBuilder.desc(root.get(ServiceRequest_.dateCreated)));
+        }
+
+        ExplainStatementInspector.Explained<String> explained = ExplainStatementInspector.explain(() -> {
+            var typedQuery = entityManager.createQuery(query);
+            if (newestFirstLimit != null) {
+                typedQuery.setMaxResults(newestFirstLimit);
+            }
+            return typedQuery.getSingleResult();
+        });
+
+        try {
+            List<ExplainRow> rows = new ArrayList<>();
+            collectTables(OBJECT_MAPPER.readTree(explained.result()), false, rows);
+            return new GeneratedPlan(explained.sql(), rows);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable plan: " + explained.result(), e);
+        }
+    }
+
+    // JSON plans nest the tables in query blocks, ordering operations and nested loops
+    private static void collectTables(JsonNode node, boolean usingFilesort, List<ExplainRow> rows) {
+        if (node.isArray()) {
+            node.forEach(element -> collectTables(element, usingFilesort, rows));
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+        boolean sorted = usingFilesort || node.path("using_filesort").asBoolean(false);
+        JsonNode table = node.get("table");
+        if (table != null && table.has("table_name")) {
+            rows.add(new ExplainRow(table.get("table_name").asText(), table.path("access_type").asText(null),
+                    table.path("key").asText(null), sorted ? "Using filesort" : null));
+        }
+        node.fields().forEachRemaining(field -> collectTables(field.getValue(), sorted, rows));
+    }
+}
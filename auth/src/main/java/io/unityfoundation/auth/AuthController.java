@@ -12,6 +12,7 @@ import io.unityfoundation.auth.entities.*;
 import io.unityfoundation.auth.entities.Service.ServiceStatus;
 import jakarta.validation.constraints.NotNull;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Secured("USER")
@@ -69,6 +70,27 @@ public class AuthController {
     return new UserPermissionsResponse.Success(permissionsService.getPermissionsFor(user, tenant));
   }
 
+  /**
+   * The user's permissions version together with the permissions a token issued now would claim. Role, tenant and
+   * service changes do not bump the version, so callers compare the claims too. When the service is given and is not
+   * available to the user, no permissions are returned.
+   */
+  @Get("/principal/permissions-version{?serviceId}")
+  public HttpResponse<PermissionsVersionResponse> permissionsVersion(@Nullable @QueryValue Long serviceId,
+                                                                     Authentication authentication) {
+    User user = userRepo.findByEmail(authentication.getName()).orElse(null);
+    if (checkUserStatus(user)) {
+      throw new HttpStatusException(HttpStatus.FORBIDDEN, "The user is disabled.");
+    }
+
+    long version = permissionsService.getPermissionsVersion(user);
+    if (serviceId != null && (checkServiceStatus(serviceRepo.findById(serviceId)) != null
+        || !userRepo.isServiceAvailable(user.getId(), serviceId))) {
+      return HttpResponse.ok(new PermissionsVersionResponse(version, Map.of()));
+    }
+    return HttpResponse.ok(new PermissionsVersionResponse(version, permissionsService.getPermissionClaims(user)));
+  }
+
   @Post("/hasPermission")
   public HttpResponse<HasPermissionResponse> hasPermission(@Body HasPermissionRequest requestDTO,
       Authentication authentication) {
@@ -204,6 +226,9 @@ public class AuthController {
       String name
   ) {}
 
+  @Serdeable
+  public record PermissionsVersionResponse(long version, Map<String, List<String>> permissions) {}
+
   @Serdeable
   public record RoleDTO(
       Long id,
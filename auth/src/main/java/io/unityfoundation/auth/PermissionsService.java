@@ -3,18 +3,31 @@ package io.unityfoundation.auth;
 import io.micronaut.core.annotation.Introspected;
 import io.unityfoundation.auth.entities.Permission;
 import io.unityfoundation.auth.entities.Tenant;
+import io.unityfoundation.auth.entities.TenantRepo;
 import io.unityfoundation.auth.entities.User;
 import io.unityfoundation.auth.entities.UserRepo;
 import jakarta.inject.Singleton;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 @Singleton
 public class PermissionsService {
 
+    public static final String PERMISSIONS_CLAIM = "permissions";
+    public static final String PERMISSIONS_VERSION_CLAIM = "permissions_version";
+    // system-scoped permissions apply to every tenant
+    public static final String SYSTEM_PERMISSIONS_KEY = "*";
+
     private final UserRepo userRepo;
+    private final TenantRepo tenantRepo;
 
     private final BiPredicate<TenantPermission, Tenant> isTenantOrSystemOrSubtenantScopeAndBelongsToTenant = (tp, t) ->
             Permission.PermissionScope.SYSTEM.equals(tp.permissionScope()) || (
@@ -27,8 +40,9 @@ public class PermissionsService {
                     (Permission.PermissionScope.TENANT.equals(tp.permissionScope())
                             || Permission.PermissionScope.SUBTENANT.equals(tp.permissionScope())));
 
-    public PermissionsService(UserRepo userRepo) {
+    public PermissionsService(UserRepo userRepo, TenantRepo tenantRepo) {
         this.userRepo = userRepo;
+        this.tenantRepo = tenantRepo;
     }
 
     public List<String> checkUserPermission(User user, Tenant tenant, List<String> permissions) {
@@ -52,6 +66,32 @@ public class PermissionsService {
                 .toList();
     }
 
+    /**
+     * Permission names per tenant id for the token's {@value #PERMISSIONS_CLAIM} claim, with system-scoped
+     * permissions under {@value #SYSTEM_PERMISSIONS_KEY}. Permissions in tenants that are not enabled are left out.
+     */
+    public Map<String, List<String>> getPermissionClaims(User user) {
+        Set<Long> enabledTenantIds = StreamSupport.stream(tenantRepo.findAll().spliterator(), false)
+                .filter(tenant -> Tenant.TenantStatus.ENABLED.equals(tenant.getStatus()))
+                .map(Tenant::getId)
+                .collect(Collectors.toSet());
+        return userRepo.getTenantPermissionsFor(user.getId()).stream()
+                .filter(isTenantOrSystemOrSubtenantScope)
+                .filter(tp -> Permission.PermissionScope.SYSTEM.equals(tp.permissionScope())
+                        || enabledTenantIds.contains(tp.tenantId()))
+                .collect(Collectors.groupingBy(
+                        tp -> Permission.PermissionScope.SYSTEM.equals(tp.permissionScope())
+                                ? SYSTEM_PERMISSIONS_KEY
+                                : String.valueOf(tp.tenantId()),
+                        TreeMap::new,
+                        Collectors.mapping(TenantPermission::permissionName,
+                                Collectors.collectingAndThen(Collectors.toCollection(TreeSet::new), List::copyOf))));
+    }
+
+    public long getPermissionsVersion(User user) {
+        return userRepo.getPermissionsVersion(user.getId());
+    }
+
     @Introspected
     public record TenantPermission(
             long tenantId,
@@ -2,6 +2,7 @@ package io.unityfoundation.auth;
 
 import static io.micronaut.security.authentication.AuthenticationFailureReason.CREDENTIALS_DO_NOT_MATCH;
 
+import io.micronaut.context.annotation.Value;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpRequest;
@@ -16,6 +17,7 @@ import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -25,11 +27,17 @@ public class UnityAuthenticationProvider implements ReactiveAuthenticationProvid
 
   private final UserRepo userRepo;
   private final PasswordEncoder passwordEncoder;
+  private final PermissionsService permissionsService;
+  private final boolean permissionClaimsEnabled;
 
   public UnityAuthenticationProvider(UserRepo userRepo,
-      PasswordEncoder passwordEncoder) {
+      PasswordEncoder passwordEncoder,
+      PermissionsService permissionsService,
+      @Value("${unity.auth.permission-claims.enabled:false}") boolean permissionClaimsEnabled) {
     this.userRepo = userRepo;
     this.passwordEncoder = passwordEncoder;
+    this.permissionsService = permissionsService;
+    this.permissionClaimsEnabled = permissionClaimsEnabled;
   }
 
 
@@ -67,16 +75,26 @@ public class UnityAuthenticationProvider implements ReactiveAuthenticationProvid
           if (authenticationFailed != null) {
             return Mono.just(AuthenticationResponse.failure(authenticationFailed.getReason().toString()));
           } else {
-            return Mono.just(AuthenticationResponse.success(
+            return Mono.fromCallable(() -> getClaims(user))
+                .map(claims -> AuthenticationResponse.success(
                     (String) authenticationRequest.getIdentity(),
                     List.of("USER"),
-                    Map.of(
-                            "first_name", Objects.toString(user.getFirstName(), ""),
-                            "last_name", Objects.toString(user.getLastName(), "")
-                    )
-            ));
+                    claims
+                ));
           }
         });
   }
-}
 
+  private Map<String, Object> getClaims(User user) {
+    Map<String, Object> claims = new HashMap<>();
+    claims.put("first_name", Objects.toString(user.getFirstName(), ""));
+    claims.put("last_name", Objects.toString(user.getLastName(), ""));
+
+    // lets services authorize against the signed token instead of calling /hasPermission
+    if (permissionClaimsEnabled) {
+      claims.put(PermissionsService.PERMISSIONS_CLAIM, permissionsService.getPermissionClaims(user));
+      claims.put(PermissionsService.PERMISSIONS_VERSION_CLAIM, permissionsService.getPermissionsVersion(user));
+    }
+    return claims;
+  }
+}
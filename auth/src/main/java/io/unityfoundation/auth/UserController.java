@@ -94,6 +94,7 @@ public class UserController {
         }
 
         rolesIntersection.forEach(roleId -> userRepo.insertUserRole(user.getId(), requestTenantId, roleId));
+        userRepo.incrementPermissionsVersion(user.getId());
 
         return HttpResponse.created(new UserResponse(user.getId(),
                 user.getEmail(),
@@ -165,6 +166,8 @@ public class UserController {
     public void applyRolesPatch(List<Long> requestRoles, Long requestTenantId, Long userId) {
         userRepo.deleteRoleByTenantIdAndUserId(requestTenantId, userId);
         requestRoles.forEach(roleId -> userRepo.insertUserRole(userId, requestTenantId, roleId));
+        // tokens issued before this change carry stale permission claims
+        userRepo.incrementPermissionsVersion(userId);
     }
 
     @Patch("{id}")
@@ -92,4 +92,10 @@ select count(*) > 0
 
   @Query("DELETE FROM user_role WHERE tenant_id = :tenantId and user_id = :userId")
   void deleteRoleByTenantIdAndUserId(Long tenantId, Long userId);
+
+  @Query("SELECT permissions_version FROM user WHERE id = :userId")
+  long getPermissionsVersion(Long userId);
+
+  @Query("UPDATE user SET permissions_version = permissions_version + 1 WHERE id = :userId")
+  void incrementPermissionsVersion(Long userId);
 }
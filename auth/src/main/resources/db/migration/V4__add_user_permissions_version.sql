@@ -0,0 +1 @@
+ALTER TABLE user ADD COLUMN permissions_version BIGINT NOT NULL DEFAULT 0;